@@ -0,0 +1,70 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures parsing type specifications into {@link FullyQualifiedJavaType}, and calculating the names used when
+ * the types are rendered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FullyQualifiedJavaTypeBenchmark {
+
+    private final String[] typeSpecifications = {
+        "int", //$NON-NLS-1$
+        "java.lang.String", //$NON-NLS-1$
+        "java.math.BigDecimal", //$NON-NLS-1$
+        "synthetic.model.SyntheticTable0", //$NON-NLS-1$
+        "java.util.List<java.lang.String>", //$NON-NLS-1$
+        "java.util.List<? extends java.lang.Number>", //$NON-NLS-1$
+        "java.util.Map<java.lang.String, java.util.List<synthetic.model.SyntheticTable0>>", //$NON-NLS-1$
+        "synthetic.model.SyntheticTable0Example.Criteria" //$NON-NLS-1$
+    };
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (String typeSpecification : typeSpecifications) {
+            blackhole.consume(new FullyQualifiedJavaType(typeSpecification));
+        }
+    }
+
+    @Benchmark
+    public void parseAndName(Blackhole blackhole) {
+        for (String typeSpecification : typeSpecifications) {
+            FullyQualifiedJavaType type = new FullyQualifiedJavaType(typeSpecification);
+            blackhole.consume(type.getShortName());
+            blackhole.consume(type.getImportList());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.ProgressCallback;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link org.mybatis.generator.internal.db.DatabaseIntrospector} reading every table of a synthetic
+ * schema, one table at a time and in bulk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class IntrospectionBenchmark {
+
+    private static final ProgressCallback PROGRESS_CALLBACK = new ProgressCallback() {};
+
+    @Param({"10", "1000", "10000"})
+    public int tables;
+
+    @Param({"false", "true"})
+    public boolean bulkIntrospection;
+
+    private String url;
+
+    private Context context;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        url = SyntheticSchema.createDatabase("introspection" + tables, tables, 10); //$NON-NLS-1$
+        context = SyntheticSchema.createContext(url, "SYNTHETIC_TABLE_%"); //$NON-NLS-1$
+        context.addProperty(PropertyRegistry.CONTEXT_BULK_INTROSPECTION, Boolean.toString(bulkIntrospection));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        SyntheticSchema.shutdownDatabase(url);
+    }
+
+    @Benchmark
+    public List<IntrospectedTable> introspectTables() throws SQLException, InterruptedException {
+        context.introspectTables(PROGRESS_CALLBACK, new ArrayList<>(), null);
+        return context.getIntrospectedTables();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.generator.internal.util.JavaBeansUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link JavaBeansUtil#getCamelCaseString(String, boolean)} on typical column names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JavaBeansUtilBenchmark {
+
+    private final String[] columnNames = {
+        "ID", //$NON-NLS-1$
+        "customer_id", //$NON-NLS-1$
+        "FIRST_NAME", //$NON-NLS-1$
+        "lastName", //$NON-NLS-1$
+        "order line total", //$NON-NLS-1$
+        "SYNTHETIC_COLUMN_299", //$NON-NLS-1$
+        "$weird-name@2", //$NON-NLS-1$
+        "created_at_timestamp_utc" //$NON-NLS-1$
+    };
+
+    @Benchmark
+    public void propertyNames(Blackhole blackhole) {
+        for (String columnName : columnNames) {
+            blackhole.consume(JavaBeansUtil.getCamelCaseString(columnName, false));
+        }
+    }
+
+    @Benchmark
+    public void classNames(Blackhole blackhole) {
+        for (String columnName : columnNames) {
+            blackhole.consume(JavaBeansUtil.getCamelCaseString(columnName, true));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.config.MergeConstants;
+import org.mybatis.generator.internal.JavaFileMergerJavaParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures merging the freshly generated Java files of a table - record, example and mapper - into existing files
+ * that hold the previously generated members plus a custom method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JavaMergeBenchmark {
+
+    private static final String CUSTOM_METHOD =
+            "    public int customMethod() {\n" //$NON-NLS-1$
+            + "        return 1;\n" //$NON-NLS-1$
+            + "    }\n"; //$NON-NLS-1$
+
+    @Param({"10", "300"})
+    public int columns;
+
+    private final List<String> newFiles = new ArrayList<>();
+
+    private final List<String> existingFiles = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        for (GeneratedJavaFile javaFile : SyntheticSchema.generateTable(columns).javaFiles) {
+            String newFile = javaFile.getFormattedContent();
+            int end = newFile.lastIndexOf('}');
+            newFiles.add(newFile);
+            existingFiles.add(newFile.substring(0, end) + CUSTOM_METHOD + newFile.substring(end));
+        }
+    }
+
+    @Benchmark
+    public int mergeJavaFiles() throws Exception {
+        int length = 0;
+        for (int i = 0; i < newFiles.size(); i++) {
+            length += JavaFileMergerJavaParser.getMergedSource(newFiles.get(i), existingFiles.get(i),
+                    "SyntheticTable0.java", MergeConstants.getOldElementTags()).length(); //$NON-NLS-1$
+        }
+        return length;
+    }
+}
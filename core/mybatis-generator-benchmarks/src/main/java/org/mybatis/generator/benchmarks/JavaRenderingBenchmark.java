@@ -0,0 +1,93 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.JavaFormatter;
+import org.mybatis.generator.api.dom.DefaultJavaFormatter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.api.dom.java.render.TopLevelClassRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures rendering the Java files generated for a synthetic table: the model class and the example class with
+ * {@link TopLevelClassRenderer}, and every Java file with {@link DefaultJavaFormatter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JavaRenderingBenchmark {
+
+    @Param({"10", "300"})
+    public int columns;
+
+    private TopLevelClass modelClass;
+
+    private TopLevelClass exampleClass;
+
+    private SyntheticSchema.GeneratedTable generatedTable;
+
+    private final JavaFormatter javaFormatter = new DefaultJavaFormatter();
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        generatedTable = SyntheticSchema.generateTable(columns);
+        for (GeneratedJavaFile generatedJavaFile : generatedTable.javaFiles) {
+            if (generatedJavaFile.getCompilationUnit() instanceof TopLevelClass) {
+                TopLevelClass topLevelClass = (TopLevelClass) generatedJavaFile.getCompilationUnit();
+                if (topLevelClass.getType().getShortName().endsWith("Example")) { //$NON-NLS-1$
+                    exampleClass = topLevelClass;
+                } else {
+                    modelClass = topLevelClass;
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public String renderModelClass() {
+        return new TopLevelClassRenderer().render(modelClass);
+    }
+
+    @Benchmark
+    public String renderExampleClass() {
+        return new TopLevelClassRenderer().render(exampleClass);
+    }
+
+    @Benchmark
+    public void formatJavaFiles(Blackhole blackhole) {
+        for (GeneratedJavaFile generatedJavaFile : generatedTable.javaFiles) {
+            blackhole.consume(javaFormatter.getFormattedContent(generatedJavaFile.getCompilationUnit()));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.mybatis.generator.api.dom.DefaultXmlFormatter;
+import org.mybatis.generator.config.MergeConstants;
+import org.mybatis.generator.internal.XmlFileMergerJaxp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+/**
+ * Measures the detection of generated elements in a large existing mapper - the generated elements of a table
+ * followed by hundreds of custom statements, each starting with a comment. The marker checks are measured on
+ * their own, next to the stream based checks they replaced, and as part of a complete merge.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MergeMarkerBenchmark {
+
+    private static final String[] OLD_XML_ELEMENT_PREFIXES = {
+            "ibatorgenerated_", "abatorgenerated_" }; //$NON-NLS-1$ //$NON-NLS-2$
+
+    @Param({"100", "1000"})
+    public int customStatements;
+
+    private String newFile;
+
+    private String existingFile;
+
+    private String[] ids;
+
+    private String[] comments;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        newFile = new DefaultXmlFormatter().getFormattedContent(
+                SyntheticSchema.generateTable(10).xmlDocuments.get(0));
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < customStatements; i++) {
+            sb.append("  <select id=\"selectCustom").append(i).append("\" resultType=\"int\">\n"); //$NON-NLS-1$ //$NON-NLS-2$
+            sb.append("    <!-- custom statement ").append(i).append(", reviewed by @dba -->\n"); //$NON-NLS-1$ //$NON-NLS-2$
+            sb.append("    select count(*) from SYNTHETIC_TABLE_0 where ID &gt; ").append(i).append('\n'); //$NON-NLS-1$
+            sb.append("  </select>\n"); //$NON-NLS-1$
+        }
+        int end = newFile.lastIndexOf("</mapper>"); //$NON-NLS-1$
+        existingFile = newFile.substring(0, end) + sb + newFile.substring(end);
+
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setValidating(false);
+        factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false); //$NON-NLS-1$
+        Element root = factory.newDocumentBuilder()
+                .parse(new InputSource(new StringReader(existingFile))).getDocumentElement();
+        List<String> idList = new ArrayList<>();
+        List<String> commentList = new ArrayList<>();
+        for (Node node = root.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node.getNodeType() == Node.ELEMENT_NODE) {
+                idList.add(((Element) node).getAttribute("id")); //$NON-NLS-1$
+                for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+                    if (child.getNodeType() == Node.COMMENT_NODE) {
+                        commentList.add(child.getNodeValue());
+                        break;
+                    }
+                }
+            }
+        }
+        ids = idList.toArray(new String[0]);
+        comments = commentList.toArray(new String[0]);
+    }
+
+    @Benchmark
+    public int detectMarkers() {
+        int generated = 0;
+        for (String id : ids) {
+            if (MergeConstants.idStartsWithPrefix(id)) {
+                generated++;
+            }
+        }
+        for (String comment : comments) {
+            if (MergeConstants.commentContainsTag(comment)) {
+                generated++;
+            }
+        }
+        return generated;
+    }
+
+    @Benchmark
+    public int detectMarkersWithStreams() {
+        int generated = 0;
+        for (String id : ids) {
+            if (Arrays.stream(OLD_XML_ELEMENT_PREFIXES).anyMatch(id::startsWith)) {
+                generated++;
+            }
+        }
+        for (String comment : comments) {
+            if (Arrays.stream(MergeConstants.getOldElementTags()).anyMatch(comment::contains)) {
+                generated++;
+            }
+        }
+        return generated;
+    }
+
+    @Benchmark
+    public String mergeLargeMapper() throws Exception {
+        return XmlFileMergerJaxp.getMergedSource(new InputSource(new StringReader(newFile)),
+                new InputSource(new StringReader(existingFile)), "SyntheticTable0Mapper.xml"); //$NON-NLS-1$
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.config.CommentGeneratorConfiguration;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.JDBCConnectionConfiguration;
+import org.mybatis.generator.config.JavaClientGeneratorConfiguration;
+import org.mybatis.generator.config.JavaModelGeneratorConfiguration;
+import org.mybatis.generator.config.ModelType;
+import org.mybatis.generator.config.PluginConfiguration;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.config.SqlMapGeneratorConfiguration;
+import org.mybatis.generator.config.TableConfiguration;
+
+/**
+ * Creates synthetic schemas in an in-memory HSQLDB database, and configurations that generate code for them.
+ */
+final class SyntheticSchema {
+
+    private static final String[] COLUMN_TYPES = {
+        "varchar(50)", //$NON-NLS-1$
+        "integer", //$NON-NLS-1$
+        "decimal(10, 2)", //$NON-NLS-1$
+        "timestamp", //$NON-NLS-1$
+        "bigint", //$NON-NLS-1$
+        "boolean", //$NON-NLS-1$
+        "date", //$NON-NLS-1$
+        "varchar(2000)" //$NON-NLS-1$
+    };
+
+    private SyntheticSchema() {
+    }
+
+    /**
+     * Creates a database holding tables named SYNTHETIC_TABLE_0, SYNTHETIC_TABLE_1... Each table has an id
+     * primary key followed by columns of assorted types.
+     *
+     * @param name the database name
+     * @param tables the number of tables
+     * @param columns the number of columns in each table, not counting the primary key
+     * @return the JDBC URL of the database
+     * @throws SQLException if the tables cannot be created
+     */
+    static String createDatabase(String name, int tables, int columns) throws SQLException {
+        String url = "jdbc:hsqldb:mem:" + name; //$NON-NLS-1$
+        try (Connection connection = DriverManager.getConnection(url, "sa", ""); //$NON-NLS-1$ //$NON-NLS-2$
+                Statement statement = connection.createStatement()) {
+            for (int i = 0; i < tables; i++) {
+                statement.addBatch(createTableStatement(i, columns));
+            }
+            statement.executeBatch();
+        }
+        return url;
+    }
+
+    private static String createTableStatement(int table, int columns) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("create table SYNTHETIC_TABLE_").append(table); //$NON-NLS-1$
+        sb.append(" (id integer not null primary key"); //$NON-NLS-1$
+        for (int i = 0; i < columns; i++) {
+            sb.append(", synthetic_column_").append(i).append(' '); //$NON-NLS-1$
+            sb.append(COLUMN_TYPES[i % COLUMN_TYPES.length]);
+        }
+        sb.append(')');
+        return sb.toString();
+    }
+
+    static void shutdownDatabase(String url) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", ""); //$NON-NLS-1$ //$NON-NLS-2$
+                Statement statement = connection.createStatement()) {
+            statement.execute("shutdown"); //$NON-NLS-1$
+        }
+    }
+
+    /**
+     * Creates a context that generates a flat model, an XML mapper and a mapper interface for the matching tables.
+     *
+     * @param url the JDBC URL of the database
+     * @param tableName the table name, may contain SQL wildcards
+     * @return the context
+     */
+    static Context createContext(String url, String tableName) {
+        Context context = new Context(ModelType.FLAT);
+        context.setId("synthetic"); //$NON-NLS-1$
+        context.setTargetRuntime("MyBatis3"); //$NON-NLS-1$
+
+        JDBCConnectionConfiguration jdbcConnectionConfiguration = new JDBCConnectionConfiguration();
+        jdbcConnectionConfiguration.setDriverClass("org.hsqldb.jdbcDriver"); //$NON-NLS-1$
+        jdbcConnectionConfiguration.setConnectionURL(url);
+        jdbcConnectionConfiguration.setUserId("sa"); //$NON-NLS-1$
+        jdbcConnectionConfiguration.setPassword(""); //$NON-NLS-1$
+        context.setJdbcConnectionConfiguration(jdbcConnectionConfiguration);
+
+        // the timestamp in generated comments would make iterations differ
+        CommentGeneratorConfiguration commentGeneratorConfiguration = new CommentGeneratorConfiguration();
+        commentGeneratorConfiguration.addProperty(PropertyRegistry.COMMENT_GENERATOR_SUPPRESS_DATE, "true"); //$NON-NLS-1$
+        context.setCommentGeneratorConfiguration(commentGeneratorConfiguration);
+
+        JavaModelGeneratorConfiguration javaModelGeneratorConfiguration = new JavaModelGeneratorConfiguration();
+        javaModelGeneratorConfiguration.setTargetPackage("synthetic.model"); //$NON-NLS-1$
+        javaModelGeneratorConfiguration.setTargetProject("BENCHMARK"); //$NON-NLS-1$
+        context.setJavaModelGeneratorConfiguration(javaModelGeneratorConfiguration);
+
+        SqlMapGeneratorConfiguration sqlMapGeneratorConfiguration = new SqlMapGeneratorConfiguration();
+        sqlMapGeneratorConfiguration.setTargetPackage("synthetic.xml"); //$NON-NLS-1$
+        sqlMapGeneratorConfiguration.setTargetProject("BENCHMARK"); //$NON-NLS-1$
+        context.setSqlMapGeneratorConfiguration(sqlMapGeneratorConfiguration);
+
+        JavaClientGeneratorConfiguration javaClientGeneratorConfiguration = new JavaClientGeneratorConfiguration();
+        javaClientGeneratorConfiguration.setConfigurationType("XMLMAPPER"); //$NON-NLS-1$
+        javaClientGeneratorConfiguration.setTargetPackage("synthetic.mapper"); //$NON-NLS-1$
+        javaClientGeneratorConfiguration.setTargetProject("BENCHMARK"); //$NON-NLS-1$
+        context.setJavaClientGeneratorConfiguration(javaClientGeneratorConfiguration);
+
+        TableConfiguration tc = new TableConfiguration(context);
+        tc.setSchema("PUBLIC"); //$NON-NLS-1$
+        tc.setTableName(tableName);
+        context.addTableConfiguration(tc);
+
+        return context;
+    }
+
+    /**
+     * Generates code for a single synthetic table without writing any files.
+     *
+     * @param columns the number of columns, not counting the primary key
+     * @return the generated files
+     * @throws Exception if generation fails
+     */
+    static GeneratedTable generateTable(int columns) throws Exception {
+        String url = createDatabase("generated" + columns, 1, columns); //$NON-NLS-1$
+        try {
+            Context context = createContext(url, "SYNTHETIC_TABLE_0"); //$NON-NLS-1$
+            PluginConfiguration pluginConfiguration = new PluginConfiguration();
+            pluginConfiguration.setConfigurationType(DocumentCapturingPlugin.class.getName());
+            context.addPluginConfiguration(pluginConfiguration);
+
+            Configuration configuration = new Configuration();
+            configuration.addContext(context);
+
+            List<String> warnings = new ArrayList<>();
+            MyBatisGenerator myBatisGenerator = new MyBatisGenerator(configuration, null, warnings);
+            DocumentCapturingPlugin.DOCUMENTS.clear();
+            myBatisGenerator.generate(null, null, null, false);
+
+            return new GeneratedTable(myBatisGenerator.getGeneratedJavaFiles(),
+                    new ArrayList<>(DocumentCapturingPlugin.DOCUMENTS));
+        } finally {
+            shutdownDatabase(url);
+        }
+    }
+
+    static class GeneratedTable {
+        final List<GeneratedJavaFile> javaFiles;
+        final List<Document> xmlDocuments;
+
+        GeneratedTable(List<GeneratedJavaFile> javaFiles, List<Document> xmlDocuments) {
+            this.javaFiles = javaFiles;
+            this.xmlDocuments = xmlDocuments;
+        }
+    }
+
+    /**
+     * Keeps the XML mapper documents, which are not exposed by the generated XML files.
+     */
+    public static class DocumentCapturingPlugin extends PluginAdapter {
+        static final Queue<Document> DOCUMENTS = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public boolean validate(List<String> warnings) {
+            return true;
+        }
+
+        @Override
+        public boolean sqlMapDocumentGenerated(Document document, IntrospectedTable introspectedTable) {
+            DOCUMENTS.add(document);
+            return true;
+        }
+    }
+}
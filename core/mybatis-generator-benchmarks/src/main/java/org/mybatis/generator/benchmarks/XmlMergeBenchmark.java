@@ -0,0 +1,92 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.generator.api.dom.DefaultXmlFormatter;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.internal.XmlFileMergerJaxp;
+import org.mybatis.generator.internal.XmlFileMergerStreaming;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.InputSource;
+
+/**
+ * Measures merging a freshly generated XML mapper into an existing mapper that holds the previously generated
+ * elements plus a custom element - from the rendered mapper, straight from the generated document, and with the
+ * streaming merger.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class XmlMergeBenchmark {
+
+    private static final String CUSTOM_ELEMENT =
+            "  <select id=\"selectCustom\" resultType=\"java.lang.Integer\">\n" //$NON-NLS-1$
+            + "    select count(*) from SYNTHETIC_TABLE_0\n" //$NON-NLS-1$
+            + "  </select>\n"; //$NON-NLS-1$
+
+    @Param({"10", "300"})
+    public int columns;
+
+    private Document newDocument;
+
+    private String newFile;
+
+    private String existingFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        newDocument = SyntheticSchema.generateTable(columns).xmlDocuments.get(0);
+        newFile = new DefaultXmlFormatter().getFormattedContent(newDocument);
+        int end = newFile.lastIndexOf("</mapper>"); //$NON-NLS-1$
+        existingFile = newFile.substring(0, end) + CUSTOM_ELEMENT + newFile.substring(end);
+    }
+
+    @Benchmark
+    public String mergeXmlFile() throws Exception {
+        return XmlFileMergerJaxp.getMergedSource(new InputSource(new StringReader(newFile)),
+                new InputSource(new StringReader(existingFile)), "SyntheticTable0Mapper.xml"); //$NON-NLS-1$
+    }
+
+    @Benchmark
+    public String mergeXmlDocument() throws Exception {
+        return XmlFileMergerJaxp.getMergedSource(newDocument,
+                new InputSource(new StringReader(existingFile)), "SyntheticTable0Mapper.xml"); //$NON-NLS-1$
+    }
+
+    @Benchmark
+    public String mergeXmlFileStreaming() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        XmlFileMergerStreaming.merge(newFile, new StringReader(existingFile), "SyntheticTable0Mapper.xml", sb); //$NON-NLS-1$
+        return sb.toString();
+    }
+}
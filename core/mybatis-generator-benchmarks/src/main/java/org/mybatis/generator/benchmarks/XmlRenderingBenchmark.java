@@ -0,0 +1,70 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.generator.api.XmlFormatter;
+import org.mybatis.generator.api.dom.DefaultXmlFormatter;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.render.DocumentRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures rendering the XML mapper generated for a synthetic table with {@link DocumentRenderer} and
+ * {@link DefaultXmlFormatter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class XmlRenderingBenchmark {
+
+    @Param({"10", "300"})
+    public int columns;
+
+    private Document document;
+
+    private final XmlFormatter xmlFormatter = new DefaultXmlFormatter();
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        document = SyntheticSchema.generateTable(columns).xmlDocuments.get(0);
+    }
+
+    @Benchmark
+    public String renderDocument() {
+        return new DocumentRenderer().render(document);
+    }
+
+    @Benchmark
+    public String formatDocument() {
+        return xmlFormatter.getFormattedContent(document);
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+
+import org.mybatis.generator.internal.util.ColumnNameIndex;
+
+/**
+ * Holds the columns of an introspected table. The primary key, base and BLOB column lists may be changed through
+ * their getters, as plugins and subclasses of {@link IntrospectedTable} have always been able to. The other column
+ * lists and the column lookup are read many times while code is generated, so they go through an immutable
+ * snapshot. The snapshot holds the columns in a single array - primary key columns, then base columns, then BLOB
+ * columns - so every derived column list is a view of a slice of the array, and indexes the column names. Any change
+ * to one of the three lists, made through the store or directly, discards the snapshot, and it is built again on the
+ * next read.
+ *
+ * <p>Changes must not happen concurrently with reads. Reads from several threads are safe - at worst the same
+ * snapshot is built twice.
+ */
+final class ColumnStore {
+
+    private final ColumnList primaryKeyColumns = new ColumnList();
+
+    private final ColumnList baseColumns = new ColumnList();
+
+    private final ColumnList blobColumns = new ColumnList();
+
+    private volatile Snapshot snapshot;
+
+    void addColumn(IntrospectedColumn introspectedColumn) {
+        if (introspectedColumn.isBLOBColumn()) {
+            blobColumns.add(introspectedColumn);
+        } else {
+            baseColumns.add(introspectedColumn);
+        }
+    }
+
+    void addPrimaryKeyColumn(String columnName) {
+        // first search base columns, then blob columns in the weird event that a blob is the primary key
+        IntrospectedColumn introspectedColumn = baseColumns.removeByName(columnName);
+        if (introspectedColumn == null) {
+            introspectedColumn = blobColumns.removeByName(columnName);
+        }
+
+        if (introspectedColumn != null) {
+            primaryKeyColumns.add(introspectedColumn);
+        }
+    }
+
+    List<IntrospectedColumn> getPrimaryKeyColumns() {
+        return primaryKeyColumns;
+    }
+
+    List<IntrospectedColumn> getBaseColumns() {
+        return baseColumns;
+    }
+
+    List<IntrospectedColumn> getBLOBColumns() {
+        return blobColumns;
+    }
+
+    List<IntrospectedColumn> getAllColumns() {
+        return getSnapshot().allColumns;
+    }
+
+    List<IntrospectedColumn> getNonBLOBColumns() {
+        return getSnapshot().nonBlobColumns;
+    }
+
+    List<IntrospectedColumn> getNonPrimaryKeyColumns() {
+        return getSnapshot().nonPrimaryKeyColumns;
+    }
+
+    int getPrimaryKeyColumnCount() {
+        return primaryKeyColumns.size();
+    }
+
+    int getBaseColumnCount() {
+        return baseColumns.size();
+    }
+
+    int getBLOBColumnCount() {
+        return blobColumns.size();
+    }
+
+    /**
+     * Finds a column by name. Delimited column names must match exactly, other column names match ignoring case. If
+     * several columns match, the first one in the order of {@link #getAllColumns()} is returned.
+     */
+    Optional<IntrospectedColumn> getColumn(String columnName) {
+        return Optional.ofNullable(getSnapshot().columnNames.getFirst(columnName));
+    }
+
+    private Snapshot getSnapshot() {
+        Snapshot s = snapshot;
+        if (s == null || !s.isCurrent(primaryKeyColumns, baseColumns, blobColumns)) {
+            s = new Snapshot(primaryKeyColumns, baseColumns, blobColumns);
+            snapshot = s;
+        }
+        return s;
+    }
+
+    /**
+     * A list of columns that counts every change, including replaced elements, so a snapshot can tell whether it is
+     * current. Every change of an {@link AbstractList} - through iterators and sub lists too - goes through
+     * {@link #set(int, IntrospectedColumn)}, {@link #add(int, IntrospectedColumn)} or {@link #remove(int)}.
+     */
+    private static final class ColumnList extends AbstractList<IntrospectedColumn> implements RandomAccess {
+        private final List<IntrospectedColumn> columns = new ArrayList<>();
+
+        // exact names of the columns, so primary key columns are found without a scan - rebuilt after other changes
+        private final Map<String, IntrospectedColumn> columnsByName = new HashMap<>();
+
+        private int indexedModCount = -1;
+
+        @Override
+        public IntrospectedColumn get(int index) {
+            return columns.get(index);
+        }
+
+        @Override
+        public int size() {
+            return columns.size();
+        }
+
+        @Override
+        public IntrospectedColumn set(int index, IntrospectedColumn element) {
+            modCount++;
+            return columns.set(index, element);
+        }
+
+        @Override
+        public void add(int index, IntrospectedColumn element) {
+            boolean indexed = indexedModCount == modCount;
+            modCount++;
+            columns.add(index, element);
+            if (indexed && index == columns.size() - 1) {
+                columnsByName.putIfAbsent(element.getActualColumnName(), element);
+                indexedModCount = modCount;
+            }
+        }
+
+        @Override
+        public IntrospectedColumn remove(int index) {
+            modCount++;
+            return columns.remove(index);
+        }
+
+        int getModCount() {
+            return modCount;
+        }
+
+        IntrospectedColumn removeByName(String columnName) {
+            if (indexedModCount != modCount) {
+                columnsByName.clear();
+                for (IntrospectedColumn column : columns) {
+                    columnsByName.putIfAbsent(column.getActualColumnName(), column);
+                }
+            }
+
+            IntrospectedColumn introspectedColumn = columnsByName.remove(columnName);
+            if (introspectedColumn != null) {
+                remove(columns.indexOf(introspectedColumn));
+            }
+            indexedModCount = modCount;
+            return introspectedColumn;
+        }
+    }
+
+    private static final class Snapshot {
+        private final IntrospectedColumn[] columns;
+        private final int primaryKeyModCount;
+        private final int baseModCount;
+        private final int blobModCount;
+        private final List<IntrospectedColumn> allColumns;
+        private final List<IntrospectedColumn> nonBlobColumns;
+        private final List<IntrospectedColumn> nonPrimaryKeyColumns;
+        private final ColumnNameIndex<IntrospectedColumn> columnNames;
+
+        Snapshot(ColumnList primaryKeyColumns, ColumnList baseColumns, ColumnList blobColumns) {
+            primaryKeyModCount = primaryKeyColumns.getModCount();
+            baseModCount = baseColumns.getModCount();
+            blobModCount = blobColumns.getModCount();
+
+            int primaryKeyCount = primaryKeyColumns.size();
+            int nonBlobCount = primaryKeyCount + baseColumns.size();
+            columns = new IntrospectedColumn[nonBlobCount + blobColumns.size()];
+            int i = 0;
+            for (IntrospectedColumn column : primaryKeyColumns) {
+                columns[i++] = column;
+            }
+            for (IntrospectedColumn column : baseColumns) {
+                columns[i++] = column;
+            }
+            for (IntrospectedColumn column : blobColumns) {
+                columns[i++] = column;
+            }
+
+            allColumns = Collections.unmodifiableList(Arrays.asList(columns));
+            nonBlobColumns = allColumns.subList(0, nonBlobCount);
+            nonPrimaryKeyColumns = allColumns.subList(primaryKeyCount, columns.length);
+            columnNames = new ColumnNameIndex<>(allColumns, IntrospectedColumn::getActualColumnName,
+                    IntrospectedColumn::isColumnNameDelimited);
+        }
+
+        boolean isCurrent(ColumnList primaryKeyColumns, ColumnList baseColumns, ColumnList blobColumns) {
+            return primaryKeyModCount == primaryKeyColumns.getModCount()
+                    && baseModCount == baseColumns.getModCount()
+                    && blobModCount == blobColumns.getModCount();
+        }
+    }
+}
@@ -15,6 +15,9 @@
  */
 package org.mybatis.generator.api;
 
+import java.io.IOException;
+import java.io.Writer;
+
 /**
  * Abstract class that holds information common to all generated files.
  *
@@ -39,6 +42,18 @@ public abstract class GeneratedFile {
      */
     public abstract String getFormattedContent();
 
+    /**
+     * Writes the entire contents of the generated file to a writer. The content is the same as
+     * {@link #getFormattedContent()} returns, but subclasses stream it so it never needs to be held in
+     * memory in full.
+     *
+     * @param writer the writer
+     * @throws IOException if the content cannot be written
+     */
+    public void formatTo(Writer writer) throws IOException {
+        writer.write(getFormattedContent());
+    }
+
     /**
      * Get the file name (without any path). Clients should use this method to
      * determine how to save the results.
@@ -15,6 +15,9 @@
  */
 package org.mybatis.generator.api;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import org.mybatis.generator.api.dom.java.CompilationUnit;
 
 public class GeneratedJavaFile extends GeneratedFile {
@@ -46,6 +49,16 @@ public class GeneratedJavaFile extends GeneratedFile {
         return javaFormatter.getFormattedContent(compilationUnit);
     }
 
+    @Override
+    public void formatTo(Writer writer) throws IOException {
+        // a subclass may override getFormattedContent, so only this class streams
+        if (getClass() == GeneratedJavaFile.class) {
+            javaFormatter.formatTo(compilationUnit, writer);
+        } else {
+            super.formatTo(writer);
+        }
+    }
+
     @Override
     public String getFileName() {
         return compilationUnit.getType().getShortNameWithoutTypeArguments() + ".java"; //$NON-NLS-1$
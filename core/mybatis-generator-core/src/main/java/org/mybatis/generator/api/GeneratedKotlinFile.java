@@ -15,6 +15,9 @@
  */
 package org.mybatis.generator.api;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import org.mybatis.generator.api.dom.kotlin.KotlinFile;
 
 public class GeneratedKotlinFile extends GeneratedFile {
@@ -40,6 +43,16 @@ public class GeneratedKotlinFile extends GeneratedFile {
         return kotlinFormatter.getFormattedContent(kotlinFile);
     }
 
+    @Override
+    public void formatTo(Writer writer) throws IOException {
+        // a subclass may override getFormattedContent, so only this class streams
+        if (getClass() == GeneratedKotlinFile.class) {
+            kotlinFormatter.formatTo(kotlinFile, writer);
+        } else {
+            super.formatTo(writer);
+        }
+    }
+
     @Override
     public String getFileName() {
         return kotlinFile.getFileName();
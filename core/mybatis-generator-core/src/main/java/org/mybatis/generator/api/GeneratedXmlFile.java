@@ -15,6 +15,10 @@
  */
 package org.mybatis.generator.api;
 
+import java.io.IOException;
+import java.io.Writer;
+
+import org.mybatis.generator.api.dom.DefaultXmlFormatter;
 import org.mybatis.generator.api.dom.xml.Document;
 
 public class GeneratedXmlFile extends GeneratedFile {
@@ -45,6 +49,30 @@ public class GeneratedXmlFile extends GeneratedFile {
         return xmlFormatter.getFormattedContent(document);
     }
 
+    @Override
+    public void formatTo(Writer writer) throws IOException {
+        // a subclass may override getFormattedContent, so only this class streams
+        if (getClass() == GeneratedXmlFile.class) {
+            xmlFormatter.formatTo(document, writer);
+        } else {
+            super.formatTo(writer);
+        }
+    }
+
+    /**
+     * Returns true if the formatted content is the document as rendered by the {@link DefaultXmlFormatter}. The
+     * document may then be used in place of the formatted content, as the XML merger does.
+     *
+     * @return true if the file uses the default XML formatter
+     */
+    public boolean isDefaultFormatted() {
+        return xmlFormatter.getClass() == DefaultXmlFormatter.class;
+    }
+
+    public Document getDocument() {
+        return document;
+    }
+
     @Override
     public String getFileName() {
         return fileName;
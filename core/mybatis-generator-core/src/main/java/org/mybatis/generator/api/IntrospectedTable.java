@@ -22,9 +22,6 @@ import org.mybatis.generator.internal.rules.HierarchicalModelRules;
 import org.mybatis.generator.internal.rules.Rules;
 
 import java.util.*;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static org.mybatis.generator.internal.util.StringUtility.isTrue;
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
@@ -96,11 +93,13 @@ public abstract class IntrospectedTable {
 
     protected Rules rules;
 
-    protected final List<IntrospectedColumn> primaryKeyColumns = new ArrayList<>();
+    private final ColumnStore columns = new ColumnStore();
 
-    protected final List<IntrospectedColumn> baseColumns = new ArrayList<>();
+    protected final List<IntrospectedColumn> primaryKeyColumns = columns.getPrimaryKeyColumns();
 
-    protected final List<IntrospectedColumn> blobColumns = new ArrayList<>();
+    protected final List<IntrospectedColumn> baseColumns = columns.getBaseColumns();
+
+    protected final List<IntrospectedColumn> blobColumns = columns.getBLOBColumns();
 
     protected TargetRuntime targetRuntime;
 
@@ -145,17 +144,14 @@ public abstract class IntrospectedTable {
         return tableConfiguration.getGeneratedKey();
     }
 
+    /**
+     * Finds a column by name. Delimited column names must match exactly, other column names match ignoring case.
+     *
+     * @param columnName the column name
+     * @return the column, if the table has it
+     */
     public Optional<IntrospectedColumn> getColumn(String columnName) {
-        return Stream.of(primaryKeyColumns.stream(), baseColumns.stream(), blobColumns.stream()).flatMap(
-                Function.identity()).filter(ic -> columnMatches(ic, columnName)).findFirst();
-    }
-
-    private boolean columnMatches(IntrospectedColumn introspectedColumn, String columnName) {
-        if (introspectedColumn.isColumnNameDelimited()) {
-            return introspectedColumn.getActualColumnName().equals(columnName);
-        } else {
-            return introspectedColumn.getActualColumnName().equalsIgnoreCase(columnName);
-        }
+        return columns.getColumn(columnName);
     }
 
     /**
@@ -164,8 +160,7 @@ public abstract class IntrospectedTable {
      * @return true if the table contains DATE columns
      */
     public boolean hasJDBCDateColumns() {
-        return Stream.of(primaryKeyColumns.stream(), baseColumns.stream()).flatMap(Function.identity()).anyMatch(
-                IntrospectedColumn::isJDBCDateColumn);
+        return columns.getNonBLOBColumns().stream().anyMatch(IntrospectedColumn::isJDBCDateColumn);
     }
 
     /**
@@ -174,8 +169,7 @@ public abstract class IntrospectedTable {
      * @return true if the table contains TIME columns
      */
     public boolean hasJDBCTimeColumns() {
-        return Stream.of(primaryKeyColumns.stream(), baseColumns.stream()).flatMap(Function.identity()).anyMatch(
-                IntrospectedColumn::isJDBCTimeColumn);
+        return columns.getNonBLOBColumns().stream().anyMatch(IntrospectedColumn::isJDBCTimeColumn);
     }
 
     /**
@@ -189,7 +183,7 @@ public abstract class IntrospectedTable {
     }
 
     public boolean hasPrimaryKeyColumns() {
-        return !primaryKeyColumns.isEmpty();
+        return columns.getPrimaryKeyColumnCount() > 0;
     }
 
     public List<IntrospectedColumn> getBaseColumns() {
@@ -203,8 +197,7 @@ public abstract class IntrospectedTable {
      * @return a List of ColumnDefinition objects for all columns in the table
      */
     public List<IntrospectedColumn> getAllColumns() {
-        return Stream.of(primaryKeyColumns.stream(), baseColumns.stream(), blobColumns.stream()).flatMap(
-                Function.identity()).collect(Collectors.toList());
+        return columns.getAllColumns();
     }
 
     /**
@@ -213,17 +206,15 @@ public abstract class IntrospectedTable {
      * @return a List of ColumnDefinition objects for columns in the table that are non BLOBs
      */
     public List<IntrospectedColumn> getNonBLOBColumns() {
-        return Stream.of(primaryKeyColumns.stream(), baseColumns.stream()).flatMap(Function.identity()).collect(
-                Collectors.toList());
+        return columns.getNonBLOBColumns();
     }
 
     public int getNonBLOBColumnCount() {
-        return primaryKeyColumns.size() + baseColumns.size();
+        return columns.getPrimaryKeyColumnCount() + columns.getBaseColumnCount();
     }
 
     public List<IntrospectedColumn> getNonPrimaryKeyColumns() {
-        return Stream.of(baseColumns.stream(), blobColumns.stream()).flatMap(Function.identity()).collect(
-                Collectors.toList());
+        return columns.getNonPrimaryKeyColumns();
     }
 
     public List<IntrospectedColumn> getBLOBColumns() {
@@ -231,11 +222,11 @@ public abstract class IntrospectedTable {
     }
 
     public boolean hasBLOBColumns() {
-        return !blobColumns.isEmpty();
+        return columns.getBLOBColumnCount() > 0;
     }
 
     public boolean hasBaseColumns() {
-        return !baseColumns.isEmpty();
+        return columns.getBaseColumnCount() > 0;
     }
 
     public Rules getRules() {
@@ -313,41 +304,12 @@ public abstract class IntrospectedTable {
     }
 
     public void addColumn(IntrospectedColumn introspectedColumn) {
-        if (introspectedColumn.isBLOBColumn()) {
-            blobColumns.add(introspectedColumn);
-        } else {
-            baseColumns.add(introspectedColumn);
-        }
-
+        columns.addColumn(introspectedColumn);
         introspectedColumn.setIntrospectedTable(this);
     }
 
     public void addPrimaryKeyColumn(String columnName) {
-        boolean found = false;
-        // first search base columns
-        Iterator<IntrospectedColumn> iter = baseColumns.iterator();
-        while (iter.hasNext()) {
-            IntrospectedColumn introspectedColumn = iter.next();
-            if (introspectedColumn.getActualColumnName().equals(columnName)) {
-                primaryKeyColumns.add(introspectedColumn);
-                iter.remove();
-                found = true;
-                break;
-            }
-        }
-
-        // search blob columns in the weird event that a blob is the primary key
-        if (!found) {
-            iter = blobColumns.iterator();
-            while (iter.hasNext()) {
-                IntrospectedColumn introspectedColumn = iter.next();
-                if (introspectedColumn.getActualColumnName().equals(columnName)) {
-                    primaryKeyColumns.add(introspectedColumn);
-                    iter.remove();
-                    break;
-                }
-            }
-        }
+        columns.addPrimaryKeyColumn(columnName);
     }
 
     public Object getAttribute(String name) {
@@ -15,6 +15,9 @@
  */
 package org.mybatis.generator.api;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import org.mybatis.generator.api.dom.java.CompilationUnit;
 import org.mybatis.generator.config.Context;
 
@@ -34,4 +37,18 @@ public interface JavaFormatter {
     void setContext(Context context);
 
     String getFormattedContent(CompilationUnit compilationUnit);
+
+    /**
+     * Writes the formatted content to a writer. The content must be exactly what
+     * {@link #getFormattedContent(CompilationUnit)} returns. Formatters should override this method to
+     * stream the content, so it never has to be held in memory in full - the default
+     * implementation simply writes the string.
+     *
+     * @param compilationUnit the item to format
+     * @param writer the writer
+     * @throws IOException if the content cannot be written
+     */
+    default void formatTo(CompilationUnit compilationUnit, Writer writer) throws IOException {
+        writer.write(getFormattedContent(compilationUnit));
+    }
 }
@@ -15,6 +15,9 @@
  */
 package org.mybatis.generator.api;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import org.mybatis.generator.api.dom.kotlin.KotlinFile;
 import org.mybatis.generator.config.Context;
 
@@ -34,4 +37,18 @@ public interface KotlinFormatter {
     void setContext(Context context);
 
     String getFormattedContent(KotlinFile kotlinFile);
+
+    /**
+     * Writes the formatted content to a writer. The content must be exactly what
+     * {@link #getFormattedContent(KotlinFile)} returns. Formatters should override this method to
+     * stream the content, so it never has to be held in memory in full - the default
+     * implementation simply writes the string.
+     *
+     * @param kotlinFile the item to format
+     * @param writer the writer
+     * @throws IOException if the content cannot be written
+     */
+    default void formatTo(KotlinFile kotlinFile, Writer writer) throws IOException {
+        writer.write(getFormattedContent(kotlinFile));
+    }
 }
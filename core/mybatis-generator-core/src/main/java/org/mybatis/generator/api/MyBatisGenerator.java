@@ -18,17 +18,23 @@ package org.mybatis.generator.api;
 import static org.mybatis.generator.internal.util.ClassloaderUtility.getCustomClassloader;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.mybatis.generator.api.intellij.IntellijTableInfo;
 import org.mybatis.generator.codegen.RootClassInfo;
 import org.mybatis.generator.config.Configuration;
 import org.mybatis.generator.config.Context;
@@ -36,8 +42,14 @@ import org.mybatis.generator.config.MergeConstants;
 import org.mybatis.generator.exception.InvalidConfigurationException;
 import org.mybatis.generator.exception.ShellException;
 import org.mybatis.generator.internal.DefaultShellCallback;
+import org.mybatis.generator.internal.GenerationManifest;
+import org.mybatis.generator.internal.JavaFileMergerScanner;
 import org.mybatis.generator.internal.ObjectFactory;
+import org.mybatis.generator.internal.SynchronizedProgressCallback;
 import org.mybatis.generator.internal.XmlFileMergerJaxp;
+import org.mybatis.generator.internal.XmlFileMergerStreaming;
+import org.mybatis.generator.internal.util.ConcurrencyUtility;
+import org.mybatis.generator.internal.util.FileUtility;
 
 /**
  * This class is the main interface to MyBatis generator. A typical execution of the tool involves these steps:
@@ -56,6 +68,8 @@ public class MyBatisGenerator {
 
     private static final ProgressCallback NULL_PROGRESS_CALLBACK = new ProgressCallback() {};
 
+    private static final int PIPELINE_CAPACITY = 16;
+
     private final Configuration configuration;
 
     private final ShellCallback shellCallback;
@@ -68,7 +82,29 @@ public class MyBatisGenerator {
 
     private final List<String> warnings;
 
-    private final Set<String> projects = new HashSet<>();
+    private final Set<String> projects = ConcurrentHashMap.newKeySet();
+
+    private boolean parallelContexts;
+
+    private boolean pipelined;
+
+    private int writeThreads = 1;
+
+    private int mergeThreads = 1;
+
+    private boolean streamingXmlMerge;
+
+    private final Map<String, File> directories = new ConcurrentHashMap<>();
+
+    private final Map<File, TargetLock> targetLocks = new ConcurrentHashMap<>();
+
+    private boolean invalidateIntrospectionCache;
+
+    private File incrementalManifest;
+
+    private GenerationManifest generationManifest;
+
+    private List<IntellijTableInfo> intellijTables;
 
     /**
      * Constructs a MyBatisGenerator object.
@@ -218,6 +254,8 @@ public class MyBatisGenerator {
 
         generatedJavaFiles.clear();
         generatedXmlFiles.clear();
+        directories.clear();
+        targetLocks.clear();
         ObjectFactory.reset();
         RootClassInfo.reset();
 
@@ -240,6 +278,27 @@ public class MyBatisGenerator {
             ObjectFactory.addExternalClassLoader(classLoader);
         }
 
+        // when contexts run concurrently, each context still uses its own connection and generates
+        // its own files.  Only the callback and the warnings are shared between the contexts.
+        int contextThreads = parallelContexts ? contextsToRun.size() : 1;
+        ProgressCallback contextCallback;
+        List<String> contextWarnings;
+        if (contextThreads > 1) {
+            contextCallback = new SynchronizedProgressCallback(callback);
+            contextWarnings = Collections.synchronizedList(warnings);
+        } else {
+            contextCallback = callback;
+            contextWarnings = warnings;
+        }
+
+        generationManifest = incrementalManifest == null ? null
+                : GenerationManifest.load(incrementalManifest.toPath(), warnings);
+
+        if (pipelined) {
+            generatePipelined(contextsToRun, contextThreads, callback, fullyQualifiedTableNames, writeFiles);
+            return;
+        }
+
         // now run the introspections...
         int totalSteps = 0;
         for (Context context : contextsToRun) {
@@ -247,21 +306,36 @@ public class MyBatisGenerator {
         }
         callback.introspectionStarted(totalSteps);
 
+        ConcurrencyUtility.map(contextsToRun, contextThreads, context -> {
+            context.setInvalidateIntrospectionCache(invalidateIntrospectionCache);
+            context.setIntellijTables(intellijTables);
+            context.introspectTables(contextCallback, contextWarnings, fullyQualifiedTableNames);
+            return context;
+        });
+
+        // now run the generates
         for (Context context : contextsToRun) {
-            context.introspectTables(callback, warnings,
-                    fullyQualifiedTableNames);
+            context.setGenerationManifest(generationManifest);
         }
 
-        // now run the generates
         totalSteps = 0;
         for (Context context : contextsToRun) {
             totalSteps += context.getGenerationSteps();
         }
         callback.generationStarted(totalSteps);
 
-        for (Context context : contextsToRun) {
-            context.generateFiles(callback, generatedJavaFiles,
-                    generatedXmlFiles, generatedKotlinFiles, warnings);
+        List<ContextFiles> contextFiles = ConcurrencyUtility.map(contextsToRun, contextThreads, context -> {
+            ContextFiles files = new ContextFiles();
+            context.generateFiles(contextCallback, files.javaFiles, files.xmlFiles, files.kotlinFiles,
+                    contextWarnings);
+            return files;
+        });
+
+        // add the files in context order so the results do not depend on which context finished first
+        for (ContextFiles files : contextFiles) {
+            generatedJavaFiles.addAll(files.javaFiles);
+            generatedXmlFiles.addAll(files.xmlFiles);
+            generatedKotlinFiles.addAll(files.kotlinFiles);
         }
 
         // now save the files
@@ -269,161 +343,495 @@ public class MyBatisGenerator {
             callback.saveStarted(generatedXmlFiles.size()
                     + generatedJavaFiles.size());
 
-            for (GeneratedXmlFile gxf : generatedXmlFiles) {
-                projects.add(gxf.getTargetProject());
-                writeGeneratedXmlFile(gxf, callback);
-            }
+            List<GeneratedFile> filesToWrite = new ArrayList<>(generatedXmlFiles);
+            filesToWrite.addAll(generatedJavaFiles);
+            filesToWrite.addAll(generatedKotlinFiles);
+            writeGeneratedFiles(filesToWrite, callback, warnings);
 
-            for (GeneratedJavaFile gjf : generatedJavaFiles) {
-                projects.add(gjf.getTargetProject());
-                writeGeneratedJavaFile(gjf, callback);
-            }
+            finishSave();
+        }
 
-            for (GeneratedKotlinFile gkf : generatedKotlinFiles) {
-                projects.add(gkf.getTargetProject());
-                writeGeneratedKotlinFile(gkf, callback);
-            }
+        callback.done();
+    }
 
-            for (String project : projects) {
-                shellCallback.refreshProject(project);
-            }
+    /**
+     * Runs each context as a pipeline. Introspection, generation, and saving run on separate threads and overlap -
+     * each table is generated as soon as it is introspected, and its files are saved as soon as they are generated.
+     */
+    private void generatePipelined(List<Context> contextsToRun, int contextThreads, ProgressCallback callback,
+            Set<String> fullyQualifiedTableNames, boolean writeFiles)
+            throws SQLException, IOException, InterruptedException {
+        ProgressCallback pipelineCallback = new SynchronizedProgressCallback(callback);
+        List<String> pipelineWarnings = Collections.synchronizedList(warnings);
+
+        // the number of tables and files is not known until the tables are introspected
+        int totalSteps = 0;
+        for (Context context : contextsToRun) {
+            totalSteps += context.getIntrospectionSteps();
+        }
+        pipelineCallback.introspectionStarted(totalSteps);
+        pipelineCallback.generationStarted(0);
+        if (writeFiles) {
+            pipelineCallback.saveStarted(0);
+        }
+
+        List<ContextFiles> contextFiles;
+        try {
+            contextFiles = ConcurrencyUtility.map(contextsToRun, contextThreads, context -> {
+                context.setInvalidateIntrospectionCache(invalidateIntrospectionCache);
+                context.setIntellijTables(intellijTables);
+                context.setGenerationManifest(generationManifest);
+
+                ContextFiles files = new ContextFiles();
+                ConcurrencyUtility.<List<GeneratedFile>, SQLException, RuntimeException>pipeline(PIPELINE_CAPACITY,
+                        tableFiles -> context.introspectAndGenerateFiles(pipelineCallback, pipelineWarnings,
+                                fullyQualifiedTableNames, PIPELINE_CAPACITY, tableFiles),
+                        tableFiles -> {
+                            if (writeFiles) {
+                                // saved files are not kept, so memory use does not grow with the tables
+                                try {
+                                    writeGeneratedFiles(tableFiles, pipelineCallback, pipelineWarnings);
+                                } catch (IOException e) {
+                                    // passed through the pipeline along with the SQL errors of introspection
+                                    throw new UncheckedIOException(e);
+                                }
+                            } else {
+                                tableFiles.forEach(files::add);
+                            }
+                        });
+                return files;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        for (ContextFiles files : contextFiles) {
+            generatedJavaFiles.addAll(files.javaFiles);
+            generatedXmlFiles.addAll(files.xmlFiles);
+            generatedKotlinFiles.addAll(files.kotlinFiles);
+        }
+
+        if (writeFiles) {
+            finishSave();
         }
 
         callback.done();
     }
 
-    private void writeGeneratedJavaFile(GeneratedJavaFile gjf, ProgressCallback callback)
+    /**
+     * Writes generated files. Directories are resolved once per target project and package. Files in different
+     * directories are written concurrently when more than one write thread is configured - files in the same
+     * directory are written in order by one thread. Contexts that run concurrently may still write to the same
+     * directory, so each target file is locked while it is prepared and written, see {@link TargetLock}. Files that
+     * are merged into existing files are merged first, see {@link #mergeExistingFiles(Map)}.
+     */
+    private void writeGeneratedFiles(List<GeneratedFile> files, ProgressCallback callback, List<String> warnings)
             throws InterruptedException, IOException {
-        File targetFile;
-        String source;
-        try {
-            File directory = shellCallback.getDirectory(gjf
-                    .getTargetProject(), gjf.getTargetPackage());
-            targetFile = new File(directory, gjf.getFileName());
-            if (targetFile.exists()) {
-                if (shellCallback.isMergeSupported()) {
-                    source = shellCallback.mergeJavaFile(gjf
-                            .getFormattedContent(), targetFile,
-                            MergeConstants.getOldElementTags(),
-                            gjf.getFileEncoding());
-                } else if (shellCallback.isOverwriteEnabled()) {
-                    source = gjf.getFormattedContent();
-                    warnings.add(getString("Warning.11", //$NON-NLS-1$
-                            targetFile.getAbsolutePath()));
-                } else {
-                    source = gjf.getFormattedContent();
-                    targetFile = getUniqueFileName(directory, gjf
-                            .getFileName());
-                    warnings.add(getString(
-                            "Warning.2", targetFile.getAbsolutePath())); //$NON-NLS-1$
+        Map<File, List<GeneratedFile>> filesByDirectory = new LinkedHashMap<>();
+        for (GeneratedFile generatedFile : files) {
+            projects.add(generatedFile.getTargetProject());
+            try {
+                filesByDirectory.computeIfAbsent(getDirectory(generatedFile), k -> new ArrayList<>())
+                        .add(generatedFile);
+            } catch (ShellException e) {
+                warnings.add(e.getMessage());
+                if (generationManifest != null) {
+                    generationManifest.fileFailed(generatedFile);
                 }
-            } else {
-                source = gjf.getFormattedContent();
             }
+        }
 
-            callback.checkCancel();
-            callback.startTask(getString(
-                    "Progress.15", targetFile.getName())); //$NON-NLS-1$
-            writeFile(targetFile, source, gjf.getFileEncoding());
-        } catch (ShellException e) {
-            warnings.add(e.getMessage());
+        Map<GeneratedFile, PreparedFile> mergedFiles = mergeExistingFiles(filesByDirectory);
+
+        ProgressCallback writeCallback = writeThreads > 1 ? new SynchronizedProgressCallback(callback) : callback;
+        List<List<String>> directoryWarnings = ConcurrencyUtility.map(new ArrayList<>(filesByDirectory.entrySet()),
+                writeThreads, directoryFiles -> {
+                    List<String> answer = new ArrayList<>();
+                    for (GeneratedFile generatedFile : directoryFiles.getValue()) {
+                        PreparedFile preparedFile = mergedFiles.get(generatedFile);
+                        TargetLock targetLock = getTargetLock(directoryFiles.getKey(), generatedFile);
+                        synchronized (targetLock) {
+                            // the file is merged again if another context has written it since the merge
+                            if (preparedFile == null || preparedFile.writes != targetLock.writes) {
+                                preparedFile = new PreparedFile(generatedFile, directoryFiles.getKey());
+                                prepareFile(preparedFile);
+                            }
+                            answer.addAll(preparedFile.warnings);
+                            writePreparedFile(preparedFile, writeCallback);
+                            targetLock.writes++;
+                        }
+                    }
+                    return answer;
+                });
+
+        // warnings are reported in directory order, however the files were scheduled
+        for (List<String> answer : directoryWarnings) {
+            warnings.addAll(answer);
         }
     }
 
-    private void writeGeneratedKotlinFile(GeneratedKotlinFile gkf, ProgressCallback callback)
+    /**
+     * Merges the generated files that will be merged into files already on disk, before the other files are written.
+     * Merges of different files are independent, so they run on the merge threads. Each merge is isolated - a merge
+     * that fails only leaves a warning for its own file. A merged file is written as soon as it is merged, so merged
+     * sources are not held in memory until every file is merged. Files whose generated sections already match the
+     * generated file are not written at all.
+     *
+     * <p>Only the first generated file for each target file is merged here. A later generated file for the same
+     * target is merged into the earlier one's result when it is written.
+     *
+     * @return the merged files, by generated file
+     */
+    private Map<GeneratedFile, PreparedFile> mergeExistingFiles(Map<File, List<GeneratedFile>> filesByDirectory)
             throws InterruptedException, IOException {
-        File targetFile;
-        String source;
-        try {
-            File directory = shellCallback.getDirectory(gkf
-                    .getTargetProject(), gkf.getTargetPackage());
-            targetFile = new File(directory, gkf.getFileName());
-            if (targetFile.exists()) {
-                if (shellCallback.isOverwriteEnabled()) {
-                    source = gkf.getFormattedContent();
-                    warnings.add(getString("Warning.11", //$NON-NLS-1$
-                            targetFile.getAbsolutePath()));
-                } else {
-                    source = gkf.getFormattedContent();
-                    targetFile = getUniqueFileName(directory, gkf
-                            .getFileName());
-                    warnings.add(getString(
-                            "Warning.2", targetFile.getAbsolutePath())); //$NON-NLS-1$
+        List<PreparedFile> merges = new ArrayList<>();
+        Set<File> targetFiles = new HashSet<>();
+        for (Map.Entry<File, List<GeneratedFile>> directoryFiles : filesByDirectory.entrySet()) {
+            for (GeneratedFile generatedFile : directoryFiles.getValue()) {
+                File targetFile = new File(directoryFiles.getKey(), generatedFile.getFileName());
+                if (targetFiles.add(targetFile) && isMerged(generatedFile) && targetFile.exists()) {
+                    merges.add(new PreparedFile(generatedFile, directoryFiles.getKey()));
                 }
-            } else {
-                source = gkf.getFormattedContent();
             }
+        }
+
+        ConcurrencyUtility.map(merges, mergeThreads, preparedFile -> {
+            TargetLock targetLock = getTargetLock(preparedFile.directory, preparedFile.generatedFile);
+            synchronized (targetLock) {
+                prepareFile(preparedFile);
+                if (!preparedFile.failed) {
+                    saveFile(preparedFile);
+                    targetLock.writes++;
+                }
+                preparedFile.writes = targetLock.writes;
+            }
+            return preparedFile;
+        });
 
-            callback.checkCancel();
-            callback.startTask(getString(
-                    "Progress.15", targetFile.getName())); //$NON-NLS-1$
-            writeFile(targetFile, source, gkf.getFileEncoding());
-        } catch (ShellException e) {
-            warnings.add(e.getMessage());
+        Map<GeneratedFile, PreparedFile> answer = new IdentityHashMap<>();
+        for (PreparedFile preparedFile : merges) {
+            answer.put(preparedFile.generatedFile, preparedFile);
         }
+        return answer;
     }
 
-    private void writeGeneratedXmlFile(GeneratedXmlFile gxf, ProgressCallback callback)
-            throws InterruptedException, IOException {
-        File targetFile;
-        String source;
+    private TargetLock getTargetLock(File directory, GeneratedFile generatedFile) {
+        File targetFile = new File(directory, generatedFile.getFileName()).getAbsoluteFile();
+        return targetLocks.computeIfAbsent(targetFile, k -> new TargetLock());
+    }
+
+    private boolean isMerged(GeneratedFile generatedFile) {
+        if (generatedFile instanceof GeneratedXmlFile) {
+            return generatedFile.isMergeable();
+        }
+
+        return generatedFile instanceof GeneratedJavaFile && shellCallback.isMergeSupported();
+    }
+
+    private File getDirectory(GeneratedFile generatedFile) throws ShellException {
+        String key = generatedFile.getTargetProject() + '\n' + generatedFile.getTargetPackage();
+        File directory = directories.get(key);
+        if (directory == null) {
+            directory = shellCallback.getDirectory(generatedFile.getTargetProject(),
+                    generatedFile.getTargetPackage());
+            directories.put(key, directory);
+        }
+        return directory;
+    }
+
+    private void finishSave() throws IOException {
+        for (String project : projects) {
+            shellCallback.refreshProject(project);
+        }
+
+        if (generationManifest != null) {
+            generationManifest.save();
+        }
+    }
+
+    /**
+     * Sets the number of threads used to save generated files. Files are grouped by target directory, and different
+     * directories are saved concurrently, which helps most when the files are saved to a network file system.
+     * When more than one thread is used, the merge methods of the ShellCallback must be thread safe.
+     * Progress callbacks are serialized, so the callback does not need to be thread safe.
+     *
+     * @param writeThreads
+     *            the number of threads. The default is 1 - files are saved one at a time
+     */
+    public void setWriteThreads(int writeThreads) {
+        this.writeThreads = writeThreads;
+    }
+
+    /**
+     * Sets the number of threads used to merge generated files into existing files. All merges run before any file is
+     * written, and merges of different files run concurrently. When more than one thread is used, the merge methods
+     * of the ShellCallback must be thread safe.
+     *
+     * @param mergeThreads
+     *            the number of threads. The default is 1 - files are merged one at a time
+     */
+    public void setMergeThreads(int mergeThreads) {
+        this.mergeThreads = mergeThreads;
+    }
+
+    /**
+     * Sets whether existing XML files should be merged with {@link XmlFileMergerStreaming} instead of
+     * {@link XmlFileMergerJaxp}. The streaming merger reads the existing file in a single pass and writes the merged
+     * file as it reads, so large hand-edited mappers are merged without loading them into memory. Everything except
+     * the generated elements and the root element's start tag is kept exactly as it is in the existing file. With
+     * incremental generation, the merged file is read back in blocks to record it in the manifest.
+     *
+     * @param streamingXmlMerge
+     *            if true, then XML files will be merged with the streaming merger
+     */
+    public void setStreamingXmlMerge(boolean streamingXmlMerge) {
+        this.streamingXmlMerge = streamingXmlMerge;
+    }
+
+    /**
+     * Sets whether independent contexts should run concurrently. When enabled, the introspection phase and the
+     * generation phase each run all contexts at the same time, with one worker thread and one database connection
+     * per context. The generated files are returned in the same order as a serial run. Progress callbacks
+     * are serialized, so the callback does not need to be thread safe.
+     *
+     * @param parallelContexts
+     *            if true, then contexts will be run concurrently
+     */
+    public void setParallelContexts(boolean parallelContexts) {
+        this.parallelContexts = parallelContexts;
+    }
+
+    /**
+     * Sets whether each context should run as a pipeline. In a pipeline, tables are introspected, generated, and
+     * saved one at a time, with the three stages running concurrently on separate threads. Bounded queues between
+     * the stages keep introspection from running too far ahead of generation, and generation from running too far
+     * ahead of saving. This overlaps database latency with generation and file I/O, and saved files are not kept in
+     * memory.
+     *
+     * <p>Because a table is generated before later tables are introspected, plugins only know about the tables that
+     * have already been generated. When files are written, {@link #getGeneratedJavaFiles()} and the related methods
+     * return empty lists. The progress callback receives all the phase start notifications up front, with unknown
+     * task counts for generation and saving.
+     *
+     * @param pipelined
+     *            if true, then each context will run as a pipeline
+     */
+    public void setPipelined(boolean pipelined) {
+        this.pipelined = pipelined;
+    }
+
+    /**
+     * If true, then any introspection cache configured on the contexts is ignored, and every table is
+     * introspected from the database and written back to the cache.  This is needed when the schema has
+     * changed in a way that the context's fingerprint query does not detect.
+     *
+     * @param invalidateIntrospectionCache
+     *            if true, then introspection caches will be rebuilt
+     */
+    public void setInvalidateIntrospectionCache(boolean invalidateIntrospectionCache) {
+        this.invalidateIntrospectionCache = invalidateIntrospectionCache;
+    }
+
+    /**
+     * Enables incremental generation. The manifest file records the configuration, the database metadata, and the
+     * written content of every generated table. On later runs, tables that have not changed since the manifest was
+     * written are not generated again, and files are not written if their content is already on disk. In this mode
+     * {@link #getGeneratedJavaFiles()} and the related methods only return the files of the tables that were generated.
+     *
+     * @param incrementalManifest
+     *            the manifest file, or null to generate every table
+     */
+    public void setIncrementalManifest(File incrementalManifest) {
+        this.incrementalManifest = incrementalManifest;
+    }
+
+    /**
+     * Sets the tables supplied by the IntelliJ plugin. If set, the contexts introspect these tables instead of
+     * connecting to the database. Every other feature - parallel contexts, pipelining, incremental generation and
+     * parallel writes - works the same for both sources.
+     *
+     * @param intellijTables
+     *            the tables, or null to introspect the database
+     */
+    public void setIntellijTables(List<IntellijTableInfo> intellijTables) {
+        this.intellijTables = intellijTables;
+    }
+
+    /**
+     * Decides where a generated file is written and what is written. If the file already exists, it is merged,
+     * overwritten, or written to a new file with a unique name. A merge that fails leaves a warning, and the file is
+     * not written.
+     */
+    private void prepareFile(PreparedFile preparedFile) throws IOException {
+        GeneratedFile generatedFile = preparedFile.generatedFile;
+        preparedFile.source = renderForManifest(generatedFile);
+        preparedFile.targetFile = new File(preparedFile.directory, generatedFile.getFileName());
+        if (!preparedFile.targetFile.exists()
+                || isUnchanged(preparedFile.targetFile, preparedFile.source, getFileEncoding(generatedFile))) {
+            return;
+        }
+
         try {
-            File directory = shellCallback.getDirectory(gxf
-                    .getTargetProject(), gxf.getTargetPackage());
-            targetFile = new File(directory, gxf.getFileName());
-            if (targetFile.exists()) {
-                if (gxf.isMergeable()) {
-                    source = XmlFileMergerJaxp.getMergedSource(gxf,
-                            targetFile);
-                } else if (shellCallback.isOverwriteEnabled()) {
-                    source = gxf.getFormattedContent();
-                    warnings.add(getString("Warning.11", //$NON-NLS-1$
-                            targetFile.getAbsolutePath()));
-                } else {
-                    source = gxf.getFormattedContent();
-                    targetFile = getUniqueFileName(directory, gxf
-                            .getFileName());
-                    warnings.add(getString(
-                            "Warning.2", targetFile.getAbsolutePath())); //$NON-NLS-1$
-                }
+            if (generatedFile instanceof GeneratedXmlFile && generatedFile.isMergeable()) {
+                mergeXmlFile(preparedFile);
+            } else if (generatedFile instanceof GeneratedJavaFile && shellCallback.isMergeSupported()) {
+                mergeJavaFile(preparedFile);
+            } else if (shellCallback.isOverwriteEnabled()) {
+                preparedFile.warnings.add(getString("Warning.11", //$NON-NLS-1$
+                        preparedFile.targetFile.getAbsolutePath()));
             } else {
-                source = gxf.getFormattedContent();
+                preparedFile.targetFile = getUniqueFileName(preparedFile.directory, generatedFile
+                        .getFileName());
+                preparedFile.warnings.add(getString(
+                        "Warning.2", preparedFile.targetFile.getAbsolutePath())); //$NON-NLS-1$
             }
-
-            callback.checkCancel();
-            callback.startTask(getString(
-                    "Progress.15", targetFile.getName())); //$NON-NLS-1$
-            writeFile(targetFile, source, "UTF-8"); //$NON-NLS-1$
         } catch (ShellException e) {
-            warnings.add(e.getMessage());
+            preparedFile.failed = true;
+            preparedFile.warnings.add(e.getMessage());
+        }
+    }
+
+    private void mergeXmlFile(PreparedFile preparedFile) throws ShellException, IOException {
+        GeneratedXmlFile gxf = (GeneratedXmlFile) preparedFile.generatedFile;
+        File targetFile = preparedFile.targetFile;
+        if (!streamingXmlMerge && gxf.isDefaultFormatted()) {
+            // merged from the document, which is compared with the existing file without rendering it
+            String mergedSource = XmlFileMergerJaxp.getMergedSourceIfChanged(gxf, targetFile);
+            if (mergedSource == null) {
+                preparedFile.upToDate = true;
+            } else {
+                preparedFile.source = mergedSource;
+            }
+            return;
+        }
+
+        String content = preparedFile.source == null ? gxf.getFormattedContent() : preparedFile.source;
+        if (XmlFileMergerStreaming.hasGeneratedContent(content, targetFile)) {
+            preparedFile.upToDate = true;
+        } else if (streamingXmlMerge) {
+            // the merged file is streamed to disk as the existing file is read, and the manifest reads it back
+            XmlFileMergerStreaming.mergeInto(content, targetFile);
+            preparedFile.written = true;
+        } else {
+            preparedFile.source = XmlFileMergerJaxp.getMergedSource(content, targetFile);
+        }
+    }
+
+    private void mergeJavaFile(PreparedFile preparedFile) throws ShellException, IOException {
+        GeneratedJavaFile gjf = (GeneratedJavaFile) preparedFile.generatedFile;
+        String content = preparedFile.source == null ? gjf.getFormattedContent() : preparedFile.source;
+        // with incremental generation, isUnchanged has already compared the file
+        if (generationManifest == null && FileUtility.hasContent(preparedFile.targetFile.toPath(),
+                FileUtility.encode(content, gjf.getFileEncoding()))) {
+            preparedFile.upToDate = true;
+        } else if (JavaFileMergerScanner.hasGeneratedContent(content, preparedFile.targetFile,
+                MergeConstants.getOldElementTags(), gjf.getFileEncoding())) {
+            // the generated members already match, so the file is not parsed or merged
+            preparedFile.upToDate = true;
+        } else {
+            String mergedSource = shellCallback.mergeJavaFile(content,
+                    preparedFile.targetFile,
+                    MergeConstants.getOldElementTags(),
+                    gjf.getFileEncoding());
+            // a file with custom code is up to date if the merge leaves it unchanged
+            if (FileUtility.hasContent(preparedFile.targetFile.toPath(),
+                    FileUtility.encode(mergedSource, gjf.getFileEncoding()))) {
+                preparedFile.upToDate = true;
+            } else {
+                preparedFile.source = mergedSource;
+            }
+        }
+    }
+
+    private void writePreparedFile(PreparedFile preparedFile, ProgressCallback callback)
+            throws InterruptedException, IOException {
+        if (preparedFile.failed) {
+            if (generationManifest != null) {
+                generationManifest.fileFailed(preparedFile.generatedFile);
+            }
+            return;
+        }
+
+        callback.checkCancel();
+        callback.startTask(getString(
+                "Progress.15", preparedFile.targetFile.getName())); //$NON-NLS-1$
+        if (!preparedFile.saved) {
+            saveFile(preparedFile);
+        }
+    }
+
+    /**
+     * Writes a prepared file, unless it is up to date or the merge has already written it, and records it in the
+     * manifest. The content is released once it is written.
+     */
+    private void saveFile(PreparedFile preparedFile) throws IOException {
+        if (preparedFile.written || preparedFile.upToDate) {
+            if (generationManifest != null) {
+                generationManifest.fileWritten(preparedFile.generatedFile, preparedFile.targetFile);
+            }
+        } else {
+            writeFile(preparedFile.generatedFile, preparedFile.targetFile, preparedFile.source,
+                    getFileEncoding(preparedFile.generatedFile));
+        }
+        preparedFile.source = null;
+        preparedFile.saved = true;
+    }
+
+    private String getFileEncoding(GeneratedFile generatedFile) {
+        if (generatedFile instanceof GeneratedJavaFile) {
+            return ((GeneratedJavaFile) generatedFile).getFileEncoding();
+        } else if (generatedFile instanceof GeneratedKotlinFile) {
+            return ((GeneratedKotlinFile) generatedFile).getFileEncoding();
+        } else {
+            return "UTF-8"; //$NON-NLS-1$
         }
     }
 
     /**
-     * Writes, or overwrites, the contents of the specified file.
+     * Renders a generated file once up front if incremental generation is enabled - the content is then needed to
+     * compare the file on disk, to merge the file, and to record the file in the manifest. Otherwise the content is
+     * only rendered if the file has to be merged, and is streamed to the file by
+     * {@link #writeFile(GeneratedFile, File, String, String)}.
      *
-     * @param file
-     *            the file
-     * @param content
-     *            the content
-     * @param fileEncoding
-     *            the file encoding
-     * @throws IOException
-     *             Signals that an I/O exception has occurred.
+     * @return the content, or null if incremental generation is disabled
+     */
+    private String renderForManifest(GeneratedFile generatedFile) {
+        return generationManifest == null ? null : generatedFile.getFormattedContent();
+    }
+
+    /**
+     * Writes a generated file. With incremental generation, the file is not written if it already has the content,
+     * and the content is recorded in the manifest. Otherwise, unless the content is supplied, it is streamed straight
+     * from the formatter to the file.
      */
-    private void writeFile(File file, String content, String fileEncoding) throws IOException {
-        try (FileOutputStream fos = new FileOutputStream(file, false)) {
-            OutputStreamWriter osw;
-            if (fileEncoding == null) {
-                osw = new OutputStreamWriter(fos);
+    private void writeFile(GeneratedFile generatedFile, File file, String content, String fileEncoding)
+            throws IOException {
+        if (generationManifest == null) {
+            if (content == null) {
+                FileUtility.write(file.toPath(), fileEncoding, generatedFile::formatTo);
             } else {
-                osw = new OutputStreamWriter(fos, fileEncoding);
+                FileUtility.write(file.toPath(), FileUtility.encode(content, fileEncoding));
             }
+            return;
+        }
 
-            try (BufferedWriter bw = new BufferedWriter(osw)) {
-                bw.write(content);
-            }
+        ByteBuffer bytes = FileUtility.encode(content, fileEncoding);
+        if (!FileUtility.hasContent(file.toPath(), bytes)) {
+            FileUtility.write(file.toPath(), bytes);
+        }
+        generationManifest.fileWritten(generatedFile, file, bytes);
+    }
+
+    /**
+     * Returns true if incremental generation is enabled and the existing file already has the content. This means
+     * there is no need to merge the file, overwrite it, or write the content to a new file.
+     */
+    private boolean isUnchanged(File file, String content, String fileEncoding) throws IOException {
+        if (generationManifest == null) {
+            return false;
         }
+
+        return FileUtility.hasContent(file.toPath(), FileUtility.encode(content, fileEncoding));
     }
 
     /**
@@ -436,7 +844,9 @@ public class MyBatisGenerator {
      * @return the unique file name
      */
     private File getUniqueFileName(File directory, String fileName) {
-        File answer = null;
+        // list the directory once rather than checking each candidate name
+        String[] names = directory.list();
+        Set<String> existingNames = names == null ? Collections.emptySet() : new HashSet<>(Arrays.asList(names));
 
         // try up to 1000 times to generate a unique file name
         StringBuilder sb = new StringBuilder();
@@ -446,19 +856,13 @@ public class MyBatisGenerator {
             sb.append('.');
             sb.append(i);
 
-            File testFile = new File(directory, sb.toString());
-            if (!testFile.exists()) {
-                answer = testFile;
-                break;
+            if (!existingNames.contains(sb.toString())) {
+                return new File(directory, sb.toString());
             }
         }
 
-        if (answer == null) {
-            throw new RuntimeException(getString(
-                    "RuntimeError.3", directory.getAbsolutePath())); //$NON-NLS-1$
-        }
-
-        return answer;
+        throw new RuntimeException(getString(
+                "RuntimeError.3", directory.getAbsolutePath())); //$NON-NLS-1$
     }
 
     /**
@@ -493,4 +897,58 @@ public class MyBatisGenerator {
     public List<GeneratedXmlFile> getGeneratedXmlFiles() {
         return generatedXmlFiles;
     }
+
+    /**
+     * A generated file, with the file it is written to and what is written.
+     */
+    private static class PreparedFile {
+        private final GeneratedFile generatedFile;
+        private final File directory;
+        private File targetFile;
+        // null if the content is streamed from the formatter
+        private String source;
+        // the merge failed, so the file is not written
+        private boolean failed;
+        // the existing file already has the generated content
+        private boolean upToDate;
+        // the merge has already written the file
+        private boolean written;
+        // the file has been written or recorded, and the content released
+        private boolean saved;
+        // the writes of the target file when it was merged
+        private int writes;
+        private final List<String> warnings = new ArrayList<>();
+
+        PreparedFile(GeneratedFile generatedFile, File directory) {
+            this.generatedFile = generatedFile;
+            this.directory = directory;
+        }
+    }
+
+    /**
+     * Guards a target file in one run of the generator. Deciding what to do with a file - whether it exists, whether
+     * it is merged, or which unique name it gets - and writing it is one step under the lock, so concurrent writers
+     * of the same file behave as if they ran one after the other. Unique names are derived from the target file, so
+     * they are reserved under the same lock.
+     */
+    private static class TargetLock {
+        // the number of times the file was written, guarded by the lock
+        private int writes;
+    }
+
+    private static class ContextFiles {
+        private final List<GeneratedJavaFile> javaFiles = new ArrayList<>();
+        private final List<GeneratedXmlFile> xmlFiles = new ArrayList<>();
+        private final List<GeneratedKotlinFile> kotlinFiles = new ArrayList<>();
+
+        void add(GeneratedFile generatedFile) {
+            if (generatedFile instanceof GeneratedJavaFile) {
+                javaFiles.add((GeneratedJavaFile) generatedFile);
+            } else if (generatedFile instanceof GeneratedXmlFile) {
+                xmlFiles.add((GeneratedXmlFile) generatedFile);
+            } else if (generatedFile instanceof GeneratedKotlinFile) {
+                kotlinFiles.add((GeneratedKotlinFile) generatedFile);
+            }
+        }
+    }
 }
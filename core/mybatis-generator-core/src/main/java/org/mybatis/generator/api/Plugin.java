@@ -129,6 +129,16 @@ public interface Plugin {
      */
     boolean validate(List<String> warnings);
 
+    /**
+     * Returns true if this plugin may be called from several threads at the same time. When a context generates the
+     * files for its tables in parallel, the methods of plugins that are not thread safe are called one at a time.
+     *
+     * @return true if the plugin is thread safe. The default is false
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
+
     /**
      * This method can be used to generate any additional Java file needed by
      * your implementation. This method is called once, after all other Java
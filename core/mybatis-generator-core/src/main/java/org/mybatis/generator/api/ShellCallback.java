@@ -26,9 +26,10 @@ import org.mybatis.generator.exception.ShellException;
  * Eclipse plugin, and Ant task, a NetBeans plugin, etc.)
  *
  * <p>The default ShellCallback that is very low function and does
- * not support the merging of Java files. The default shell callback is
- * appropriate for use in well controlled environments where no changes
- * made to generated Java files.
+ * not support the merging of Java files, unless it is created with
+ * merge support - then Java files are merged with JavaParser. The default
+ * shell callback is appropriate for use in well controlled environments
+ * where no changes made to generated Java files.
  *
  * @author Jeff Butler
  */
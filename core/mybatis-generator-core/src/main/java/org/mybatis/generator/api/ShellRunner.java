@@ -33,6 +33,7 @@ import org.mybatis.generator.config.xml.ConfigurationParser;
 import org.mybatis.generator.exception.InvalidConfigurationException;
 import org.mybatis.generator.exception.XMLParserException;
 import org.mybatis.generator.internal.DefaultShellCallback;
+import org.mybatis.generator.internal.util.ConcurrencyUtility;
 import org.mybatis.generator.logging.LogFactory;
 
 /**
@@ -47,6 +48,14 @@ public class ShellRunner {
     private static final String TABLES = "-tables"; //$NON-NLS-1$
     private static final String VERBOSE = "-verbose"; //$NON-NLS-1$
     private static final String FORCE_JAVA_LOGGING = "-forceJavaLogging"; //$NON-NLS-1$
+    private static final String PARALLEL_CONTEXTS = "-parallelContexts"; //$NON-NLS-1$
+    private static final String INVALIDATE_INTROSPECTION_CACHE = "-invalidateIntrospectionCache"; //$NON-NLS-1$
+    private static final String INCREMENTAL = "-incremental"; //$NON-NLS-1$
+    private static final String PIPELINED = "-pipelined"; //$NON-NLS-1$
+    private static final String WRITE_THREADS = "-writeThreads"; //$NON-NLS-1$
+    private static final String MERGE_THREADS = "-mergeThreads"; //$NON-NLS-1$
+    private static final String STREAMING_XML_MERGE = "-streamingXmlMerge"; //$NON-NLS-1$
+    private static final String MERGE_JAVA = "-mergeJava"; //$NON-NLS-1$
     private static final String HELP_1 = "-?"; //$NON-NLS-1$
     private static final String HELP_2 = "-h"; //$NON-NLS-1$
 
@@ -107,9 +116,24 @@ public class ShellRunner {
             Configuration config = cp.parseConfiguration(configurationFile);
 
             DefaultShellCallback shellCallback = new DefaultShellCallback(
-                    arguments.containsKey(OVERWRITE));
+                    arguments.containsKey(OVERWRITE), arguments.containsKey(MERGE_JAVA));
 
             MyBatisGenerator myBatisGenerator = new MyBatisGenerator(config, shellCallback, warnings);
+            myBatisGenerator.setParallelContexts(arguments.containsKey(PARALLEL_CONTEXTS));
+            myBatisGenerator.setInvalidateIntrospectionCache(arguments.containsKey(INVALIDATE_INTROSPECTION_CACHE));
+            if (arguments.containsKey(INCREMENTAL)) {
+                myBatisGenerator.setIncrementalManifest(new File(arguments.get(INCREMENTAL)));
+            }
+            myBatisGenerator.setPipelined(arguments.containsKey(PIPELINED));
+            if (arguments.containsKey(WRITE_THREADS)) {
+                myBatisGenerator.setWriteThreads(
+                        ConcurrencyUtility.calculateParallelism(arguments.get(WRITE_THREADS)));
+            }
+            if (arguments.containsKey(MERGE_THREADS)) {
+                myBatisGenerator.setMergeThreads(
+                        ConcurrencyUtility.calculateParallelism(arguments.get(MERGE_THREADS)));
+            }
+            myBatisGenerator.setStreamingXmlMerge(arguments.containsKey(STREAMING_XML_MERGE));
 
             ProgressCallback progressCallback = arguments.containsKey(VERBOSE) ? new VerboseProgressCallback()
                     : null;
@@ -174,10 +198,44 @@ public class ShellRunner {
                             "RuntimeError.19", CONFIG_FILE)); //$NON-NLS-1$
                 }
                 i++;
+            } else if (INCREMENTAL.equalsIgnoreCase(args[i])) {
+                if ((i + 1) < args.length) {
+                    arguments.put(INCREMENTAL, args[i + 1]);
+                } else {
+                    errors.add(getString(
+                            "RuntimeError.19", INCREMENTAL)); //$NON-NLS-1$
+                }
+                i++;
+            } else if (WRITE_THREADS.equalsIgnoreCase(args[i])) {
+                if ((i + 1) < args.length) {
+                    arguments.put(WRITE_THREADS, args[i + 1]);
+                } else {
+                    errors.add(getString(
+                            "RuntimeError.19", WRITE_THREADS)); //$NON-NLS-1$
+                }
+                i++;
+            } else if (MERGE_THREADS.equalsIgnoreCase(args[i])) {
+                if ((i + 1) < args.length) {
+                    arguments.put(MERGE_THREADS, args[i + 1]);
+                } else {
+                    errors.add(getString(
+                            "RuntimeError.19", MERGE_THREADS)); //$NON-NLS-1$
+                }
+                i++;
             } else if (OVERWRITE.equalsIgnoreCase(args[i])) {
                 arguments.put(OVERWRITE, "Y"); //$NON-NLS-1$
             } else if (VERBOSE.equalsIgnoreCase(args[i])) {
                 arguments.put(VERBOSE, "Y"); //$NON-NLS-1$
+            } else if (PARALLEL_CONTEXTS.equalsIgnoreCase(args[i])) {
+                arguments.put(PARALLEL_CONTEXTS, "Y"); //$NON-NLS-1$
+            } else if (INVALIDATE_INTROSPECTION_CACHE.equalsIgnoreCase(args[i])) {
+                arguments.put(INVALIDATE_INTROSPECTION_CACHE, "Y"); //$NON-NLS-1$
+            } else if (PIPELINED.equalsIgnoreCase(args[i])) {
+                arguments.put(PIPELINED, "Y"); //$NON-NLS-1$
+            } else if (STREAMING_XML_MERGE.equalsIgnoreCase(args[i])) {
+                arguments.put(STREAMING_XML_MERGE, "Y"); //$NON-NLS-1$
+            } else if (MERGE_JAVA.equalsIgnoreCase(args[i])) {
+                arguments.put(MERGE_JAVA, "Y"); //$NON-NLS-1$
             } else if (HELP_1.equalsIgnoreCase(args[i])) {
                 arguments.put(HELP_1, "Y"); //$NON-NLS-1$
             } else if (HELP_2.equalsIgnoreCase(args[i])) {
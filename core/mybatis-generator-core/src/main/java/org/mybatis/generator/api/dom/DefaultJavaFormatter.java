@@ -15,6 +15,9 @@
  */
 package org.mybatis.generator.api.dom;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import org.mybatis.generator.api.JavaFormatter;
 import org.mybatis.generator.api.dom.java.CompilationUnit;
 import org.mybatis.generator.api.dom.java.CompilationUnitVisitor;
@@ -30,17 +33,40 @@ import org.mybatis.generator.config.Context;
  * This class is the default formatter for generated Java.  This class will use the
  * built in DOM renderers.
  *
+ * <p>The renderers hold no state, so they are created once and one formatter can format
+ * files on several threads at the same time.
+ *
  * @author Jeff Butler
  *
  */
 public class DefaultJavaFormatter implements JavaFormatter, CompilationUnitVisitor<String> {
     protected Context context;
 
+    private final TopLevelClassRenderer topLevelClassRenderer = new TopLevelClassRenderer();
+    private final TopLevelEnumerationRenderer topLevelEnumerationRenderer = new TopLevelEnumerationRenderer();
+    private final TopLevelInterfaceRenderer topLevelInterfaceRenderer = new TopLevelInterfaceRenderer();
+
     @Override
     public String getFormattedContent(CompilationUnit compilationUnit) {
         return compilationUnit.accept(this);
     }
 
+    @Override
+    public void formatTo(CompilationUnit compilationUnit, Writer writer) throws IOException {
+        // a subclass may override getFormattedContent or the visit methods, so only this class streams
+        if (getClass() != DefaultJavaFormatter.class) {
+            JavaFormatter.super.formatTo(compilationUnit, writer);
+        } else if (compilationUnit instanceof TopLevelClass) {
+            topLevelClassRenderer.render((TopLevelClass) compilationUnit, writer);
+        } else if (compilationUnit instanceof TopLevelEnumeration) {
+            topLevelEnumerationRenderer.render((TopLevelEnumeration) compilationUnit, writer);
+        } else if (compilationUnit instanceof Interface) {
+            topLevelInterfaceRenderer.render((Interface) compilationUnit, writer);
+        } else {
+            JavaFormatter.super.formatTo(compilationUnit, writer);
+        }
+    }
+
     @Override
     public void setContext(Context context) {
         this.context = context;
@@ -48,16 +74,16 @@ public class DefaultJavaFormatter implements JavaFormatter, CompilationUnitVisit
 
     @Override
     public String visit(TopLevelClass topLevelClass) {
-        return new TopLevelClassRenderer().render(topLevelClass);
+        return topLevelClassRenderer.render(topLevelClass);
     }
 
     @Override
     public String visit(TopLevelEnumeration topLevelEnumeration) {
-        return new TopLevelEnumerationRenderer().render(topLevelEnumeration);
+        return topLevelEnumerationRenderer.render(topLevelEnumeration);
     }
 
     @Override
     public String visit(Interface topLevelInterface) {
-        return new TopLevelInterfaceRenderer().render(topLevelInterface);
+        return topLevelInterfaceRenderer.render(topLevelInterface);
     }
 }
@@ -15,6 +15,9 @@
  */
 package org.mybatis.generator.api.dom;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import org.mybatis.generator.api.KotlinFormatter;
 import org.mybatis.generator.api.dom.kotlin.KotlinFile;
 import org.mybatis.generator.api.dom.kotlin.render.KotlinFileRenderer;
@@ -30,9 +33,21 @@ import org.mybatis.generator.config.Context;
 public class DefaultKotlinFormatter implements KotlinFormatter {
     protected Context context;
 
+    private final KotlinFileRenderer kotlinFileRenderer = new KotlinFileRenderer();
+
     @Override
     public String getFormattedContent(KotlinFile kotlinFile) {
-        return new KotlinFileRenderer().render(kotlinFile);
+        return kotlinFileRenderer.render(kotlinFile);
+    }
+
+    @Override
+    public void formatTo(KotlinFile kotlinFile, Writer writer) throws IOException {
+        // a subclass may override getFormattedContent, so only this class streams
+        if (getClass() == DefaultKotlinFormatter.class) {
+            kotlinFileRenderer.render(kotlinFile, writer);
+        } else {
+            KotlinFormatter.super.formatTo(kotlinFile, writer);
+        }
     }
 
     @Override
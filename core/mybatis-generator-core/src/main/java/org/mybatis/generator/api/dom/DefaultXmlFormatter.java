@@ -15,6 +15,9 @@
  */
 package org.mybatis.generator.api.dom;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import org.mybatis.generator.api.XmlFormatter;
 import org.mybatis.generator.api.dom.xml.Document;
 import org.mybatis.generator.api.dom.xml.render.DocumentRenderer;
@@ -30,9 +33,21 @@ import org.mybatis.generator.config.Context;
 public class DefaultXmlFormatter implements XmlFormatter {
     protected Context context;
 
+    private final DocumentRenderer documentRenderer = new DocumentRenderer();
+
     @Override
     public String getFormattedContent(Document document) {
-        return new DocumentRenderer().render(document);
+        return documentRenderer.render(document);
+    }
+
+    @Override
+    public void formatTo(Document document, Writer writer) throws IOException {
+        // a subclass may override getFormattedContent, so only this class streams
+        if (getClass() == DefaultXmlFormatter.class) {
+            documentRenderer.render(document, writer);
+        } else {
+            XmlFormatter.super.formatTo(document, writer);
+        }
     }
 
     @Override
@@ -0,0 +1,163 @@
+/*
+ *    Copyright 2006-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api.dom;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Writes rendered Java or Kotlin source line by line, straight into an {@link Appendable}. The writer keeps the current
+ * indentation depth, so nested elements are indented as they are written rather than by re-mapping their lines.
+ *
+ * <p>Empty lines are held back until the next non-empty line. This lets a block drop the empty line that follows
+ * its last member when the block is closed. Empty lines are never indented.
+ *
+ * <p>Errors of the underlying Appendable are thrown as {@link UncheckedIOException}.
+ */
+public class SourceWriter {
+
+    private static final String INDENT = "    "; //$NON-NLS-1$
+
+    private final Appendable out;
+
+    private final String lineSeparator;
+
+    private int depth;
+
+    private int pendingEmptyLines;
+
+    private boolean firstLine = true;
+
+    public SourceWriter(Appendable out) {
+        this(out, System.getProperty("line.separator")); //$NON-NLS-1$
+    }
+
+    public SourceWriter(Appendable out, String lineSeparator) {
+        this.out = out;
+        this.lineSeparator = lineSeparator;
+    }
+
+    /**
+     * Collects rendered source as a list of lines instead of writing it. The renderers that return lists of lines
+     * use this, so they share their implementation with the streaming renderers.
+     *
+     * @param renderer writes the source
+     * @return the lines
+     */
+    public static List<String> collectLines(Consumer<SourceWriter> renderer) {
+        List<String> lines = new ArrayList<>();
+        SourceWriter writer = new SourceWriter(null, null) {
+            @Override
+            void writeLine(int indentLevel, String line) {
+                StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < indentLevel; i++) {
+                    sb.append(INDENT);
+                }
+                lines.add(sb.append(line).toString());
+            }
+        };
+        renderer.accept(writer);
+        writer.finish();
+        return lines;
+    }
+
+    public void indent() {
+        depth++;
+    }
+
+    public void outdent() {
+        depth--;
+    }
+
+    /**
+     * Writes a line at the current depth.
+     *
+     * @param line the line, without indentation
+     */
+    public void line(String line) {
+        line(0, line);
+    }
+
+    /**
+     * Writes a line indented by additional levels beyond the current depth. Unlike {@link #line(String)}, an empty
+     * line with additional levels is written indented.
+     *
+     * @param indentLevel the additional levels. Levels below zero are treated as zero
+     * @param line the line
+     */
+    public void line(int indentLevel, String line) {
+        if (indentLevel <= 0 && line.isEmpty()) {
+            pendingEmptyLines++;
+            return;
+        }
+
+        flushEmptyLines();
+        writeLine(depth + Math.max(indentLevel, 0), line);
+    }
+
+    public void lines(List<String> lines) {
+        for (String line : lines) {
+            line(line);
+        }
+    }
+
+    public void emptyLine() {
+        pendingEmptyLines++;
+    }
+
+    /**
+     * Drops the empty line written last, if any. Blocks call this before their closing brace.
+     */
+    public void removeLastEmptyLine() {
+        if (pendingEmptyLines > 0) {
+            pendingEmptyLines--;
+        }
+    }
+
+    /**
+     * Writes any empty lines that are still held back. Call this when the source is complete.
+     */
+    public void finish() {
+        flushEmptyLines();
+    }
+
+    private void flushEmptyLines() {
+        while (pendingEmptyLines > 0) {
+            pendingEmptyLines--;
+            writeLine(0, ""); //$NON-NLS-1$
+        }
+    }
+
+    void writeLine(int indentLevel, String line) {
+        try {
+            if (firstLine) {
+                firstLine = false;
+            } else {
+                out.append(lineSeparator);
+            }
+
+            for (int i = 0; i < indentLevel; i++) {
+                out.append(INDENT);
+            }
+            out.append(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
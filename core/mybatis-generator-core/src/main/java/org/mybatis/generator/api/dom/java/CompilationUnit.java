@@ -28,6 +28,17 @@ public interface CompilationUnit {
 
     Set<FullyQualifiedJavaType> getImportedTypes();
 
+    /**
+     * Returns true if one of the imported types imports the name.
+     *
+     * @param fullyQualifiedName
+     *            a fully qualified name, without type parameters
+     * @return true if the name is imported
+     */
+    default boolean isImported(String fullyQualifiedName) {
+        return getImportedTypes().stream().anyMatch(e -> e.getImportList().contains(fullyQualifiedName));
+    }
+
     Set<String> getStaticImports();
 
     FullyQualifiedJavaType getType();
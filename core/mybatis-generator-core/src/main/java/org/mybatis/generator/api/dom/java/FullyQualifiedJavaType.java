@@ -19,27 +19,24 @@ import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class FullyQualifiedJavaType implements
         Comparable<FullyQualifiedJavaType> {
 
     private static final String JAVA_LANG = "java.lang"; //$NON-NLS-1$
 
-    private static FullyQualifiedJavaType intInstance = null;
+    /** Parsed types are cached until the cache holds this many types. */
+    private static final int MAX_CACHED_TYPES = 4096;
 
-    private static FullyQualifiedJavaType stringInstance = null;
-
-    private static FullyQualifiedJavaType booleanPrimitiveInstance = null;
-
-    private static FullyQualifiedJavaType objectInstance = null;
-
-    private static FullyQualifiedJavaType dateInstance = null;
-
-    private static FullyQualifiedJavaType criteriaInstance = null;
-
-    private static FullyQualifiedJavaType generatedCriteriaInstance = null;
+    /**
+     * Parsed types that are never handed out. {@link #getInstance(String)} returns a copy of a cached type.
+     */
+    private static final Map<String, FullyQualifiedJavaType> parsedTypes = new ConcurrentHashMap<>();
 
     /** The short name without any generic arguments. */
     private String baseShortName;
@@ -66,6 +63,13 @@ public class FullyQualifiedJavaType implements
 
     private boolean extendsBoundedWildcard;
 
+    // the following three values are calculated once for a parsed type, they do not include type arguments
+    private String fullyQualifiedName;
+
+    private String shortName;
+
+    private List<String> importList;
+
     /**
      * Use this constructor to construct a generic type with the specified type parameters.
      *
@@ -78,6 +82,56 @@ public class FullyQualifiedJavaType implements
         parse(fullTypeSpecification);
     }
 
+    private FullyQualifiedJavaType(FullyQualifiedJavaType parsedType) {
+        super();
+        typeArguments = new ArrayList<>();
+        baseShortName = parsedType.baseShortName;
+        baseQualifiedName = parsedType.baseQualifiedName;
+        explicitlyImported = parsedType.explicitlyImported;
+        packageName = parsedType.packageName;
+        primitive = parsedType.primitive;
+        isArray = parsedType.isArray;
+        primitiveTypeWrapper = parsedType.primitiveTypeWrapper;
+        wildcardType = parsedType.wildcardType;
+        boundedWildcard = parsedType.boundedWildcard;
+        extendsBoundedWildcard = parsedType.extendsBoundedWildcard;
+        fullyQualifiedName = parsedType.fullyQualifiedName;
+        shortName = parsedType.shortName;
+        importList = parsedType.importList;
+    }
+
+    private static FullyQualifiedJavaType parseType(String fullTypeSpecification) {
+        FullyQualifiedJavaType answer = new FullyQualifiedJavaType(fullTypeSpecification);
+        answer.importList = Collections.unmodifiableList(answer.getImportList());
+        answer.shortName = answer.getShortName();
+        answer.fullyQualifiedName = answer.getFullyQualifiedName();
+        return answer;
+    }
+
+    /**
+     * Returns a new type for the specification. A specification without type arguments is parsed once, later calls
+     * copy the parsed type. The returned type belongs to the caller and may have type arguments added.
+     *
+     * @param fullTypeSpecification
+     *            the full type specification
+     * @return the type
+     */
+    public static FullyQualifiedJavaType getInstance(String fullTypeSpecification) {
+        if (fullTypeSpecification.indexOf('<') != -1) {
+            return new FullyQualifiedJavaType(fullTypeSpecification);
+        }
+
+        FullyQualifiedJavaType parsedType = parsedTypes.get(fullTypeSpecification);
+        if (parsedType == null) {
+            parsedType = parseType(fullTypeSpecification);
+            if (parsedTypes.size() < MAX_CACHED_TYPES) {
+                parsedTypes.putIfAbsent(fullTypeSpecification, parsedType);
+            }
+        }
+
+        return new FullyQualifiedJavaType(parsedType);
+    }
+
     public boolean isExplicitlyImported() {
         return explicitlyImported;
     }
@@ -88,6 +142,10 @@ public class FullyQualifiedJavaType implements
      * @return Returns the fullyQualifiedName.
      */
     public String getFullyQualifiedName() {
+        if (fullyQualifiedName != null && typeArguments.isEmpty()) {
+            return fullyQualifiedName;
+        }
+
         StringBuilder sb = new StringBuilder();
         if (wildcardType) {
             sb.append('?');
@@ -133,6 +191,10 @@ public class FullyQualifiedJavaType implements
      * @return the import list
      */
     public List<String> getImportList() {
+        if (importList != null && typeArguments.isEmpty()) {
+            return new ArrayList<>(importList);
+        }
+
         List<String> answer = new ArrayList<>();
         if (isExplicitlyImported()) {
             int index = baseShortName.indexOf('.');
@@ -169,6 +231,10 @@ public class FullyQualifiedJavaType implements
     }
 
     public String getShortName() {
+        if (shortName != null && typeArguments.isEmpty()) {
+            return shortName;
+        }
+
         StringBuilder sb = new StringBuilder();
         if (wildcardType) {
             sb.append('?');
@@ -241,11 +307,7 @@ public class FullyQualifiedJavaType implements
     }
 
     public static FullyQualifiedJavaType getIntInstance() {
-        if (intInstance == null) {
-            intInstance = new FullyQualifiedJavaType("int"); //$NON-NLS-1$
-        }
-
-        return intInstance;
+        return getInstance("int"); //$NON-NLS-1$
     }
 
     public static FullyQualifiedJavaType getNewListInstance() {
@@ -269,52 +331,27 @@ public class FullyQualifiedJavaType implements
     }
 
     public static FullyQualifiedJavaType getStringInstance() {
-        if (stringInstance == null) {
-            stringInstance = new FullyQualifiedJavaType("java.lang.String"); //$NON-NLS-1$
-        }
-
-        return stringInstance;
+        return getInstance("java.lang.String"); //$NON-NLS-1$
     }
 
     public static FullyQualifiedJavaType getBooleanPrimitiveInstance() {
-        if (booleanPrimitiveInstance == null) {
-            booleanPrimitiveInstance = new FullyQualifiedJavaType("boolean"); //$NON-NLS-1$
-        }
-
-        return booleanPrimitiveInstance;
+        return getInstance("boolean"); //$NON-NLS-1$
     }
 
     public static FullyQualifiedJavaType getObjectInstance() {
-        if (objectInstance == null) {
-            objectInstance = new FullyQualifiedJavaType("java.lang.Object"); //$NON-NLS-1$
-        }
-
-        return objectInstance;
+        return getInstance("java.lang.Object"); //$NON-NLS-1$
     }
 
     public static FullyQualifiedJavaType getDateInstance() {
-        if (dateInstance == null) {
-            dateInstance = new FullyQualifiedJavaType("java.util.Date"); //$NON-NLS-1$
-        }
-
-        return dateInstance;
+        return getInstance("java.util.Date"); //$NON-NLS-1$
     }
 
     public static FullyQualifiedJavaType getCriteriaInstance() {
-        if (criteriaInstance == null) {
-            criteriaInstance = new FullyQualifiedJavaType("Criteria"); //$NON-NLS-1$
-        }
-
-        return criteriaInstance;
+        return getInstance("Criteria"); //$NON-NLS-1$
     }
 
     public static FullyQualifiedJavaType getGeneratedCriteriaInstance() {
-        if (generatedCriteriaInstance == null) {
-            generatedCriteriaInstance = new FullyQualifiedJavaType(
-                    "GeneratedCriteria"); //$NON-NLS-1$
-        }
-
-        return generatedCriteriaInstance;
+        return getInstance("GeneratedCriteria"); //$NON-NLS-1$
     }
 
     @Override
@@ -0,0 +1,108 @@
+/*
+ *    Copyright 2006-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api.dom.java;
+
+import java.util.AbstractSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The imported types of a compilation unit. Besides the sorted types, this set keeps an index of the names the
+ * types import, so checking whether a name is imported does not scan every import.
+ *
+ * <p>The index is updated as types are added. Removing a type discards it, and it is rebuilt on the next lookup.
+ */
+class ImportedTypes extends AbstractSet<FullyQualifiedJavaType> {
+
+    private final Set<FullyQualifiedJavaType> types = new TreeSet<>();
+
+    // null if a type was removed since the index was built
+    private Set<String> importedNames = new HashSet<>();
+
+    @Override
+    public boolean add(FullyQualifiedJavaType type) {
+        if (!types.add(type)) {
+            return false;
+        }
+
+        if (importedNames != null) {
+            importedNames.addAll(type.getImportList());
+        }
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return types.contains(o);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!types.remove(o)) {
+            return false;
+        }
+
+        importedNames = null;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        types.clear();
+        importedNames = new HashSet<>();
+    }
+
+    @Override
+    public Iterator<FullyQualifiedJavaType> iterator() {
+        Iterator<FullyQualifiedJavaType> iterator = types.iterator();
+        return new Iterator<FullyQualifiedJavaType>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public FullyQualifiedJavaType next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                importedNames = null;
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return types.size();
+    }
+
+    boolean isImported(String fullyQualifiedName) {
+        if (importedNames == null) {
+            Set<String> names = new HashSet<>();
+            for (FullyQualifiedJavaType type : types) {
+                names.addAll(type.getImportList());
+            }
+            importedNames = names;
+        }
+
+        return importedNames.contains(fullyQualifiedName);
+    }
+}
@@ -37,7 +37,7 @@ public class JavaDomUtils {
             // then add the array indicators back in
             String fqn = fqjt.getFullyQualifiedName();
             String typeName = calculateTypeName(compilationUnit,
-                    new FullyQualifiedJavaType(fqn.substring(0, fqn.indexOf('['))));
+                    FullyQualifiedJavaType.getInstance(fqn.substring(0, fqn.indexOf('['))));
             return typeName + fqn.substring(fqn.indexOf('['));
         }
 
@@ -58,7 +58,7 @@ public class JavaDomUtils {
     private static String calculateParameterizedTypeName(CompilationUnit compilationUnit,
             FullyQualifiedJavaType fqjt) {
         String baseTypeName = calculateTypeName(compilationUnit,
-                new FullyQualifiedJavaType(fqjt.getFullyQualifiedNameWithoutTypeParameters()));
+                FullyQualifiedJavaType.getInstance(fqjt.getFullyQualifiedNameWithoutTypeParameters()));
 
         return fqjt.getTypeArguments().stream()
                 .map(t -> calculateTypeName(compilationUnit, t))
@@ -79,7 +79,6 @@ public class JavaDomUtils {
 
     private static boolean typeIsAlreadyImported(CompilationUnit compilationUnit,
             FullyQualifiedJavaType fullyQualifiedJavaType) {
-        String name = fullyQualifiedJavaType.getFullyQualifiedNameWithoutTypeParameters();
-        return compilationUnit.getImportedTypes().stream().anyMatch(e -> e.getImportList().contains(name));
+        return compilationUnit.isImported(fullyQualifiedJavaType.getFullyQualifiedNameWithoutTypeParameters());
     }
 }
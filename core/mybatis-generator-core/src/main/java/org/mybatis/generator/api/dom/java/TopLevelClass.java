@@ -22,7 +22,7 @@ import java.util.TreeSet;
 
 public class TopLevelClass extends InnerClass implements CompilationUnit {
 
-    private final Set<FullyQualifiedJavaType> importedTypes = new TreeSet<>();
+    private final ImportedTypes importedTypes = new ImportedTypes();
 
     private final Set<String> staticImports = new TreeSet<>();
 
@@ -71,6 +71,11 @@ public class TopLevelClass extends InnerClass implements CompilationUnit {
         this.importedTypes.addAll(importedTypes);
     }
 
+    @Override
+    public boolean isImported(String fullyQualifiedName) {
+        return importedTypes.isImported(fullyQualifiedName);
+    }
+
     @Override
     public Set<String> getStaticImports() {
         return staticImports;
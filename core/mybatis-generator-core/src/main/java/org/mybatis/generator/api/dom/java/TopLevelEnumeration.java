@@ -22,7 +22,7 @@ import java.util.TreeSet;
 
 public class TopLevelEnumeration extends InnerEnum implements CompilationUnit {
 
-    private final Set<FullyQualifiedJavaType> importedTypes = new TreeSet<>();
+    private final ImportedTypes importedTypes = new ImportedTypes();
 
     private final Set<String> staticImports = new TreeSet<>();
 
@@ -65,6 +65,11 @@ public class TopLevelEnumeration extends InnerEnum implements CompilationUnit {
         this.importedTypes.addAll(importedTypes);
     }
 
+    @Override
+    public boolean isImported(String fullyQualifiedName) {
+        return importedTypes.isImported(fullyQualifiedName);
+    }
+
     @Override
     public Set<String> getStaticImports() {
         return staticImports;
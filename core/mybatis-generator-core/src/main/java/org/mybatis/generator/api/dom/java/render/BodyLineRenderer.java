@@ -15,30 +15,34 @@
  */
 package org.mybatis.generator.api.dom.java.render;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.ListIterator;
 
-import org.mybatis.generator.api.dom.OutputUtilities;
+import org.mybatis.generator.api.dom.SourceWriter;
 
 public class BodyLineRenderer {
 
     public List<String> render(List<String> bodyLines) {
-        List<String> lines = new ArrayList<>();
+        return SourceWriter.collectLines(out -> render(bodyLines, out));
+    }
+
+    /**
+     * Writes the body lines, indented one level deeper than the writer's current depth.
+     *
+     * @param bodyLines the body lines
+     * @param out the writer
+     */
+    public void render(List<String> bodyLines, SourceWriter out) {
         int indentLevel = 1;
-        StringBuilder sb = new StringBuilder();
 
         ListIterator<String> listIter = bodyLines.listIterator();
         while (listIter.hasNext()) {
-            sb.setLength(0);
             String line = listIter.next();
             if (line.startsWith("}")) { //$NON-NLS-1$
                 indentLevel--;
             }
 
-            OutputUtilities.javaIndent(sb, indentLevel);
-            sb.append(line);
-            lines.add(sb.toString());
+            out.line(indentLevel, line);
 
             if (isCodeBlockStartExceptSwitchStatement(line) || line.endsWith(":")) { //$NON-NLS-1$
                 indentLevel++;
@@ -58,8 +62,6 @@ public class BodyLineRenderer {
                 indentLevel--;
             }
         }
-
-        return lines;
     }
 
     private boolean isCodeBlockStartExceptSwitchStatement(String line) {
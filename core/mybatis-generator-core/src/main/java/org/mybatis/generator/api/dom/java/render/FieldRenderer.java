@@ -15,9 +15,9 @@
  */
 package org.mybatis.generator.api.dom.java.render;
 
-import java.util.ArrayList;
 import java.util.List;
 
+import org.mybatis.generator.api.dom.SourceWriter;
 import org.mybatis.generator.api.dom.java.CompilationUnit;
 import org.mybatis.generator.api.dom.java.Field;
 import org.mybatis.generator.api.dom.java.JavaDomUtils;
@@ -25,13 +25,13 @@ import org.mybatis.generator.api.dom.java.JavaDomUtils;
 public class FieldRenderer {
 
     public List<String> render(Field field, CompilationUnit compilationUnit) {
-        List<String> lines = new ArrayList<>();
-
-        lines.addAll(field.getJavaDocLines());
-        lines.addAll(field.getAnnotations());
-        lines.add(renderField(field, compilationUnit));
+        return SourceWriter.collectLines(out -> render(field, compilationUnit, out));
+    }
 
-        return lines;
+    public void render(Field field, CompilationUnit compilationUnit, SourceWriter out) {
+        out.lines(field.getJavaDocLines());
+        out.lines(field.getAnnotations());
+        out.line(renderField(field, compilationUnit));
     }
 
     private String renderField(Field field, CompilationUnit compilationUnit) {
@@ -15,9 +15,9 @@
  */
 package org.mybatis.generator.api.dom.java.render;
 
-import java.util.ArrayList;
 import java.util.List;
 
+import org.mybatis.generator.api.dom.SourceWriter;
 import org.mybatis.generator.api.dom.java.InitializationBlock;
 
 public class InitializationBlockRenderer {
@@ -25,13 +25,14 @@ public class InitializationBlockRenderer {
     private final BodyLineRenderer bodyLineRenderer = new BodyLineRenderer();
 
     public List<String> render(InitializationBlock initializationBlock) {
+        return SourceWriter.collectLines(out -> render(initializationBlock, out));
+    }
 
-        List<String> lines = new ArrayList<>(initializationBlock.getJavaDocLines());
-        lines.add(renderFirstLine(initializationBlock));
-        lines.addAll(bodyLineRenderer.render(initializationBlock.getBodyLines()));
-        lines.add("}"); //$NON-NLS-1$
-
-        return lines;
+    public void render(InitializationBlock initializationBlock, SourceWriter out) {
+        out.lines(initializationBlock.getJavaDocLines());
+        out.line(renderFirstLine(initializationBlock));
+        bodyLineRenderer.render(initializationBlock.getBodyLines(), out);
+        out.line("}"); //$NON-NLS-1$
     }
 
     private String renderFirstLine(InitializationBlock initializationBlock) {
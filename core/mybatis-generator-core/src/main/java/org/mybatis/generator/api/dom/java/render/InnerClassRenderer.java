@@ -15,9 +15,9 @@
  */
 package org.mybatis.generator.api.dom.java.render;
 
-import java.util.ArrayList;
 import java.util.List;
 
+import org.mybatis.generator.api.dom.SourceWriter;
 import org.mybatis.generator.api.dom.java.CompilationUnit;
 import org.mybatis.generator.api.dom.java.InnerClass;
 import org.mybatis.generator.api.dom.java.JavaDomUtils;
@@ -26,23 +26,24 @@ import org.mybatis.generator.internal.util.CustomCollectors;
 public class InnerClassRenderer {
 
     public List<String> render(InnerClass innerClass, CompilationUnit compilationUnit) {
-        List<String> lines = new ArrayList<>();
-
-        lines.addAll(innerClass.getJavaDocLines());
-        lines.addAll(innerClass.getAnnotations());
-        lines.add(renderFirstLine(innerClass, compilationUnit));
-        lines.addAll(RenderingUtilities.renderFields(innerClass.getFields(), compilationUnit));
-        lines.addAll(RenderingUtilities.renderInitializationBlocks(innerClass.getInitializationBlocks()));
-        lines.addAll(RenderingUtilities.renderClassOrEnumMethods(innerClass.getMethods(), compilationUnit));
-        lines.addAll(RenderingUtilities.renderInnerClasses(innerClass.getInnerClasses(), compilationUnit));
-        lines.addAll(RenderingUtilities.renderInnerInterfaces(innerClass.getInnerInterfaces(), compilationUnit));
-        lines.addAll(RenderingUtilities.renderInnerEnums(innerClass.getInnerEnums(), compilationUnit));
-
-        lines = RenderingUtilities.removeLastEmptyLine(lines);
-
-        lines.add("}"); //$NON-NLS-1$
+        return SourceWriter.collectLines(out -> render(innerClass, compilationUnit, out));
+    }
 
-        return lines;
+    public void render(InnerClass innerClass, CompilationUnit compilationUnit, SourceWriter out) {
+        out.lines(innerClass.getJavaDocLines());
+        out.lines(innerClass.getAnnotations());
+        out.line(renderFirstLine(innerClass, compilationUnit));
+        out.indent();
+        RenderingUtilities.renderFields(innerClass.getFields(), compilationUnit, out);
+        RenderingUtilities.renderInitializationBlocks(innerClass.getInitializationBlocks(), out);
+        RenderingUtilities.renderClassOrEnumMethods(innerClass.getMethods(), compilationUnit, out);
+        RenderingUtilities.renderInnerClasses(innerClass.getInnerClasses(), compilationUnit, out);
+        RenderingUtilities.renderInnerInterfaces(innerClass.getInnerInterfaces(), compilationUnit, out);
+        RenderingUtilities.renderInnerEnums(innerClass.getInnerEnums(), compilationUnit, out);
+
+        out.removeLastEmptyLine();
+        out.outdent();
+        out.line("}"); //$NON-NLS-1$
     }
 
     private String renderFirstLine(InnerClass innerClass, CompilationUnit compilationUnit) {
@@ -15,10 +15,10 @@
  */
 package org.mybatis.generator.api.dom.java.render;
 
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
+import org.mybatis.generator.api.dom.SourceWriter;
 import org.mybatis.generator.api.dom.java.CompilationUnit;
 import org.mybatis.generator.api.dom.java.InnerEnum;
 import org.mybatis.generator.api.dom.java.JavaDomUtils;
@@ -27,24 +27,25 @@ import org.mybatis.generator.internal.util.CustomCollectors;
 public class InnerEnumRenderer {
 
     public List<String> render(InnerEnum innerEnum, CompilationUnit compilationUnit) {
-        List<String> lines = new ArrayList<>();
-
-        lines.addAll(innerEnum.getJavaDocLines());
-        lines.addAll(innerEnum.getAnnotations());
-        lines.add(renderFirstLine(innerEnum, compilationUnit));
-        lines.addAll(renderEnumConstants(innerEnum));
-        lines.addAll(RenderingUtilities.renderFields(innerEnum.getFields(), compilationUnit));
-        lines.addAll(RenderingUtilities.renderInitializationBlocks(innerEnum.getInitializationBlocks()));
-        lines.addAll(RenderingUtilities.renderClassOrEnumMethods(innerEnum.getMethods(), compilationUnit));
-        lines.addAll(RenderingUtilities.renderInnerClasses(innerEnum.getInnerClasses(), compilationUnit));
-        lines.addAll(RenderingUtilities.renderInnerInterfaces(innerEnum.getInnerInterfaces(), compilationUnit));
-        lines.addAll(RenderingUtilities.renderInnerEnums(innerEnum.getInnerEnums(), compilationUnit));
-
-        lines = RenderingUtilities.removeLastEmptyLine(lines);
-
-        lines.add("}"); //$NON-NLS-1$
+        return SourceWriter.collectLines(out -> render(innerEnum, compilationUnit, out));
+    }
 
-        return lines;
+    public void render(InnerEnum innerEnum, CompilationUnit compilationUnit, SourceWriter out) {
+        out.lines(innerEnum.getJavaDocLines());
+        out.lines(innerEnum.getAnnotations());
+        out.line(renderFirstLine(innerEnum, compilationUnit));
+        out.indent();
+        renderEnumConstants(innerEnum, out);
+        RenderingUtilities.renderFields(innerEnum.getFields(), compilationUnit, out);
+        RenderingUtilities.renderInitializationBlocks(innerEnum.getInitializationBlocks(), out);
+        RenderingUtilities.renderClassOrEnumMethods(innerEnum.getMethods(), compilationUnit, out);
+        RenderingUtilities.renderInnerClasses(innerEnum.getInnerClasses(), compilationUnit, out);
+        RenderingUtilities.renderInnerInterfaces(innerEnum.getInnerInterfaces(), compilationUnit, out);
+        RenderingUtilities.renderInnerEnums(innerEnum.getInnerEnums(), compilationUnit, out);
+
+        out.removeLastEmptyLine();
+        out.outdent();
+        out.line("}"); //$NON-NLS-1$
     }
 
     private String renderFirstLine(InnerEnum innerEnum, CompilationUnit compilationUnit) {
@@ -64,22 +65,19 @@ public class InnerEnumRenderer {
         return sb.toString();
     }
 
-    private List<String> renderEnumConstants(InnerEnum innerEnum) {
-        List<String> answer = new ArrayList<>();
-
+    private void renderEnumConstants(InnerEnum innerEnum, SourceWriter out) {
         Iterator<String> iter = innerEnum.getEnumConstants().iterator();
         while (iter.hasNext()) {
             String enumConstant = iter.next();
 
             if (iter.hasNext()) {
-                answer.add(RenderingUtilities.JAVA_INDENT + enumConstant + ","); //$NON-NLS-1$
+                out.line(enumConstant + ","); //$NON-NLS-1$
             } else {
-                answer.add(RenderingUtilities.JAVA_INDENT + enumConstant + ";"); //$NON-NLS-1$
+                out.line(enumConstant + ";"); //$NON-NLS-1$
             }
         }
 
-        answer.add(""); //$NON-NLS-1$
-        return answer;
+        out.emptyLine();
     }
 
     // should return an empty string if no super interfaces
@@ -15,9 +15,9 @@
  */
 package org.mybatis.generator.api.dom.java.render;
 
-import java.util.ArrayList;
 import java.util.List;
 
+import org.mybatis.generator.api.dom.SourceWriter;
 import org.mybatis.generator.api.dom.java.CompilationUnit;
 import org.mybatis.generator.api.dom.java.InnerInterface;
 import org.mybatis.generator.api.dom.java.JavaDomUtils;
@@ -26,22 +26,23 @@ import org.mybatis.generator.internal.util.CustomCollectors;
 public class InnerInterfaceRenderer {
 
     public List<String> render(InnerInterface innerInterface, CompilationUnit compilationUnit) {
-        List<String> lines = new ArrayList<>();
-
-        lines.addAll(innerInterface.getJavaDocLines());
-        lines.addAll(innerInterface.getAnnotations());
-        lines.add(renderFirstLine(innerInterface, compilationUnit));
-        lines.addAll(RenderingUtilities.renderFields(innerInterface.getFields(), compilationUnit));
-        lines.addAll(RenderingUtilities.renderInterfaceMethods(innerInterface.getMethods(), compilationUnit));
-        lines.addAll(RenderingUtilities.renderInnerClasses(innerInterface.getInnerClasses(), compilationUnit));
-        lines.addAll(RenderingUtilities.renderInnerInterfaces(innerInterface.getInnerInterfaces(), compilationUnit));
-        lines.addAll(RenderingUtilities.renderInnerEnums(innerInterface.getInnerEnums(), compilationUnit));
-
-        lines = RenderingUtilities.removeLastEmptyLine(lines);
+        return SourceWriter.collectLines(out -> render(innerInterface, compilationUnit, out));
+    }
 
-        lines.add("}"); //$NON-NLS-1$
+    public void render(InnerInterface innerInterface, CompilationUnit compilationUnit, SourceWriter out) {
+        out.lines(innerInterface.getJavaDocLines());
+        out.lines(innerInterface.getAnnotations());
+        out.line(renderFirstLine(innerInterface, compilationUnit));
+        out.indent();
+        RenderingUtilities.renderFields(innerInterface.getFields(), compilationUnit, out);
+        RenderingUtilities.renderInterfaceMethods(innerInterface.getMethods(), compilationUnit, out);
+        RenderingUtilities.renderInnerClasses(innerInterface.getInnerClasses(), compilationUnit, out);
+        RenderingUtilities.renderInnerInterfaces(innerInterface.getInnerInterfaces(), compilationUnit, out);
+        RenderingUtilities.renderInnerEnums(innerInterface.getInnerEnums(), compilationUnit, out);
 
-        return lines;
+        out.removeLastEmptyLine();
+        out.outdent();
+        out.line("}"); //$NON-NLS-1$
     }
 
     private String renderFirstLine(InnerInterface innerInterface, CompilationUnit compilationUnit) {
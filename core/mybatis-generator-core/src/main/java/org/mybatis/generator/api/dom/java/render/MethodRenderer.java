@@ -15,10 +15,10 @@
  */
 package org.mybatis.generator.api.dom.java.render;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.mybatis.generator.api.dom.SourceWriter;
 import org.mybatis.generator.api.dom.java.CompilationUnit;
 import org.mybatis.generator.api.dom.java.JavaDomUtils;
 import org.mybatis.generator.api.dom.java.JavaVisibility;
@@ -31,18 +31,18 @@ public class MethodRenderer {
     private final BodyLineRenderer bodyLineRenderer = new BodyLineRenderer();
 
     public List<String> render(Method method, boolean inInterface, CompilationUnit compilationUnit) {
-        List<String> lines = new ArrayList<>();
+        return SourceWriter.collectLines(out -> render(method, inInterface, compilationUnit, out));
+    }
 
-        lines.addAll(method.getJavaDocLines());
-        lines.addAll(method.getAnnotations());
-        lines.add(getFirstLine(method, inInterface, compilationUnit));
+    public void render(Method method, boolean inInterface, CompilationUnit compilationUnit, SourceWriter out) {
+        out.lines(method.getJavaDocLines());
+        out.lines(method.getAnnotations());
+        out.line(getFirstLine(method, inInterface, compilationUnit));
 
         if (!method.isAbstract() && !method.isNative()) {
-            lines.addAll(bodyLineRenderer.render(method.getBodyLines()));
-            lines.add("}"); //$NON-NLS-1$
+            bodyLineRenderer.render(method.getBodyLines(), out);
+            out.line("}"); //$NON-NLS-1$
         }
-
-        return lines;
     }
 
     private String getFirstLine(Method method, boolean inInterface, CompilationUnit compilationUnit) {
@@ -17,15 +17,13 @@ package org.mybatis.generator.api.dom.java.render;
 
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.function.Function;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
+import org.mybatis.generator.api.dom.SourceWriter;
 import org.mybatis.generator.api.dom.java.CompilationUnit;
 import org.mybatis.generator.api.dom.java.Field;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
@@ -57,69 +55,81 @@ public class RenderingUtilities {
     }
 
     public static List<String> renderFields(List<Field> fields, CompilationUnit compilationUnit) {
-        return fields.stream()
-                .flatMap(f -> renderField(f, compilationUnit))
-                .collect(Collectors.toList());
+        return indentedLines(out -> renderFields(fields, compilationUnit, out));
     }
 
-    private static Stream<String> renderField(Field field, CompilationUnit compilationUnit) {
-        return addEmptyLine(fieldRenderer.render(field, compilationUnit).stream()
-                .map(RenderingUtilities::javaIndent));
+    public static void renderFields(List<Field> fields, CompilationUnit compilationUnit, SourceWriter out) {
+        for (Field field : fields) {
+            fieldRenderer.render(field, compilationUnit, out);
+            out.emptyLine();
+        }
     }
 
     public static List<String> renderInitializationBlocks(List<InitializationBlock> initializationBlocks) {
-        return initializationBlocks.stream()
-                .flatMap(RenderingUtilities::renderInitializationBlock)
-                .collect(Collectors.toList());
+        return indentedLines(out -> renderInitializationBlocks(initializationBlocks, out));
     }
 
-    private static Stream<String> renderInitializationBlock(InitializationBlock initializationBlock) {
-        return addEmptyLine(initializationBlockRenderer.render(initializationBlock).stream()
-                .map(RenderingUtilities::javaIndent));
+    public static void renderInitializationBlocks(List<InitializationBlock> initializationBlocks,
+            SourceWriter out) {
+        for (InitializationBlock initializationBlock : initializationBlocks) {
+            initializationBlockRenderer.render(initializationBlock, out);
+            out.emptyLine();
+        }
     }
 
     public static List<String> renderClassOrEnumMethods(List<Method> methods, CompilationUnit compilationUnit) {
-        return methods.stream()
-                .flatMap(m -> renderMethod(m, false, compilationUnit))
-                .collect(Collectors.toList());
+        return indentedLines(out -> renderClassOrEnumMethods(methods, compilationUnit, out));
+    }
+
+    public static void renderClassOrEnumMethods(List<Method> methods, CompilationUnit compilationUnit,
+            SourceWriter out) {
+        renderMethods(methods, false, compilationUnit, out);
     }
 
     public static List<String> renderInterfaceMethods(List<Method> methods, CompilationUnit compilationUnit) {
-        return methods.stream()
-                .flatMap(m -> renderMethod(m, true, compilationUnit))
-                .collect(Collectors.toList());
+        return indentedLines(out -> renderInterfaceMethods(methods, compilationUnit, out));
     }
 
-    private static Stream<String> renderMethod(Method method, boolean inInterface, CompilationUnit compilationUnit) {
-        return addEmptyLine(methodRenderer.render(method, inInterface, compilationUnit).stream()
-                .map(RenderingUtilities::javaIndent));
+    public static void renderInterfaceMethods(List<Method> methods, CompilationUnit compilationUnit,
+            SourceWriter out) {
+        renderMethods(methods, true, compilationUnit, out);
     }
 
-    private static Stream<String> addEmptyLine(Stream<String> in) {
-        return Stream.of(in, Stream.of("")) //$NON-NLS-1$
-                .flatMap(Function.identity());
+    private static void renderMethods(List<Method> methods, boolean inInterface, CompilationUnit compilationUnit,
+            SourceWriter out) {
+        for (Method method : methods) {
+            methodRenderer.render(method, inInterface, compilationUnit, out);
+            out.emptyLine();
+        }
     }
 
     public static List<String> renderInnerClasses(List<InnerClass> innerClasses, CompilationUnit compilationUnit) {
-        return innerClasses.stream()
-                .flatMap(ic -> renderInnerClass(ic, compilationUnit))
-                .collect(Collectors.toList());
+        return indentedLines(out -> renderInnerClasses(innerClasses, compilationUnit, out));
     }
 
-    public static List<String> renderInnerClassNoIndent(InnerClass innerClass, CompilationUnit compilationUnit) {
-        return innerClassRenderer.render(innerClass, compilationUnit);
+    public static void renderInnerClasses(List<InnerClass> innerClasses, CompilationUnit compilationUnit,
+            SourceWriter out) {
+        for (InnerClass innerClass : innerClasses) {
+            innerClassRenderer.render(innerClass, compilationUnit, out);
+            out.emptyLine();
+        }
     }
 
-    private static Stream<String> renderInnerClass(InnerClass innerClass, CompilationUnit compilationUnit) {
-        return addEmptyLine(innerClassRenderer.render(innerClass, compilationUnit).stream()
-                .map(RenderingUtilities::javaIndent));
+    public static List<String> renderInnerClassNoIndent(InnerClass innerClass, CompilationUnit compilationUnit) {
+        return innerClassRenderer.render(innerClass, compilationUnit);
     }
 
     public static List<String> renderInnerInterfaces(List<InnerInterface> innerInterfaces,
             CompilationUnit compilationUnit) {
-        return innerInterfaces.stream()
-                .flatMap(ii -> renderInnerInterface(ii, compilationUnit))
-                .collect(Collectors.toList());
+        return indentedLines(out -> renderInnerInterfaces(innerInterfaces, compilationUnit, out));
+    }
+
+    public static void renderInnerInterfaces(List<InnerInterface> innerInterfaces, CompilationUnit compilationUnit,
+            SourceWriter out) {
+        for (InnerInterface innerInterface : innerInterfaces) {
+            innerInterfaceRenderer.render(innerInterface, compilationUnit, out);
+            out.emptyLine();
+        }
     }
 
     public static List<String> renderInnerInterfaceNoIndent(InnerInterface innerInterface,
@@ -127,55 +137,72 @@ public class RenderingUtilities {
         return innerInterfaceRenderer.render(innerInterface, compilationUnit);
     }
 
-    private static Stream<String> renderInnerInterface(InnerInterface innerInterface, CompilationUnit compilationUnit) {
-        return addEmptyLine(innerInterfaceRenderer.render(innerInterface, compilationUnit).stream()
-                .map(RenderingUtilities::javaIndent));
+    public static List<String> renderInnerEnums(List<InnerEnum> innerEnums, CompilationUnit compilationUnit) {
+        return indentedLines(out -> renderInnerEnums(innerEnums, compilationUnit, out));
     }
 
-    public static List<String> renderInnerEnums(List<InnerEnum> innerEnums, CompilationUnit compilationUnit) {
-        return innerEnums.stream()
-                .flatMap(ie -> renderInnerEnum(ie, compilationUnit))
-                .collect(Collectors.toList());
+    public static void renderInnerEnums(List<InnerEnum> innerEnums, CompilationUnit compilationUnit,
+            SourceWriter out) {
+        for (InnerEnum innerEnum : innerEnums) {
+            innerEnumRenderer.render(innerEnum, compilationUnit, out);
+            out.emptyLine();
+        }
     }
 
     public static List<String> renderInnerEnumNoIndent(InnerEnum innerEnum, CompilationUnit compilationUnit) {
         return innerEnumRenderer.render(innerEnum, compilationUnit);
     }
 
-    private static Stream<String> renderInnerEnum(InnerEnum innerEnum, CompilationUnit compilationUnit) {
-        return addEmptyLine(innerEnumRenderer.render(innerEnum, compilationUnit).stream()
-                .map(RenderingUtilities::javaIndent));
+    // the list forms of the member renderers return the members indented one level
+    private static List<String> indentedLines(Consumer<SourceWriter> renderer) {
+        return SourceWriter.collectLines(out -> {
+            out.indent();
+            renderer.accept(out);
+        });
     }
 
     public static List<String> renderPackage(CompilationUnit compilationUnit) {
-        List<String> answer = new ArrayList<>();
+        return SourceWriter.collectLines(out -> renderPackage(compilationUnit, out));
+    }
 
+    public static void renderPackage(CompilationUnit compilationUnit, SourceWriter out) {
         String pack = compilationUnit.getType().getPackageName();
         if (stringHasValue(pack)) {
-            answer.add("package " + pack + ";"); //$NON-NLS-1$ //$NON-NLS-2$
-            answer.add(""); //$NON-NLS-1$
+            out.line("package " + pack + ";"); //$NON-NLS-1$ //$NON-NLS-2$
+            out.emptyLine();
         }
-        return answer;
     }
 
     public static List<String> renderStaticImports(CompilationUnit compilationUnit) {
+        return SourceWriter.collectLines(out -> renderStaticImports(compilationUnit, out));
+    }
+
+    public static void renderStaticImports(CompilationUnit compilationUnit, SourceWriter out) {
         if (compilationUnit.getStaticImports().isEmpty()) {
-            return Collections.emptyList();
+            return;
         }
 
-        return addEmptyLine(compilationUnit.getStaticImports().stream()
-                .map(s -> "import static " + s + ";")) //$NON-NLS-1$ //$NON-NLS-2$
-                .collect(Collectors.toList());
+        for (String staticImport : compilationUnit.getStaticImports()) {
+            out.line("import static " + staticImport + ";"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+        out.emptyLine();
     }
 
     public static List<String> renderImports(CompilationUnit compilationUnit) {
+        return SourceWriter.collectLines(out -> renderImports(compilationUnit, out));
+    }
+
+    public static void renderImports(CompilationUnit compilationUnit, SourceWriter out) {
         Set<String> imports = renderImports(compilationUnit.getImportedTypes());
 
         if (imports.isEmpty()) {
-            return Collections.emptyList();
+            return;
         }
 
-        return addEmptyLine(imports.stream()).collect(Collectors.toList());
+        for (String importLine : imports) {
+            out.line(importLine);
+        }
+        out.emptyLine();
     }
 
     private static Set<String> renderImports(Set<FullyQualifiedJavaType> imports) {
@@ -190,15 +217,6 @@ public class RenderingUtilities {
         return "import " + s + ";"; //$NON-NLS-1$ //$NON-NLS-2$
     }
 
-
-    private static String javaIndent(String in) {
-        if (in.isEmpty()) {
-            return in; // don't indent empty lines
-        }
-
-        return JAVA_INDENT + in;
-    }
-
     public static List<String> removeLastEmptyLine(List<String> lines) {
         if (lines.get(lines.size() - 1).isEmpty()) {
             return lines.subList(0, lines.size() - 1);
@@ -16,28 +16,45 @@
 package org.mybatis.generator.api.dom.java.render;
 
 import static org.mybatis.generator.api.dom.java.render.RenderingUtilities.renderImports;
-import static org.mybatis.generator.api.dom.java.render.RenderingUtilities.renderInnerClassNoIndent;
 import static org.mybatis.generator.api.dom.java.render.RenderingUtilities.renderPackage;
 import static org.mybatis.generator.api.dom.java.render.RenderingUtilities.renderStaticImports;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
+import org.mybatis.generator.api.dom.SourceWriter;
 import org.mybatis.generator.api.dom.java.TopLevelClass;
 
 public class TopLevelClassRenderer {
+    private final InnerClassRenderer innerClassRenderer = new InnerClassRenderer();
 
     public String render(TopLevelClass topLevelClass) {
-        List<String> lines = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        render(topLevelClass, new SourceWriter(sb));
+        return sb.toString();
+    }
 
-        lines.addAll(topLevelClass.getFileCommentLines());
-        lines.addAll(renderPackage(topLevelClass));
-        lines.addAll(renderStaticImports(topLevelClass));
-        lines.addAll(renderImports(topLevelClass));
-        lines.addAll(renderInnerClassNoIndent(topLevelClass, topLevelClass));
+    /**
+     * Writes the source straight to an Appendable, without building the lines of the file first.
+     *
+     * @param topLevelClass the type to render
+     * @param out the Appendable
+     * @throws IOException if the Appendable throws an IOException
+     */
+    public void render(TopLevelClass topLevelClass, Appendable out) throws IOException {
+        try {
+            render(topLevelClass, new SourceWriter(out));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
 
-        return lines.stream()
-                .collect(Collectors.joining(System.getProperty("line.separator"))); //$NON-NLS-1$
+    private void render(TopLevelClass topLevelClass, SourceWriter out) {
+        out.lines(topLevelClass.getFileCommentLines());
+        renderPackage(topLevelClass, out);
+        renderStaticImports(topLevelClass, out);
+        renderImports(topLevelClass, out);
+        innerClassRenderer.render(topLevelClass, topLevelClass, out);
+        out.finish();
     }
 }
@@ -16,28 +16,45 @@
 package org.mybatis.generator.api.dom.java.render;
 
 import static org.mybatis.generator.api.dom.java.render.RenderingUtilities.renderImports;
-import static org.mybatis.generator.api.dom.java.render.RenderingUtilities.renderInnerEnumNoIndent;
 import static org.mybatis.generator.api.dom.java.render.RenderingUtilities.renderPackage;
 import static org.mybatis.generator.api.dom.java.render.RenderingUtilities.renderStaticImports;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
+import org.mybatis.generator.api.dom.SourceWriter;
 import org.mybatis.generator.api.dom.java.TopLevelEnumeration;
 
 public class TopLevelEnumerationRenderer {
+    private final InnerEnumRenderer innerEnumRenderer = new InnerEnumRenderer();
 
     public String render(TopLevelEnumeration topLevelEnumeration) {
-        List<String> lines = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        render(topLevelEnumeration, new SourceWriter(sb));
+        return sb.toString();
+    }
 
-        lines.addAll(topLevelEnumeration.getFileCommentLines());
-        lines.addAll(renderPackage(topLevelEnumeration));
-        lines.addAll(renderStaticImports(topLevelEnumeration));
-        lines.addAll(renderImports(topLevelEnumeration));
-        lines.addAll(renderInnerEnumNoIndent(topLevelEnumeration, topLevelEnumeration));
+    /**
+     * Writes the source straight to an Appendable, without building the lines of the file first.
+     *
+     * @param topLevelEnumeration the type to render
+     * @param out the Appendable
+     * @throws IOException if the Appendable throws an IOException
+     */
+    public void render(TopLevelEnumeration topLevelEnumeration, Appendable out) throws IOException {
+        try {
+            render(topLevelEnumeration, new SourceWriter(out));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
 
-        return lines.stream()
-                .collect(Collectors.joining(System.getProperty("line.separator"))); //$NON-NLS-1$
+    private void render(TopLevelEnumeration topLevelEnumeration, SourceWriter out) {
+        out.lines(topLevelEnumeration.getFileCommentLines());
+        renderPackage(topLevelEnumeration, out);
+        renderStaticImports(topLevelEnumeration, out);
+        renderImports(topLevelEnumeration, out);
+        innerEnumRenderer.render(topLevelEnumeration, topLevelEnumeration, out);
+        out.finish();
     }
 }
@@ -16,28 +16,45 @@
 package org.mybatis.generator.api.dom.java.render;
 
 import static org.mybatis.generator.api.dom.java.render.RenderingUtilities.renderImports;
-import static org.mybatis.generator.api.dom.java.render.RenderingUtilities.renderInnerInterfaceNoIndent;
 import static org.mybatis.generator.api.dom.java.render.RenderingUtilities.renderPackage;
 import static org.mybatis.generator.api.dom.java.render.RenderingUtilities.renderStaticImports;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
+import org.mybatis.generator.api.dom.SourceWriter;
 import org.mybatis.generator.api.dom.java.Interface;
 
 public class TopLevelInterfaceRenderer {
+    private final InnerInterfaceRenderer innerInterfaceRenderer = new InnerInterfaceRenderer();
 
     public String render(Interface topLevelInterface) {
-        List<String> lines = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        render(topLevelInterface, new SourceWriter(sb));
+        return sb.toString();
+    }
 
-        lines.addAll(topLevelInterface.getFileCommentLines());
-        lines.addAll(renderPackage(topLevelInterface));
-        lines.addAll(renderStaticImports(topLevelInterface));
-        lines.addAll(renderImports(topLevelInterface));
-        lines.addAll(renderInnerInterfaceNoIndent(topLevelInterface, topLevelInterface));
+    /**
+     * Writes the source straight to an Appendable, without building the lines of the file first.
+     *
+     * @param topLevelInterface the type to render
+     * @param out the Appendable
+     * @throws IOException if the Appendable throws an IOException
+     */
+    public void render(Interface topLevelInterface, Appendable out) throws IOException {
+        try {
+            render(topLevelInterface, new SourceWriter(out));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
 
-        return lines.stream()
-                .collect(Collectors.joining(System.getProperty("line.separator"))); //$NON-NLS-1$
+    private void render(Interface topLevelInterface, SourceWriter out) {
+        out.lines(topLevelInterface.getFileCommentLines());
+        renderPackage(topLevelInterface, out);
+        renderStaticImports(topLevelInterface, out);
+        renderImports(topLevelInterface, out);
+        innerInterfaceRenderer.render(topLevelInterface, topLevelInterface, out);
+        out.finish();
     }
 }
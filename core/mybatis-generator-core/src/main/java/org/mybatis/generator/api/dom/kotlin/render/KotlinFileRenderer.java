@@ -15,44 +15,66 @@
  */
 package org.mybatis.generator.api.dom.kotlin.render;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
+import org.mybatis.generator.api.dom.SourceWriter;
 import org.mybatis.generator.api.dom.kotlin.KotlinFile;
 import org.mybatis.generator.api.dom.kotlin.KotlinNamedItem;
 
 public class KotlinFileRenderer {
 
+    private final KotlinNamedItemRenderer namedItemRenderer = new KotlinNamedItemRenderer();
+
     public String render(KotlinFile kotlinFile) {
-        List<String> lines = new ArrayList<>();
-        KotlinNamedItemRenderer renderer = new KotlinNamedItemRenderer();
+        StringBuilder sb = new StringBuilder();
+        render(kotlinFile, new SourceWriter(sb));
+        return sb.toString();
+    }
 
-        kotlinFile.getPackage().ifPresent(p -> lines.add("package " + p)); //$NON-NLS-1$
+    /**
+     * Writes the file straight to an Appendable, without building the lines of the file first.
+     *
+     * @param kotlinFile the file to render
+     * @param out the Appendable
+     * @throws IOException if the Appendable throws an IOException
+     */
+    public void render(KotlinFile kotlinFile, Appendable out) throws IOException {
+        try {
+            render(kotlinFile, new SourceWriter(out));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
 
-        lines.addAll(prependBlankLineIfNotEmpty(lines.size(), renderImports(kotlinFile)));
+    private void render(KotlinFile kotlinFile, SourceWriter out) {
+        out.lines(kotlinFile.getFileCommentLines());
 
-        for (KotlinNamedItem item : kotlinFile.getNamedItems()) {
-            lines.addAll(prependBlankLineIfNotEmpty(lines.size(), renderer.render(item)));
+        // sections after the file comments are separated by a blank line
+        boolean firstSection = true;
+        if (kotlinFile.getPackage().isPresent()) {
+            out.line("package " + kotlinFile.getPackage().get()); //$NON-NLS-1$
+            firstSection = false;
         }
 
-        lines.addAll(0, kotlinFile.getFileCommentLines());
-        return lines.stream()
-                .collect(Collectors.joining(System.getProperty("line.separator"))); //$NON-NLS-1$
-    }
-
-    private List<String> prependBlankLineIfNotEmpty(int currentLength, List<String> in) {
-        if (in.isEmpty() || currentLength == 0) {
-            return in;
+        if (!kotlinFile.getImports().isEmpty()) {
+            if (!firstSection) {
+                out.emptyLine();
+            }
+            for (String s : kotlinFile.getImports()) {
+                out.line("import " + s); //$NON-NLS-1$
+            }
+            firstSection = false;
         }
 
-        in.add(0, ""); //$NON-NLS-1$
-        return in;
-    }
+        for (KotlinNamedItem item : kotlinFile.getNamedItems()) {
+            if (!firstSection) {
+                out.emptyLine();
+            }
+            namedItemRenderer.render(item, out);
+            firstSection = false;
+        }
 
-    private List<String> renderImports(KotlinFile kotlinFile) {
-        return kotlinFile.getImports().stream()
-                .map(s -> "import " + s) //$NON-NLS-1$
-                .collect(Collectors.toList());
+        out.finish();
     }
 }
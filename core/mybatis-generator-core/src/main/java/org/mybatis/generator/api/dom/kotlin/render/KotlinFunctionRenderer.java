@@ -15,27 +15,30 @@
  */
 package org.mybatis.generator.api.dom.kotlin.render;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.mybatis.generator.api.dom.SourceWriter;
 import org.mybatis.generator.api.dom.kotlin.KotlinFunction;
 
 public class KotlinFunctionRenderer {
-    public List<String> render(KotlinFunction function) {
+    private final KotlinArgRenderer argRenderer = new KotlinArgRenderer();
 
-        List<String> answer = new ArrayList<>(function.getAnnotations());
+    public List<String> render(KotlinFunction function) {
+        return SourceWriter.collectLines(out -> render(function, out));
+    }
 
-        answer.add(renderFirstLine(function));
+    public void render(KotlinFunction function, SourceWriter out) {
+        out.lines(function.getAnnotations());
+        out.line(renderFirstLine(function));
 
-        answer.addAll(function.getCodeLines().stream().map(KotlinRenderingUtilities::kotlinIndent)
-                .collect(Collectors.toList()));
+        out.indent();
+        out.lines(function.getCodeLines());
+        out.outdent();
 
         if (!function.getCodeLines().isEmpty() && !function.isOneLineFunction()) {
-            answer.add("}"); //$NON-NLS-1$
+            out.line("}"); //$NON-NLS-1$
         }
-
-        return answer;
     }
 
     private String renderFirstLine(KotlinFunction function) {
@@ -60,8 +63,6 @@ public class KotlinFunctionRenderer {
     }
 
     private String renderArguments(KotlinFunction function) {
-        KotlinArgRenderer argRenderer = new KotlinArgRenderer();
-
         return function.getArguments().stream()
                 .map(argRenderer::render)
                 .collect(Collectors.joining(", ")); //$NON-NLS-1$
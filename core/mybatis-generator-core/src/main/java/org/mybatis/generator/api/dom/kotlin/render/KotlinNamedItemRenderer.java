@@ -17,6 +17,7 @@ package org.mybatis.generator.api.dom.kotlin.render;
 
 import java.util.List;
 
+import org.mybatis.generator.api.dom.SourceWriter;
 import org.mybatis.generator.api.dom.kotlin.KotlinFunction;
 import org.mybatis.generator.api.dom.kotlin.KotlinNamedItem;
 import org.mybatis.generator.api.dom.kotlin.KotlinNamedItemVisitor;
@@ -25,22 +26,56 @@ import org.mybatis.generator.api.dom.kotlin.KotlinType;
 
 public class KotlinNamedItemRenderer implements KotlinNamedItemVisitor<List<String>> {
 
+    private final KotlinTypeRenderer typeRenderer;
+    private final KotlinPropertyRenderer propertyRenderer = new KotlinPropertyRenderer();
+    private final KotlinFunctionRenderer functionRenderer = new KotlinFunctionRenderer();
+
+    public KotlinNamedItemRenderer() {
+        typeRenderer = new KotlinTypeRenderer(this);
+    }
+
+    KotlinNamedItemRenderer(KotlinTypeRenderer typeRenderer) {
+        this.typeRenderer = typeRenderer;
+    }
+
     public List<String> render(KotlinNamedItem namedItem) {
         return namedItem.accept(this);
     }
 
+    public void render(KotlinNamedItem namedItem, SourceWriter out) {
+        namedItem.accept(new KotlinNamedItemVisitor<Void>() {
+            @Override
+            public Void visit(KotlinType kotlinType) {
+                typeRenderer.render(kotlinType, out);
+                return null;
+            }
+
+            @Override
+            public Void visit(KotlinProperty kotlinProperty) {
+                propertyRenderer.render(kotlinProperty, out);
+                return null;
+            }
+
+            @Override
+            public Void visit(KotlinFunction kotlinFunction) {
+                functionRenderer.render(kotlinFunction, out);
+                return null;
+            }
+        });
+    }
+
     @Override
     public List<String> visit(KotlinType kotlinType) {
-        return new KotlinTypeRenderer().render(kotlinType);
+        return typeRenderer.render(kotlinType);
     }
 
     @Override
     public List<String> visit(KotlinProperty kotlinProperty) {
-        return new KotlinPropertyRenderer().render(kotlinProperty);
+        return propertyRenderer.render(kotlinProperty);
     }
 
     @Override
     public List<String> visit(KotlinFunction kotlinFunction) {
-        return new KotlinFunctionRenderer().render(kotlinFunction);
+        return functionRenderer.render(kotlinFunction);
     }
 }
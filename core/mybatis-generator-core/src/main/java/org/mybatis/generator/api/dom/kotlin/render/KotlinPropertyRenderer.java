@@ -15,17 +15,25 @@
  */
 package org.mybatis.generator.api.dom.kotlin.render;
 
-import java.util.ArrayList;
 import java.util.List;
 
+import org.mybatis.generator.api.dom.SourceWriter;
 import org.mybatis.generator.api.dom.kotlin.KotlinProperty;
 
 public class KotlinPropertyRenderer {
 
     public List<String> render(KotlinProperty kotlinProperty) {
-        List<String> answer = new ArrayList<>(kotlinProperty.getAnnotations());
-        answer.add(renderProperty(kotlinProperty));
-        return answer;
+        return SourceWriter.collectLines(out -> render(kotlinProperty, out));
+    }
+
+    public void render(KotlinProperty kotlinProperty, SourceWriter out) {
+        render(kotlinProperty, "", out); //$NON-NLS-1$
+    }
+
+    // the suffix is appended to the last line - constructor properties are separated by commas
+    void render(KotlinProperty kotlinProperty, String suffix, SourceWriter out) {
+        out.lines(kotlinProperty.getAnnotations());
+        out.line(renderProperty(kotlinProperty) + suffix);
     }
 
     private String renderProperty(KotlinProperty kotlinProperty) {
@@ -15,12 +15,10 @@
  */
 package org.mybatis.generator.api.dom.kotlin.render;
 
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
 
-import org.mybatis.generator.api.dom.java.render.RenderingUtilities;
+import org.mybatis.generator.api.dom.SourceWriter;
 import org.mybatis.generator.api.dom.kotlin.KotlinNamedItem;
 import org.mybatis.generator.api.dom.kotlin.KotlinProperty;
 import org.mybatis.generator.api.dom.kotlin.KotlinType;
@@ -28,10 +26,23 @@ import org.mybatis.generator.internal.util.CustomCollectors;
 
 public class KotlinTypeRenderer {
 
+    private final KotlinNamedItemRenderer namedItemRenderer;
+    private final KotlinPropertyRenderer propertyRenderer = new KotlinPropertyRenderer();
+
+    public KotlinTypeRenderer() {
+        namedItemRenderer = new KotlinNamedItemRenderer(this);
+    }
+
+    KotlinTypeRenderer(KotlinNamedItemRenderer namedItemRenderer) {
+        this.namedItemRenderer = namedItemRenderer;
+    }
+
     public List<String> render(KotlinType kotlinType) {
-        KotlinNamedItemRenderer renderer = new KotlinNamedItemRenderer();
+        return SourceWriter.collectLines(out -> render(kotlinType, out));
+    }
 
-        List<String> answer = new ArrayList<>(kotlinType.getAnnotations());
+    public void render(KotlinType kotlinType, SourceWriter out) {
+        out.lines(kotlinType.getAnnotations());
 
         String renderedModifiersAndName = KotlinRenderingUtilities.renderModifiers(kotlinType.getModifiers())
                 + kotlinType.getType().getValue() + " " //$NON-NLS-1$
@@ -42,51 +53,42 @@ public class KotlinTypeRenderer {
 
         if (kotlinType.getNamedItems().isEmpty()) {
             if (kotlinType.getConstructorProperties().isEmpty()) {
-                answer.add(renderedModifiersAndName + renderedSuperTypes);
+                out.line(renderedModifiersAndName + renderedSuperTypes);
             } else {
-                answer.add(renderedModifiersAndName + "("); //$NON-NLS-1$
-                answer.addAll(renderConstructorItems(kotlinType));
-                answer.add(")" + renderedSuperTypes); //$NON-NLS-1$
+                out.line(renderedModifiersAndName + "("); //$NON-NLS-1$
+                renderConstructorItems(kotlinType, out);
+                out.line(")" + renderedSuperTypes); //$NON-NLS-1$
             }
         } else {
             if (kotlinType.getConstructorProperties().isEmpty()) {
-                answer.add(renderedModifiersAndName + renderedSuperTypes + " {"); //$NON-NLS-1$
+                out.line(renderedModifiersAndName + renderedSuperTypes + " {"); //$NON-NLS-1$
             } else {
-                answer.add(renderedModifiersAndName + "("); //$NON-NLS-1$
-                answer.addAll(renderConstructorItems(kotlinType));
-                answer.add(")" + renderedSuperTypes + " {"); //$NON-NLS-1$ //$NON-NLS-2$
+                out.line(renderedModifiersAndName + "("); //$NON-NLS-1$
+                renderConstructorItems(kotlinType, out);
+                out.line(")" + renderedSuperTypes + " {"); //$NON-NLS-1$ //$NON-NLS-2$
             }
         }
 
+        out.indent();
         for (KotlinNamedItem namedItem : kotlinType.getNamedItems()) {
-            answer.addAll(renderer.render(namedItem).stream().map(KotlinRenderingUtilities::kotlinIndent)
-                    .collect(Collectors.toList()));
-            answer.add(""); //$NON-NLS-1$
+            namedItemRenderer.render(namedItem, out);
+            out.emptyLine();
         }
-
-        answer = RenderingUtilities.removeLastEmptyLine(answer);
+        out.removeLastEmptyLine();
+        out.outdent();
 
         if (!kotlinType.getNamedItems().isEmpty()) {
-            answer.add("}"); //$NON-NLS-1$
+            out.line("}"); //$NON-NLS-1$
         }
-
-        return answer;
     }
 
-    private List<String> renderConstructorItems(KotlinType kotlinType) {
-        List<String> lines = new ArrayList<>();
-        KotlinPropertyRenderer renderer = new KotlinPropertyRenderer();
-
+    private void renderConstructorItems(KotlinType kotlinType, SourceWriter out) {
+        out.indent();
         Iterator<KotlinProperty> iter = kotlinType.getConstructorProperties().iterator();
         while (iter.hasNext()) {
-            lines.addAll(renderer.render(iter.next()).stream().map(KotlinRenderingUtilities::kotlinIndent)
-                    .collect(Collectors.toList()));
-            if (iter.hasNext()) {
-                lines.set(lines.size() - 1,
-                        lines.get(lines.size() - 1) + ","); //$NON-NLS-1$
-            }
+            KotlinProperty property = iter.next();
+            propertyRenderer.render(property, iter.hasNext() ? "," : "", out); //$NON-NLS-1$ //$NON-NLS-2$
         }
-
-        return lines;
+        out.outdent();
     }
 }
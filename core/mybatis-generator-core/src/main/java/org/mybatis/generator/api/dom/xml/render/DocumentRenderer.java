@@ -15,39 +15,53 @@
  */
 package org.mybatis.generator.api.dom.xml.render;
 
-import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 import org.mybatis.generator.api.dom.xml.DocType;
 import org.mybatis.generator.api.dom.xml.Document;
 
 public class DocumentRenderer {
 
+    private final DocTypeRenderer docTypeRenderer = new DocTypeRenderer();
+
     public String render(Document document) {
-        return Stream.of(renderXmlHeader(),
-                renderDocType(document),
-                renderRootElement(document))
-                .flatMap(Function.identity())
-                .collect(Collectors.joining(System.getProperty("line.separator"))); //$NON-NLS-1$
+        StringBuilder sb = new StringBuilder();
+        render(document, sb, System.getProperty("line.separator")); //$NON-NLS-1$
+        return sb.toString();
     }
 
-    private Stream<String> renderXmlHeader() {
-        return Stream.of("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"); //$NON-NLS-1$
+    /**
+     * Writes the document straight to an Appendable, without building the lines of the document first.
+     *
+     * @param document the document to render
+     * @param out the Appendable
+     * @throws IOException if the Appendable throws an IOException
+     */
+    public void render(Document document, Appendable out) throws IOException {
+        try {
+            render(document, out, System.getProperty("line.separator")); //$NON-NLS-1$
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
     }
 
-    private Stream<String> renderDocType(Document document) {
-        return Stream.of("<!DOCTYPE " //$NON-NLS-1$
-                + document.getRootElement().getName()
-                + document.getDocType().map(this::renderDocType).orElse("") //$NON-NLS-1$
-                + ">"); //$NON-NLS-1$
-    }
+    private void render(Document document, Appendable out, String lineSeparator) {
+        try {
+            out.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"); //$NON-NLS-1$
+            out.append(lineSeparator);
+            out.append("<!DOCTYPE ") //$NON-NLS-1$
+                    .append(document.getRootElement().getName())
+                    .append(document.getDocType().map(this::renderDocType).orElse("")) //$NON-NLS-1$
+                    .append('>');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
 
-    private String renderDocType(DocType docType) {
-        return " " + docType.accept(new DocTypeRenderer()); //$NON-NLS-1$
+        document.getRootElement().accept(new ElementWriter(out, lineSeparator));
     }
 
-    private Stream<String> renderRootElement(Document document) {
-        return document.getRootElement().accept(new ElementRenderer());
+    private String renderDocType(DocType docType) {
+        return " " + docType.accept(docTypeRenderer); //$NON-NLS-1$
     }
 }
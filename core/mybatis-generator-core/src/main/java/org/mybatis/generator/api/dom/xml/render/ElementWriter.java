@@ -0,0 +1,127 @@
+/*
+ *    Copyright 2006-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api.dom.xml.render;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.ElementVisitor;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.VisitableElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+
+/**
+ * Writes elements straight to an Appendable, one line at a time. This produces the same output as
+ * {@link ElementRenderer}, but tracks the nesting depth instead of re-indenting the lines of every child.
+ *
+ * <p>Each element starts with a line separator, so elements are written after the first line of the document.
+ *
+ * <p>Errors of the Appendable are thrown as {@link UncheckedIOException}.
+ */
+class ElementWriter implements ElementVisitor<Void> {
+
+    private static final String XML_INDENT = "  "; //$NON-NLS-1$
+
+    private final Appendable out;
+
+    private final String lineSeparator;
+
+    private int depth;
+
+    // reused for every element whose attributes are not already sorted
+    private final List<Attribute> sortedAttributes = new ArrayList<>();
+
+    ElementWriter(Appendable out, String lineSeparator) {
+        this.out = out;
+        this.lineSeparator = lineSeparator;
+    }
+
+    @Override
+    public Void visit(TextElement element) {
+        try {
+            startLine();
+            out.append(element.getContent());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visit(XmlElement element) {
+        try {
+            startLine();
+            out.append('<').append(element.getName());
+            writeAttributes(element.getAttributes());
+
+            if (!element.hasChildren()) {
+                out.append(" />"); //$NON-NLS-1$
+                return null;
+            }
+
+            out.append('>');
+            depth++;
+            for (VisitableElement child : element.getElements()) {
+                child.accept(this);
+            }
+            depth--;
+
+            startLine();
+            out.append("</").append(element.getName()).append('>'); //$NON-NLS-1$
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return null;
+    }
+
+    private void startLine() throws IOException {
+        out.append(lineSeparator);
+        for (int i = 0; i < depth; i++) {
+            out.append(XML_INDENT);
+        }
+    }
+
+    private void writeAttributes(List<Attribute> attributes) throws IOException {
+        for (Attribute attribute : sorted(attributes)) {
+            out.append(' ')
+                    .append(attribute.getName())
+                    .append("=\"") //$NON-NLS-1$
+                    .append(attribute.getValue())
+                    .append('"');
+        }
+    }
+
+    /**
+     * Returns the attributes sorted by name, the order they are rendered in. Attributes with the same name stay in
+     * the order they were added. The attributes of the element are not changed.
+     */
+    private List<Attribute> sorted(List<Attribute> attributes) {
+        for (int i = 1; i < attributes.size(); i++) {
+            if (attributes.get(i - 1).getName().compareTo(attributes.get(i).getName()) > 0) {
+                sortedAttributes.clear();
+                sortedAttributes.addAll(attributes);
+                sortedAttributes.sort(Comparator.comparing(Attribute::getName));
+                return sortedAttributes;
+            }
+        }
+
+        return attributes;
+    }
+}
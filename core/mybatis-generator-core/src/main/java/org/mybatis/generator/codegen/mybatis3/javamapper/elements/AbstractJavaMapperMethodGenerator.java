@@ -227,7 +227,7 @@ public abstract class AbstractJavaMapperMethodGenerator extends AbstractGenerato
     protected void addPrimaryKeyMethodParameters(boolean isSimple, Method method,
                                                  Set<FullyQualifiedJavaType> importedTypes) {
         if (!isSimple && introspectedTable.getRules().generatePrimaryKeyClass()) {
-            FullyQualifiedJavaType type = new FullyQualifiedJavaType(introspectedTable.getPrimaryKeyType());
+            FullyQualifiedJavaType type = FullyQualifiedJavaType.getInstance(introspectedTable.getPrimaryKeyType());
             importedTypes.add(type);
             method.addParameter(new Parameter(type, "key")); //$NON-NLS-1$
         } else {
@@ -312,7 +312,7 @@ public abstract class AbstractJavaMapperMethodGenerator extends AbstractGenerato
 
         importedTypes.add(parameterType);
 
-        FullyQualifiedJavaType exampleType = new FullyQualifiedJavaType(introspectedTable.getExampleType());
+        FullyQualifiedJavaType exampleType = FullyQualifiedJavaType.getInstance(introspectedTable.getExampleType());
         method.addParameter(new Parameter(exampleType,"example", "@Param(\"example\")")); //$NON-NLS-1$ //$NON-NLS-2$
         importedTypes.add(exampleType);
 
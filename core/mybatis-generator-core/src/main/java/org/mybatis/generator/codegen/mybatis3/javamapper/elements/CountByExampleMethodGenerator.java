@@ -32,7 +32,7 @@ public class CountByExampleMethodGenerator extends AbstractJavaMapperMethodGener
 
     @Override
     public void addInterfaceElements(Interface interfaze) {
-        FullyQualifiedJavaType fqjt = new FullyQualifiedJavaType(introspectedTable.getExampleType());
+        FullyQualifiedJavaType fqjt = FullyQualifiedJavaType.getInstance(introspectedTable.getExampleType());
 
         Set<FullyQualifiedJavaType> importedTypes = new TreeSet<>();
         importedTypes.add(fqjt);
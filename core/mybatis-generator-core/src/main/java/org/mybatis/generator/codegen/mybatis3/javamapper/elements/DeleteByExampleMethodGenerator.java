@@ -33,7 +33,7 @@ public class DeleteByExampleMethodGenerator extends AbstractJavaMapperMethodGene
     @Override
     public void addInterfaceElements(Interface interfaze) {
         Set<FullyQualifiedJavaType> importedTypes = new TreeSet<>();
-        FullyQualifiedJavaType type = new FullyQualifiedJavaType(introspectedTable.getExampleType());
+        FullyQualifiedJavaType type = FullyQualifiedJavaType.getInstance(introspectedTable.getExampleType());
         importedTypes.add(type);
 
         Method method = new Method(introspectedTable.getDeleteByExampleStatementId());
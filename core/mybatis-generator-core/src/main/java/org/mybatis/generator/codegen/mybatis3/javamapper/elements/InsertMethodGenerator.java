@@ -43,7 +43,7 @@ public class InsertMethodGenerator extends AbstractJavaMapperMethodGenerator {
 
         FullyQualifiedJavaType parameterType;
         if (isSimple) {
-            parameterType = new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
+            parameterType = FullyQualifiedJavaType.getInstance(introspectedTable.getBaseRecordType());
         } else {
             parameterType = introspectedTable.getRules().calculateAllFieldsClass();
         }
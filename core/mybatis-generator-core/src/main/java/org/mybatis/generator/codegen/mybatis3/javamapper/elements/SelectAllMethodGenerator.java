@@ -47,7 +47,7 @@ public class SelectAllMethodGenerator extends AbstractJavaMapperMethodGenerator
         FullyQualifiedJavaType returnType = FullyQualifiedJavaType
                 .getNewListInstance();
         FullyQualifiedJavaType listType;
-        listType = new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
+        listType = FullyQualifiedJavaType.getInstance(introspectedTable.getBaseRecordType());
 
         importedTypes.add(listType);
         returnType.addTypeArgument(listType);
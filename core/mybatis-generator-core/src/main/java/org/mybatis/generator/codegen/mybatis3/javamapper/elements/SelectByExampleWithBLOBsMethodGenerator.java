@@ -33,7 +33,7 @@ public class SelectByExampleWithBLOBsMethodGenerator extends AbstractJavaMapperM
     @Override
     public void addInterfaceElements(Interface interfaze) {
         Set<FullyQualifiedJavaType> importedTypes = new TreeSet<>();
-        FullyQualifiedJavaType type = new FullyQualifiedJavaType(introspectedTable.getExampleType());
+        FullyQualifiedJavaType type = FullyQualifiedJavaType.getInstance(introspectedTable.getExampleType());
         importedTypes.add(type);
         importedTypes.add(FullyQualifiedJavaType.getNewListInstance());
 
@@ -44,10 +44,10 @@ public class SelectByExampleWithBLOBsMethodGenerator extends AbstractJavaMapperM
         FullyQualifiedJavaType returnType = FullyQualifiedJavaType.getNewListInstance();
         FullyQualifiedJavaType listType;
         if (introspectedTable.getRules().generateRecordWithBLOBsClass()) {
-            listType = new FullyQualifiedJavaType(introspectedTable.getRecordWithBLOBsType());
+            listType = FullyQualifiedJavaType.getInstance(introspectedTable.getRecordWithBLOBsType());
         } else {
             // the blob fields must be rolled up into the base class
-            listType = new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
+            listType = FullyQualifiedJavaType.getInstance(introspectedTable.getBaseRecordType());
         }
 
         importedTypes.add(listType);
@@ -35,7 +35,7 @@ public class SelectByExampleWithoutBLOBsMethodGenerator extends AbstractJavaMapp
     @Override
     public void addInterfaceElements(Interface interfaze) {
         Set<FullyQualifiedJavaType> importedTypes = new TreeSet<>();
-        FullyQualifiedJavaType type = new FullyQualifiedJavaType(introspectedTable.getExampleType());
+        FullyQualifiedJavaType type = FullyQualifiedJavaType.getInstance(introspectedTable.getExampleType());
         importedTypes.add(type);
         importedTypes.add(FullyQualifiedJavaType.getNewListInstance());
 
@@ -46,9 +46,9 @@ public class SelectByExampleWithoutBLOBsMethodGenerator extends AbstractJavaMapp
         FullyQualifiedJavaType returnType = FullyQualifiedJavaType.getNewListInstance();
         FullyQualifiedJavaType listType;
         if (introspectedTable.getRules().generateBaseRecordClass()) {
-            listType = new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
+            listType = FullyQualifiedJavaType.getInstance(introspectedTable.getBaseRecordType());
         } else if (introspectedTable.getRules().generatePrimaryKeyClass()) {
-            listType = new FullyQualifiedJavaType(introspectedTable.getPrimaryKeyType());
+            listType = FullyQualifiedJavaType.getInstance(introspectedTable.getPrimaryKeyType());
         } else {
             throw new RuntimeException(getString("RuntimeError.12")); //$NON-NLS-1$
         }
@@ -33,9 +33,9 @@ public class UpdateByExampleWithBLOBsMethodGenerator extends AbstractJavaMapperM
         String statementId = introspectedTable.getUpdateByExampleWithBLOBsStatementId();
         FullyQualifiedJavaType parameterType;
         if (introspectedTable.getRules().generateRecordWithBLOBsClass()) {
-            parameterType = new FullyQualifiedJavaType(introspectedTable.getRecordWithBLOBsType());
+            parameterType = FullyQualifiedJavaType.getInstance(introspectedTable.getRecordWithBLOBsType());
         } else {
-            parameterType = new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
+            parameterType = FullyQualifiedJavaType.getInstance(introspectedTable.getBaseRecordType());
         }
         Set<FullyQualifiedJavaType> importedTypes = new TreeSet<>();
 
@@ -33,9 +33,9 @@ public class UpdateByExampleWithoutBLOBsMethodGenerator extends AbstractJavaMapp
         String statementId = introspectedTable.getUpdateByExampleStatementId();
         FullyQualifiedJavaType parameterType;
         if (introspectedTable.getRules().generateBaseRecordClass()) {
-            parameterType = new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
+            parameterType = FullyQualifiedJavaType.getInstance(introspectedTable.getBaseRecordType());
         } else {
-            parameterType = new FullyQualifiedJavaType(introspectedTable.getPrimaryKeyType());
+            parameterType = FullyQualifiedJavaType.getInstance(introspectedTable.getPrimaryKeyType());
         }
         Set<FullyQualifiedJavaType> importedTypes = new TreeSet<>();
 
@@ -33,9 +33,9 @@ public class UpdateByPrimaryKeyWithBLOBsMethodGenerator extends AbstractJavaMapp
         Set<FullyQualifiedJavaType> importedTypes = new TreeSet<>();
         FullyQualifiedJavaType parameterType;
         if (introspectedTable.getRules().generateRecordWithBLOBsClass()) {
-            parameterType = new FullyQualifiedJavaType(introspectedTable.getRecordWithBLOBsType());
+            parameterType = FullyQualifiedJavaType.getInstance(introspectedTable.getRecordWithBLOBsType());
         } else {
-            parameterType = new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
+            parameterType = FullyQualifiedJavaType.getInstance(introspectedTable.getBaseRecordType());
         }
         String statementId = introspectedTable.getUpdateByPrimaryKeyWithBLOBsStatementId();
         importedTypes.add(parameterType);
@@ -31,7 +31,7 @@ public class UpdateByPrimaryKeyWithoutBLOBsMethodGenerator extends AbstractJavaM
     @Override
     public void addInterfaceElements(Interface interfaze) {
         Set<FullyQualifiedJavaType> importedTypes = new TreeSet<>();
-        FullyQualifiedJavaType parameterType = new FullyQualifiedJavaType(introspectedTable.getBaseRecordType());
+        FullyQualifiedJavaType parameterType = FullyQualifiedJavaType.getInstance(introspectedTable.getBaseRecordType());
         String statementId = introspectedTable.getUpdateByPrimaryKeyStatementId();
         importedTypes.add(parameterType);
 
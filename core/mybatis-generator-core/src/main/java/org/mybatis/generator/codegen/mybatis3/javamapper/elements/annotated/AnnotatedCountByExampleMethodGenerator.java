@@ -28,7 +28,7 @@ public class AnnotatedCountByExampleMethodGenerator extends CountByExampleMethod
 
     @Override
     public void addMapperAnnotations(Method method) {
-        FullyQualifiedJavaType fqjt = new FullyQualifiedJavaType(introspectedTable.getMyBatis3SqlProviderType());
+        FullyQualifiedJavaType fqjt = FullyQualifiedJavaType.getInstance(introspectedTable.getMyBatis3SqlProviderType());
 
         String s = "@SelectProvider(type=" //$NON-NLS-1$
                 + fqjt.getShortName()
@@ -29,7 +29,7 @@ public class AnnotatedDeleteByExampleMethodGenerator extends
 
     @Override
     public void addMapperAnnotations(Method method) {
-        FullyQualifiedJavaType fqjt = new FullyQualifiedJavaType(introspectedTable.getMyBatis3SqlProviderType());
+        FullyQualifiedJavaType fqjt = FullyQualifiedJavaType.getInstance(introspectedTable.getMyBatis3SqlProviderType());
 
         String s = "@DeleteProvider(type=" //$NON-NLS-1$
                 + fqjt.getShortName()
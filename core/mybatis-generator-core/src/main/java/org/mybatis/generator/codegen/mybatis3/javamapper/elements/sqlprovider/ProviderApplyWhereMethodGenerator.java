@@ -38,7 +38,7 @@ public class ProviderApplyWhereMethodGenerator extends AbstractJavaProviderMetho
     public void addClassElements(TopLevelClass topLevelClass) {
         Set<FullyQualifiedJavaType> importedTypes = initializeImportedTypes("java.util.List"); //$NON-NLS-1$
 
-        FullyQualifiedJavaType fqjt = new FullyQualifiedJavaType(introspectedTable.getExampleType());
+        FullyQualifiedJavaType fqjt = FullyQualifiedJavaType.getInstance(introspectedTable.getExampleType());
         importedTypes.add(fqjt);
         importedTypes.add(new FullyQualifiedJavaType(
                 String.format("%s.Criteria", fqjt.getFullyQualifiedName()))); //$NON-NLS-1$
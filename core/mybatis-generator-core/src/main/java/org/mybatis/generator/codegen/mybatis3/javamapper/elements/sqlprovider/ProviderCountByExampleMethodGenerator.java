@@ -29,7 +29,7 @@ public class ProviderCountByExampleMethodGenerator extends AbstractJavaProviderM
 
     @Override
     public void addClassElements(TopLevelClass topLevelClass) {
-        FullyQualifiedJavaType fqjt = new FullyQualifiedJavaType(introspectedTable.getExampleType());
+        FullyQualifiedJavaType fqjt = FullyQualifiedJavaType.getInstance(introspectedTable.getExampleType());
         Set<FullyQualifiedJavaType> importedTypes = initializeImportedTypes(fqjt);
 
         Method method = new Method(introspectedTable.getCountByExampleStatementId());
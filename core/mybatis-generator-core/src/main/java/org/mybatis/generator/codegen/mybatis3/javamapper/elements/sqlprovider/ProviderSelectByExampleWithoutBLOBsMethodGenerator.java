@@ -32,7 +32,7 @@ public class ProviderSelectByExampleWithoutBLOBsMethodGenerator extends Abstract
 
     @Override
     public void addClassElements(TopLevelClass topLevelClass) {
-        FullyQualifiedJavaType fqjt = new FullyQualifiedJavaType(introspectedTable.getExampleType());
+        FullyQualifiedJavaType fqjt = FullyQualifiedJavaType.getInstance(introspectedTable.getExampleType());
         Set<FullyQualifiedJavaType> importedTypes = initializeImportedTypes(fqjt);
 
         Method method = new Method(getMethodName());
@@ -48,7 +48,7 @@ public class ProviderUpdateByExampleSelectiveMethodGenerator extends AbstractJav
         method.addBodyLine(String.format("%s row = (%s) parameter.get(\"row\");", //$NON-NLS-1$
                 recordClass.getShortName(), recordClass.getShortName()));
 
-        FullyQualifiedJavaType example = new FullyQualifiedJavaType(introspectedTable.getExampleType());
+        FullyQualifiedJavaType example = FullyQualifiedJavaType.getInstance(introspectedTable.getExampleType());
         importedTypes.add(example);
         method.addBodyLine(String.format("%s example = (%s) parameter.get(\"example\");", //$NON-NLS-1$
                 example.getShortName(), example.getShortName()));
@@ -62,7 +62,7 @@ public class ProviderUpdateByExampleWithoutBLOBsMethodGenerator extends Abstract
         method.addBodyLine(""); //$NON-NLS-1$
 
         Set<FullyQualifiedJavaType> importedTypes = initializeImportedTypes("java.util.Map"); //$NON-NLS-1$
-        FullyQualifiedJavaType example = new FullyQualifiedJavaType(introspectedTable.getExampleType());
+        FullyQualifiedJavaType example = FullyQualifiedJavaType.getInstance(introspectedTable.getExampleType());
         importedTypes.add(example);
         method.addBodyLine(String.format("%s example = (%s) parameter.get(\"example\");", //$NON-NLS-1$
                 example.getShortName(), example.getShortName()));
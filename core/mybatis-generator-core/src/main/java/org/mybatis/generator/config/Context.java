@@ -18,17 +18,22 @@ package org.mybatis.generator.config;
 import org.mybatis.generator.api.*;
 import org.mybatis.generator.api.intellij.IntellijTableInfo;
 import org.mybatis.generator.internal.JDBCConnectionFactory;
+import org.mybatis.generator.internal.GenerationManifest;
 import org.mybatis.generator.internal.ObjectFactory;
 import org.mybatis.generator.internal.PluginAggregator;
+import org.mybatis.generator.internal.SynchronizedPlugin;
+import org.mybatis.generator.internal.SynchronizedProgressCallback;
 import org.mybatis.generator.internal.db.DatabaseIntrospector;
-import org.mybatis.generator.internal.db.IntellijIntrospector;
+import org.mybatis.generator.internal.db.IntrospectionCache;
+import org.mybatis.generator.internal.util.ConcurrencyUtility;
 import org.mybatis.generator.internal.util.StringUtility;
-import org.mybatis.generator.internal.util.messages.Messages;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -81,6 +86,12 @@ public class Context extends PropertyHolder {
 
     private boolean isIntellij = false;
 
+    private boolean invalidateIntrospectionCache;
+
+    private GenerationManifest generationManifest;
+
+    private List<IntellijTableInfo> intellijTables;
+
     public Context(ModelType defaultModelType) {
         super();
 
@@ -118,6 +129,10 @@ public class Context extends PropertyHolder {
         pluginConfigurations.add(pluginConfiguration);
     }
 
+    public List<PluginConfiguration> getPluginConfigurations() {
+        return pluginConfigurations;
+    }
+
     /**
      * This method does a simple validate, it makes sure that all required fields have been filled in. It does not do
      * any more complex operations such as validating that database tables exist or validating that named columns exist
@@ -348,10 +363,34 @@ public class Context extends PropertyHolder {
      */
     public void introspectTables(ProgressCallback callback, List<String> warnings, Set<String> fullyQualifiedTableNames)
             throws SQLException, InterruptedException {
-
         introspectedTables.clear();
+        introspectTables(callback, warnings, fullyQualifiedTableNames, introspectedTables::add);
+    }
+
+    /**
+     * Introspect tables based on the configuration specified in the constructor, and hand each table to the sink
+     * as soon as it is introspected. The tables are not kept in this context. This method is long running.
+     *
+     * @param callback                 a progress callback
+     * @param warnings                 any warning generated from this method will be added to the List
+     * @param fullyQualifiedTableNames a set of table names to generate, as in
+     *                                 {@link #introspectTables(ProgressCallback, List, Set)}
+     * @param sink                     receives the introspected tables, in configuration order
+     * @throws SQLException         if some error arises while introspecting the specified database tables.
+     * @throws InterruptedException if the progress callback reports a cancel
+     */
+    public void introspectTables(ProgressCallback callback, List<String> warnings, Set<String> fullyQualifiedTableNames,
+                                 ConcurrencyUtility.Sink<IntrospectedTable, RuntimeException> sink)
+            throws SQLException, InterruptedException {
         JavaTypeResolver javaTypeResolver = ObjectFactory.createJavaTypeResolver(this, warnings);
 
+        if (intellijTables != null) {
+            callback.startTask(getString("Progress.0")); //$NON-NLS-1$
+            introspectTables(new DatabaseIntrospector(this, intellijTables, javaTypeResolver, warnings), callback,
+                    warnings, fullyQualifiedTableNames, sink);
+            return;
+        }
+
         Connection connection = null;
 
         try {
@@ -360,35 +399,74 @@ public class Context extends PropertyHolder {
 
             DatabaseIntrospector databaseIntrospector = new DatabaseIntrospector(this, connection.getMetaData(),
                                                                                  javaTypeResolver, warnings);
+            IntrospectionCache introspectionCache = openIntrospectionCache(connection, warnings);
+            databaseIntrospector.setIntrospectionCache(introspectionCache);
 
-            for (TableConfiguration tc : tableConfigurations) {
-                String tableName = composeFullyQualifiedTableName(tc.getCatalog(), tc.getSchema(), tc.getTableName(),
-                                                                  '.');
+            introspectTables(databaseIntrospector, callback, warnings, fullyQualifiedTableNames, sink);
 
-                if (fullyQualifiedTableNames != null && !fullyQualifiedTableNames.isEmpty() && !fullyQualifiedTableNames.contains(
-                        tableName)) {
-                    continue;
+            if (introspectionCache != null) {
+                try {
+                    introspectionCache.save();
+                } catch (IOException e) {
+                    warnings.add(getString("Warning.33", //$NON-NLS-1$
+                            getProperty(PropertyRegistry.CONTEXT_INTROSPECTION_CACHE_FILE), e.getMessage()));
                 }
+            }
+        } finally {
+            closeConnection(connection);
+        }
+    }
 
-                if (!tc.areAnyStatementsEnabled()) {
-                    warnings.add(getString("Warning.0", tableName)); //$NON-NLS-1$
-                    continue;
-                }
+    private void introspectTables(DatabaseIntrospector databaseIntrospector, ProgressCallback callback,
+                                  List<String> warnings, Set<String> fullyQualifiedTableNames,
+                                  ConcurrencyUtility.Sink<IntrospectedTable, RuntimeException> sink)
+            throws SQLException, InterruptedException {
+        for (TableConfiguration tc : tableConfigurations) {
+            String tableName = composeFullyQualifiedTableName(tc.getCatalog(), tc.getSchema(), tc.getTableName(),
+                                                              '.');
 
-                callback.startTask(getString("Progress.1", tableName)); //$NON-NLS-1$
-                List<IntrospectedTable> tables = databaseIntrospector.introspectTables(tc);
+            if (fullyQualifiedTableNames != null && !fullyQualifiedTableNames.isEmpty() && !fullyQualifiedTableNames.contains(
+                    tableName)) {
+                continue;
+            }
 
-                if (tables != null) {
-                    introspectedTables.addAll(tables);
-                }
+            if (!tc.areAnyStatementsEnabled()) {
+                warnings.add(getString("Warning.0", tableName)); //$NON-NLS-1$
+                continue;
+            }
 
-                callback.checkCancel();
+            callback.startTask(getString("Progress.1", tableName)); //$NON-NLS-1$
+            List<IntrospectedTable> tables = databaseIntrospector.introspectTables(tc);
+
+            if (tables != null) {
+                for (IntrospectedTable table : tables) {
+                    sink.accept(table);
+                }
             }
-        } finally {
-            closeConnection(connection);
+
+            callback.checkCancel();
         }
     }
 
+    private IntrospectionCache openIntrospectionCache(Connection connection, List<String> warnings)
+            throws SQLException {
+        String cacheFile = getProperty(PropertyRegistry.CONTEXT_INTROSPECTION_CACHE_FILE);
+        if (!StringUtility.stringHasValue(cacheFile)) {
+            return null;
+        }
+
+        // without a fingerprint the cache would not notice schema changes
+        String fingerprintQuery = getProperty(PropertyRegistry.CONTEXT_INTROSPECTION_CACHE_FINGERPRINT_QUERY);
+        if (!StringUtility.stringHasValue(fingerprintQuery)) {
+            warnings.add(getString("Warning.37", cacheFile, id)); //$NON-NLS-1$
+            return null;
+        }
+
+        String identity = IntrospectionCache.calculateIdentity(connection, fingerprintQuery);
+        return IntrospectionCache.open(Paths.get(cacheFile), id, identity, invalidateIntrospectionCache,
+                warnings);
+    }
+
     public int getGenerationSteps() {
         int steps = 0;
 
@@ -403,39 +481,218 @@ public class Context extends PropertyHolder {
                               List<GeneratedXmlFile> generatedXmlFiles, List<GeneratedKotlinFile> generatedKotlinFiles,
                               List<String> warnings) throws InterruptedException {
 
+        createPlugins(warnings);
+
+        if (isParallelGeneration()) {
+            // generators keep references to the callback and the warnings, so they must be
+            // safe for the worker threads before the generators are calculated
+            callback = new SynchronizedProgressCallback(callback);
+            warnings = Collections.synchronizedList(warnings);
+        }
+
+        // initialize everything first before generating. This allows plugins to know about other
+        // items in the configuration.
+        for (IntrospectedTable introspectedTable : introspectedTables) {
+            callback.checkCancel();
+            introspectedTable.initialize();
+            introspectedTable.calculateGenerators(warnings, callback);
+        }
+
+        // with incremental generation, tables that are unchanged since the last run are not generated again
+        List<IntrospectedTable> tablesToGenerate = new ArrayList<>();
+        for (IntrospectedTable introspectedTable : introspectedTables) {
+            if (generationManifest == null || !generationManifest.isUpToDate(this, introspectedTable)) {
+                tablesToGenerate.add(introspectedTable);
+            }
+        }
+
+        if (isParallelGeneration()) {
+            generateTableFilesInParallel(tablesToGenerate, callback, generatedJavaFiles, generatedXmlFiles,
+                    generatedKotlinFiles);
+        } else {
+            for (IntrospectedTable introspectedTable : tablesToGenerate) {
+                callback.checkCancel();
+                addTableFiles(introspectedTable, new TableFiles(introspectedTable), generatedJavaFiles,
+                        generatedXmlFiles, generatedKotlinFiles);
+            }
+        }
+
+        addContextFiles(generatedJavaFiles, generatedXmlFiles, generatedKotlinFiles);
+    }
+
+    /**
+     * Introspects the tables and generates their files in one pass. Each table is generated as soon as it has been
+     * introspected - introspection runs on a worker thread, and at most <code>capacity</code> introspected tables
+     * wait for generation. The files are handed to the sink one table at a time, followed by the files
+     * plugins generate for the whole context. Neither the tables nor the files are kept in this context.
+     *
+     * <p>Because tables are generated while later tables are still being introspected, plugins only know about
+     * the tables that have already been generated. The callback and the warnings are used from two threads.
+     *
+     * @param callback                 a progress callback
+     * @param warnings                 any warning generated from this method will be added to the List
+     * @param fullyQualifiedTableNames a set of table names to generate, as in
+     *                                 {@link #introspectTables(ProgressCallback, List, Set)}
+     * @param capacity                 the maximum number of introspected tables waiting for generation
+     * @param sink                     receives the generated files
+     * @throws SQLException         if some error arises while introspecting the specified database tables.
+     * @throws InterruptedException if the progress callback reports a cancel
+     */
+    public void introspectAndGenerateFiles(ProgressCallback callback, List<String> warnings,
+                                           Set<String> fullyQualifiedTableNames, int capacity,
+                                           ConcurrencyUtility.Sink<List<GeneratedFile>, RuntimeException> sink)
+            throws SQLException, InterruptedException {
+        ProgressCallback synchronizedCallback = new SynchronizedProgressCallback(callback);
+        List<String> synchronizedWarnings = Collections.synchronizedList(warnings);
+
+        introspectedTables.clear();
+        createPlugins(synchronizedWarnings);
+
+        ConcurrencyUtility.<IntrospectedTable, SQLException, RuntimeException>pipeline(capacity,
+                tables -> introspectTables(synchronizedCallback, synchronizedWarnings, fullyQualifiedTableNames,
+                        tables),
+                introspectedTable -> {
+                    synchronizedCallback.checkCancel();
+                    introspectedTable.initialize();
+                    introspectedTable.calculateGenerators(synchronizedWarnings, synchronizedCallback);
+                    if (generationManifest == null || !generationManifest.isUpToDate(this, introspectedTable)) {
+                        List<GeneratedJavaFile> javaFiles = new ArrayList<>();
+                        List<GeneratedXmlFile> xmlFiles = new ArrayList<>();
+                        List<GeneratedKotlinFile> kotlinFiles = new ArrayList<>();
+                        addTableFiles(introspectedTable, new TableFiles(introspectedTable), javaFiles, xmlFiles,
+                                kotlinFiles);
+                        sink.accept(concatenate(javaFiles, xmlFiles, kotlinFiles));
+                    }
+                });
+
+        List<GeneratedJavaFile> javaFiles = new ArrayList<>();
+        List<GeneratedXmlFile> xmlFiles = new ArrayList<>();
+        List<GeneratedKotlinFile> kotlinFiles = new ArrayList<>();
+        addContextFiles(javaFiles, xmlFiles, kotlinFiles);
+        sink.accept(concatenate(javaFiles, xmlFiles, kotlinFiles));
+    }
+
+    private static List<GeneratedFile> concatenate(List<GeneratedJavaFile> javaFiles,
+                                                   List<GeneratedXmlFile> xmlFiles,
+                                                   List<GeneratedKotlinFile> kotlinFiles) {
+        List<GeneratedFile> answer = new ArrayList<>(javaFiles);
+        answer.addAll(xmlFiles);
+        answer.addAll(kotlinFiles);
+        return answer;
+    }
+
+    private void createPlugins(List<String> warnings) {
         pluginAggregator = new PluginAggregator();
+        // plugins that are not thread safe are called one at a time, even from different tables
+        Object pluginLock = new Object();
         for (PluginConfiguration pluginConfiguration : pluginConfigurations) {
             Plugin plugin = ObjectFactory.createPlugin(this, pluginConfiguration);
             if (plugin.validate(warnings)) {
+                if (isParallelGeneration() && !plugin.isThreadSafe()) {
+                    plugin = SynchronizedPlugin.synchronizedPlugin(plugin, pluginLock);
+                }
                 pluginAggregator.addPlugin(plugin);
             } else {
                 warnings.add(getString("Warning.24", //$NON-NLS-1$
                                        pluginConfiguration.getConfigurationType(), id));
             }
         }
+    }
 
-        // initialize everything first before generating. This allows plugins to know about other
-        // items in the configuration.
-        for (IntrospectedTable introspectedTable : introspectedTables) {
-            callback.checkCancel();
-            introspectedTable.initialize();
-            introspectedTable.calculateGenerators(warnings, callback);
+    private void addContextFiles(List<GeneratedJavaFile> generatedJavaFiles, List<GeneratedXmlFile> generatedXmlFiles,
+                                 List<GeneratedKotlinFile> generatedKotlinFiles) {
+        List<GeneratedJavaFile> contextJavaFiles = pluginAggregator.contextGenerateAdditionalJavaFiles();
+        List<GeneratedXmlFile> contextXmlFiles = pluginAggregator.contextGenerateAdditionalXmlFiles();
+        List<GeneratedKotlinFile> contextKotlinFiles = pluginAggregator.contextGenerateAdditionalKotlinFiles();
+        generatedJavaFiles.addAll(contextJavaFiles);
+        generatedXmlFiles.addAll(contextXmlFiles);
+        generatedKotlinFiles.addAll(contextKotlinFiles);
+
+        if (generationManifest != null) {
+            generationManifest.contextGenerated(this,
+                    !contextJavaFiles.isEmpty() || !contextXmlFiles.isEmpty() || !contextKotlinFiles.isEmpty());
         }
+    }
 
-        for (IntrospectedTable introspectedTable : introspectedTables) {
-            callback.checkCancel();
-            generatedJavaFiles.addAll(introspectedTable.getGeneratedJavaFiles());
-            generatedXmlFiles.addAll(introspectedTable.getGeneratedXmlFiles());
-            generatedKotlinFiles.addAll(introspectedTable.getGeneratedKotlinFiles());
+    private void addTableFiles(IntrospectedTable introspectedTable, TableFiles files,
+                               List<GeneratedJavaFile> generatedJavaFiles, List<GeneratedXmlFile> generatedXmlFiles,
+                               List<GeneratedKotlinFile> generatedKotlinFiles) {
+        files.javaFiles.addAll(pluginAggregator.contextGenerateAdditionalJavaFiles(introspectedTable));
+        files.xmlFiles.addAll(pluginAggregator.contextGenerateAdditionalXmlFiles(introspectedTable));
+        files.kotlinFiles.addAll(pluginAggregator.contextGenerateAdditionalKotlinFiles(introspectedTable));
 
-            generatedJavaFiles.addAll(pluginAggregator.contextGenerateAdditionalJavaFiles(introspectedTable));
-            generatedXmlFiles.addAll(pluginAggregator.contextGenerateAdditionalXmlFiles(introspectedTable));
-            generatedKotlinFiles.addAll(pluginAggregator.contextGenerateAdditionalKotlinFiles(introspectedTable));
+        generatedJavaFiles.addAll(files.javaFiles);
+        generatedXmlFiles.addAll(files.xmlFiles);
+        generatedKotlinFiles.addAll(files.kotlinFiles);
+
+        if (generationManifest != null) {
+            generationManifest.tableGenerated(this, introspectedTable,
+                    concatenate(files.javaFiles, files.xmlFiles, files.kotlinFiles));
         }
+    }
 
-        generatedJavaFiles.addAll(pluginAggregator.contextGenerateAdditionalJavaFiles());
-        generatedXmlFiles.addAll(pluginAggregator.contextGenerateAdditionalXmlFiles());
-        generatedKotlinFiles.addAll(pluginAggregator.contextGenerateAdditionalKotlinFiles());
+    /**
+     * Generates the files for each table on a pool of worker threads. Only the per-table generation runs in
+     * parallel - the results are added in table order, and the sqlMapGenerated plugin method and the plugin
+     * methods that contribute additional files run afterwards on the calling thread, in table order, so the
+     * output is the same as a serial run. The other plugin methods are called from the worker threads, one at a
+     * time unless the plugin is thread safe.
+     */
+    private void generateTableFilesInParallel(List<IntrospectedTable> tablesToGenerate, ProgressCallback callback,
+                                              List<GeneratedJavaFile> generatedJavaFiles,
+                                              List<GeneratedXmlFile> generatedXmlFiles,
+                                              List<GeneratedKotlinFile> generatedKotlinFiles)
+            throws InterruptedException {
+        // make sure the shared formatters and comment generator are created before the workers start
+        getCommentGenerator();
+        getJavaFormatter();
+        getXmlFormatter();
+        getKotlinFormatter();
+
+        pluginAggregator.deferSqlMapGenerated();
+        try {
+            List<TableFiles> tableFiles = ConcurrencyUtility.map(tablesToGenerate, getGenerationThreads(),
+                    introspectedTable -> {
+                        callback.checkCancel();
+                        return new TableFiles(introspectedTable);
+                    });
+
+            for (int i = 0; i < tablesToGenerate.size(); i++) {
+                IntrospectedTable introspectedTable = tablesToGenerate.get(i);
+                TableFiles files = tableFiles.get(i);
+                files.xmlFiles.removeIf(gxf -> !pluginAggregator.sqlMapGeneratedDeferred(gxf, introspectedTable));
+                addTableFiles(introspectedTable, files, generatedJavaFiles, generatedXmlFiles, generatedKotlinFiles);
+            }
+        } finally {
+            pluginAggregator.stopDeferring();
+        }
+    }
+
+    /**
+     * Returns true if the files for different tables should be generated concurrently. Comment generators used in
+     * a context with parallel generation enabled must be thread safe. Plugins are called one at a time unless
+     * they report that they are thread safe (see {@link Plugin#isThreadSafe()}).
+     *
+     * @return true if parallel generation is enabled for this context
+     */
+    public boolean isParallelGeneration() {
+        return isTrue(getProperty(PropertyRegistry.CONTEXT_PARALLEL_GENERATION));
+    }
+
+    public int getGenerationThreads() {
+        return ConcurrencyUtility.calculateParallelism(getProperty(PropertyRegistry.CONTEXT_GENERATION_THREADS));
+    }
+
+    private static class TableFiles {
+        private final List<GeneratedJavaFile> javaFiles;
+        private final List<GeneratedXmlFile> xmlFiles;
+        private final List<GeneratedKotlinFile> kotlinFiles;
+
+        TableFiles(IntrospectedTable introspectedTable) {
+            javaFiles = new ArrayList<>(introspectedTable.getGeneratedJavaFiles());
+            xmlFiles = new ArrayList<>(introspectedTable.getGeneratedXmlFiles());
+            kotlinFiles = new ArrayList<>(introspectedTable.getGeneratedKotlinFiles());
+        }
     }
 
     /**
@@ -485,41 +742,30 @@ public class Context extends PropertyHolder {
         this.connectionFactoryConfiguration = connectionFactoryConfiguration;
     }
 
+    /**
+     * Introspects the tables of this context from a table supplied by the IntelliJ plugin. The table is used for
+     * every table configuration.
+     *
+     * @param callback                 a progress callback
+     * @param warnings                 any warning generated from this method will be added to the List
+     * @param fullyQualifiedTableNames a set of table names to generate, as in
+     *                                 {@link #introspectTables(ProgressCallback, List, Set)}
+     * @param tableInfo                the table
+     * @throws SQLException         if some error arises while introspecting the tables
+     * @throws InterruptedException if the progress callback reports a cancel
+     * @deprecated set the tables with {@link #setIntellijTables(List)} and call
+     *             {@link #introspectTables(ProgressCallback, List, Set)}
+     */
+    @Deprecated
     public void introspectIntellijTables(ProgressCallback callback, List<String> warnings,
                                          Set<String> fullyQualifiedTableNames, IntellijTableInfo tableInfo)
             throws InterruptedException, SQLException {
-        introspectedTables = new ArrayList();
-        JavaTypeResolver javaTypeResolver = ObjectFactory.createJavaTypeResolver(this, warnings);
-        callback.startTask(Messages.getString("Progress.0"));
-        IntellijIntrospector databaseIntrospector = new IntellijIntrospector(this, javaTypeResolver, warnings,
-                                                                             tableInfo);
-        Iterator var7 = tableConfigurations.iterator();
-
-        while (true) {
-            TableConfiguration tc;
-            String tableName;
-            do {
-                if (!var7.hasNext()) {
-                    return;
-                }
-
-                tc = (TableConfiguration) var7.next();
-                tableName = StringUtility.composeFullyQualifiedTableName(tc.getCatalog(), tc.getSchema(),
-                                                                         tc.getTableName(), '.');
-            } while (fullyQualifiedTableNames != null && !fullyQualifiedTableNames.isEmpty() && !fullyQualifiedTableNames.contains(
-                    tableName));
-
-            if (!tc.areAnyStatementsEnabled()) {
-                warnings.add(Messages.getString("Warning.0", tableName));
-            } else {
-                callback.startTask(Messages.getString("Progress.1", tableName));
-                List<IntrospectedTable> tables = databaseIntrospector.introspectTables(tc);
-                if (tables != null) {
-                    introspectedTables.addAll(tables);
-                }
-
-                callback.checkCancel();
-            }
+        List<IntellijTableInfo> previousTables = intellijTables;
+        intellijTables = Collections.singletonList(tableInfo);
+        try {
+            introspectTables(callback, warnings, fullyQualifiedTableNames);
+        } finally {
+            intellijTables = previousTables;
         }
     }
 
@@ -530,4 +776,46 @@ public class Context extends PropertyHolder {
     public void setIntellij(boolean intellij) {
         isIntellij = intellij;
     }
+
+    public GenerationManifest getGenerationManifest() {
+        return generationManifest;
+    }
+
+    /**
+     * Sets the manifest used for incremental generation. If set, tables that are up to date according to the
+     * manifest are not generated, and every generated table is recorded in the manifest.
+     *
+     * @param generationManifest the manifest, or null to generate every table
+     */
+    public void setGenerationManifest(GenerationManifest generationManifest) {
+        this.generationManifest = generationManifest;
+    }
+
+    public boolean isInvalidateIntrospectionCache() {
+        return invalidateIntrospectionCache;
+    }
+
+    /**
+     * If true, the introspection cache of this context (if any) is ignored on the next introspection
+     * and is rewritten with fresh metadata from the database.
+     *
+     * @param invalidateIntrospectionCache true to invalidate the introspection cache
+     */
+    public void setInvalidateIntrospectionCache(boolean invalidateIntrospectionCache) {
+        this.invalidateIntrospectionCache = invalidateIntrospectionCache;
+    }
+
+    public List<IntellijTableInfo> getIntellijTables() {
+        return intellijTables;
+    }
+
+    /**
+     * Sets the tables supplied by the IntelliJ plugin. If set, tables are introspected from these tables instead of
+     * the database, and no connection is opened.
+     *
+     * @param intellijTables the tables, or null to introspect the database
+     */
+    public void setIntellijTables(List<IntellijTableInfo> intellijTables) {
+        this.intellijTables = intellijTables;
+    }
 }
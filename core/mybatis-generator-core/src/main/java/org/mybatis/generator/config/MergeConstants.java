@@ -15,8 +15,6 @@
  */
 package org.mybatis.generator.config;
 
-import java.util.Arrays;
-
 /**
  * This class holds constants useful in the XML and Java merging operations.
  *
@@ -32,8 +30,8 @@ public class MergeConstants {
     private MergeConstants() {
     }
 
-    private static final String[] OLD_XML_ELEMENT_PREFIXES = {
-            "ibatorgenerated_", "abatorgenerated_" }; //$NON-NLS-1$ //$NON-NLS-2$
+    // the old element prefixes are "ibatorgenerated_" and "abatorgenerated_"
+    private static final String OLD_XML_ELEMENT_PREFIX_SUFFIX = "batorgenerated_"; //$NON-NLS-1$
 
     public static final String NEW_ELEMENT_TAG = "@mbg.generated"; //$NON-NLS-1$
     private static final String[] OLD_ELEMENT_TAGS = {
@@ -46,13 +44,40 @@ public class MergeConstants {
         return OLD_ELEMENT_TAGS;
     }
 
+    /**
+     * Returns true if the id starts with one of the prefixes of elements generated by Abator or iBator. Both prefixes
+     * end with the same suffix, so one comparison decides after the first character.
+     *
+     * @param id the id of an XML element
+     * @return true if the id starts with a generated prefix
+     */
     public static boolean idStartsWithPrefix(String id) {
-        return Arrays.stream(OLD_XML_ELEMENT_PREFIXES)
-                .anyMatch(id::startsWith);
+        if (id.length() < OLD_XML_ELEMENT_PREFIX_SUFFIX.length() + 1) {
+            return false;
+        }
+
+        char first = id.charAt(0);
+        return (first == 'i' || first == 'a') && id.startsWith(OLD_XML_ELEMENT_PREFIX_SUFFIX, 1);
     }
 
+    /**
+     * Returns true if the comment contains one of the element tags. All tags start with '@', so the comment is
+     * scanned once for that character, and the tags are only compared where it occurs.
+     *
+     * @param comment the text of a comment
+     * @return true if the comment contains a tag
+     */
     public static boolean commentContainsTag(String comment) {
-        return Arrays.stream(OLD_ELEMENT_TAGS)
-                .anyMatch(comment::contains);
+        int index = comment.indexOf('@');
+        while (index != -1) {
+            for (String tag : OLD_ELEMENT_TAGS) {
+                if (comment.startsWith(tag, index)) {
+                    return true;
+                }
+            }
+            index = comment.indexOf('@', index + 1);
+        }
+
+        return false;
     }
 }
@@ -59,6 +59,12 @@ public class PropertyRegistry {
     public static final String CONTEXT_XML_FORMATTER = "xmlFormatter"; //$NON-NLS-1$
     public static final String CONTEXT_KOTLIN_FORMATTER = "kotlinFormatter"; //$NON-NLS-1$
     public static final String CONTEXT_KOTLIN_FILE_ENCODING = "kotlinFileEncoding"; //$NON-NLS-1$
+    public static final String CONTEXT_PARALLEL_GENERATION = "parallelGeneration"; //$NON-NLS-1$
+    public static final String CONTEXT_GENERATION_THREADS = "generationThreads"; //$NON-NLS-1$
+    public static final String CONTEXT_BULK_INTROSPECTION = "bulkIntrospection"; //$NON-NLS-1$
+    public static final String CONTEXT_INTROSPECTION_CACHE_FILE = "introspectionCacheFile"; //$NON-NLS-1$
+    public static final String CONTEXT_INTROSPECTION_CACHE_FINGERPRINT_QUERY =
+            "introspectionCacheFingerprintQuery"; //$NON-NLS-1$
 
     public static final String CLIENT_DYNAMIC_SQL_SUPPORT_PACKAGE = "dynamicSqlSupportPackage"; //$NON-NLS-1$
 
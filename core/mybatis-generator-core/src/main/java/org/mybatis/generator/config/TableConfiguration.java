@@ -26,6 +26,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
+import org.mybatis.generator.internal.util.ColumnNameIndex;
 import org.mybatis.generator.internal.util.messages.Messages;
 
 public class TableConfiguration extends PropertyHolder {
@@ -50,6 +51,11 @@ public class TableConfiguration extends PropertyHolder {
 
     private final Map<IgnoredColumn, Boolean> ignoredColumns;
 
+    // built on the first lookup, after the configuration is complete
+    private volatile ColumnNameIndex<ColumnOverride> columnOverrideIndex;
+
+    private volatile ColumnNameIndex<IgnoredColumn> ignoredColumnIndex;
+
     private GeneratedKey generatedKey;
 
     private String selectByPrimaryKeyQueryId;
@@ -137,12 +143,19 @@ public class TableConfiguration extends PropertyHolder {
     }
 
     public boolean isColumnIgnored(String columnName) {
-        for (Map.Entry<IgnoredColumn, Boolean> entry : ignoredColumns
-                .entrySet()) {
-            if (entry.getKey().matches(columnName)) {
-                entry.setValue(Boolean.TRUE);
-                return true;
+        ColumnNameIndex<IgnoredColumn> index = ignoredColumnIndex;
+        if (index == null) {
+            index = new ColumnNameIndex<>(new ArrayList<>(ignoredColumns.keySet()), IgnoredColumn::getColumnName,
+                    IgnoredColumn::isColumnNameDelimited);
+            ignoredColumnIndex = index;
+        }
+
+        List<IgnoredColumn> matches = index.getAll(columnName);
+        if (!matches.isEmpty()) {
+            for (IgnoredColumn ignoredColumn : matches) {
+                ignoredColumns.put(ignoredColumn, Boolean.TRUE);
             }
+            return true;
         }
 
         for (IgnoredColumnPattern ignoredColumnPattern : ignoredColumnPatterns) {
@@ -156,6 +169,7 @@ public class TableConfiguration extends PropertyHolder {
 
     public void addIgnoredColumn(IgnoredColumn ignoredColumn) {
         ignoredColumns.put(ignoredColumn, Boolean.FALSE);
+        ignoredColumnIndex = null;
     }
 
     public void addIgnoredColumnPattern(IgnoredColumnPattern ignoredColumnPattern) {
@@ -164,6 +178,7 @@ public class TableConfiguration extends PropertyHolder {
 
     public void addColumnOverride(ColumnOverride columnOverride) {
         columnOverrides.add(columnOverride);
+        columnOverrideIndex = null;
     }
 
     @Override
@@ -205,19 +220,14 @@ public class TableConfiguration extends PropertyHolder {
      * @return the column override (if any) related to this column
      */
     public ColumnOverride getColumnOverride(String columnName) {
-        for (ColumnOverride co : columnOverrides) {
-            if (co.isColumnNameDelimited()) {
-                if (columnName.equals(co.getColumnName())) {
-                    return co;
-                }
-            } else {
-                if (columnName.equalsIgnoreCase(co.getColumnName())) {
-                    return co;
-                }
-            }
+        ColumnNameIndex<ColumnOverride> index = columnOverrideIndex;
+        if (index == null) {
+            index = new ColumnNameIndex<>(columnOverrides, ColumnOverride::getColumnName,
+                    ColumnOverride::isColumnNameDelimited);
+            columnOverrideIndex = index;
         }
 
-        return null;
+        return index.getFirst(columnName);
     }
 
     public Optional<GeneratedKey> getGeneratedKey() {
@@ -27,9 +27,25 @@ public class DefaultShellCallback implements ShellCallback {
 
     private final boolean overwrite;
 
+    private final boolean mergeSupported;
+
     public DefaultShellCallback(boolean overwrite) {
+        this(overwrite, false);
+    }
+
+    /**
+     * Creates a shell callback that may merge Java files.
+     *
+     * @param overwrite
+     *            true to overwrite existing files that are not merged
+     * @param mergeSupported
+     *            true to merge generated Java files into existing files with {@link JavaFileMergerJavaParser}.
+     *            JavaParser must be in the runtime classpath
+     */
+    public DefaultShellCallback(boolean overwrite, boolean mergeSupported) {
         super();
         this.overwrite = overwrite;
+        this.mergeSupported = mergeSupported;
     }
 
     @Override
@@ -67,6 +83,22 @@ public class DefaultShellCallback implements ShellCallback {
         return directory;
     }
 
+    @Override
+    public String mergeJavaFile(String newFileSource, File existingFile, String[] javadocTags, String fileEncoding)
+            throws ShellException {
+        try {
+            return JavaFileMergerJavaParser.getMergedSource(newFileSource, existingFile, javadocTags, fileEncoding);
+        } catch (NoClassDefFoundError e) {
+            throw new ShellException(getString("Warning.36", //$NON-NLS-1$
+                    existingFile.getName()), e);
+        }
+    }
+
+    @Override
+    public boolean isMergeSupported() {
+        return mergeSupported;
+    }
+
     @Override
     public boolean isOverwriteEnabled() {
         return overwrite;
@@ -19,6 +19,8 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Comparator;
 
 import org.mybatis.generator.exception.ShellException;
 import org.w3c.dom.Attr;
@@ -38,10 +40,15 @@ import org.w3c.dom.Text;
  * is very much based on the class dom.Writer from the Apache Xerces examples,
  * but I've simplified and updated it.
  *
+ * <p>Each call of {@link #toString(Document)} writes with its own copy of the writer, made by
+ * {@link #newWriter()}, so one instance can be shared by any number of threads.
+ *
  * @author Andy Clark, IBM (Original work)
  * @author Jeff Butler (derivation)
  */
-public class DomWriter {
+public class DomWriter implements Cloneable {
+
+    private static final Comparator<Attr> ATTRIBUTE_ORDER = Comparator.comparing(Attr::getNodeName);
 
     protected PrintWriter printWriter;
 
@@ -51,14 +58,32 @@ public class DomWriter {
         super();
     }
 
-    public synchronized String toString(Document document)
+    public String toString(Document document)
             throws ShellException {
+        DomWriter writer = newWriter();
         StringWriter sw = new StringWriter();
-        printWriter = new PrintWriter(sw);
-        write(document);
+        writer.printWriter = new PrintWriter(sw);
+        writer.write(document);
+        writer.printWriter.flush();
         return sw.toString();
     }
 
+    /**
+     * Creates the writer for one document. The default implementation returns a shallow copy of this writer, so
+     * subclasses keep their configuration. A subclass with other state that changes while a document is written
+     * should override this method and return a new instance.
+     *
+     * @return the writer for one document
+     */
+    protected DomWriter newWriter() {
+        try {
+            return (DomWriter) clone();
+        } catch (CloneNotSupportedException e) {
+            // cannot happen - the class is cloneable
+            throw new IllegalStateException(e);
+        }
+    }
+
     protected Attr[] sortAttributes(NamedNodeMap attrs) {
 
         int len = (attrs != null) ? attrs.getLength() : 0;
@@ -66,22 +91,7 @@ public class DomWriter {
         for (int i = 0; i < len; i++) {
             array[i] = (Attr) attrs.item(i);
         }
-        for (int i = 0; i < len - 1; i++) {
-            String name = array[i].getNodeName();
-            int index = i;
-            for (int j = i + 1; j < len; j++) {
-                String curName = array[j].getNodeName();
-                if (curName.compareTo(name) < 0) {
-                    name = curName;
-                    index = j;
-                }
-            }
-            if (index != i) {
-                Attr temp = array[i];
-                array[i] = array[index];
-                array[index] = temp;
-            }
-        }
+        Arrays.sort(array, ATTRIBUTE_ORDER);
 
         return array;
 
@@ -90,9 +100,42 @@ public class DomWriter {
     protected void normalizeAndPrint(String s, boolean isAttValue) {
 
         int len = (s != null) ? s.length() : 0;
+        if (getClass() != DomWriter.class) {
+            // a subclass may override normalizeAndPrint(char, boolean), so every character goes through it
+            for (int i = 0; i < len; i++) {
+                normalizeAndPrint(s.charAt(i), isAttValue);
+            }
+            return;
+        }
+
+        // characters that need no escaping are copied in runs
+        int start = 0;
         for (int i = 0; i < len; i++) {
             char c = s.charAt(i);
-            normalizeAndPrint(c, isAttValue);
+            if (needsNormalizing(c, isAttValue)) {
+                printWriter.write(s, start, i - start);
+                normalizeAndPrint(c, isAttValue);
+                start = i + 1;
+            }
+        }
+        if (start < len) {
+            printWriter.write(s, start, len - start);
+        }
+    }
+
+    private boolean needsNormalizing(char c, boolean isAttValue) {
+        switch (c) {
+        case '<':
+        case '>':
+        case '&':
+        case '\r':
+        case '\n':
+            return true;
+        case '"':
+        case '\t':
+            return isAttValue;
+        default:
+            return isXML11 && (c >= 0x01 && c <= 0x1F || c >= 0x7F && c <= 0x9F || c == 0x2028);
         }
     }
 
@@ -253,8 +296,8 @@ public class DomWriter {
             printWriter.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"); //$NON-NLS-1$
         }
         printWriter.flush();
-        write(node.getDoctype());
-        write(node.getDocumentElement());
+        writeAnyNode(node.getDoctype());
+        writeAnyNode(node.getDocumentElement());
     }
 
     protected void write(DocumentType node) {
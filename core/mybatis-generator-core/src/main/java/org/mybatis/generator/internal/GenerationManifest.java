@@ -0,0 +1,479 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.mybatis.generator.api.GeneratedFile;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.config.ColumnOverride;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.JavaClientGeneratorConfiguration;
+import org.mybatis.generator.config.JavaModelGeneratorConfiguration;
+import org.mybatis.generator.config.PluginConfiguration;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.config.SqlMapGeneratorConfiguration;
+import org.mybatis.generator.config.TableConfiguration;
+import org.mybatis.generator.config.TypedPropertyHolder;
+
+/**
+ * This class is the manifest used for incremental generation. For every generated table it records a fingerprint
+ * of the context configuration, the generator and plugin versions, and the introspected table, and the content hash
+ * of every file written for the table. A table with a file that could not be written has no entry, so it is
+ * generated again on the next run.
+ *
+ * <p>On the next run a table is up to date - and its generation can be skipped - if the fingerprint is unchanged
+ * and every recorded file still exists with the recorded content. Table generation is never skipped in a context
+ * where plugins generated context level files (like the MapperConfigPlugin), because those files are built from the
+ * files generated for every table.
+ *
+ * <p>The methods of this class are synchronized so that contexts may be generated concurrently.
+ */
+public class GenerationManifest {
+
+    private static final int MAGIC = 0x4D42474D; // MBGM
+    private static final int FORMAT_VERSION = 1;
+
+    // context properties that change how the generator runs, but not what it generates
+    private static final Set<String> RUNTIME_PROPERTIES = new HashSet<>(Arrays.asList(
+            PropertyRegistry.CONTEXT_PARALLEL_GENERATION,
+            PropertyRegistry.CONTEXT_GENERATION_THREADS,
+            PropertyRegistry.CONTEXT_BULK_INTROSPECTION,
+            PropertyRegistry.CONTEXT_INTROSPECTION_CACHE_FILE,
+            PropertyRegistry.CONTEXT_INTROSPECTION_CACHE_FINGERPRINT_QUERY));
+
+    private final Path file;
+    private final Map<String, TableEntry> tableEntries = new HashMap<>();
+    private final Set<String> contextsWithContextFiles = new HashSet<>();
+    private final Map<GeneratedFile, TableEntry> fileOwners = new IdentityHashMap<>();
+    private final Map<Context, String> contextFingerprints = new IdentityHashMap<>();
+    private final Map<IntrospectedTable, String> tableFingerprints = new IdentityHashMap<>();
+
+    private GenerationManifest(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Loads the manifest stored in a file. If the file does not exist or cannot be read, the manifest starts empty
+     * and every table will be generated.
+     *
+     * @param file the manifest file
+     * @param warnings any warning generated from this method will be added to the List
+     * @return the manifest
+     */
+    public static GenerationManifest load(Path file, List<String> warnings) {
+        GenerationManifest answer = new GenerationManifest(file);
+        if (!Files.exists(file)) {
+            return answer;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            answer.read(in);
+        } catch (IOException e) {
+            warnings.add(getString("Warning.34", file.toString(), e.getMessage())); //$NON-NLS-1$
+            answer.tableEntries.clear();
+            answer.contextsWithContextFiles.clear();
+        }
+        return answer;
+    }
+
+    /**
+     * Returns true if the table was generated by an earlier run with the same configuration and metadata, and every
+     * file written for it is unchanged on disk.
+     *
+     * @param context the context of the table
+     * @param introspectedTable the table, after it has been initialized
+     * @return true if generation of the table can be skipped
+     */
+    public synchronized boolean isUpToDate(Context context, IntrospectedTable introspectedTable) {
+        if (contextsWithContextFiles.contains(context.getId())) {
+            return false;
+        }
+
+        // calculated before generation - generating a table and running plugins can change the table
+        String fingerprint = calculateFingerprint(context, introspectedTable);
+        tableFingerprints.put(introspectedTable, fingerprint);
+
+        TableEntry entry = tableEntries.get(calculateTableKey(context, introspectedTable));
+        if (entry == null || !entry.fingerprint.equals(fingerprint)) {
+            return false;
+        }
+
+        for (Map.Entry<String, String> writtenFile : entry.files.entrySet()) {
+            try {
+                Path path = Path.of(writtenFile.getKey());
+                if (!Files.isRegularFile(path)
+                        || !writtenFile.getValue().equals(calculateHash(path))) {
+                    return false;
+                }
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Records that a table has been generated. The entry for the table is replaced, and the files will be added to
+     * the entry as they are written.
+     *
+     * @param context the context of the table
+     * @param introspectedTable the table
+     * @param generatedFiles the files generated for the table
+     */
+    public synchronized void tableGenerated(Context context, IntrospectedTable introspectedTable,
+            List<? extends GeneratedFile> generatedFiles) {
+        String fingerprint = tableFingerprints.remove(introspectedTable);
+        if (fingerprint == null) {
+            fingerprint = calculateFingerprint(context, introspectedTable);
+        }
+        TableEntry entry = new TableEntry(fingerprint);
+        tableEntries.put(calculateTableKey(context, introspectedTable), entry);
+        for (GeneratedFile generatedFile : generatedFiles) {
+            fileOwners.put(generatedFile, entry);
+        }
+    }
+
+    /**
+     * Records whether plugins generated context level files in a context.
+     *
+     * @param context the context
+     * @param hasContextFiles true if any context level file was generated
+     */
+    public synchronized void contextGenerated(Context context, boolean hasContextFiles) {
+        if (hasContextFiles) {
+            contextsWithContextFiles.add(context.getId());
+        } else {
+            contextsWithContextFiles.remove(context.getId());
+        }
+    }
+
+    /**
+     * Records the content of a file as it is on disk after it was written (or found to be unchanged).
+     *
+     * @param generatedFile the generated file
+     * @param targetFile the file on disk
+     * @param content the content of the file on disk
+     */
+    public synchronized void fileWritten(GeneratedFile generatedFile, File targetFile, ByteBuffer content) {
+        TableEntry entry = fileOwners.get(generatedFile);
+        if (entry != null) {
+            entry.files.put(targetFile.getAbsolutePath(), calculateHash(content.duplicate()));
+        }
+    }
+
+    /**
+     * Records the content of a file as it is on disk after it was written (or found to be unchanged). The file is
+     * read in blocks, so it is never held in memory in full.
+     *
+     * @param generatedFile the generated file
+     * @param targetFile the file on disk
+     * @throws IOException if the file cannot be read
+     */
+    public void fileWritten(GeneratedFile generatedFile, File targetFile) throws IOException {
+        String hash = calculateHash(targetFile.toPath());
+        synchronized (this) {
+            TableEntry entry = fileOwners.get(generatedFile);
+            if (entry != null) {
+                entry.files.put(targetFile.getAbsolutePath(), hash);
+            }
+        }
+    }
+
+    /**
+     * Records that a file could not be written, for example because it could not be merged. The entry of the table
+     * is removed, so the table is generated again on the next run.
+     *
+     * @param generatedFile the generated file
+     */
+    public synchronized void fileFailed(GeneratedFile generatedFile) {
+        TableEntry entry = fileOwners.get(generatedFile);
+        if (entry != null) {
+            tableEntries.values().remove(entry);
+        }
+    }
+
+    /**
+     * Writes the manifest to its file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void save() throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+
+            out.writeInt(contextsWithContextFiles.size());
+            for (String contextId : contextsWithContextFiles) {
+                out.writeUTF(contextId);
+            }
+
+            out.writeInt(tableEntries.size());
+            for (Map.Entry<String, TableEntry> entry : tableEntries.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeUTF(entry.getValue().fingerprint);
+                out.writeInt(entry.getValue().files.size());
+                for (Map.Entry<String, String> writtenFile : entry.getValue().files.entrySet()) {
+                    out.writeUTF(writtenFile.getKey());
+                    out.writeUTF(writtenFile.getValue());
+                }
+            }
+        }
+    }
+
+    private void read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+            // written by a different version - generate everything
+            return;
+        }
+
+        int contextCount = in.readInt();
+        for (int i = 0; i < contextCount; i++) {
+            contextsWithContextFiles.add(in.readUTF());
+        }
+
+        int tableCount = in.readInt();
+        for (int i = 0; i < tableCount; i++) {
+            String key = in.readUTF();
+            TableEntry entry = new TableEntry(in.readUTF());
+            int fileCount = in.readInt();
+            for (int j = 0; j < fileCount; j++) {
+                entry.files.put(in.readUTF(), in.readUTF());
+            }
+            tableEntries.put(key, entry);
+        }
+    }
+
+    private static String calculateTableKey(Context context, IntrospectedTable introspectedTable) {
+        return context.getId() + '\n' + introspectedTable.getFullyQualifiedTable() + '\n'
+                + introspectedTable.getBaseRecordType();
+    }
+
+    private String calculateFingerprint(Context context, IntrospectedTable introspectedTable) {
+        String contextFingerprint = contextFingerprints.computeIfAbsent(context,
+                c -> calculateHash(describe(c).getBytes(StandardCharsets.UTF_8)));
+
+        StringBuilder sb = new StringBuilder(contextFingerprint);
+        sb.append('\n').append(describe(introspectedTable.getTableConfiguration()));
+        sb.append('\n').append(introspectedTable.getFullyQualifiedTable());
+        sb.append('\n').append(introspectedTable.getRemarks());
+        sb.append('\n').append(introspectedTable.getTableType());
+        for (IntrospectedColumn column : introspectedTable.getPrimaryKeyColumns()) {
+            sb.append("\nPK ").append(column.getActualColumnName()); //$NON-NLS-1$
+        }
+        for (IntrospectedColumn column : introspectedTable.getAllColumns()) {
+            sb.append("\nCOLUMN ").append(Arrays.asList( //$NON-NLS-1$
+                    column.getActualColumnName(), column.getJdbcType(), column.getActualTypeName(),
+                    column.getLength(), column.getScale(), column.isNullable(), column.getRemarks(),
+                    column.getDefaultValue(), column.isAutoIncrement(), column.isGeneratedColumn(),
+                    column.isIdentity(), column.isSequenceColumn(), column.isGeneratedAlways(),
+                    column.getJavaProperty(), column.getFullyQualifiedJavaType(), column.getJdbcTypeName(),
+                    column.getTypeHandler(), column.isColumnNameDelimited()));
+        }
+
+        return calculateHash(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Describes the parts of a context that change the generated files, along with the version of the generator and
+     * of every configured plugin and comment generator. The tables are described one at a time, and settings that
+     * only change how the generator runs (threads, caches, the connection) are left out, so changing them does not
+     * regenerate anything.
+     */
+    private static String describe(Context context) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("generator=").append(getVersion(GenerationManifest.class)); //$NON-NLS-1$
+        sb.append("\nid=").append(context.getId()); //$NON-NLS-1$
+        sb.append("\ntargetRuntime=").append(context.getTargetRuntime()); //$NON-NLS-1$
+        sb.append("\ndefaultModelType=").append(context.getDefaultModelType()); //$NON-NLS-1$
+        sb.append("\nintrospectedColumnImpl=").append(context.getIntrospectedColumnImpl()); //$NON-NLS-1$
+        sb.append("\ndelimiters=").append(context.getBeginningDelimiter()) //$NON-NLS-1$
+                .append(context.getEndingDelimiter());
+        sb.append("\nautoDelimitKeywords=").append(context.autoDelimitKeywords()); //$NON-NLS-1$
+        sb.append("\nproperties=").append(describeContextProperties(context.getProperties())); //$NON-NLS-1$
+
+        JavaModelGeneratorConfiguration javaModel = context.getJavaModelGeneratorConfiguration();
+        if (javaModel != null) {
+            sb.append("\njavaModel=").append(Arrays.asList(javaModel.getTargetProject(), //$NON-NLS-1$
+                    javaModel.getTargetPackage(), describe(javaModel.getProperties())));
+        }
+
+        SqlMapGeneratorConfiguration sqlMap = context.getSqlMapGeneratorConfiguration();
+        if (sqlMap != null) {
+            sb.append("\nsqlMap=").append(Arrays.asList(sqlMap.getTargetProject(), //$NON-NLS-1$
+                    sqlMap.getTargetPackage(), describe(sqlMap.getProperties())));
+        }
+
+        JavaClientGeneratorConfiguration javaClient = context.getJavaClientGeneratorConfiguration();
+        if (javaClient != null) {
+            sb.append("\njavaClient=").append(Arrays.asList(javaClient.getTargetProject(), //$NON-NLS-1$
+                    javaClient.getTargetPackage(), describe(javaClient)));
+        }
+
+        if (context.getJavaTypeResolverConfiguration() != null) {
+            sb.append("\njavaTypeResolver=") //$NON-NLS-1$
+                    .append(describe(context.getJavaTypeResolverConfiguration()));
+        }
+        if (context.getCommentGeneratorConfiguration() != null) {
+            sb.append("\ncommentGenerator=") //$NON-NLS-1$
+                    .append(describe(context.getCommentGeneratorConfiguration()));
+        }
+
+        // plugins run in the configured order
+        for (PluginConfiguration pluginConfiguration : context.getPluginConfigurations()) {
+            sb.append("\nplugin=").append(describe(pluginConfiguration)); //$NON-NLS-1$
+        }
+
+        return sb.toString();
+    }
+
+    private static String describe(TableConfiguration tc) {
+        List<Object> answer = new ArrayList<>(Arrays.asList(tc.getCatalog(), tc.getSchema(), tc.getTableName(),
+                tc.getDomainObjectName(), tc.getAlias(), tc.getModelType(), tc.getMapperName(),
+                tc.getSqlProviderName(), tc.getSelectByPrimaryKeyQueryId(), tc.getSelectByExampleQueryId(),
+                tc.isInsertStatementEnabled(), tc.isSelectByPrimaryKeyStatementEnabled(),
+                tc.isSelectByExampleStatementEnabled(), tc.isUpdateByPrimaryKeyStatementEnabled(),
+                tc.isDeleteByPrimaryKeyStatementEnabled(), tc.isDeleteByExampleStatementEnabled(),
+                tc.isCountByExampleStatementEnabled(), tc.isUpdateByExampleStatementEnabled(),
+                tc.isWildcardEscapingEnabled(), tc.isDelimitIdentifiers(), tc.isAllColumnDelimitingEnabled(),
+                describe(tc.getProperties())));
+
+        // ignored columns and renaming rules are already part of the introspected columns and names
+        tc.getGeneratedKey().ifPresent(generatedKey -> answer.add(Arrays.asList(generatedKey.getColumn(),
+                generatedKey.getRuntimeSqlStatement(), generatedKey.isIdentity(), generatedKey.isJdbcStandard())));
+        for (ColumnOverride columnOverride : tc.getColumnOverrides()) {
+            answer.add(Arrays.asList(columnOverride.getColumnName(), describe(columnOverride.getProperties())));
+        }
+
+        return answer.toString();
+    }
+
+    private static String describe(TypedPropertyHolder propertyHolder) {
+        String type = propertyHolder.getConfigurationType();
+        return Arrays.asList(type, getVersion(type), describe(propertyHolder.getProperties())).toString();
+    }
+
+    private static String describe(Properties properties) {
+        return new TreeMap<>(properties).toString();
+    }
+
+    private static String describeContextProperties(Properties properties) {
+        Map<Object, Object> answer = new TreeMap<>(properties);
+        answer.keySet().removeAll(RUNTIME_PROPERTIES);
+        return answer.toString();
+    }
+
+    /**
+     * Returns the implementation version of the jar a class is loaded from. Classes that are not loaded from a
+     * versioned jar - like classes compiled in the same project - have no version, so changes to them are not
+     * detected.
+     */
+    private static String getVersion(String type) {
+        if (type == null) {
+            return null;
+        }
+
+        try {
+            return getVersion(ObjectFactory.externalClassForName(type));
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static String getVersion(Class<?> type) {
+        Package p = type.getPackage();
+        return p == null ? null : p.getImplementationVersion();
+    }
+
+    private static String calculateHash(byte[] content) {
+        return calculateHash(ByteBuffer.wrap(content));
+    }
+
+    private static String calculateHash(ByteBuffer content) {
+        MessageDigest messageDigest = newMessageDigest();
+        messageDigest.update(content);
+        return toHex(messageDigest.digest());
+    }
+
+    private static String calculateHash(Path file) throws IOException {
+        MessageDigest messageDigest = newMessageDigest();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[8192];
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                messageDigest.update(buffer, 0, count);
+            }
+        }
+        return toHex(messageDigest.digest());
+    }
+
+    private static MessageDigest newMessageDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] digest) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest) {
+            sb.append(String.format("%02x", b)); //$NON-NLS-1$
+        }
+        return sb.toString();
+    }
+
+    private static class TableEntry {
+        private final String fingerprint;
+        private final Map<String, String> files = new TreeMap<>();
+
+        TableEntry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
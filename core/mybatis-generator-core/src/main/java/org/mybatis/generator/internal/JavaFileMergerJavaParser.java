@@ -0,0 +1,557 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.JavaToken;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.Problem;
+import com.github.javaparser.TokenRange;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.comments.Comment;
+import com.github.javaparser.ast.comments.JavadocComment;
+import com.github.javaparser.ast.expr.AnnotationExpr;
+import com.github.javaparser.ast.expr.ArrayInitializerExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.MemberValuePair;
+import com.github.javaparser.ast.expr.NormalAnnotationExpr;
+import com.github.javaparser.ast.expr.SingleMemberAnnotationExpr;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.ast.type.TypeParameter;
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.exception.ShellException;
+
+/**
+ * This class merges changes into an existing Java file without an IDE. It parses both files with JavaParser, and
+ * edits the source of the existing file token by token, so everything that is not generated is kept exactly as it
+ * is in the existing file - comments, formatting and line endings.
+ *
+ * <p>The merge follows the Eclipse plugin's Java file merger:
+ * <ul>
+ * <li>Members of the primary type that are generated are deleted. A member is generated if its JavaDoc contains
+ *     one of the JavaDoc tags, or if it is annotated with <code>@Generated</code> naming MyBatis Generator. Inner
+ *     types whose JavaDoc also contains <code>do_not_delete_during_merge</code> are kept</li>
+ * <li>All members of the new primary type are added at the start of the existing type, except inner types that
+ *     were kept. Annotations that were added to a generated field or method in the existing file are added to the
+ *     new field or method</li>
+ * <li>Imports of the new file that are missing in the existing file are added</li>
+ * <li>The existing type takes the kind (class or interface) and the super class of the new type, and the super
+ *     interfaces of the new type are added to its super interfaces</li>
+ * </ul>
+ *
+ * <p>Parsers are held per thread, so files may be merged concurrently.
+ */
+public class JavaFileMergerJavaParser {
+
+    private static final String DO_NOT_DELETE_DURING_MERGE = "do_not_delete_during_merge"; //$NON-NLS-1$
+
+    private static final Set<String> GENERATED_ANNOTATIONS = new HashSet<>(Arrays.asList(
+            "Generated", //$NON-NLS-1$
+            "javax.annotation.Generated", //$NON-NLS-1$
+            "javax.annotation.processing.Generated", //$NON-NLS-1$
+            "jakarta.annotation.Generated")); //$NON-NLS-1$
+
+    private static final ThreadLocal<JavaParser> PARSERS = ThreadLocal.withInitial(() -> new JavaParser(
+            new ParserConfiguration().setLanguageLevel(ParserConfiguration.LanguageLevel.RAW)));
+
+    private JavaFileMergerJavaParser() {}
+
+    /**
+     * Merges the source of a generated Java file into an existing file.
+     *
+     * @param newFileSource the source of the generated file
+     * @param existingFile the existing file
+     * @param javadocTags the JavaDoc tags that mark generated members
+     * @param fileEncoding the encoding of the existing file, or null for the platform default encoding
+     * @return the merged source
+     * @throws ShellException if the files cannot be merged
+     */
+    public static String getMergedSource(String newFileSource, File existingFile, String[] javadocTags,
+            String fileEncoding) throws ShellException {
+        String existingFileSource;
+        try {
+            Charset charset = fileEncoding == null ? Charset.defaultCharset() : Charset.forName(fileEncoding);
+            existingFileSource = new String(Files.readAllBytes(existingFile.toPath()), charset);
+        } catch (IOException e) {
+            throw new ShellException(getString("Warning.35", //$NON-NLS-1$
+                    existingFile.getName(), e.getMessage()), e);
+        }
+
+        return getMergedSource(newFileSource, existingFileSource, existingFile.getName(), javadocTags);
+    }
+
+    /**
+     * Merges the source of a generated Java file into the source of an existing file.
+     *
+     * @param newFileSource the source of the generated file
+     * @param existingFileSource the source of the existing file
+     * @param existingFileName the name of the existing file, for messages
+     * @param javadocTags the JavaDoc tags that mark generated members
+     * @return the merged source
+     * @throws ShellException if the files cannot be merged
+     */
+    public static String getMergedSource(String newFileSource, String existingFileSource, String existingFileName,
+            String[] javadocTags) throws ShellException {
+        CompilationUnit newUnit = parse(newFileSource, existingFileName);
+        CompilationUnit existingUnit = parse(existingFileSource, existingFileName);
+        ClassOrInterfaceDeclaration newType = getPrimaryType(newUnit, existingFileName);
+        ClassOrInterfaceDeclaration existingType = getPrimaryType(existingUnit, existingFileName);
+
+        Merge merge = new Merge(firstToken(existingUnit), getLineSeparator(newUnit));
+        if (!merge.render().equals(existingFileSource)) {
+            // the tokens must reproduce the source, or the edits would change more than intended
+            throw new ShellException(getString("Warning.35", //$NON-NLS-1$
+                    existingFileName, "unsupported source")); //$NON-NLS-1$
+        }
+
+        Set<String> keptTypes = new HashSet<>();
+        Map<String, List<AnnotationExpr>> existingAnnotations = new HashMap<>();
+        for (BodyDeclaration<?> member : existingType.getMembers()) {
+            if (!isGenerated(member, javadocTags)) {
+                if (member instanceof TypeDeclaration && isKeptDuringMerge(member, javadocTags)) {
+                    keptTypes.add(((TypeDeclaration<?>) member).getNameAsString());
+                }
+                continue;
+            }
+
+            String key = getMemberKey(member);
+            if (key != null) {
+                existingAnnotations.put(key, member.getAnnotations());
+            }
+            merge.delete(member);
+        }
+
+        StringBuilder members = new StringBuilder();
+        JavaToken chunkStart = next(findBodyStart(newType));
+        for (BodyDeclaration<?> member : newType.getMembers()) {
+            JavaToken memberStart = tokens(member).getBegin();
+            JavaToken memberEnd = tokens(member).getEnd();
+            if (!(member instanceof TypeDeclaration)
+                    || !keptTypes.contains(((TypeDeclaration<?>) member).getNameAsString())) {
+                appendText(members, chunkStart, memberStart);
+                appendAnnotations(members, member, existingAnnotations.get(getMemberKey(member)), merge,
+                        memberStart);
+                appendText(members, memberStart, next(memberEnd));
+            }
+            chunkStart = next(memberEnd);
+        }
+        merge.insertBefore(next(findBodyStart(existingType)), members);
+
+        mergeImports(newUnit, existingUnit, existingType, merge);
+        mergeHeader(newType, existingType, merge);
+
+        return merge.render();
+    }
+
+    private static CompilationUnit parse(String source, String fileName) throws ShellException {
+        ParseResult<CompilationUnit> result = PARSERS.get().parse(source);
+        Optional<CompilationUnit> unit = result.getResult();
+        if (!result.isSuccessful() || !unit.isPresent() || !unit.get().getTokenRange().isPresent()) {
+            String problem = result.getProblems().stream()
+                    .findFirst()
+                    .map(Problem::getVerboseMessage)
+                    .orElse("no source"); //$NON-NLS-1$
+            throw new ShellException(getString("Warning.35", //$NON-NLS-1$
+                    fileName, problem));
+        }
+
+        return unit.get();
+    }
+
+    /**
+     * Returns the first public top level type, or the first top level type if no type is public. Only classes and
+     * interfaces can be merged.
+     */
+    private static ClassOrInterfaceDeclaration getPrimaryType(CompilationUnit unit, String fileName)
+            throws ShellException {
+        TypeDeclaration<?> primaryType = unit.getTypes().stream()
+                .filter(TypeDeclaration::isPublic)
+                .findFirst()
+                .orElse(unit.getTypes().isEmpty() ? null : unit.getType(0));
+        if (!(primaryType instanceof ClassOrInterfaceDeclaration)) {
+            throw new ShellException(getString("Warning.35", //$NON-NLS-1$
+                    fileName, "no class or interface")); //$NON-NLS-1$
+        }
+
+        return (ClassOrInterfaceDeclaration) primaryType;
+    }
+
+    private static String getLineSeparator(CompilationUnit unit) {
+        for (JavaToken token = firstToken(unit); token != null; token = next(token)) {
+            if (token.getCategory() == JavaToken.Category.EOL) {
+                return token.getText();
+            }
+        }
+
+        return System.getProperty("line.separator"); //$NON-NLS-1$
+    }
+
+    private static boolean isGenerated(BodyDeclaration<?> member, String[] javadocTags) {
+        Optional<String> javadoc = getJavadoc(member);
+        if (javadoc.isPresent() && containsTag(javadoc.get(), javadocTags)) {
+            return !javadoc.get().contains(DO_NOT_DELETE_DURING_MERGE);
+        }
+
+        return member.getAnnotations().stream().anyMatch(JavaFileMergerJavaParser::isGeneratedAnnotation);
+    }
+
+    private static boolean isKeptDuringMerge(BodyDeclaration<?> member, String[] javadocTags) {
+        return getJavadoc(member)
+                .filter(javadoc -> containsTag(javadoc, javadocTags) && javadoc.contains(DO_NOT_DELETE_DURING_MERGE))
+                .isPresent();
+    }
+
+    private static Optional<String> getJavadoc(BodyDeclaration<?> member) {
+        return member.getComment()
+                .filter(JavadocComment.class::isInstance)
+                .map(Comment::getContent);
+    }
+
+    private static boolean containsTag(String javadoc, String[] javadocTags) {
+        for (String javadocTag : javadocTags) {
+            if (javadoc.contains(javadocTag)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isGeneratedAnnotation(AnnotationExpr annotation) {
+        if (!GENERATED_ANNOTATIONS.contains(annotation.getNameAsString())) {
+            return false;
+        }
+
+        if (annotation instanceof SingleMemberAnnotationExpr) {
+            return namesGenerator(((SingleMemberAnnotationExpr) annotation).getMemberValue());
+        } else if (annotation instanceof NormalAnnotationExpr) {
+            for (MemberValuePair pair : ((NormalAnnotationExpr) annotation).getPairs()) {
+                if ("value".equals(pair.getNameAsString())) { //$NON-NLS-1$
+                    return namesGenerator(pair.getValue());
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean namesGenerator(Expression value) {
+        if (value instanceof ArrayInitializerExpr) {
+            return ((ArrayInitializerExpr) value).getValues().stream()
+                    .anyMatch(JavaFileMergerJavaParser::namesGenerator);
+        }
+
+        return value.isStringLiteralExpr()
+                && MyBatisGenerator.class.getName().equals(value.asStringLiteralExpr().asString());
+    }
+
+    /**
+     * Returns the key that matches a generated field or method in the existing file with the field or method in the
+     * new file, or null for other members.
+     */
+    private static String getMemberKey(BodyDeclaration<?> member) {
+        if (member instanceof FieldDeclaration) {
+            return "field " + ((FieldDeclaration) member).getVariable(0).getNameAsString(); //$NON-NLS-1$
+        } else if (member instanceof CallableDeclaration) {
+            StringBuilder sb = new StringBuilder("method "); //$NON-NLS-1$
+            sb.append(((CallableDeclaration<?>) member).getNameAsString()).append('(');
+            for (Parameter parameter : ((CallableDeclaration<?>) member).getParameters()) {
+                sb.append(parameter.getType()).append(parameter.isVarArgs() ? "...," : ","); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+            return sb.append(')').toString();
+        }
+
+        return null;
+    }
+
+    /**
+     * Adds the annotations that were added to a generated member of the existing file to the new member, before
+     * its first annotation or modifier.
+     */
+    private static void appendAnnotations(StringBuilder sb, BodyDeclaration<?> member,
+            List<AnnotationExpr> existingAnnotations, Merge merge, JavaToken memberStart) {
+        if (existingAnnotations == null) {
+            return;
+        }
+
+        Set<String> names = new HashSet<>();
+        for (AnnotationExpr annotation : member.getAnnotations()) {
+            names.add(annotation.getNameAsString());
+        }
+
+        // the indent of the member may be split into several tokens
+        JavaToken indentStart = memberStart;
+        while (indentStart.getPreviousToken().isPresent()
+                && indentStart.getPreviousToken().get().getCategory() == JavaToken.Category.WHITESPACE_NO_EOL) {
+            indentStart = indentStart.getPreviousToken().get();
+        }
+        StringBuilder indent = new StringBuilder();
+        appendText(indent, indentStart, memberStart);
+        for (AnnotationExpr annotation : existingAnnotations) {
+            if (!isGeneratedAnnotation(annotation) && names.add(annotation.getNameAsString())) {
+                appendText(sb, tokens(annotation).getBegin(), next(tokens(annotation).getEnd()));
+                sb.append(merge.lineSeparator).append(indent);
+            }
+        }
+    }
+
+    private static void mergeImports(CompilationUnit newUnit, CompilationUnit existingUnit,
+            ClassOrInterfaceDeclaration existingType, Merge merge) {
+        Set<String> existingImports = new HashSet<>();
+        for (ImportDeclaration importDeclaration : existingUnit.getImports()) {
+            existingImports.add(getImportKey(importDeclaration));
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (ImportDeclaration importDeclaration : newUnit.getImports()) {
+            if (existingImports.add(getImportKey(importDeclaration))) {
+                if (sb.length() > 0 || !existingUnit.getImports().isEmpty()) {
+                    sb.append(merge.lineSeparator);
+                }
+                appendText(sb, tokens(importDeclaration).getBegin(), next(tokens(importDeclaration).getEnd()));
+            }
+        }
+        if (sb.length() == 0) {
+            return;
+        }
+
+        NodeList<ImportDeclaration> imports = existingUnit.getImports();
+        if (!imports.isEmpty()) {
+            merge.insertBefore(next(tokens(imports.get(imports.size() - 1)).getEnd()), sb);
+        } else if (existingUnit.getPackageDeclaration().isPresent()) {
+            merge.insertBefore(next(tokens(existingUnit.getPackageDeclaration().get()).getEnd()),
+                    merge.lineSeparator + merge.lineSeparator + sb);
+        } else {
+            merge.insertBefore(getStart(existingType), sb.append(merge.lineSeparator).append(merge.lineSeparator));
+        }
+    }
+
+    private static String getImportKey(ImportDeclaration importDeclaration) {
+        return (importDeclaration.isStatic() ? "static " : "") //$NON-NLS-1$ //$NON-NLS-2$
+                + importDeclaration.getNameAsString()
+                + (importDeclaration.isAsterisk() ? ".*" : ""); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Gives the existing type the kind and super class of the new type, and adds the new super interfaces. The
+     * declaration is rewritten from the class or interface keyword to the opening brace, and only if it changes.
+     */
+    private static void mergeHeader(ClassOrInterfaceDeclaration newType, ClassOrInterfaceDeclaration existingType,
+            Merge merge) {
+        NodeList<ClassOrInterfaceType> existingSuperInterfaces = existingType.isInterface()
+                ? existingType.getExtendedTypes() : existingType.getImplementedTypes();
+        NodeList<ClassOrInterfaceType> newSuperInterfaces = newType.isInterface()
+                ? newType.getExtendedTypes() : newType.getImplementedTypes();
+        NodeList<ClassOrInterfaceType> newSuperClass = newType.isInterface()
+                ? new NodeList<>() : newType.getExtendedTypes();
+
+        Set<String> superInterfaceNames = new HashSet<>();
+        List<ClassOrInterfaceType> superInterfaces = new ArrayList<>();
+        for (ClassOrInterfaceType type : existingSuperInterfaces) {
+            superInterfaceNames.add(type.toString());
+            superInterfaces.add(type);
+        }
+        for (ClassOrInterfaceType type : newSuperInterfaces) {
+            if (superInterfaceNames.add(type.toString())) {
+                superInterfaces.add(type);
+            }
+        }
+
+        boolean sameSuperClass = existingType.isInterface() ? newSuperClass.isEmpty()
+                : existingType.getExtendedTypes().toString().equals(newSuperClass.toString());
+        if (existingType.isInterface() == newType.isInterface() && sameSuperClass
+                && superInterfaces.size() == existingSuperInterfaces.size()) {
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder(newType.isInterface() ? "interface " : "class "); //$NON-NLS-1$ //$NON-NLS-2$
+        sb.append(existingType.getNameAsString());
+        NodeList<TypeParameter> typeParameters = existingType.getTypeParameters();
+        for (int i = 0; i < typeParameters.size(); i++) {
+            sb.append(i == 0 ? "<" : ", "); //$NON-NLS-1$ //$NON-NLS-2$
+            appendText(sb, tokens(typeParameters.get(i)).getBegin(), next(tokens(typeParameters.get(i)).getEnd()));
+        }
+        if (!typeParameters.isEmpty()) {
+            sb.append('>');
+        }
+        if (!newSuperClass.isEmpty()) {
+            sb.append(" extends "); //$NON-NLS-1$
+            appendText(sb, tokens(newSuperClass.get(0)).getBegin(), next(tokens(newSuperClass.get(0)).getEnd()));
+        }
+        for (int i = 0; i < superInterfaces.size(); i++) {
+            if (i == 0) {
+                sb.append(newType.isInterface() ? " extends " : " implements "); //$NON-NLS-1$ //$NON-NLS-2$
+            } else {
+                sb.append(", "); //$NON-NLS-1$
+            }
+            appendText(sb, tokens(superInterfaces.get(i)).getBegin(), next(tokens(superInterfaces.get(i)).getEnd()));
+        }
+        sb.append(' ');
+
+        JavaToken keyword = previousCodeToken(tokens(existingType.getName()).getBegin());
+        JavaToken bodyStart = findBodyStart(existingType);
+        merge.replace(keyword, bodyStart.getPreviousToken().orElse(keyword), sb.toString());
+    }
+
+    private static JavaToken previousCodeToken(JavaToken token) {
+        JavaToken previous = token.getPreviousToken().orElse(token);
+        while (previous.getCategory().isWhitespaceOrComment() && previous.getPreviousToken().isPresent()) {
+            previous = previous.getPreviousToken().get();
+        }
+        return previous;
+    }
+
+    /**
+     * Returns the opening brace of the body of a type - the first brace after the name that is not inside an
+     * annotation.
+     */
+    private static JavaToken findBodyStart(ClassOrInterfaceDeclaration type) {
+        int depth = 0;
+        JavaToken token = tokens(type.getName()).getBegin();
+        while (depth > 0 || !"{".equals(token.getText())) { //$NON-NLS-1$
+            if ("(".equals(token.getText())) { //$NON-NLS-1$
+                depth++;
+            } else if (")".equals(token.getText())) { //$NON-NLS-1$
+                depth--;
+            }
+            token = next(token);
+        }
+        return token;
+    }
+
+    /**
+     * Returns the first token of a member, including its comment.
+     */
+    private static JavaToken getStart(BodyDeclaration<?> member) {
+        JavaToken start = tokens(member).getBegin();
+        Optional<Comment> comment = member.getComment();
+        if (comment.isPresent() && comment.get().getTokenRange().isPresent()
+                && comment.get().getBegin().isPresent() && member.getBegin().isPresent()
+                && comment.get().getBegin().get().isBefore(member.getBegin().get())) {
+            start = comment.get().getTokenRange().get().getBegin();
+        }
+        return start;
+    }
+
+    private static TokenRange tokens(Node node) {
+        return node.getTokenRange().orElseThrow(IllegalStateException::new);
+    }
+
+    private static JavaToken firstToken(CompilationUnit unit) {
+        JavaToken token = tokens(unit).getBegin();
+        while (token.getPreviousToken().isPresent()) {
+            token = token.getPreviousToken().get();
+        }
+        return token;
+    }
+
+    private static JavaToken next(JavaToken token) {
+        return token.getNextToken().orElse(null);
+    }
+
+    /**
+     * Appends the text of the tokens from the start token up to, but not including, the end token.
+     */
+    private static void appendText(StringBuilder sb, JavaToken start, JavaToken end) {
+        for (JavaToken token = start; token != null && token != end; token = next(token)) {
+            sb.append(token.getText());
+        }
+    }
+
+    /**
+     * The edits of the existing file. Regions of tokens are replaced, and text is inserted before tokens.
+     */
+    private static class Merge {
+        private final JavaToken firstToken;
+        private final String lineSeparator;
+        private final Map<JavaToken, JavaToken> replacedRegions = new IdentityHashMap<>();
+        private final Map<JavaToken, String> replacements = new IdentityHashMap<>();
+        private final Map<JavaToken, StringBuilder> insertions = new IdentityHashMap<>();
+
+        Merge(JavaToken firstToken, String lineSeparator) {
+            this.firstToken = firstToken;
+            this.lineSeparator = lineSeparator;
+        }
+
+        /**
+         * Deletes a member with its comment, and the white space before it.
+         */
+        void delete(BodyDeclaration<?> member) {
+            JavaToken start = getStart(member);
+            while (start.getPreviousToken().isPresent()
+                    && start.getPreviousToken().get().getCategory().isWhitespace()) {
+                start = start.getPreviousToken().get();
+            }
+            replace(start, tokens(member).getEnd(), ""); //$NON-NLS-1$
+        }
+
+        void replace(JavaToken start, JavaToken end, String text) {
+            replacedRegions.put(start, end);
+            replacements.put(start, text);
+        }
+
+        void insertBefore(JavaToken token, CharSequence text) {
+            insertions.computeIfAbsent(token, t -> new StringBuilder()).append(text);
+        }
+
+        String render() {
+            StringBuilder sb = new StringBuilder();
+            JavaToken token = firstToken;
+            while (token != null) {
+                StringBuilder insertion = insertions.get(token);
+                if (insertion != null) {
+                    sb.append(insertion);
+                }
+
+                JavaToken end = replacedRegions.get(token);
+                if (end == null) {
+                    sb.append(token.getText());
+                    token = next(token);
+                } else {
+                    sb.append(replacements.get(token));
+                    token = next(end);
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
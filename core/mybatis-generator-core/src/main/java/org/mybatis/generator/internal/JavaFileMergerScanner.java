@@ -0,0 +1,329 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class checks whether the generated sections of an existing Java file already match a generated file, so the
+ * file does not need to be merged. It only scans the tokens of the files - comments, literals and brackets - and does
+ * not parse them, which is much cheaper than the merge.
+ *
+ * <p>The scan is conservative. It only recognizes files where the merge could not change anything, and returns
+ * false for everything else, so those files are merged as usual.
+ */
+public class JavaFileMergerScanner {
+
+    private static final String DO_NOT_DELETE_DURING_MERGE = "do_not_delete_during_merge"; //$NON-NLS-1$
+
+    private JavaFileMergerScanner() {}
+
+    /**
+     * Returns true if the generated sections of an existing file already match the new file. The existing file must
+     * start the body of its type with the members of the new file, exactly as they are generated, and must have no
+     * other generated members. It must also have the imports and the type declaration of the new file. Custom
+     * members, imports, comments and white space may be anywhere else.
+     *
+     * <p>This returns false if any member of the new file is not marked with a JavaDoc tag, if either file has more
+     * than one top level type, or if the file cannot be read - the merge handles those files.
+     *
+     * @param newFileSource the source of the generated file
+     * @param existingFile the existing file
+     * @param javadocTags the JavaDoc tags that mark generated members
+     * @param fileEncoding the encoding of the existing file, or null for the platform default encoding
+     * @return true if the existing file does not need to be merged
+     */
+    public static boolean hasGeneratedContent(String newFileSource, File existingFile, String[] javadocTags,
+            String fileEncoding) {
+        String existingFileSource;
+        try {
+            Charset charset = fileEncoding == null ? Charset.defaultCharset() : Charset.forName(fileEncoding);
+            existingFileSource = new String(Files.readAllBytes(existingFile.toPath()), charset);
+        } catch (IOException | IllegalArgumentException e) {
+            return false;
+        }
+
+        return hasGeneratedContent(newFileSource, existingFileSource, javadocTags);
+    }
+
+    /**
+     * Returns true if the generated sections of the source of an existing file already match the new file.
+     *
+     * @param newFileSource the source of the generated file
+     * @param existingFileSource the source of the existing file
+     * @param javadocTags the JavaDoc tags that mark generated members
+     * @return true if the existing file does not need to be merged
+     */
+    public static boolean hasGeneratedContent(String newFileSource, String existingFileSource,
+            String[] javadocTags) {
+        Structure newFile = Structure.scan(newFileSource, javadocTags);
+        Structure existingFile = Structure.scan(existingFileSource, javadocTags);
+        if (newFile == null || existingFile == null || !newFile.onlyGeneratedMembers
+                || !newFile.header.equals(existingFile.header)
+                || !existingFile.imports.containsAll(newFile.imports)) {
+            return false;
+        }
+
+        // the generated members, with the white space and comments between them
+        int length = newFile.membersEnd - newFile.bodyStart;
+        if (existingFile.bodyEnd - existingFile.bodyStart < length
+                || !existingFileSource.regionMatches(existingFile.bodyStart, newFileSource, newFile.bodyStart,
+                        length)) {
+            return false;
+        }
+
+        // the rest of the body must not hold anything the merge would delete or keep in place of a new member
+        String rest = existingFileSource.substring(existingFile.bodyStart + length, existingFile.bodyEnd);
+        return !containsTag(rest, javadocTags) && !rest.contains("Generated"); //$NON-NLS-1$
+    }
+
+    private static boolean containsTag(String text, String[] javadocTags) {
+        for (String javadocTag : javadocTags) {
+            if (text.contains(javadocTag)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private enum TokenType {
+        WHITE_SPACE, COMMENT, JAVADOC, LITERAL, WORD, SYMBOL
+    }
+
+    /**
+     * The parts of a Java file that the merge works on. The file must have one top level type.
+     */
+    private static class Structure {
+        // the code tokens of the type declaration, from the class or interface keyword to the opening brace
+        private final List<String> header = new ArrayList<>();
+        private final Set<String> imports = new HashSet<>();
+        // the offset after the opening brace of the type
+        private int bodyStart = -1;
+        // the offset of the closing brace of the type
+        private int bodyEnd = -1;
+        // the end of the last member
+        private int membersEnd;
+        // every member has a JavaDoc comment with one of the tags just before it
+        private boolean onlyGeneratedMembers = true;
+
+        /**
+         * Scans a source, or returns null if the source is not supported.
+         */
+        static Structure scan(String source, String[] javadocTags) {
+            // unicode escapes are translated before the source is tokenized, so they could be anything
+            if (source.contains("\\u")) { //$NON-NLS-1$
+                return null;
+            }
+
+            Structure structure = new Structure();
+            Lexer lexer = new Lexer(source);
+            List<String> statement = new ArrayList<>();
+            int braces = 0;
+            int parens = 0;
+            String previousCode = null;
+            // the state of the current member of the type
+            boolean inMember = false;
+            boolean assignment = false;
+            // the JavaDoc comment just before the member, which is only deleted with it if there are no other comments
+            String javadoc = null;
+            boolean otherComments = false;
+
+            for (TokenType type = lexer.next(); type != null; type = lexer.next()) {
+                String text = lexer.getText();
+                if (braces == 1 && parens == 0 && !inMember) {
+                    if (type == TokenType.JAVADOC || type == TokenType.COMMENT) {
+                        otherComments |= javadoc != null;
+                        javadoc = type == TokenType.JAVADOC ? text : ""; //$NON-NLS-1$
+                        continue;
+                    } else if (type != TokenType.WHITE_SPACE && !"}".equals(text)) { //$NON-NLS-1$
+                        inMember = true;
+                        assignment = false;
+                        if (javadoc == null || otherComments || !containsTag(javadoc, javadocTags)
+                                || javadoc.contains(DO_NOT_DELETE_DURING_MERGE)) {
+                            structure.onlyGeneratedMembers = false;
+                        }
+                    }
+                }
+                if (type == TokenType.WHITE_SPACE || type == TokenType.COMMENT || type == TokenType.JAVADOC) {
+                    continue;
+                }
+
+                if (braces == 0 && parens == 0) {
+                    if (structure.bodyStart < 0) {
+                        if (!structure.header.isEmpty()) {
+                            structure.header.add(text);
+                        } else if (("class".equals(text) || "interface".equals(text)) //$NON-NLS-1$ //$NON-NLS-2$
+                                && !"@".equals(previousCode)) { //$NON-NLS-1$
+                            structure.header.add(text);
+                        } else if ("enum".equals(text)) { //$NON-NLS-1$
+                            return null;
+                        }
+                    }
+                    if ("import".equals(text) || !statement.isEmpty()) { //$NON-NLS-1$
+                        statement.add(text);
+                        if (";".equals(text)) { //$NON-NLS-1$
+                            structure.imports.add(String.join(" ", statement)); //$NON-NLS-1$
+                            statement.clear();
+                        }
+                    }
+                }
+
+                boolean memberEnd = false;
+                switch (text) {
+                case "(": //$NON-NLS-1$
+                    parens++;
+                    break;
+                case ")": //$NON-NLS-1$
+                    parens--;
+                    break;
+                case "{": //$NON-NLS-1$
+                    if (parens == 0 && braces == 0) {
+                        if (structure.bodyStart >= 0 || structure.header.isEmpty()) {
+                            return null;
+                        }
+                        structure.bodyStart = lexer.getEnd();
+                        structure.membersEnd = structure.bodyStart;
+                    }
+                    braces++;
+                    break;
+                case "}": //$NON-NLS-1$
+                    braces--;
+                    if (braces == 0) {
+                        if (inMember || parens != 0) {
+                            return null;
+                        }
+                        structure.bodyEnd = lexer.getStart();
+                    }
+                    // the body of a method or inner type ends the member, an array or class in an initializer not
+                    memberEnd = braces == 1 && parens == 0 && !assignment;
+                    break;
+                case "=": //$NON-NLS-1$
+                    assignment |= braces == 1 && parens == 0;
+                    break;
+                case ";": //$NON-NLS-1$
+                    memberEnd = braces == 1 && parens == 0;
+                    break;
+                default:
+                    break;
+                }
+                if (memberEnd) {
+                    inMember = false;
+                    structure.membersEnd = lexer.getEnd();
+                    javadoc = null;
+                    otherComments = false;
+                }
+                if (braces < 0 || parens < 0) {
+                    return null;
+                }
+                previousCode = text;
+            }
+
+            return lexer.isComplete() && braces == 0 && structure.bodyEnd >= 0 ? structure : null;
+        }
+    }
+
+    /**
+     * Splits a source into white space, comments, literals, words and single character symbols.
+     */
+    private static class Lexer {
+        private final String source;
+        private int start;
+        private int end;
+        private boolean complete = true;
+
+        Lexer(String source) {
+            this.source = source;
+        }
+
+        TokenType next() {
+            start = end;
+            if (start >= source.length()) {
+                return null;
+            }
+
+            char c = source.charAt(start);
+            end = start + 1;
+            if (Character.isWhitespace(c)) {
+                while (end < source.length() && Character.isWhitespace(source.charAt(end))) {
+                    end++;
+                }
+                return TokenType.WHITE_SPACE;
+            } else if (Character.isJavaIdentifierPart(c)) {
+                while (end < source.length() && Character.isJavaIdentifierPart(source.charAt(end))) {
+                    end++;
+                }
+                return TokenType.WORD;
+            } else if (source.startsWith("//", start)) { //$NON-NLS-1$
+                end = source.indexOf('\n', start);
+                end = end < 0 ? source.length() : end;
+                return TokenType.COMMENT;
+            } else if (source.startsWith("/*", start)) { //$NON-NLS-1$
+                end = skipTo("*/", start + 2); //$NON-NLS-1$
+                return source.startsWith("/**", start) && !source.startsWith("/**/", start) //$NON-NLS-1$ //$NON-NLS-2$
+                        ? TokenType.JAVADOC : TokenType.COMMENT;
+            } else if (source.startsWith("\"\"\"", start)) { //$NON-NLS-1$
+                end = skipLiteral("\"\"\"", start + 3); //$NON-NLS-1$
+                return TokenType.LITERAL;
+            } else if (c == '"' || c == '\'') {
+                end = skipLiteral(String.valueOf(c), start + 1);
+                return TokenType.LITERAL;
+            }
+
+            return TokenType.SYMBOL;
+        }
+
+        private int skipTo(String delimiter, int from) {
+            int index = source.indexOf(delimiter, from);
+            if (index < 0) {
+                complete = false;
+                return source.length();
+            }
+            return index + delimiter.length();
+        }
+
+        private int skipLiteral(String delimiter, int from) {
+            int index = from;
+            while (index < source.length() && !source.startsWith(delimiter, index)) {
+                index += source.charAt(index) == '\\' ? 2 : 1;
+            }
+            return skipTo(delimiter, Math.min(index, source.length()));
+        }
+
+        String getText() {
+            return source.substring(start, end);
+        }
+
+        int getStart() {
+            return start;
+        }
+
+        int getEnd() {
+            return end;
+        }
+
+        boolean isComplete() {
+            return complete;
+        }
+    }
+}
@@ -15,10 +15,15 @@
  */
 package org.mybatis.generator.internal;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 
 import org.mybatis.generator.api.CompositePlugin;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.config.Context;
 
 /**
@@ -35,6 +40,8 @@ import org.mybatis.generator.config.Context;
  */
 public final class PluginAggregator extends CompositePlugin {
 
+    private Set<GeneratedXmlFile> deferredSqlMaps;
+
     @Override
     public void setContext(Context context) {
         throw new UnsupportedOperationException();
@@ -49,4 +56,39 @@ public final class PluginAggregator extends CompositePlugin {
     public boolean validate(List<String> warnings) {
         throw new UnsupportedOperationException();
     }
+
+    /**
+     * Defers the sqlMapGenerated method until {@link #sqlMapGeneratedDeferred(GeneratedXmlFile, IntrospectedTable)}
+     * is called for the file. Plugins often collect the generated mapper files (see the MapperConfigPlugin), so
+     * when tables are generated in parallel the method must still be called in table order.
+     */
+    public void deferSqlMapGenerated() {
+        deferredSqlMaps = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    /**
+     * Calls the plugins for a sql map whose sqlMapGenerated method was deferred. Files that never reached the
+     * sqlMapGenerated method are kept as they are.
+     *
+     * @param sqlMap the generated file
+     * @param introspectedTable the table the file was generated for
+     * @return true if the file should be kept
+     */
+    public boolean sqlMapGeneratedDeferred(GeneratedXmlFile sqlMap, IntrospectedTable introspectedTable) {
+        return !deferredSqlMaps.remove(sqlMap) || super.sqlMapGenerated(sqlMap, introspectedTable);
+    }
+
+    public void stopDeferring() {
+        deferredSqlMaps = null;
+    }
+
+    @Override
+    public boolean sqlMapGenerated(GeneratedXmlFile sqlMap, IntrospectedTable introspectedTable) {
+        if (deferredSqlMaps != null) {
+            deferredSqlMaps.add(sqlMap);
+            return true;
+        }
+
+        return super.sqlMapGenerated(sqlMap, introspectedTable);
+    }
 }
@@ -0,0 +1,62 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.mybatis.generator.api.Plugin;
+
+/**
+ * Wraps a plugin so that it can be called safely from several worker threads. Plugins are not required to be thread
+ * safe, so every call is serialized on a lock. Plugins that share a lock are never called at the same time.
+ */
+public class SynchronizedPlugin implements InvocationHandler {
+
+    private final Plugin delegate;
+
+    private final Object lock;
+
+    private SynchronizedPlugin(Plugin delegate, Object lock) {
+        this.delegate = delegate;
+        this.lock = lock;
+    }
+
+    /**
+     * Returns a plugin that calls the plugin while holding the lock.
+     *
+     * @param plugin the plugin
+     * @param lock the lock
+     * @return the synchronized plugin
+     */
+    public static Plugin synchronizedPlugin(Plugin plugin, Object lock) {
+        return (Plugin) Proxy.newProxyInstance(Plugin.class.getClassLoader(), new Class<?>[] { Plugin.class },
+                new SynchronizedPlugin(plugin, lock));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        synchronized (lock) {
+            try {
+                return method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
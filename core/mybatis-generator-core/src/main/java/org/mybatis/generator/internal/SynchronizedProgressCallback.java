@@ -0,0 +1,62 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import org.mybatis.generator.api.ProgressCallback;
+
+/**
+ * Wraps a progress callback so that it can be called safely from several worker threads.
+ * Client supplied callbacks are not required to be thread safe, so every call is
+ * serialized on this wrapper.
+ */
+public class SynchronizedProgressCallback implements ProgressCallback {
+
+    private final ProgressCallback delegate;
+
+    public SynchronizedProgressCallback(ProgressCallback delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized void introspectionStarted(int totalTasks) {
+        delegate.introspectionStarted(totalTasks);
+    }
+
+    @Override
+    public synchronized void generationStarted(int totalTasks) {
+        delegate.generationStarted(totalTasks);
+    }
+
+    @Override
+    public synchronized void saveStarted(int totalTasks) {
+        delegate.saveStarted(totalTasks);
+    }
+
+    @Override
+    public synchronized void startTask(String taskName) {
+        delegate.startTask(taskName);
+    }
+
+    @Override
+    public synchronized void done() {
+        delegate.done();
+    }
+
+    @Override
+    public synchronized void checkCancel() throws InterruptedException {
+        delegate.checkCancel();
+    }
+}
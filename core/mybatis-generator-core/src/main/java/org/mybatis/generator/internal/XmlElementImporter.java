@@ -0,0 +1,381 @@
+/*
+ *    Copyright 2006-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import javax.xml.parsers.DocumentBuilder;
+
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.ElementVisitor;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.VisitableElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Document;
+import org.w3c.dom.DocumentFragment;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Builds W3C DOM nodes straight from a generated element tree. The nodes are the ones a parser would build from the
+ * element as rendered by the default XML formatter - including the white space the renderer writes between elements -
+ * so a generated document can be merged without rendering it and parsing the text again.
+ *
+ * <p>Text elements hold markup, not character data. Character data, entity and character references, and comments
+ * are converted here. A run of text elements holding any other markup is parsed on its own as a small fragment.
+ * Markup that would not parse at all is reported with an {@link UnsupportedMarkupException}, and the caller should
+ * then parse the rendered document, which reports the error the usual way.
+ *
+ * <p>A new instance is used for every element tree.
+ */
+class XmlElementImporter implements ElementVisitor<Void> {
+
+    // parsers normalize every line separator to a line feed
+    private static final char LINE_FEED = '\n';
+
+    private static final String XML_INDENT = "  "; //$NON-NLS-1$
+
+    private static final String COMMENT_START = "<!--"; //$NON-NLS-1$
+
+    private static final String COMMENT_END = "-->"; //$NON-NLS-1$
+
+    private final Document document;
+
+    private final DocumentBuilder fragmentBuilder;
+
+    // the markup of the text elements, and the white space, since the last element
+    private final StringBuilder markup = new StringBuilder();
+
+    private Element parent;
+
+    private int depth;
+
+    /**
+     * Creates an importer.
+     *
+     * @param document the document that will own the nodes
+     * @param fragmentBuilder the builder used to parse text elements holding markup that is not converted here
+     */
+    XmlElementImporter(Document document, DocumentBuilder fragmentBuilder) {
+        this.document = document;
+        this.fragmentBuilder = fragmentBuilder;
+    }
+
+    /**
+     * Builds the element, with all its children, as nodes of the document. The element is not added to the document.
+     *
+     * @param element the generated element
+     * @return the new element
+     * @throws UnsupportedMarkupException if the rendered element would not parse
+     */
+    Element importElement(XmlElement element) {
+        Element answer = createElement(element);
+        if (element.hasChildren()) {
+            importChildren(answer, element);
+        }
+
+        return answer;
+    }
+
+    @Override
+    public Void visit(TextElement element) {
+        startLine();
+        markup.append(element.getContent());
+        return null;
+    }
+
+    @Override
+    public Void visit(XmlElement element) {
+        startLine();
+        flushMarkup();
+        parent.appendChild(importElement(element));
+        return null;
+    }
+
+    private void importChildren(Element element, XmlElement xmlElement) {
+        Element savedParent = parent;
+        parent = element;
+        depth++;
+        for (VisitableElement child : xmlElement.getElements()) {
+            child.accept(this);
+        }
+        depth--;
+        startLine();
+        flushMarkup();
+        parent = savedParent;
+    }
+
+    private Element createElement(XmlElement xmlElement) {
+        try {
+            Element element = document.createElement(xmlElement.getName());
+            for (Attribute attribute : xmlElement.getAttributes()) {
+                if (element.hasAttribute(attribute.getName())) {
+                    throw new UnsupportedMarkupException();
+                }
+                element.setAttribute(attribute.getName(), attributeValue(attribute.getValue()));
+            }
+            return element;
+        } catch (DOMException e) {
+            throw new UnsupportedMarkupException(e);
+        }
+    }
+
+    private void startLine() {
+        markup.append(LINE_FEED);
+        for (int i = 0; i < depth; i++) {
+            markup.append(XML_INDENT);
+        }
+    }
+
+    private void flushMarkup() {
+        if (markup.length() == 0) {
+            return;
+        }
+
+        String s = markup.toString();
+        DocumentFragment fragment = convertMarkup(s);
+        if (fragment == null) {
+            fragment = parseMarkup(s);
+        }
+        parent.appendChild(fragment);
+        markup.setLength(0);
+    }
+
+    /**
+     * Converts character data, references and comments. Returns null if the markup holds anything else.
+     */
+    private DocumentFragment convertMarkup(String s) {
+        DocumentFragment fragment = document.createDocumentFragment();
+        StringBuilder data = new StringBuilder(s.length());
+        // characters that stand for themselves are copied in runs
+        int start = 0;
+        int i = 0;
+        while (i < s.length()) {
+            char c = s.charAt(i);
+            if (isCharacterData(c)) {
+                i++;
+                continue;
+            }
+
+            data.append(s, start, i);
+            if (c == '<') {
+                int end = commentEnd(s, i);
+                if (end == -1) {
+                    return null;
+                }
+                appendText(fragment, data);
+                fragment.appendChild(document.createComment(
+                        normalizeLineEnds(s.substring(i + COMMENT_START.length(), end))));
+                i = end + COMMENT_END.length();
+            } else if (c == '&') {
+                i = appendReference(s, i, data);
+                if (i == -1) {
+                    return null;
+                }
+            } else if (c == '\r') {
+                data.append(LINE_FEED);
+                i += i + 1 < s.length() && s.charAt(i + 1) == '\n' ? 2 : 1;
+            } else if (c == '>' && !s.startsWith("]]", i - 2)) { //$NON-NLS-1$
+                data.append(c);
+                i++;
+            } else {
+                return null;
+            }
+            start = i;
+        }
+        data.append(s, start, s.length());
+        appendText(fragment, data);
+        return fragment;
+    }
+
+    /**
+     * Returns the index of the end of a well formed comment starting at an index, or -1.
+     */
+    private static int commentEnd(String s, int start) {
+        if (!s.startsWith(COMMENT_START, start)) {
+            return -1;
+        }
+
+        // "--" may only end a comment
+        int end = s.indexOf("--", start + COMMENT_START.length()); //$NON-NLS-1$
+        if (end == -1 || !s.startsWith(COMMENT_END, end)) {
+            return -1;
+        }
+
+        for (int i = start + COMMENT_START.length(); i < end; i++) {
+            if (!isCharacter(s.charAt(i))) {
+                return -1;
+            }
+        }
+        return end;
+    }
+
+    private void appendText(Node node, StringBuilder data) {
+        if (data.length() > 0) {
+            node.appendChild(document.createTextNode(data.toString()));
+            data.setLength(0);
+        }
+    }
+
+    private DocumentFragment parseMarkup(String s) {
+        Document fragmentDocument;
+        try {
+            fragmentDocument = fragmentBuilder.parse(new InputSource(new StringReader(
+                    "<fragment>" + s + "</fragment>"))); //$NON-NLS-1$ //$NON-NLS-2$
+        } catch (IOException | SAXException e) {
+            throw new UnsupportedMarkupException(e);
+        }
+
+        DocumentFragment fragment = document.createDocumentFragment();
+        for (Node node = fragmentDocument.getDocumentElement().getFirstChild(); node != null;
+                node = node.getNextSibling()) {
+            fragment.appendChild(document.importNode(node, true));
+        }
+        return fragment;
+    }
+
+    /**
+     * Returns an attribute value as a parser reports it: references are replaced, and white space characters become
+     * spaces. The renderer always quotes values with double quotes.
+     */
+    private static String attributeValue(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c > 0xFFFD || c == '<' || c == '&' || c == '"') {
+                return normalizeAttributeValue(value);
+            }
+        }
+        return value;
+    }
+
+    private static String normalizeAttributeValue(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        int i = 0;
+        while (i < value.length()) {
+            char c = value.charAt(i);
+            if (c == '&') {
+                i = appendReference(value, i, sb);
+                if (i == -1) {
+                    throw new UnsupportedMarkupException();
+                }
+            } else if (c == '<' || c == '"' || !isCharacter(c)) {
+                throw new UnsupportedMarkupException();
+            } else if (c == '\r' || c == '\n' || c == '\t') {
+                sb.append(' ');
+                i += c == '\r' && i + 1 < value.length() && value.charAt(i + 1) == '\n' ? 2 : 1;
+            } else {
+                sb.append(c);
+                i++;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Appends the characters of a predefined entity or character reference, and returns the index after the
+     * reference, or -1 if there is no such reference at the index.
+     */
+    private static int appendReference(String s, int start, StringBuilder sb) {
+        int end = s.indexOf(';', start + 1);
+        if (end == -1) {
+            return -1;
+        }
+
+        String name = s.substring(start + 1, end);
+        switch (name) {
+        case "lt": //$NON-NLS-1$
+            sb.append('<');
+            break;
+        case "gt": //$NON-NLS-1$
+            sb.append('>');
+            break;
+        case "amp": //$NON-NLS-1$
+            sb.append('&');
+            break;
+        case "quot": //$NON-NLS-1$
+            sb.append('"');
+            break;
+        case "apos": //$NON-NLS-1$
+            sb.append('\'');
+            break;
+        default:
+            int codePoint = characterReference(name);
+            if (codePoint == -1) {
+                return -1;
+            }
+            sb.appendCodePoint(codePoint);
+        }
+        return end + 1;
+    }
+
+    private static int characterReference(String name) {
+        int codePoint;
+        try {
+            if (name.startsWith("#x")) { //$NON-NLS-1$
+                codePoint = Integer.parseInt(name.substring(2), 16);
+            } else if (name.startsWith("#")) { //$NON-NLS-1$
+                codePoint = Integer.parseInt(name.substring(1));
+            } else {
+                return -1;
+            }
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+
+        boolean valid = codePoint > 0xFFFF ? codePoint <= Character.MAX_CODE_POINT
+                : isCharacter((char) codePoint) && !Character.isSurrogate((char) codePoint);
+        return valid && !name.contains("+") && !name.contains("-") ? codePoint : -1; //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Returns true if a char may appear in an XML 1.0 document. Surrogates are allowed, as parts of supplementary
+     * characters.
+     */
+    private static boolean isCharacter(char c) {
+        return c >= 0x20 && c <= 0xFFFD || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    /**
+     * Returns true if a char stands for itself in character data.
+     */
+    private static boolean isCharacterData(char c) {
+        return c >= 0x20 && c <= 0xFFFD && c != '<' && c != '&' && c != '>' || c == '\t' || c == '\n';
+    }
+
+    private static String normalizeLineEnds(String s) {
+        return s.replace("\r\n", "\n").replace('\r', '\n'); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Thrown when a generated element holds markup that would not parse.
+     */
+    static class UnsupportedMarkupException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedMarkupException() {
+            super();
+        }
+
+        UnsupportedMarkupException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
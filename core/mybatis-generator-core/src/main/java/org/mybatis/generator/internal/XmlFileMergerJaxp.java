@@ -21,6 +21,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -31,6 +32,8 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 
 import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.api.dom.xml.render.DocumentRenderer;
 import org.mybatis.generator.config.MergeConstants;
 import org.mybatis.generator.exception.ShellException;
 import org.w3c.dom.Comment;
@@ -39,7 +42,6 @@ import org.w3c.dom.DocumentType;
 import org.w3c.dom.Element;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 import org.w3c.dom.Text;
 import org.xml.sax.EntityResolver;
 import org.xml.sax.InputSource;
@@ -51,6 +53,14 @@ import org.xml.sax.SAXException;
  * @author Jeff Butler
  */
 public class XmlFileMergerJaxp {
+    private static final DomWriter DOM_WRITER = new DomWriter();
+
+    private static final DocumentRenderer DOCUMENT_RENDERER = new DocumentRenderer();
+
+    private static final EntityResolver NULL_ENTITY_RESOLVER = new NullEntityResolver();
+
+    private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDERS = new ThreadLocal<>();
+
     private XmlFileMergerJaxp() {}
 
     private static class NullEntityResolver implements EntityResolver {
@@ -68,12 +78,66 @@ public class XmlFileMergerJaxp {
         }
     }
 
+    /**
+     * Merges a generated file into an existing file. If the file uses the default XML formatter, the generated
+     * document is merged as it is, and only the existing file is parsed.
+     *
+     * @param generatedXmlFile the generated file
+     * @param existingFile the existing file
+     * @return the merged source
+     * @throws ShellException if the files cannot be merged
+     */
     public static String getMergedSource(GeneratedXmlFile generatedXmlFile,
             File existingFile) throws ShellException {
+        if (!generatedXmlFile.isDefaultFormatted()) {
+            return getMergedSource(generatedXmlFile.getFormattedContent(), existingFile);
+        }
 
-        try {
-            return getMergedSource(new InputSource(new StringReader(generatedXmlFile.getFormattedContent())),
-                new InputSource(new InputStreamReader(new FileInputStream(existingFile), StandardCharsets.UTF_8)),
+        return mergeDocument(generatedXmlFile, existingFile, false);
+    }
+
+    /**
+     * Merges a generated file that uses the default XML formatter into an existing file, unless the existing file
+     * already holds the generated elements. The check compares the DOM nodes the merge builds anyway, so the generated
+     * document is not rendered for it.
+     *
+     * <p>The existing file holds the generated elements if its root element has the attributes of the new root
+     * element, and its generated elements are, in order, the elements of the new root element. Elements that are not
+     * generated are ignored.
+     *
+     * @param generatedXmlFile the generated file, which must use the default XML formatter
+     * @param existingFile the existing file
+     * @return the merged source, or null if the existing file already holds the generated elements
+     * @throws ShellException if the files cannot be merged
+     */
+    public static String getMergedSourceIfChanged(GeneratedXmlFile generatedXmlFile,
+            File existingFile) throws ShellException {
+        return mergeDocument(generatedXmlFile, existingFile, true);
+    }
+
+    private static String mergeDocument(GeneratedXmlFile generatedXmlFile, File existingFile,
+            boolean onlyIfChanged) throws ShellException {
+        try (Reader reader = new InputStreamReader(new FileInputStream(existingFile), StandardCharsets.UTF_8)) {
+            return mergeDocument(generatedXmlFile.getDocument(), new InputSource(reader), existingFile.getName(),
+                    onlyIfChanged);
+        } catch (IOException | SAXException | ParserConfigurationException e) {
+            throw new ShellException(getString("Warning.13", //$NON-NLS-1$
+                    existingFile.getName()), e);
+        }
+    }
+
+    /**
+     * Merges already rendered content into an existing file.
+     *
+     * @param newContent the formatted content of the generated file
+     * @param existingFile the existing file
+     * @return the merged source
+     * @throws ShellException if the files cannot be merged
+     */
+    public static String getMergedSource(String newContent, File existingFile) throws ShellException {
+
+        try (Reader reader = new InputStreamReader(new FileInputStream(existingFile), StandardCharsets.UTF_8)) {
+            return getMergedSource(new InputSource(new StringReader(newContent)), new InputSource(reader),
                 existingFile.getName());
         } catch (IOException | SAXException | ParserConfigurationException e) {
             throw new ShellException(getString("Warning.13", //$NON-NLS-1$
@@ -85,28 +149,94 @@ public class XmlFileMergerJaxp {
             InputSource existingFile, String existingFileName) throws IOException, SAXException,
             ParserConfigurationException, ShellException {
 
-        DocumentBuilderFactory factory = DocumentBuilderFactory
-                .newInstance();
-        factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
-        factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
-        factory.setExpandEntityReferences(false);
-        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        builder.setEntityResolver(new NullEntityResolver());
+        DocumentBuilder builder = getDocumentBuilder();
 
         Document existingDocument = builder.parse(existingFile);
         Document newDocument = builder.parse(newFile);
 
-        DocumentType newDocType = newDocument.getDoctype();
+        return merge(newDocument.getDoctype().getName(), newDocument.getDocumentElement(), existingDocument,
+                existingFileName, false);
+    }
+
+    /**
+     * Merges a generated document, as rendered by the default XML formatter, into an existing file. The generated
+     * document is converted to DOM nodes directly, without rendering and parsing it.
+     *
+     * @param newDocument the generated document
+     * @param existingFile the existing file
+     * @param existingFileName the name of the existing file
+     * @return the merged source
+     * @throws IOException if the existing file cannot be read
+     * @throws SAXException if a file cannot be parsed
+     * @throws ParserConfigurationException if no parser is available
+     * @throws ShellException if the files cannot be merged
+     */
+    public static String getMergedSource(org.mybatis.generator.api.dom.xml.Document newDocument,
+            InputSource existingFile, String existingFileName) throws IOException, SAXException,
+            ParserConfigurationException, ShellException {
+        return mergeDocument(newDocument, existingFile, existingFileName, false);
+    }
+
+    private static String mergeDocument(org.mybatis.generator.api.dom.xml.Document newDocument,
+            InputSource existingFile, String existingFileName, boolean onlyIfChanged) throws IOException,
+            SAXException, ParserConfigurationException, ShellException {
+
+        DocumentBuilder builder = getDocumentBuilder();
+
+        Document existingDocument = builder.parse(existingFile);
+
+        XmlElement newRootXmlElement = newDocument.getRootElement();
+        Element newRootElement;
+        try {
+            newRootElement = new XmlElementImporter(existingDocument, builder).importElement(newRootXmlElement);
+        } catch (XmlElementImporter.UnsupportedMarkupException e) {
+            // let the parser report the problem with the rendered document
+            newRootElement = builder.parse(new InputSource(new StringReader(
+                    DOCUMENT_RENDERER.render(newDocument)))).getDocumentElement();
+        }
+
+        // the renderer names the document type after the root element
+        return merge(newRootXmlElement.getName(), newRootElement, existingDocument, existingFileName,
+                onlyIfChanged);
+    }
+
+    /**
+     * Returns the document builder of the current thread, reset for a new parse. Builders are not thread safe, but
+     * may be reused, and creating them is expensive.
+     */
+    private static DocumentBuilder getDocumentBuilder() throws ParserConfigurationException {
+        DocumentBuilder builder = DOCUMENT_BUILDERS.get();
+        if (builder == null) {
+            DocumentBuilderFactory factory = DocumentBuilderFactory
+                    .newInstance();
+            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+            factory.setExpandEntityReferences(false);
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            builder = factory.newDocumentBuilder();
+            DOCUMENT_BUILDERS.set(builder);
+        } else {
+            builder.reset();
+        }
+
+        builder.setEntityResolver(NULL_ENTITY_RESOLVER);
+        return builder;
+    }
+
+    private static String merge(String newDocTypeName, Element newRootElement, Document existingDocument,
+            String existingFileName, boolean onlyIfChanged) throws ShellException {
+
         DocumentType existingDocType = existingDocument.getDoctype();
 
-        if (!newDocType.getName().equals(existingDocType.getName())) {
+        if (existingDocType == null || !newDocTypeName.equals(existingDocType.getName())) {
             throw new ShellException(getString("Warning.12", //$NON-NLS-1$
                     existingFileName));
         }
 
         Element existingRootElement = existingDocument.getDocumentElement();
-        Element newRootElement = newDocument.getDocumentElement();
+        if (onlyIfChanged && hasGeneratedElements(newRootElement, existingRootElement)) {
+            return null;
+        }
 
         // reconcile the root element attributes -
         // take all attributes from the new element and add to the existing
@@ -131,17 +261,17 @@ public class XmlFileMergerJaxp {
 
         // remove the old generated elements and any
         // white space before the old nodes
+        // each node is inspected once - white space is deleted when the node after it is
         List<Node> nodesToDelete = new ArrayList<>();
-        NodeList children = existingRootElement.getChildNodes();
-        int length = children.getLength();
-        for (int i = 0; i < length; i++) {
-            Node node = children.item(i);
+        Node previousNode = null;
+        for (Node node = existingRootElement.getFirstChild(); node != null; node = node.getNextSibling()) {
             if (isGeneratedNode(node)) {
-                nodesToDelete.add(node);
-            } else if (isWhiteSpace(node)
-                    && isGeneratedNode(children.item(i + 1))) {
+                if (isWhiteSpace(previousNode)) {
+                    nodesToDelete.add(previousNode);
+                }
                 nodesToDelete.add(node);
             }
+            previousNode = node;
         }
 
         for (Node node : nodesToDelete) {
@@ -149,17 +279,18 @@ public class XmlFileMergerJaxp {
         }
 
         // add the new generated elements
-        children = newRootElement.getChildNodes();
-        length = children.getLength();
         Node firstChild = existingRootElement.getFirstChild();
-        for (int i = 0; i < length; i++) {
-            Node node = children.item(i);
+        Node nextNode;
+        for (Node node = newRootElement.getFirstChild(); node != null; node = nextNode) {
+            nextNode = node.getNextSibling();
             // don't add the last node if it is only white space
-            if (i == length - 1 && isWhiteSpace(node)) {
+            if (nextNode == null && isWhiteSpace(node)) {
                 break;
             }
 
-            Node newNode = existingDocument.importNode(node, true);
+            // nodes of the existing document are moved, others are copied
+            Node newNode = node.getOwnerDocument() == existingDocument ? node
+                    : existingDocument.importNode(node, true);
             if (firstChild == null) {
                 existingRootElement.appendChild(newNode);
             } else {
@@ -171,9 +302,49 @@ public class XmlFileMergerJaxp {
         return prettyPrint(existingDocument);
     }
 
+    private static boolean hasGeneratedElements(Element newRootElement, Element existingRootElement) {
+        NamedNodeMap attributes = newRootElement.getAttributes();
+        if (attributes.getLength() != existingRootElement.getAttributes().getLength()) {
+            return false;
+        }
+        for (int i = 0; i < attributes.getLength(); i++) {
+            Node attribute = attributes.item(i);
+            if (!existingRootElement.hasAttribute(attribute.getNodeName()) || !attribute.getNodeValue()
+                    .equals(existingRootElement.getAttribute(attribute.getNodeName()))) {
+                return false;
+            }
+        }
+
+        // anything but elements would be copied into the existing file by a merge
+        for (Node node = newRootElement.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node.getNodeType() != Node.ELEMENT_NODE && !isWhiteSpace(node)) {
+                return false;
+            }
+        }
+
+        Node newNode = nextElement(newRootElement.getFirstChild());
+        for (Node node = existingRootElement.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (isGeneratedNode(node)) {
+                if (newNode == null || !newNode.isEqualNode(node)) {
+                    return false;
+                }
+                newNode = nextElement(newNode.getNextSibling());
+            }
+        }
+
+        return newNode == null;
+    }
+
+    private static Node nextElement(Node node) {
+        Node answer = node;
+        while (answer != null && answer.getNodeType() != Node.ELEMENT_NODE) {
+            answer = answer.getNextSibling();
+        }
+        return answer;
+    }
+
     private static String prettyPrint(Document document) throws ShellException {
-        DomWriter dw = new DomWriter();
-        return dw.toString(document);
+        return DOM_WRITER.toString(document);
     }
 
     private static boolean isGeneratedNode(Node node) {
@@ -197,29 +368,26 @@ public class XmlFileMergerJaxp {
         // is an XML comment, and the comment includes
         // one of the old element tags,
         // then it is a generated node
-        NodeList children = node.getChildNodes();
-        int length = children.getLength();
-        for (int i = 0; i < length; i++) {
-            Node childNode = children.item(i);
-            if (childNode != null && childNode.getNodeType() == Node.COMMENT_NODE) {
-                String commentData = ((Comment) childNode).getData();
-                return MergeConstants.commentContainsTag(commentData);
-            }
+        Node childNode = node.getFirstChild();
+        while (isWhiteSpace(childNode)) {
+            childNode = childNode.getNextSibling();
         }
 
-        return false;
+        return childNode != null && childNode.getNodeType() == Node.COMMENT_NODE
+                && MergeConstants.commentContainsTag(((Comment) childNode).getData());
     }
 
     private static boolean isWhiteSpace(Node node) {
-        boolean rc = false;
+        return node != null && node.getNodeType() == Node.TEXT_NODE && isWhiteSpace(((Text) node).getData());
+    }
 
-        if (node != null && node.getNodeType() == Node.TEXT_NODE) {
-            Text tn = (Text) node;
-            if (tn.getData().trim().length() == 0) {
-                rc = true;
+    private static boolean isWhiteSpace(String data) {
+        for (int i = 0; i < data.length(); i++) {
+            if (data.charAt(i) > ' ') {
+                return false;
             }
         }
 
-        return rc;
+        return true;
     }
 }
@@ -0,0 +1,787 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+import org.mybatis.generator.config.MergeConstants;
+import org.mybatis.generator.exception.ShellException;
+import org.mybatis.generator.internal.util.FileUtility;
+
+/**
+ * This class merges changes into an existing XML file in a single pass over the file, without building a DOM.
+ *
+ * <p>The existing file is read as a stream of markup tokens. Everything except the root element's start tag and the
+ * generated elements is copied through exactly as it is in the existing file - the prolog, custom elements, comments,
+ * white space and line endings. The root element's start tag and the generated elements are taken from the new
+ * file, and the generated elements are placed at the start of the root element, as {@link XmlFileMergerJaxp} does.
+ * Only one token of the existing file is held in memory at a time, so memory use does not grow with the size of the
+ * existing file.
+ *
+ * <p>An element is a generated element if its id starts with one of the old generated prefixes, or if its first
+ * child, ignoring white space, is a comment that contains one of the generated tags.
+ *
+ * <p>The existing file is checked for balanced tags, but it is not validated as fully as a parser would.
+ */
+public class XmlFileMergerStreaming {
+
+    private XmlFileMergerStreaming() {}
+
+    /**
+     * Merges the formatted content of a generated file into an existing file.
+     *
+     * @param newContent the formatted content of the generated file
+     * @param existingFile the existing file
+     * @return the merged source
+     * @throws ShellException if the files cannot be merged
+     */
+    public static String getMergedSource(String newContent, File existingFile) throws ShellException {
+        StringBuilder sb = new StringBuilder();
+        try (Reader reader = newReader(existingFile)) {
+            merge(newContent, reader, existingFile.getName(), sb);
+        } catch (IOException e) {
+            throw new ShellException(getString("Warning.13", //$NON-NLS-1$
+                    existingFile.getName()), e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Merges the formatted content of a generated file into an existing file, and replaces the existing file with the
+     * result. The merged source is streamed to the file, and the file is replaced atomically, so the existing file
+     * is not changed if the files cannot be merged.
+     *
+     * @param newContent the formatted content of the generated file
+     * @param existingFile the existing file
+     * @throws ShellException if the files cannot be merged
+     * @throws IOException if the existing file cannot be read or written
+     */
+    public static void mergeInto(String newContent, File existingFile) throws ShellException, IOException {
+        try {
+            FileUtility.write(existingFile.toPath(), "UTF-8", writer -> { //$NON-NLS-1$
+                try (Reader reader = newReader(existingFile)) {
+                    merge(newContent, reader, existingFile.getName(), writer);
+                } catch (ShellException e) {
+                    throw new MergeFailedException(e);
+                }
+            });
+        } catch (MergeFailedException e) {
+            throw e.shellException;
+        }
+    }
+
+    /**
+     * Merges the formatted content of a generated file into an existing file.
+     *
+     * @param newContent the formatted content of the generated file
+     * @param existingFile the content of the existing file
+     * @param existingFileName the name of the existing file
+     * @param out receives the merged source
+     * @throws IOException if the existing file cannot be read, or the Appendable throws an IOException
+     * @throws ShellException if the files cannot be merged
+     */
+    public static void merge(String newContent, Reader existingFile, String existingFileName, Appendable out)
+            throws IOException, ShellException {
+        try {
+            GeneratedRoot generatedRoot = GeneratedRoot.parse(newContent);
+            merge(generatedRoot, new XmlScanner(existingFile), existingFileName, out);
+        } catch (MalformedXmlException e) {
+            throw new ShellException(getString("Warning.13", //$NON-NLS-1$
+                    existingFileName), e);
+        }
+    }
+
+    /**
+     * Returns true if the generated sections of an existing file already match the new file. The root element must
+     * have the same start tag, and hold the same generated elements, in the same order, with the same content. Custom
+     * elements, comments and white space may be anywhere. Merging would not change the generated sections of such a
+     * file, so it does not need to be merged or written.
+     *
+     * <p>This returns false if the root element of the new file holds anything but generated elements and white space,
+     * as a merge would copy the other content into the existing file. It also returns false if the files cannot be
+     * read, or are not the same format - the merge reports those problems.
+     *
+     * @param newContent the formatted content of the generated file
+     * @param existingFile the existing file
+     * @return true if the existing file does not need to be merged
+     */
+    public static boolean hasGeneratedContent(String newContent, File existingFile) {
+        try (Reader reader = newReader(existingFile)) {
+            return hasGeneratedContent(GeneratedRoot.parse(newContent), new XmlScanner(reader));
+        } catch (IOException | MalformedXmlException e) {
+            return false;
+        }
+    }
+
+    private static boolean hasGeneratedContent(GeneratedRoot generatedRoot, XmlScanner existing)
+            throws IOException, MalformedXmlException {
+        if (!generatedRoot.onlyGeneratedElements) {
+            return false;
+        }
+
+        String docTypeName = null;
+        TokenType type = existing.next();
+        while (type != TokenType.START_TAG && type != TokenType.EMPTY_TAG) {
+            if (type == TokenType.END_OF_FILE || type == TokenType.END_TAG) {
+                return false;
+            }
+            if (type == TokenType.DOCTYPE) {
+                docTypeName = existing.getName();
+            }
+            type = existing.next();
+        }
+
+        if (type == TokenType.EMPTY_TAG || !generatedRoot.docTypeName.equals(docTypeName)
+                || !generatedRoot.startTag.equals(existing.getToken())) {
+            return false;
+        }
+
+        String rootName = existing.getName();
+        GeneratedElementMatcher matcher = new GeneratedElementMatcher(generatedRoot.generatedElements);
+        while (true) {
+            type = existing.next();
+            switch (type) {
+            case END_OF_FILE:
+                return false;
+            case START_TAG:
+            case EMPTY_TAG:
+                readElement(existing, matcher);
+                if (!matcher.endElement()) {
+                    return false;
+                }
+                break;
+            case END_TAG:
+                existing.checkEndTag(rootName);
+                return matcher.matchesAll();
+            default:
+                break;
+            }
+        }
+    }
+
+    private static Reader newReader(File file) throws IOException {
+        return new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8);
+    }
+
+    private static void merge(GeneratedRoot generatedRoot, XmlScanner existing, String existingFileName,
+            Appendable out) throws IOException, MalformedXmlException, ShellException {
+        // copy the prolog
+        String docTypeName = null;
+        TokenType type = existing.next();
+        while (type != TokenType.START_TAG && type != TokenType.EMPTY_TAG) {
+            if (type == TokenType.END_OF_FILE || type == TokenType.END_TAG) {
+                throw new MalformedXmlException("No root element"); //$NON-NLS-1$
+            }
+            if (type == TokenType.DOCTYPE) {
+                docTypeName = existing.getName();
+            }
+            existing.copyTo(out);
+            type = existing.next();
+        }
+
+        if (!generatedRoot.docTypeName.equals(docTypeName)) {
+            throw new ShellException(getString("Warning.12", //$NON-NLS-1$
+                    existingFileName));
+        }
+
+        // the root element takes the attributes of the new root element
+        out.append(generatedRoot.startTag);
+        out.append(generatedRoot.content);
+        if (type == TokenType.EMPTY_TAG) {
+            out.append(generatedRoot.trailingWhiteSpace);
+            out.append(generatedRoot.endTag);
+        } else {
+            mergeRootContent(existing.getName(), existing, out);
+        }
+
+        // copy the epilog
+        while (existing.next() != TokenType.END_OF_FILE) {
+            existing.copyTo(out);
+        }
+    }
+
+    /**
+     * Copies the content of the existing root element, and its end tag, leaving out the generated elements and the
+     * white space before them.
+     */
+    private static void mergeRootContent(String rootName, XmlScanner existing, Appendable out)
+            throws IOException, MalformedXmlException {
+        String whiteSpace = ""; //$NON-NLS-1$
+        while (true) {
+            TokenType type = existing.next();
+            switch (type) {
+            case END_OF_FILE:
+                throw new MalformedXmlException("Element " + rootName + " is not closed"); //$NON-NLS-1$ //$NON-NLS-2$
+            case TEXT:
+                if (existing.isWhiteSpace()) {
+                    // text runs until the next markup, so this is the only white space before the next node
+                    whiteSpace = existing.getToken();
+                    continue;
+                }
+                break;
+            case START_TAG:
+            case EMPTY_TAG:
+                String elementWhiteSpace = whiteSpace;
+                readElement(existing, generated -> {
+                    if (generated) {
+                        return null;
+                    }
+                    out.append(elementWhiteSpace);
+                    return out;
+                });
+                whiteSpace = ""; //$NON-NLS-1$
+                continue;
+            case END_TAG:
+                existing.checkEndTag(rootName);
+                out.append(whiteSpace);
+                existing.copyTo(out);
+                return;
+            default:
+                break;
+            }
+
+            out.append(whiteSpace);
+            whiteSpace = ""; //$NON-NLS-1$
+            existing.copyTo(out);
+        }
+    }
+
+    /**
+     * Reads a child element of the root element. The scanner is positioned on the start tag of the element. Once the
+     * start of the element shows whether it is a generated element, the handler chooses where the element is copied.
+     */
+    private static void readElement(XmlScanner scanner, ElementHandler handler)
+            throws IOException, MalformedXmlException {
+        String elementName = scanner.getName();
+        String id = scanner.getAttribute("id"); //$NON-NLS-1$
+        boolean generated = id != null && MergeConstants.idStartsWithPrefix(id);
+
+        // hold the start tag and any white space until the first child shows what the element is
+        StringBuilder held = new StringBuilder(scanner.getToken());
+        if (scanner.getType() == TokenType.EMPTY_TAG) {
+            Appendable out = handler.start(generated);
+            if (out != null) {
+                out.append(held);
+            }
+            return;
+        }
+
+        TokenType type = scanner.next();
+        if (!generated) {
+            while (type == TokenType.TEXT && scanner.isWhiteSpace()) {
+                scanner.copyTo(held);
+                type = scanner.next();
+            }
+            generated = type == TokenType.COMMENT && MergeConstants.commentContainsTag(scanner.getCommentData());
+        }
+
+        Appendable out = handler.start(generated);
+        if (out != null) {
+            out.append(held);
+        }
+        finishElement(elementName, scanner, type, out);
+    }
+
+    /**
+     * Reads the rest of an element, from the current token to the element's end tag, and copies it if the Appendable
+     * is not null.
+     */
+    private static void finishElement(String elementName, XmlScanner scanner, TokenType current, Appendable out)
+            throws IOException, MalformedXmlException {
+        Deque<String> openElements = new ArrayDeque<>();
+        openElements.push(elementName);
+        TokenType type = current;
+        while (true) {
+            switch (type) {
+            case END_OF_FILE:
+                throw new MalformedXmlException("Element " + openElements.peek() //$NON-NLS-1$
+                        + " is not closed"); //$NON-NLS-1$
+            case START_TAG:
+                openElements.push(scanner.getName());
+                break;
+            case END_TAG:
+                scanner.checkEndTag(openElements.pop());
+                break;
+            default:
+                break;
+            }
+
+            if (out != null) {
+                scanner.copyTo(out);
+            }
+            if (openElements.isEmpty()) {
+                return;
+            }
+            type = scanner.next();
+        }
+    }
+
+    /**
+     * The parts of the new file that are merged into the existing file.
+     */
+    private static class GeneratedRoot {
+        private String docTypeName;
+        private String startTag;
+        private String content;
+        private String trailingWhiteSpace;
+        private String endTag;
+        private final List<String> generatedElements = new ArrayList<>();
+        private boolean onlyGeneratedElements = true;
+
+        static GeneratedRoot parse(String newContent) throws IOException, MalformedXmlException {
+            XmlScanner scanner = new XmlScanner(new StringReader(newContent));
+            GeneratedRoot answer = new GeneratedRoot();
+
+            TokenType type = scanner.next();
+            while (type != TokenType.START_TAG && type != TokenType.EMPTY_TAG) {
+                if (type == TokenType.END_OF_FILE || type == TokenType.END_TAG) {
+                    throw new MalformedXmlException("No root element in the generated file"); //$NON-NLS-1$
+                }
+                if (type == TokenType.DOCTYPE) {
+                    answer.docTypeName = scanner.getName();
+                }
+                type = scanner.next();
+            }
+
+            if (answer.docTypeName == null) {
+                throw new MalformedXmlException("No document type in the generated file"); //$NON-NLS-1$
+            }
+
+            String rootName = scanner.getName();
+            answer.endTag = "</" + rootName + '>'; //$NON-NLS-1$
+            if (type == TokenType.EMPTY_TAG) {
+                String tag = scanner.getToken();
+                answer.startTag = tag.substring(0, tag.length() - 2).trim() + '>';
+                answer.content = ""; //$NON-NLS-1$
+                answer.trailingWhiteSpace = ""; //$NON-NLS-1$
+                return answer;
+            }
+
+            answer.startTag = scanner.getToken();
+            StringBuilder content = new StringBuilder();
+            String whiteSpace = ""; //$NON-NLS-1$
+            while (true) {
+                type = scanner.next();
+                if (type == TokenType.END_OF_FILE) {
+                    throw new MalformedXmlException("Element " + rootName + " is not closed"); //$NON-NLS-1$ //$NON-NLS-2$
+                } else if (type == TokenType.END_TAG) {
+                    scanner.checkEndTag(rootName);
+                    break;
+                }
+
+                content.append(whiteSpace);
+                whiteSpace = ""; //$NON-NLS-1$
+                if (type == TokenType.TEXT && scanner.isWhiteSpace()) {
+                    // held back - white space at the end of the root element is not merged
+                    whiteSpace = scanner.getToken();
+                } else if (type == TokenType.START_TAG || type == TokenType.EMPTY_TAG) {
+                    int start = content.length();
+                    readElement(scanner, generated -> {
+                        answer.onlyGeneratedElements &= generated;
+                        return content;
+                    });
+                    answer.generatedElements.add(content.substring(start));
+                } else {
+                    answer.onlyGeneratedElements = false;
+                    scanner.copyTo(content);
+                }
+            }
+
+            answer.content = content.toString();
+            answer.trailingWhiteSpace = whiteSpace;
+            return answer;
+        }
+    }
+
+    /**
+     * Chooses where a child element of the root element is copied.
+     */
+    @FunctionalInterface
+    private interface ElementHandler {
+        /**
+         * Called once it is known whether the element is a generated element.
+         *
+         * @return the Appendable that receives the element, or null if the element is not copied
+         */
+        Appendable start(boolean generated) throws IOException;
+    }
+
+    /**
+     * Compares the generated elements of the existing file, one at a time, with the generated elements of the new
+     * file. Elements are compared as they are read, so they are not held in memory.
+     */
+    private static class GeneratedElementMatcher implements ElementHandler, Appendable {
+        private final Iterator<String> expectedElements;
+        private String expected;
+        private int position;
+        private boolean matches = true;
+
+        GeneratedElementMatcher(List<String> expectedElements) {
+            this.expectedElements = expectedElements.iterator();
+        }
+
+        @Override
+        public Appendable start(boolean generated) {
+            if (!generated) {
+                return null;
+            }
+
+            if (expectedElements.hasNext()) {
+                expected = expectedElements.next();
+                position = 0;
+                return this;
+            }
+
+            matches = false;
+            return null;
+        }
+
+        /**
+         * Called after each element of the existing file.
+         *
+         * @return true if the generated elements match so far
+         */
+        boolean endElement() {
+            if (expected != null && position != expected.length()) {
+                matches = false;
+            }
+            expected = null;
+            return matches;
+        }
+
+        boolean matchesAll() {
+            return matches && !expectedElements.hasNext();
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) {
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            for (int i = start; i < end && matches; i++) {
+                append(csq.charAt(i));
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            if (position < expected.length() && expected.charAt(position) == c) {
+                position++;
+            } else {
+                matches = false;
+            }
+            return this;
+        }
+    }
+
+    private enum TokenType {
+        TEXT, START_TAG, EMPTY_TAG, END_TAG, COMMENT, CDATA, PROCESSING_INSTRUCTION, DOCTYPE, END_OF_FILE
+    }
+
+    /**
+     * Splits XML into markup tokens - tags, comments, CDATA sections, processing instructions, document type
+     * declarations - and the text between them. Every token holds its characters exactly as they were read, so the
+     * tokens of a document add up to the document.
+     */
+    private static class XmlScanner {
+        private final Reader reader;
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+
+        private final StringBuilder token = new StringBuilder();
+        private TokenType type;
+        private String name;
+
+        XmlScanner(Reader reader) {
+            this.reader = reader;
+        }
+
+        TokenType next() throws IOException, MalformedXmlException {
+            token.setLength(0);
+            name = null;
+
+            if (!ensureAvailable(1)) {
+                type = TokenType.END_OF_FILE;
+            } else if (buffer[position] != '<') {
+                readText();
+                type = TokenType.TEXT;
+            } else if (lookingAt("<!--")) { //$NON-NLS-1$
+                readThrough("<!--", "-->"); //$NON-NLS-1$ //$NON-NLS-2$
+                type = TokenType.COMMENT;
+            } else if (lookingAt("<![CDATA[")) { //$NON-NLS-1$
+                readThrough("<![CDATA[", "]]>"); //$NON-NLS-1$ //$NON-NLS-2$
+                type = TokenType.CDATA;
+            } else if (lookingAt("<!")) { //$NON-NLS-1$
+                readDeclaration();
+                name = readName(2 + "DOCTYPE".length()); //$NON-NLS-1$
+                type = TokenType.DOCTYPE;
+            } else if (lookingAt("<?")) { //$NON-NLS-1$
+                readThrough("<?", "?>"); //$NON-NLS-1$ //$NON-NLS-2$
+                type = TokenType.PROCESSING_INSTRUCTION;
+            } else if (lookingAt("</")) { //$NON-NLS-1$
+                readTag();
+                name = readName(2);
+                type = TokenType.END_TAG;
+            } else {
+                readTag();
+                name = readName(1);
+                type = endsWith("/>") ? TokenType.EMPTY_TAG : TokenType.START_TAG; //$NON-NLS-1$
+            }
+
+            return type;
+        }
+
+        TokenType getType() {
+            return type;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getToken() {
+            return token.toString();
+        }
+
+        void copyTo(Appendable out) throws IOException {
+            out.append(token);
+        }
+
+        boolean isWhiteSpace() {
+            for (int i = 0; i < token.length(); i++) {
+                if (token.charAt(i) > ' ') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        String getCommentData() {
+            return token.substring(4, token.length() - 3);
+        }
+
+        void checkEndTag(String elementName) throws MalformedXmlException {
+            if (!elementName.equals(name)) {
+                throw new MalformedXmlException("Element " + elementName //$NON-NLS-1$
+                        + " is closed by end tag " + name); //$NON-NLS-1$
+            }
+        }
+
+        /**
+         * Returns the value of an attribute of the current start tag, as it is written in the tag.
+         */
+        String getAttribute(String attributeName) {
+            int i = 1 + name.length();
+            int end = token.length();
+            while (i < end) {
+                while (i < end && isNameEnd(token.charAt(i))) {
+                    i++;
+                }
+                int nameStart = i;
+                while (i < end && token.charAt(i) != '=' && !isNameEnd(token.charAt(i))) {
+                    i++;
+                }
+                int nameEnd = i;
+                while (i < end && token.charAt(i) != '\'' && token.charAt(i) != '"') {
+                    i++;
+                }
+                if (i == end) {
+                    return null;
+                }
+                char quote = token.charAt(i++);
+                int valueStart = i;
+                while (i < end && token.charAt(i) != quote) {
+                    i++;
+                }
+                if (nameEnd - nameStart == attributeName.length()
+                        && tokenMatches(nameStart, attributeName)) {
+                    return token.substring(valueStart, i);
+                }
+                i++;
+            }
+            return null;
+        }
+
+        private String readName(int start) {
+            int i = start;
+            while (i < token.length() && isNameEnd(token.charAt(i))) {
+                i++;
+            }
+            int nameStart = i;
+            while (i < token.length() && !isNameEnd(token.charAt(i))) {
+                i++;
+            }
+            return token.substring(nameStart, i);
+        }
+
+        private boolean isNameEnd(char c) {
+            return c <= ' ' || c == '>' || c == '/' || c == '[';
+        }
+
+        private boolean endsWith(String s) {
+            int start = token.length() - s.length();
+            return start >= 0 && tokenMatches(start, s);
+        }
+
+        private boolean tokenMatches(int start, String s) {
+            for (int i = 0; i < s.length(); i++) {
+                if (token.charAt(start + i) != s.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void readText() throws IOException {
+            while (ensureAvailable(1)) {
+                int start = position;
+                while (position < limit && buffer[position] != '<') {
+                    position++;
+                }
+                token.append(buffer, start, position - start);
+                if (position < limit) {
+                    return;
+                }
+            }
+        }
+
+        private void readThrough(String opening, String terminator) throws IOException, MalformedXmlException {
+            // the terminator may not overlap the opening
+            int minimumLength = opening.length() + terminator.length();
+            while (token.length() < minimumLength || !endsWith(terminator)) {
+                token.append(readChar());
+            }
+        }
+
+        private void readTag() throws IOException, MalformedXmlException {
+            char quote = 0;
+            while (true) {
+                char c = readChar();
+                token.append(c);
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '"' || c == '\'') {
+                    quote = c;
+                } else if (c == '>') {
+                    return;
+                }
+            }
+        }
+
+        private void readDeclaration() throws IOException, MalformedXmlException {
+            char quote = 0;
+            int subsetDepth = 0;
+            while (true) {
+                char c = readChar();
+                token.append(c);
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '"' || c == '\'') {
+                    quote = c;
+                } else if (c == '[') {
+                    subsetDepth++;
+                } else if (c == ']') {
+                    subsetDepth--;
+                } else if (c == '>' && subsetDepth == 0) {
+                    return;
+                }
+            }
+        }
+
+        private char readChar() throws IOException, MalformedXmlException {
+            if (!ensureAvailable(1)) {
+                throw new MalformedXmlException("Unexpected end of file"); //$NON-NLS-1$
+            }
+            return buffer[position++];
+        }
+
+        private boolean lookingAt(String s) throws IOException {
+            if (!ensureAvailable(s.length())) {
+                return false;
+            }
+            for (int i = 0; i < s.length(); i++) {
+                if (buffer[position + i] != s.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Reads ahead until the buffer holds at least the number of characters, or the end of the input is reached.
+         */
+        private boolean ensureAvailable(int count) throws IOException {
+            if (limit - position >= count) {
+                return true;
+            }
+
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+            while (limit < count) {
+                int read = reader.read(buffer, limit, buffer.length - limit);
+                if (read == -1) {
+                    return false;
+                }
+                limit += read;
+            }
+            return true;
+        }
+    }
+
+    private static class MalformedXmlException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        MalformedXmlException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Carries a merge failure out of the writer that streams the merged source to the file.
+     */
+    private static class MergeFailedException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private final transient ShellException shellException;
+
+        MergeFailedException(ShellException shellException) {
+            super(shellException);
+            this.shellException = shellException;
+        }
+    }
+}
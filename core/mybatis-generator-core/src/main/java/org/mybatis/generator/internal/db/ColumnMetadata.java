@@ -0,0 +1,188 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class holds one row of the result of {@link DatabaseMetaData#getColumns(String, String, String, String)}.
+ * The raw values are kept (rather than an IntrospectedColumn) so that the same row can be used for
+ * several table configurations, and so that the row can be kept in the {@link IntrospectionCache}.
+ */
+class ColumnMetadata {
+
+    private final ActualTableName actualTableName;
+    private final String columnName;
+    private final int jdbcType;
+    private final String typeName;
+    private final int columnSize;
+    private final int decimalDigits;
+    private final boolean nullable;
+    private final String remarks;
+    private final String defaultValue;
+    private final boolean autoIncrement;
+    private final boolean generatedColumn;
+
+    ColumnMetadata(ActualTableName actualTableName, String columnName, int jdbcType, String typeName,
+            int columnSize, int decimalDigits, boolean nullable, String remarks, String defaultValue,
+            boolean autoIncrement, boolean generatedColumn) {
+        this.actualTableName = actualTableName;
+        this.columnName = columnName;
+        this.jdbcType = jdbcType;
+        this.typeName = typeName;
+        this.columnSize = columnSize;
+        this.decimalDigits = decimalDigits;
+        this.nullable = nullable;
+        this.remarks = remarks;
+        this.defaultValue = defaultValue;
+        this.autoIncrement = autoIncrement;
+        this.generatedColumn = generatedColumn;
+    }
+
+    private ColumnMetadata(ResultSet rs, boolean supportsIsAutoIncrement, boolean supportsIsGeneratedColumn)
+            throws SQLException {
+        jdbcType = rs.getInt("DATA_TYPE"); //$NON-NLS-1$
+        typeName = rs.getString("TYPE_NAME"); //$NON-NLS-1$
+        columnSize = rs.getInt("COLUMN_SIZE"); //$NON-NLS-1$
+        columnName = rs.getString("COLUMN_NAME"); //$NON-NLS-1$
+        nullable = rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable; //$NON-NLS-1$
+        decimalDigits = rs.getInt("DECIMAL_DIGITS"); //$NON-NLS-1$
+        remarks = rs.getString("REMARKS"); //$NON-NLS-1$
+        defaultValue = rs.getString("COLUMN_DEF"); //$NON-NLS-1$
+        autoIncrement = supportsIsAutoIncrement
+                && "YES".equals(rs.getString("IS_AUTOINCREMENT")); //$NON-NLS-1$ //$NON-NLS-2$
+        generatedColumn = supportsIsGeneratedColumn
+                && "YES".equals(rs.getString("IS_GENERATEDCOLUMN")); //$NON-NLS-1$ //$NON-NLS-2$
+        actualTableName = new ActualTableName(
+                rs.getString("TABLE_CAT"), //$NON-NLS-1$
+                rs.getString("TABLE_SCHEM"), //$NON-NLS-1$
+                rs.getString("TABLE_NAME")); //$NON-NLS-1$
+    }
+
+    /**
+     * Reads every row of a result set returned from DatabaseMetaData.getColumns. The result set is
+     * not closed.
+     *
+     * @param rs the result set
+     * @return the rows, in result set order
+     * @throws SQLException if any error occurs reading the result set
+     */
+    static List<ColumnMetadata> readAll(ResultSet rs) throws SQLException {
+        boolean supportsIsAutoIncrement = false;
+        boolean supportsIsGeneratedColumn = false;
+        ResultSetMetaData rsmd = rs.getMetaData();
+        int colCount = rsmd.getColumnCount();
+        for (int i = 1; i <= colCount; i++) {
+            if ("IS_AUTOINCREMENT".equals(rsmd.getColumnName(i))) { //$NON-NLS-1$
+                supportsIsAutoIncrement = true;
+            }
+            if ("IS_GENERATEDCOLUMN".equals(rsmd.getColumnName(i))) { //$NON-NLS-1$
+                supportsIsGeneratedColumn = true;
+            }
+        }
+
+        List<ColumnMetadata> answer = new ArrayList<>();
+        while (rs.next()) {
+            answer.add(new ColumnMetadata(rs, supportsIsAutoIncrement, supportsIsGeneratedColumn));
+        }
+        return answer;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        IntrospectionCache.writeString(out, actualTableName.getCatalog());
+        IntrospectionCache.writeString(out, actualTableName.getSchema());
+        IntrospectionCache.writeString(out, actualTableName.getTableName());
+        IntrospectionCache.writeString(out, columnName);
+        out.writeInt(jdbcType);
+        IntrospectionCache.writeString(out, typeName);
+        out.writeInt(columnSize);
+        out.writeInt(decimalDigits);
+        out.writeBoolean(nullable);
+        IntrospectionCache.writeString(out, remarks);
+        IntrospectionCache.writeString(out, defaultValue);
+        out.writeBoolean(autoIncrement);
+        out.writeBoolean(generatedColumn);
+    }
+
+    static ColumnMetadata readFrom(DataInput in) throws IOException {
+        ActualTableName atn = new ActualTableName(IntrospectionCache.readString(in),
+                IntrospectionCache.readString(in), IntrospectionCache.readString(in));
+        String columnName = IntrospectionCache.readString(in);
+        int jdbcType = in.readInt();
+        String typeName = IntrospectionCache.readString(in);
+        int columnSize = in.readInt();
+        int decimalDigits = in.readInt();
+        boolean nullable = in.readBoolean();
+        String remarks = IntrospectionCache.readString(in);
+        String defaultValue = IntrospectionCache.readString(in);
+        boolean autoIncrement = in.readBoolean();
+        boolean generatedColumn = in.readBoolean();
+        return new ColumnMetadata(atn, columnName, jdbcType, typeName, columnSize, decimalDigits, nullable,
+                remarks, defaultValue, autoIncrement, generatedColumn);
+    }
+
+    public ActualTableName getActualTableName() {
+        return actualTableName;
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+
+    public int getJdbcType() {
+        return jdbcType;
+    }
+
+    public String getTypeName() {
+        return typeName;
+    }
+
+    public int getColumnSize() {
+        return columnSize;
+    }
+
+    public int getDecimalDigits() {
+        return decimalDigits;
+    }
+
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    public String getRemarks() {
+        return remarks;
+    }
+
+    public String getDefaultValue() {
+        return defaultValue;
+    }
+
+    public boolean isAutoIncrement() {
+        return autoIncrement;
+    }
+
+    public boolean isGeneratedColumn() {
+        return generatedColumn;
+    }
+}
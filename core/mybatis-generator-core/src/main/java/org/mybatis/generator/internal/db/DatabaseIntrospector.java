@@ -24,14 +24,15 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.StringTokenizer;
 import java.util.TreeMap;
 import java.util.regex.Matcher;
@@ -43,6 +44,7 @@ import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.JavaTypeResolver;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.api.dom.java.JavaReservedWords;
+import org.mybatis.generator.api.intellij.IntellijTableInfo;
 import org.mybatis.generator.config.ColumnOverride;
 import org.mybatis.generator.config.Context;
 import org.mybatis.generator.config.GeneratedKey;
@@ -65,6 +67,25 @@ public class DatabaseIntrospector {
 
     private final Log logger;
 
+    private final boolean bulkIntrospection;
+
+    /**
+     * Metadata of whole schemas read in bulk, keyed by the catalog and schema pattern used to read them.
+     */
+    private final Map<List<String>, SchemaMetadata> schemaMetadata = new HashMap<>();
+
+    /**
+     * Index of the bulk metadata by table.
+     */
+    private final Map<ActualTableName, SchemaMetadata> schemaMetadataByTable = new HashMap<>();
+
+    /**
+     * The source of the raw table metadata - the database, or tables supplied by the IntelliJ plugin.
+     */
+    private final TableMetadataSource tableMetadataSource;
+
+    private IntrospectionCache introspectionCache;
+
     public DatabaseIntrospector(Context context,
             DatabaseMetaData databaseMetaData,
             JavaTypeResolver javaTypeResolver, List<String> warnings) {
@@ -74,20 +95,64 @@ public class DatabaseIntrospector {
         this.javaTypeResolver = javaTypeResolver;
         this.warnings = warnings;
         logger = LogFactory.getLog(getClass());
+        bulkIntrospection = isTrue(context.getProperty(PropertyRegistry.CONTEXT_BULK_INTROSPECTION));
+        tableMetadataSource = this::readTableMetadata;
+    }
+
+    /**
+     * Creates an introspector that reads table metadata supplied by the IntelliJ plugin instead of the database.
+     * If there is a single table, it is used for every table configuration. Otherwise each table configuration
+     * is matched to the table with the same name.
+     *
+     * @param context the context
+     * @param tables the tables
+     * @param javaTypeResolver the java type resolver
+     * @param warnings the warnings list
+     */
+    public DatabaseIntrospector(Context context,
+            List<IntellijTableInfo> tables,
+            JavaTypeResolver javaTypeResolver, List<String> warnings) {
+        super();
+        this.context = context;
+        this.databaseMetaData = null;
+        this.javaTypeResolver = javaTypeResolver;
+        this.warnings = warnings;
+        logger = LogFactory.getLog(getClass());
+        bulkIntrospection = false;
+        tableMetadataSource = new IntellijTableMetadata(tables)::read;
     }
 
-    private void calculatePrimaryKey(FullyQualifiedTable table,
-            IntrospectedTable introspectedTable) {
+    @FunctionalInterface
+    private interface TableMetadataSource {
+        Map<ActualTableName, TableMetadata> read(TableConfiguration tc) throws SQLException;
+    }
+
+    /**
+     * Sets a cache of database metadata. If set, table configurations found in the cache are introspected
+     * without any database calls, and the metadata of any other table configuration is added to the cache.
+     *
+     * @param introspectionCache the cache, may be null
+     */
+    public void setIntrospectionCache(IntrospectionCache introspectionCache) {
+        this.introspectionCache = introspectionCache;
+    }
+
+    private List<String> readPrimaryKeyColumns(String catalog, String schema, ActualTableName atn) {
+        SchemaMetadata metadata = schemaMetadataByTable.get(atn);
+        if (metadata != null) {
+            Optional<List<String>> primaryKeyColumns = metadata.getPrimaryKeyColumns(atn);
+            if (primaryKeyColumns.isPresent()) {
+                return primaryKeyColumns.get();
+            }
+        }
+
         ResultSet rs;
 
         try {
-            rs = databaseMetaData.getPrimaryKeys(
-                    table.getIntrospectedCatalog(), table
-                            .getIntrospectedSchema(), table
-                            .getIntrospectedTableName());
+            rs = databaseMetaData.getPrimaryKeys(catalog, schema, atn.getTableName());
         } catch (SQLException e) {
             warnings.add(getString("Warning.15")); //$NON-NLS-1$
-            return;
+            return Collections.emptyList();
         }
 
         try {
@@ -99,11 +164,10 @@ public class DatabaseIntrospector {
                 keyColumns.put(keySeq, columnName);
             }
 
-            for (String columnName : keyColumns.values()) {
-                introspectedTable.addPrimaryKeyColumn(columnName);
-            }
+            return new ArrayList<>(keyColumns.values());
         } catch (SQLException e) {
             // ignore the primary key if there's any error
+            return Collections.emptyList();
         } finally {
             closeResultSet(rs);
         }
@@ -172,7 +236,8 @@ public class DatabaseIntrospector {
             throws SQLException {
 
         // get the raw columns from the DB
-        Map<ActualTableName, List<IntrospectedColumn>> columns = getColumns(tc);
+        Map<ActualTableName, TableMetadata> tableMetadata = getTableMetadata(tc);
+        Map<ActualTableName, List<IntrospectedColumn>> columns = getColumns(tc, tableMetadata);
 
         if (columns.isEmpty()) {
             warnings.add(getString("Warning.19", tc.getCatalog(), //$NON-NLS-1$
@@ -186,7 +251,7 @@ public class DatabaseIntrospector {
         calculateIdentityColumns(tc, columns);
 
         List<IntrospectedTable> introspectedTables = calculateIntrospectedTables(
-                tc, columns);
+                tc, columns, tableMetadata);
 
         // now introspectedTables has all the columns from all the
         // tables in the configuration. Do some validation...
@@ -417,8 +482,22 @@ public class DatabaseIntrospector {
         }
     }
 
-    private Map<ActualTableName, List<IntrospectedColumn>> getColumns(
-            TableConfiguration tc) throws SQLException {
+    private Map<ActualTableName, TableMetadata> getTableMetadata(TableConfiguration tc) throws SQLException {
+        if (introspectionCache == null) {
+            return tableMetadataSource.read(tc);
+        }
+
+        Optional<Map<ActualTableName, TableMetadata>> cached = introspectionCache.get(tc);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        Map<ActualTableName, TableMetadata> answer = tableMetadataSource.read(tc);
+        introspectionCache.put(tc, answer);
+        return answer;
+    }
+
+    private Map<ActualTableName, TableMetadata> readTableMetadata(TableConfiguration tc) throws SQLException {
         String localCatalog;
         String localSchema;
         String localTableName;
@@ -460,75 +539,31 @@ public class DatabaseIntrospector {
             localTableName = escapeName(localTableName, escapeString);
         }
 
-        Map<ActualTableName, List<IntrospectedColumn>> answer = new HashMap<>();
-
         if (logger.isDebugEnabled()) {
             String fullTableName = composeFullyQualifiedTableName(localCatalog, localSchema,
                             localTableName, '.');
             logger.debug(getString("Tracing.1", fullTableName)); //$NON-NLS-1$
         }
 
-        ResultSet rs = databaseMetaData.getColumns(localCatalog, localSchema,
-                localTableName, "%"); //$NON-NLS-1$
-
-        boolean supportsIsAutoIncrement = false;
-        boolean supportsIsGeneratedColumn = false;
-        ResultSetMetaData rsmd = rs.getMetaData();
-        int colCount = rsmd.getColumnCount();
-        for (int i = 1; i <= colCount; i++) {
-            if ("IS_AUTOINCREMENT".equals(rsmd.getColumnName(i))) { //$NON-NLS-1$
-                supportsIsAutoIncrement = true;
-            }
-            if ("IS_GENERATEDCOLUMN".equals(rsmd.getColumnName(i))) { //$NON-NLS-1$
-                supportsIsGeneratedColumn = true;
+        List<ColumnMetadata> columnMetadata;
+        if (bulkIntrospection) {
+            columnMetadata = getSchemaMetadata(localCatalog, localSchema)
+                    .getColumns(localTableName, databaseMetaData.getSearchStringEscape());
+        } else {
+            ResultSet rs = databaseMetaData.getColumns(localCatalog, localSchema,
+                    localTableName, "%"); //$NON-NLS-1$
+            try {
+                columnMetadata = ColumnMetadata.readAll(rs);
+            } finally {
+                closeResultSet(rs);
             }
         }
 
-        while (rs.next()) {
-            IntrospectedColumn introspectedColumn = ObjectFactory
-                    .createIntrospectedColumn(context);
-
-            introspectedColumn.setTableAlias(tc.getAlias());
-            introspectedColumn.setJdbcType(rs.getInt("DATA_TYPE")); //$NON-NLS-1$
-            introspectedColumn.setActualTypeName(rs.getString("TYPE_NAME")); //$NON-NLS-1$
-            introspectedColumn.setLength(rs.getInt("COLUMN_SIZE")); //$NON-NLS-1$
-            introspectedColumn.setActualColumnName(rs.getString("COLUMN_NAME")); //$NON-NLS-1$
-            introspectedColumn
-                    .setNullable(rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable); //$NON-NLS-1$
-            introspectedColumn.setScale(rs.getInt("DECIMAL_DIGITS")); //$NON-NLS-1$
-            introspectedColumn.setRemarks(rs.getString("REMARKS")); //$NON-NLS-1$
-            introspectedColumn.setDefaultValue(rs.getString("COLUMN_DEF")); //$NON-NLS-1$
-
-            if (supportsIsAutoIncrement) {
-                introspectedColumn.setAutoIncrement(
-                        "YES".equals(rs.getString("IS_AUTOINCREMENT"))); //$NON-NLS-1$ //$NON-NLS-2$
-            }
-
-            if (supportsIsGeneratedColumn) {
-                introspectedColumn.setGeneratedColumn(
-                        "YES".equals(rs.getString("IS_GENERATEDCOLUMN"))); //$NON-NLS-1$ //$NON-NLS-2$
-            }
-
-            ActualTableName atn = new ActualTableName(
-                    rs.getString("TABLE_CAT"), //$NON-NLS-1$
-                    rs.getString("TABLE_SCHEM"), //$NON-NLS-1$
-                    rs.getString("TABLE_NAME")); //$NON-NLS-1$
-
-            List<IntrospectedColumn> columns = answer.computeIfAbsent(atn, k -> new ArrayList<>());
-
-            columns.add(introspectedColumn);
-
-            if (logger.isDebugEnabled()) {
-                logger.debug(getString(
-                        "Tracing.2", //$NON-NLS-1$
-                        introspectedColumn.getActualColumnName(), Integer
-                                .toString(introspectedColumn.getJdbcType()),
-                        atn.toString()));
-            }
+        Map<ActualTableName, TableMetadata> answer = new HashMap<>();
+        for (ColumnMetadata cm : columnMetadata) {
+            answer.computeIfAbsent(cm.getActualTableName(), k -> new TableMetadata()).addColumn(cm);
         }
 
-        closeResultSet(rs);
-
         if (answer.size() > 1
                 && !stringContainsSQLWildcard(localSchema)
                 && !stringContainsSQLWildcard(localTableName)) {
@@ -552,6 +587,79 @@ public class DatabaseIntrospector {
                     inputAtn.toString(), sb.toString()));
         }
 
+        for (Map.Entry<ActualTableName, TableMetadata> entry : answer.entrySet()) {
+            ActualTableName atn = entry.getKey();
+
+            // as for the fully qualified table, we only use the returned catalog
+            // and schema if something was specified on the table configuration
+            String catalog = stringHasValue(tc.getCatalog()) ? atn.getCatalog() : null;
+            String schema = stringHasValue(tc.getSchema()) ? atn.getSchema() : null;
+
+            for (String columnName : readPrimaryKeyColumns(catalog, schema, atn)) {
+                entry.getValue().addPrimaryKeyColumn(columnName);
+            }
+
+            readRemarksAndTableType(catalog, schema, atn, entry.getValue());
+        }
+
+        return answer;
+    }
+
+    private Map<ActualTableName, List<IntrospectedColumn>> getColumns(TableConfiguration tc,
+            Map<ActualTableName, TableMetadata> tableMetadata) {
+        Map<ActualTableName, List<IntrospectedColumn>> answer = new HashMap<>();
+
+        for (Map.Entry<ActualTableName, TableMetadata> entry : tableMetadata.entrySet()) {
+            ActualTableName atn = entry.getKey();
+            List<IntrospectedColumn> columns = new ArrayList<>();
+
+            for (ColumnMetadata cm : entry.getValue().getColumns()) {
+                IntrospectedColumn introspectedColumn = ObjectFactory
+                        .createIntrospectedColumn(context);
+
+                introspectedColumn.setTableAlias(tc.getAlias());
+                introspectedColumn.setJdbcType(cm.getJdbcType());
+                introspectedColumn.setActualTypeName(cm.getTypeName());
+                introspectedColumn.setLength(cm.getColumnSize());
+                introspectedColumn.setActualColumnName(cm.getColumnName());
+                introspectedColumn.setNullable(cm.isNullable());
+                introspectedColumn.setScale(cm.getDecimalDigits());
+                introspectedColumn.setRemarks(cm.getRemarks());
+                introspectedColumn.setDefaultValue(cm.getDefaultValue());
+                introspectedColumn.setAutoIncrement(cm.isAutoIncrement());
+                introspectedColumn.setGeneratedColumn(cm.isGeneratedColumn());
+
+                columns.add(introspectedColumn);
+
+                if (logger.isDebugEnabled()) {
+                    logger.debug(getString(
+                            "Tracing.2", //$NON-NLS-1$
+                            introspectedColumn.getActualColumnName(), Integer
+                                    .toString(introspectedColumn.getJdbcType()),
+                            atn.toString()));
+                }
+            }
+
+            answer.put(atn, columns);
+        }
+
+        return answer;
+    }
+
+    /**
+     * Returns the metadata of every table in a catalog and schema, reading it from the database
+     * the first time the catalog and schema are requested.
+     */
+    private SchemaMetadata getSchemaMetadata(String catalog, String schemaPattern) throws SQLException {
+        List<String> key = Arrays.asList(catalog, schemaPattern);
+        SchemaMetadata answer = schemaMetadata.get(key);
+        if (answer == null) {
+            answer = SchemaMetadata.read(databaseMetaData, catalog, schemaPattern);
+            schemaMetadata.put(key, answer);
+            for (ActualTableName atn : answer.getTableNames()) {
+                schemaMetadataByTable.putIfAbsent(atn, answer);
+            }
+        }
         return answer;
     }
 
@@ -571,7 +679,8 @@ public class DatabaseIntrospector {
 
     private List<IntrospectedTable> calculateIntrospectedTables(
             TableConfiguration tc,
-            Map<ActualTableName, List<IntrospectedColumn>> columns) {
+            Map<ActualTableName, List<IntrospectedColumn>> columns,
+            Map<ActualTableName, TableMetadata> tableMetadata) {
         boolean delimitIdentifiers = tc.isDelimitIdentifiers()
                 || stringContainsSpace(tc.getCatalog())
                 || stringContainsSpace(tc.getSchema())
@@ -611,9 +720,13 @@ public class DatabaseIntrospector {
                 introspectedTable.addColumn(introspectedColumn);
             }
 
-            calculatePrimaryKey(table, introspectedTable);
+            TableMetadata metadata = tableMetadata.get(atn);
+            for (String columnName : metadata.getPrimaryKeyColumns()) {
+                introspectedTable.addPrimaryKeyColumn(columnName);
+            }
 
-            enhanceIntrospectedTable(introspectedTable);
+            introspectedTable.setRemarks(metadata.getRemarks());
+            introspectedTable.setTableType(metadata.getTableType());
 
             answer.add(introspectedTable);
         }
@@ -627,19 +740,25 @@ public class DatabaseIntrospector {
      *
      * <p>If there is any error, we just add a warning and continue.
      *
-     * @param introspectedTable the introspected table to enhance
+     * @param catalog the catalog to use in the metadata call
+     * @param schema the schema to use in the metadata call
+     * @param atn the actual name of the table
+     * @param tableMetadata the table metadata to enhance
      */
-    private void enhanceIntrospectedTable(IntrospectedTable introspectedTable) {
-        try {
-            FullyQualifiedTable fqt = introspectedTable.getFullyQualifiedTable();
+    private void readRemarksAndTableType(String catalog, String schema, ActualTableName atn,
+            TableMetadata tableMetadata) {
+        SchemaMetadata metadata = schemaMetadataByTable.get(atn);
+        if (metadata != null && metadata.hasTableMetadata()) {
+            tableMetadata.setRemarks(metadata.getRemarks(atn));
+            tableMetadata.setTableType(metadata.getTableType(atn));
+            return;
+        }
 
-            ResultSet rs = databaseMetaData.getTables(fqt.getIntrospectedCatalog(), fqt.getIntrospectedSchema(),
-                    fqt.getIntrospectedTableName(), null);
+        try {
+            ResultSet rs = databaseMetaData.getTables(catalog, schema, atn.getTableName(), null);
             if (rs.next()) {
-                String remarks = rs.getString("REMARKS"); //$NON-NLS-1$
-                String tableType = rs.getString("TABLE_TYPE"); //$NON-NLS-1$
-                introspectedTable.setRemarks(remarks);
-                introspectedTable.setTableType(tableType);
+                tableMetadata.setRemarks(rs.getString("REMARKS")); //$NON-NLS-1$
+                tableMetadata.setTableType(rs.getString("TABLE_TYPE")); //$NON-NLS-1$
             }
             closeResultSet(rs);
         } catch (SQLException e) {
@@ -0,0 +1,99 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.mybatis.generator.api.intellij.IntellijColumnInfo;
+import org.mybatis.generator.api.intellij.IntellijTableInfo;
+import org.mybatis.generator.config.TableConfiguration;
+
+/**
+ * This class converts the table metadata supplied by the IntelliJ plugin into the same raw metadata that is
+ * read from the database, so the tables are introspected exactly like tables read over JDBC.
+ */
+class IntellijTableMetadata {
+
+    private final List<IntellijTableInfo> tables;
+
+    /**
+     * The tables by lower case name, so that each table configuration is matched without scanning all tables.
+     */
+    private final Map<String, List<IntellijTableInfo>> tablesByName = new HashMap<>();
+
+    IntellijTableMetadata(List<IntellijTableInfo> tables) {
+        this.tables = tables;
+        for (IntellijTableInfo tableInfo : tables) {
+            tablesByName.computeIfAbsent(tableInfo.getTableName().toLowerCase(Locale.ROOT), k -> new ArrayList<>())
+                    .add(tableInfo);
+        }
+    }
+
+    /**
+     * Returns the metadata of the tables that match a table configuration. A single table matches any
+     * table configuration. If there are several tables, a table matches the configuration with the same table name.
+     *
+     * @param tc the table configuration
+     * @return the metadata, keyed by table name
+     */
+    Map<ActualTableName, TableMetadata> read(TableConfiguration tc) {
+        Map<ActualTableName, TableMetadata> answer = new TreeMap<>(
+                (atn1, atn2) -> atn1.getTableName().compareTo(atn2.getTableName()));
+        List<IntellijTableInfo> candidates = tables.size() == 1 ? tables
+                : tablesByName.getOrDefault(tc.getTableName().toLowerCase(Locale.ROOT), Collections.emptyList());
+        for (IntellijTableInfo tableInfo : candidates) {
+            if (tables.size() == 1 || !tc.isDelimitIdentifiers()
+                    || tc.getTableName().equals(tableInfo.getTableName())) {
+                ActualTableName atn = new ActualTableName(null, null, tableInfo.getTableName());
+                answer.put(atn, toTableMetadata(atn, tableInfo));
+            }
+        }
+        return answer;
+    }
+
+    private static TableMetadata toTableMetadata(ActualTableName atn, IntellijTableInfo tableInfo) {
+        TableMetadata answer = new TableMetadata();
+        for (IntellijColumnInfo columnInfo : nullToEmpty(tableInfo.getColumnInfos())) {
+            answer.addColumn(new ColumnMetadata(atn, columnInfo.getName(), columnInfo.getDataType(), null,
+                    columnInfo.getSize(), columnInfo.getDecimalDigits(), Boolean.TRUE.equals(columnInfo.getNullable()),
+                    columnInfo.getRemarks(), columnInfo.getColumnDefaultValue(), columnInfo.isAutoIncrement(),
+                    columnInfo.isGeneratedColumn()));
+        }
+
+        // keep primary columns in key sequence order
+        Map<Short, String> keyColumns = new TreeMap<>();
+        for (IntellijColumnInfo columnInfo : nullToEmpty(tableInfo.getPrimaryKeyColumns())) {
+            keyColumns.put(columnInfo.getKeySeq(), columnInfo.getName());
+        }
+        for (String columnName : keyColumns.values()) {
+            answer.addPrimaryKeyColumn(columnName);
+        }
+
+        answer.setRemarks(tableInfo.getTableRemark());
+        answer.setTableType(tableInfo.getTableType());
+        return answer;
+    }
+
+    private static List<IntellijColumnInfo> nullToEmpty(List<IntellijColumnInfo> columns) {
+        return columns == null ? Collections.emptyList() : new ArrayList<>(columns);
+    }
+}
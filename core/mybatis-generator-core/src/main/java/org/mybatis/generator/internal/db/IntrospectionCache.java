@@ -0,0 +1,332 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.mybatis.generator.config.TableConfiguration;
+
+/**
+ * This class is a persistent cache of the raw database metadata read during introspection. Entries
+ * are keyed by the catalog, schema, and table name of a table configuration, and the entries of a
+ * context are only valid for one identity - the connection URL, the user name, and the result of a
+ * schema fingerprint query. If the identity changes, every entry of the context is discarded.
+ *
+ * <p>The cache is stored as a compact gzipped binary file. Several contexts may share a file, even
+ * when they run in parallel or in different processes - the file holds a separate section for each
+ * context id, and a context only replaces its own section. Saving locks a companion
+ * <code>.lock</code> file while the file is read back and rewritten.
+ */
+public class IntrospectionCache {
+
+    private static final int MAGIC = 0x4D424743; // MBGC
+    private static final int FORMAT_VERSION = 2;
+
+    // file locks are held by the process, so contexts of this process also wait for each other here
+    private static final Object SAVE_LOCK = new Object();
+
+    private final Path file;
+    private final String contextId;
+    private final String identity;
+    private final Map<String, Map<ActualTableName, TableMetadata>> entries = new HashMap<>();
+    private boolean modified;
+    // the entries saved by earlier runs are no longer valid
+    private boolean invalidated;
+
+    private IntrospectionCache(Path file, String contextId, String identity) {
+        this.file = file;
+        this.contextId = contextId;
+        this.identity = identity;
+    }
+
+    /**
+     * Opens the cache of a context stored in a file. If the file does not exist, cannot be read, or
+     * was written for a different identity, then the cache starts empty.
+     *
+     * @param file the cache file
+     * @param contextId the id of the context, which keys its entries in the file
+     * @param identity the identity of the database, as calculated by {@link #calculateIdentity(Connection, String)}
+     * @param invalidate if true, any existing entries are ignored and the file will be rewritten
+     * @param warnings any warning generated from this method will be added to the List
+     * @return the cache
+     */
+    public static IntrospectionCache open(Path file, String contextId, String identity, boolean invalidate,
+            List<String> warnings) {
+        IntrospectionCache answer = new IntrospectionCache(file, contextId, identity);
+        if (invalidate || !Files.exists(file)) {
+            answer.invalidated = true;
+            answer.modified = true;
+            return answer;
+        }
+
+        try {
+            Section section = readSections(file).get(contextId);
+            if (section == null || !identity.equals(section.identity)) {
+                // not saved yet, or for a different database - start over
+                answer.modified = true;
+            } else {
+                answer.entries.putAll(section.entries);
+            }
+        } catch (IOException e) {
+            warnings.add(getString("Warning.32", file.toString(), e.getMessage())); //$NON-NLS-1$
+            answer.invalidated = true;
+            answer.modified = true;
+        }
+        return answer;
+    }
+
+    /**
+     * Calculates the identity of a database connection - the URL, the user name, and the values returned by
+     * the fingerprint query. A good fingerprint query is cheap and returns a value that changes whenever the
+     * schema changes, for example the latest DDL time in the catalog or a checksum of the column definitions.
+     *
+     * @param connection the connection
+     * @param fingerprintQuery the fingerprint query
+     * @return the identity
+     * @throws SQLException if the connection metadata cannot be read or the query fails
+     */
+    public static String calculateIdentity(Connection connection, String fingerprintQuery) throws SQLException {
+        DatabaseMetaData databaseMetaData = connection.getMetaData();
+        StringBuilder sb = new StringBuilder();
+        sb.append(databaseMetaData.getURL());
+        sb.append('\n');
+        sb.append(databaseMetaData.getUserName());
+
+        if (stringHasValue(fingerprintQuery)) {
+            try (Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery(fingerprintQuery)) {
+                int columnCount = rs.getMetaData().getColumnCount();
+                while (rs.next()) {
+                    sb.append('\n');
+                    for (int i = 1; i <= columnCount; i++) {
+                        if (i > 1) {
+                            sb.append(',');
+                        }
+                        sb.append(rs.getString(i));
+                    }
+                }
+            }
+        }
+
+        return sb.toString();
+    }
+
+    Optional<Map<ActualTableName, TableMetadata>> get(TableConfiguration tc) {
+        return Optional.ofNullable(entries.get(calculateKey(tc)));
+    }
+
+    void put(TableConfiguration tc, Map<ActualTableName, TableMetadata> tableMetadata) {
+        entries.put(calculateKey(tc), tableMetadata);
+        modified = true;
+    }
+
+    /**
+     * Writes the cache to its file if anything has changed since it was opened. The file is read back
+     * first, so the entries of other contexts, and entries of this context that were saved meanwhile
+     * for the same identity, are kept. The file is replaced atomically where the file system allows it.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void save() throws IOException {
+        if (!modified) {
+            return;
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+
+        Path lockFile = file.resolveSibling(file.getFileName() + ".lock"); //$NON-NLS-1$
+        synchronized (SAVE_LOCK) {
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE);
+                    FileLock lock = channel.lock()) {
+                Map<String, Section> sections;
+                try {
+                    sections = readSections(file);
+                } catch (IOException e) {
+                    // the file is rewritten below
+                    sections = new LinkedHashMap<>();
+                }
+
+                Section section = sections.get(contextId);
+                Map<String, Map<ActualTableName, TableMetadata>> merged = new HashMap<>();
+                if (!invalidated && section != null && identity.equals(section.identity)) {
+                    merged.putAll(section.entries);
+                }
+                merged.putAll(entries);
+                sections.put(contextId, new Section(identity, merged));
+
+                writeSections(sections);
+            }
+        }
+
+        modified = false;
+        invalidated = false;
+    }
+
+    private void writeSections(Map<String, Section> sections) throws IOException {
+        Path tempFile = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(),
+                ".tmp"); //$NON-NLS-1$
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempFile))))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(sections.size());
+                for (Map.Entry<String, Section> section : sections.entrySet()) {
+                    writeString(out, section.getKey());
+                    writeString(out, section.getValue().identity);
+                    writeEntries(out, section.getValue().entries);
+                }
+            }
+
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Reads every section of a file. A file written by a different version has no sections.
+     */
+    private static Map<String, Section> readSections(Path file) throws IOException {
+        Map<String, Section> sections = new LinkedHashMap<>();
+        if (!Files.exists(file)) {
+            return sections;
+        }
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                // written by a different version - start over
+                return sections;
+            }
+
+            int sectionCount = in.readInt();
+            for (int i = 0; i < sectionCount; i++) {
+                String contextId = readString(in);
+                String identity = readString(in);
+                sections.put(contextId, new Section(identity, readEntries(in)));
+            }
+        }
+        return sections;
+    }
+
+    private static Map<String, Map<ActualTableName, TableMetadata>> readEntries(DataInput in) throws IOException {
+        Map<String, Map<ActualTableName, TableMetadata>> entries = new HashMap<>();
+        int entryCount = in.readInt();
+        for (int i = 0; i < entryCount; i++) {
+            String key = readString(in);
+            int tableCount = in.readInt();
+            Map<ActualTableName, TableMetadata> tableMetadata = new HashMap<>();
+            for (int j = 0; j < tableCount; j++) {
+                ActualTableName atn = new ActualTableName(readString(in), readString(in), readString(in));
+                tableMetadata.put(atn, TableMetadata.readFrom(in));
+            }
+            entries.put(key, tableMetadata);
+        }
+        return entries;
+    }
+
+    private static void writeEntries(DataOutput out, Map<String, Map<ActualTableName, TableMetadata>> entries)
+            throws IOException {
+        out.writeInt(entries.size());
+        for (Map.Entry<String, Map<ActualTableName, TableMetadata>> entry : entries.entrySet()) {
+            writeString(out, entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (Map.Entry<ActualTableName, TableMetadata> table : entry.getValue().entrySet()) {
+                writeString(out, table.getKey().getCatalog());
+                writeString(out, table.getKey().getSchema());
+                writeString(out, table.getKey().getTableName());
+                table.getValue().writeTo(out);
+            }
+        }
+    }
+
+    private static String calculateKey(TableConfiguration tc) {
+        return tc.getCatalog() + '\n' + tc.getSchema() + '\n' + tc.getTableName() + '\n'
+                + tc.isDelimitIdentifiers() + '\n' + tc.isWildcardEscapingEnabled();
+    }
+
+    static void writeString(DataOutput out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The entries of one context, and the identity they were read for.
+     */
+    private static class Section {
+        private final String identity;
+        private final Map<String, Map<ActualTableName, TableMetadata>> entries;
+
+        Section(String identity, Map<String, Map<ActualTableName, TableMetadata>> entries) {
+            this.identity = identity;
+            this.entries = entries;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import static org.mybatis.generator.internal.util.StringUtility.stringContainsSQLWildcard;
+import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * This class holds the column, primary key, and table metadata of an entire catalog and schema. Each kind
+ * of metadata is read with a single DatabaseMetaData call rather than one call per table, and the results
+ * are indexed by actual table name.
+ *
+ * <p>Column metadata is required. Primary key and table metadata are optional - some drivers do not allow
+ * a null table name for getPrimaryKeys, for example - and callers should fall back to a per table call
+ * if the metadata is not available here.
+ */
+class SchemaMetadata {
+
+    private final Map<ActualTableName, List<ColumnMetadata>> columns = new HashMap<>();
+    private final Map<ActualTableName, List<String>> primaryKeyColumns;
+    private final Map<ActualTableName, String[]> remarksAndTableTypes;
+
+    private SchemaMetadata(List<ColumnMetadata> columnMetadata,
+            Map<ActualTableName, List<String>> primaryKeyColumns,
+            Map<ActualTableName, String[]> remarksAndTableTypes) {
+        for (ColumnMetadata cm : columnMetadata) {
+            columns.computeIfAbsent(cm.getActualTableName(), k -> new ArrayList<>()).add(cm);
+        }
+        this.primaryKeyColumns = primaryKeyColumns;
+        this.remarksAndTableTypes = remarksAndTableTypes;
+    }
+
+    /**
+     * Reads the metadata of every table in a catalog and schema.
+     *
+     * @param databaseMetaData the database metadata
+     * @param catalog the catalog, as passed to DatabaseMetaData.getColumns
+     * @param schemaPattern the schema pattern, as passed to DatabaseMetaData.getColumns
+     * @return the metadata
+     * @throws SQLException if the column metadata cannot be read
+     */
+    static SchemaMetadata read(DatabaseMetaData databaseMetaData, String catalog, String schemaPattern)
+            throws SQLException {
+        List<ColumnMetadata> columnMetadata;
+        ResultSet rs = databaseMetaData.getColumns(catalog, schemaPattern, "%", "%"); //$NON-NLS-1$ //$NON-NLS-2$
+        try {
+            columnMetadata = ColumnMetadata.readAll(rs);
+        } finally {
+            closeResultSet(rs);
+        }
+
+        return new SchemaMetadata(columnMetadata,
+                readPrimaryKeys(databaseMetaData, catalog, schemaPattern),
+                readTables(databaseMetaData, catalog, schemaPattern));
+    }
+
+    private static Map<ActualTableName, List<String>> readPrimaryKeys(DatabaseMetaData databaseMetaData,
+            String catalog, String schemaPattern) {
+        // getPrimaryKeys does not accept patterns
+        if (stringContainsSQLWildcard(schemaPattern)) {
+            return null;
+        }
+
+        ResultSet rs = null;
+        try {
+            rs = databaseMetaData.getPrimaryKeys(catalog, schemaPattern, null);
+
+            // keep primary columns in key sequence order
+            Map<ActualTableName, Map<Short, String>> keyColumns = new HashMap<>();
+            while (rs.next()) {
+                ActualTableName atn = new ActualTableName(
+                        rs.getString("TABLE_CAT"), //$NON-NLS-1$
+                        rs.getString("TABLE_SCHEM"), //$NON-NLS-1$
+                        rs.getString("TABLE_NAME")); //$NON-NLS-1$
+                String columnName = rs.getString("COLUMN_NAME"); //$NON-NLS-1$
+                short keySeq = rs.getShort("KEY_SEQ"); //$NON-NLS-1$
+                keyColumns.computeIfAbsent(atn, k -> new TreeMap<>()).put(keySeq, columnName);
+            }
+
+            Map<ActualTableName, List<String>> answer = new HashMap<>();
+            for (Map.Entry<ActualTableName, Map<Short, String>> entry : keyColumns.entrySet()) {
+                answer.put(entry.getKey(), new ArrayList<>(entry.getValue().values()));
+            }
+            return answer;
+        } catch (SQLException e) {
+            // the driver does not support a null table name - primary keys will be read table by table
+            return null;
+        } finally {
+            closeResultSet(rs);
+        }
+    }
+
+    private static Map<ActualTableName, String[]> readTables(DatabaseMetaData databaseMetaData,
+            String catalog, String schemaPattern) {
+        ResultSet rs = null;
+        try {
+            rs = databaseMetaData.getTables(catalog, schemaPattern, "%", null); //$NON-NLS-1$
+
+            Map<ActualTableName, String[]> answer = new HashMap<>();
+            while (rs.next()) {
+                ActualTableName atn = new ActualTableName(
+                        rs.getString("TABLE_CAT"), //$NON-NLS-1$
+                        rs.getString("TABLE_SCHEM"), //$NON-NLS-1$
+                        rs.getString("TABLE_NAME")); //$NON-NLS-1$
+                answer.putIfAbsent(atn, new String[] {
+                        rs.getString("REMARKS"), //$NON-NLS-1$
+                        rs.getString("TABLE_TYPE") //$NON-NLS-1$
+                });
+            }
+            return answer;
+        } catch (SQLException e) {
+            // table metadata will be read table by table
+            return null;
+        } finally {
+            closeResultSet(rs);
+        }
+    }
+
+    private static void closeResultSet(ResultSet rs) {
+        if (rs != null) {
+            try {
+                rs.close();
+            } catch (SQLException e) {
+                // ignore
+            }
+        }
+    }
+
+    Collection<ActualTableName> getTableNames() {
+        return columns.keySet();
+    }
+
+    /**
+     * Returns the columns of every table whose name matches the pattern, with the same matching rules
+     * as the table name pattern of DatabaseMetaData.getColumns.
+     *
+     * @param tableNamePattern the table name pattern
+     * @param escapeString the search string escape of the database
+     * @return the columns
+     */
+    List<ColumnMetadata> getColumns(String tableNamePattern, String escapeString) {
+        Pattern pattern = toRegex(tableNamePattern, escapeString);
+        List<ColumnMetadata> answer = new ArrayList<>();
+        for (Map.Entry<ActualTableName, List<ColumnMetadata>> entry : columns.entrySet()) {
+            String tableName = entry.getKey().getTableName();
+            if (tableName != null && pattern.matcher(tableName).matches()) {
+                answer.addAll(entry.getValue());
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Returns the primary key columns of a table in key sequence order, or an empty Optional if
+     * primary keys could not be read for the whole schema.
+     *
+     * @param atn the table
+     * @return the primary key columns
+     */
+    Optional<List<String>> getPrimaryKeyColumns(ActualTableName atn) {
+        if (primaryKeyColumns == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(primaryKeyColumns.getOrDefault(atn, Collections.emptyList()));
+    }
+
+    boolean hasTableMetadata() {
+        return remarksAndTableTypes != null;
+    }
+
+    String getRemarks(ActualTableName atn) {
+        String[] values = remarksAndTableTypes.get(atn);
+        return values == null ? null : values[0];
+    }
+
+    String getTableType(ActualTableName atn) {
+        String[] values = remarksAndTableTypes.get(atn);
+        return values == null ? null : values[1];
+    }
+
+    private static Pattern toRegex(String likePattern, String escapeString) {
+        StringBuilder sb = new StringBuilder();
+        int i = 0;
+        while (i < likePattern.length()) {
+            if (stringHasValue(escapeString) && likePattern.startsWith(escapeString, i)
+                    && i + escapeString.length() < likePattern.length()) {
+                i += escapeString.length();
+                sb.append(Pattern.quote(likePattern.substring(i, i + 1)));
+            } else if (likePattern.charAt(i) == '%') {
+                sb.append(".*"); //$NON-NLS-1$
+            } else if (likePattern.charAt(i) == '_') {
+                sb.append('.');
+            } else {
+                sb.append(Pattern.quote(likePattern.substring(i, i + 1)));
+            }
+            i++;
+        }
+        return Pattern.compile(sb.toString(), Pattern.DOTALL);
+    }
+}
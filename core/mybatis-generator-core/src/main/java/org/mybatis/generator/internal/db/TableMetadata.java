@@ -0,0 +1,94 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class holds the raw database metadata of one table - the columns, the primary key columns
+ * in key sequence order, the remarks, and the table type.
+ */
+class TableMetadata {
+
+    private final List<ColumnMetadata> columns = new ArrayList<>();
+    private final List<String> primaryKeyColumns = new ArrayList<>();
+    private String remarks;
+    private String tableType;
+
+    void addColumn(ColumnMetadata column) {
+        columns.add(column);
+    }
+
+    List<ColumnMetadata> getColumns() {
+        return columns;
+    }
+
+    void addPrimaryKeyColumn(String columnName) {
+        primaryKeyColumns.add(columnName);
+    }
+
+    List<String> getPrimaryKeyColumns() {
+        return primaryKeyColumns;
+    }
+
+    String getRemarks() {
+        return remarks;
+    }
+
+    void setRemarks(String remarks) {
+        this.remarks = remarks;
+    }
+
+    String getTableType() {
+        return tableType;
+    }
+
+    void setTableType(String tableType) {
+        this.tableType = tableType;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(columns.size());
+        for (ColumnMetadata column : columns) {
+            column.writeTo(out);
+        }
+        out.writeInt(primaryKeyColumns.size());
+        for (String columnName : primaryKeyColumns) {
+            IntrospectionCache.writeString(out, columnName);
+        }
+        IntrospectionCache.writeString(out, remarks);
+        IntrospectionCache.writeString(out, tableType);
+    }
+
+    static TableMetadata readFrom(DataInput in) throws IOException {
+        TableMetadata answer = new TableMetadata();
+        int columnCount = in.readInt();
+        for (int i = 0; i < columnCount; i++) {
+            answer.addColumn(ColumnMetadata.readFrom(in));
+        }
+        int primaryKeyColumnCount = in.readInt();
+        for (int i = 0; i < primaryKeyColumnCount; i++) {
+            answer.addPrimaryKeyColumn(IntrospectionCache.readString(in));
+        }
+        answer.setRemarks(IntrospectionCache.readString(in));
+        answer.setTableType(IntrospectionCache.readString(in));
+        return answer;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ *    Copyright 2006-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.util;
+
+import static org.mybatis.generator.internal.util.StringUtility.ignoreCaseKey;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A hash index of items named by a column name - columns, column overrides, ignored columns. A column name matches
+ * the name of a delimited item exactly, and the name of any other item ignoring case. This is the rule used
+ * throughout the generator, and the index replaces a scan of the items with two hash lookups.
+ *
+ * <p>The index is built once and never changes, so it may be shared by threads.
+ *
+ * @param <T> the type of the indexed items
+ */
+public final class ColumnNameIndex<T> {
+
+    private final Map<String, List<Integer>> delimitedNames = new HashMap<>();
+
+    private final Map<String, List<Integer>> undelimitedNames = new HashMap<>();
+
+    private final List<T> items;
+
+    /**
+     * Indexes items.
+     *
+     * @param items the items, in the order of precedence
+     * @param nameFunction returns the column name of an item
+     * @param delimitedFunction returns true if the column name of an item is delimited
+     */
+    public ColumnNameIndex(List<? extends T> items, Function<? super T, String> nameFunction,
+            Predicate<? super T> delimitedFunction) {
+        this.items = new ArrayList<>(items);
+        for (int i = 0; i < this.items.size(); i++) {
+            T item = this.items.get(i);
+            String name = nameFunction.apply(item);
+            if (name == null) {
+                continue;
+            }
+
+            if (delimitedFunction.test(item)) {
+                delimitedNames.computeIfAbsent(name, k -> new ArrayList<>(1)).add(i);
+            } else {
+                undelimitedNames.computeIfAbsent(ignoreCaseKey(name), k -> new ArrayList<>(1)).add(i);
+            }
+        }
+    }
+
+    /**
+     * Returns the first item, in the order of precedence, that matches a column name.
+     *
+     * @param columnName the column name
+     * @return the item, or null if no item matches
+     */
+    public T getFirst(String columnName) {
+        if (columnName == null) {
+            return null;
+        }
+
+        int first = Math.min(firstIndex(delimitedNames.get(columnName)),
+                firstIndex(undelimitedNames.get(ignoreCaseKey(columnName))));
+        return first == Integer.MAX_VALUE ? null : items.get(first);
+    }
+
+    /**
+     * Returns every item that matches a column name.
+     *
+     * @param columnName the column name
+     * @return the items, which may be empty
+     */
+    public List<T> getAll(String columnName) {
+        if (columnName == null) {
+            return Collections.emptyList();
+        }
+
+        List<Integer> delimited = delimitedNames.getOrDefault(columnName, Collections.emptyList());
+        List<Integer> undelimited = undelimitedNames.getOrDefault(ignoreCaseKey(columnName),
+                Collections.emptyList());
+        List<T> answer = new ArrayList<>(delimited.size() + undelimited.size());
+        for (Integer i : delimited) {
+            answer.add(items.get(i));
+        }
+        for (Integer i : undelimited) {
+            answer.add(items.get(i));
+        }
+        return answer;
+    }
+
+    private static int firstIndex(List<Integer> indexes) {
+        return indexes == null ? Integer.MAX_VALUE : indexes.get(0);
+    }
+}
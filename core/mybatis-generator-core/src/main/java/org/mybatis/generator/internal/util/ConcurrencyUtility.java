@@ -0,0 +1,217 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * This class holds methods useful for running generator work on a pool of worker threads.
+ */
+public class ConcurrencyUtility {
+
+    /**
+     * Utility Class - No Instances.
+     */
+    private ConcurrencyUtility() {
+    }
+
+    /**
+     * A unit of work that is applied to each item by {@link #map(List, int, Task)}.
+     *
+     * @param <T> the type of the input item
+     * @param <R> the type of the result
+     * @param <E> the type of checked exception the task may throw
+     */
+    @FunctionalInterface
+    public interface Task<T, R, E extends Exception> {
+        R apply(T item) throws E, InterruptedException;
+    }
+
+    /**
+     * Receives the items that flow through a {@link #pipeline(int, Source, Sink)}.
+     *
+     * @param <T> the type of the items
+     * @param <E> the type of checked exception the sink may throw
+     */
+    @FunctionalInterface
+    public interface Sink<T, E extends Exception> {
+        void accept(T item) throws E, InterruptedException;
+    }
+
+    /**
+     * Produces the items that flow through a {@link #pipeline(int, Source, Sink)}.
+     *
+     * @param <T> the type of the items
+     * @param <E> the type of checked exception the source may throw
+     */
+    @FunctionalInterface
+    public interface Source<T, E extends Exception> {
+        void produce(Sink<T, RuntimeException> sink) throws E, InterruptedException;
+    }
+
+    /**
+     * Returns the requested number of worker threads, or the number of available processors if
+     * the value is not specified or is not a positive integer.
+     *
+     * @param threads the configured number of threads, may be null
+     * @return the number of worker threads to use
+     */
+    public static int calculateParallelism(String threads) {
+        if (StringUtility.stringHasValue(threads)) {
+            try {
+                int answer = Integer.parseInt(threads.trim());
+                if (answer > 0) {
+                    return answer;
+                }
+            } catch (NumberFormatException e) {
+                // ignore - use the default
+            }
+        }
+
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Applies the task to every item on a pool of worker threads and returns the results in the same order
+     * as the input items. Worker threads use the context class loader of the calling thread so that
+     * configured plugins and external classes resolve the same way they do in a serial run.
+     *
+     * <p>If any task fails, the remaining tasks are cancelled and the first failure (in item order) is
+     * rethrown on the calling thread.
+     *
+     * @param items the items to process
+     * @param parallelism the maximum number of worker threads
+     * @param task the work to apply to each item
+     * @param <T> the type of the input items
+     * @param <R> the type of the results
+     * @param <E> the type of checked exception the task may throw
+     * @return the results, in item order
+     * @throws E if any task throws the checked exception
+     * @throws InterruptedException if any task is cancelled, or if the calling thread is interrupted
+     */
+    public static <T, R, E extends Exception> List<R> map(List<T> items, int parallelism, Task<T, R, E> task)
+            throws E, InterruptedException {
+        if (items.size() < 2 || parallelism < 2) {
+            List<R> answer = new ArrayList<>(items.size());
+            for (T item : items) {
+                answer.add(task.apply(item));
+            }
+            return answer;
+        }
+
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, items.size()));
+        try {
+            List<Future<R>> futures = new ArrayList<>(items.size());
+            for (T item : items) {
+                futures.add(pool.submit(() -> {
+                    Thread.currentThread().setContextClassLoader(contextClassLoader);
+                    return task.apply(item);
+                }));
+            }
+
+            List<R> answer = new ArrayList<>(items.size());
+            for (Future<R> future : futures) {
+                answer.add(ConcurrencyUtility.<R, E>getResult(future));
+            }
+            return answer;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the source on a worker thread and the sink on the calling thread. Items are handed from the source to
+     * the sink through a queue with a fixed capacity, so the source blocks when it is more than capacity
+     * items ahead of the sink. This allows the two stages to overlap without holding every item in memory.
+     *
+     * <p>If either stage fails, the other stage is stopped and the failure is rethrown on the calling thread.
+     *
+     * @param capacity the maximum number of items waiting between the stages
+     * @param source the stage that produces the items
+     * @param sink the stage that receives the items, in the order they were produced
+     * @param <T> the type of the items
+     * @param <E1> the type of checked exception the source may throw
+     * @param <E2> the type of checked exception the sink may throw
+     * @throws E1 if the source throws the checked exception
+     * @throws E2 if the sink throws the checked exception
+     * @throws InterruptedException if either stage is cancelled, or if the calling thread is interrupted
+     */
+    public static <T, E1 extends Exception, E2 extends Exception> void pipeline(int capacity, Source<T, E1> source,
+            Sink<T, E2> sink) throws E1, E2, InterruptedException {
+        // an empty Optional marks the end of the items
+        BlockingQueue<Optional<T>> queue = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Void> production = executor.submit(() -> {
+                Thread.currentThread().setContextClassLoader(contextClassLoader);
+                try {
+                    source.produce(item -> queue.put(Optional.of(item)));
+                    queue.put(Optional.empty());
+                } catch (Exception | Error e) {
+                    // the sink is the only other user of the queue, so this always makes room for the end marker
+                    queue.clear();
+                    queue.offer(Optional.empty());
+                    throw e;
+                }
+                return null;
+            });
+
+            try {
+                for (Optional<T> item = queue.take(); item.isPresent(); item = queue.take()) {
+                    sink.accept(item.get());
+                }
+            } catch (Exception | Error e) {
+                production.cancel(true);
+                throw e;
+            }
+
+            ConcurrencyUtility.<Void, E1>getResult(production);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R, E extends Exception> R getResult(Future<R> future) throws E, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else if (cause instanceof InterruptedException) {
+                throw (InterruptedException) cause;
+            } else {
+                // only the checked exception declared by the task can reach this point
+                throw (E) cause;
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.AclFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This class holds methods for writing generated files.
+ */
+public class FileUtility {
+
+    /**
+     * Utility Class - No Instances.
+     */
+    private FileUtility() {
+    }
+
+    /**
+     * Encodes file content. Characters that cannot be encoded are replaced, as they are by a Writer.
+     *
+     * @param content the content
+     * @param fileEncoding the name of the encoding, or null for the platform default
+     * @return the encoded content
+     */
+    public static ByteBuffer encode(String content, String fileEncoding) {
+        return charset(fileEncoding).encode(content);
+    }
+
+    private static Charset charset(String fileEncoding) {
+        return fileEncoding == null ? Charset.defaultCharset() : Charset.forName(fileEncoding);
+    }
+
+    /**
+     * Returns true if the file exists and holds exactly the content.
+     *
+     * @param file the file
+     * @param content the encoded content. The position of the buffer is not changed
+     * @return true if the file holds the content
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean hasContent(Path file, ByteBuffer content) throws IOException {
+        if (!Files.isRegularFile(file) || Files.size(file) != content.remaining()) {
+            return false;
+        }
+
+        return ByteBuffer.wrap(Files.readAllBytes(file)).equals(content);
+    }
+
+    /**
+     * Writes, or replaces, a file. The content is written to a temporary file in the same directory, which is then
+     * moved over the file, so readers never see a partially written file.
+     *
+     * @param file the file
+     * @param content the encoded content. The position of the buffer is not changed
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path file, ByteBuffer content) throws IOException {
+        writeAtomically(file, tempFile -> {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = content.duplicate();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        });
+    }
+
+    /**
+     * Writes, or replaces, a file with content that is streamed to a Writer, so the content never needs to be held in
+     * memory in full. Characters that cannot be encoded are replaced, exactly as they are by
+     * {@link #encode(String, String)}. The file is replaced atomically, as it is by {@link #write(Path, ByteBuffer)}.
+     *
+     * @param file the file
+     * @param fileEncoding the name of the encoding, or null for the platform default
+     * @param content writes the content
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path file, String fileEncoding, ContentWriter content) throws IOException {
+        Charset charset = charset(fileEncoding);
+        writeAtomically(file, tempFile -> {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(tempFile,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), charset))) {
+                content.writeTo(writer);
+            }
+        });
+    }
+
+    /**
+     * Writes a file to a temporary file next to it, and moves the temporary file over the file. If the file is a
+     * symbolic link, the file it points to is replaced and the link is kept. The permissions, owner, and ACL of an
+     * existing file are copied to the new file.
+     */
+    private static void writeAtomically(Path file, TempFileWriter tempFileWriter) throws IOException {
+        Path target = file;
+        if (Files.exists(target)) {
+            target = target.toRealPath();
+        } else if (Files.isSymbolicLink(target)) {
+            target = target.resolveSibling(Files.readSymbolicLink(target));
+        }
+
+        // not Files.createTempFile - that would restrict the permissions of the generated file
+        Path tempFile = target.resolveSibling("." + target.getFileName() + '.' //$NON-NLS-1$
+                + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp"); //$NON-NLS-1$
+        try {
+            tempFileWriter.writeTo(tempFile);
+            if (Files.exists(target)) {
+                copyAttributes(target, tempFile);
+            }
+
+            try {
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static void copyAttributes(Path from, Path to) throws IOException {
+        PosixFileAttributeView posixView = Files.getFileAttributeView(to, PosixFileAttributeView.class);
+        if (posixView != null) {
+            PosixFileAttributes attributes = Files.readAttributes(from, PosixFileAttributes.class);
+            posixView.setPermissions(attributes.permissions());
+            try {
+                posixView.setGroup(attributes.group());
+                posixView.setOwner(attributes.owner());
+            } catch (IOException e) {
+                // only a privileged user can give a file to another owner - the new file keeps the writer as owner
+            }
+        }
+
+        AclFileAttributeView aclView = Files.getFileAttributeView(to, AclFileAttributeView.class);
+        if (aclView != null) {
+            aclView.setAcl(Files.getFileAttributeView(from, AclFileAttributeView.class).getAcl());
+        }
+    }
+
+    /**
+     * Writes file content to a Writer.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        void writeTo(Writer writer) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface TempFileWriter {
+        void writeTo(Path tempFile) throws IOException;
+    }
+}
@@ -100,4 +100,17 @@ public class StringUtility {
 
         return s.indexOf('%') != -1 || s.indexOf('_') != -1;
     }
+
+    /**
+     * Calculates a key for case insensitive lookups. The keys of two strings are equal exactly when
+     * String.equalsIgnoreCase is true for them, so the key can be used in hash maps.
+     *
+     * @param s the string
+     * @return the key
+     */
+    public static String ignoreCaseKey(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        s.codePoints().forEach(cp -> sb.appendCodePoint(Character.toLowerCase(Character.toUpperCase(cp))));
+        return sb.toString();
+    }
 }
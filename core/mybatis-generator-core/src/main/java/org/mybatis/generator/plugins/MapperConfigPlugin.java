@@ -57,7 +57,8 @@ import org.mybatis.generator.codegen.XmlConstants;
  */
 public class MapperConfigPlugin extends PluginAdapter {
 
-    private final List<String> mapperFiles = new ArrayList<>();
+    // tables may be generated concurrently
+    private final List<String> mapperFiles = Collections.synchronizedList(new ArrayList<>());
 
     @Override
     public boolean validate(List<String> warnings) {
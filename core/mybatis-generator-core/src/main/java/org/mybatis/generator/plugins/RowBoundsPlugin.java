@@ -16,10 +16,10 @@
 package org.mybatis.generator.plugins;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.mybatis.generator.api.FullyQualifiedTable;
 import org.mybatis.generator.api.IntrospectedTable;
@@ -45,7 +45,8 @@ public class RowBoundsPlugin extends PluginAdapter {
 
     private final FullyQualifiedJavaType rowBounds =
             new FullyQualifiedJavaType("org.apache.ibatis.session.RowBounds"); //$NON-NLS-1$
-    private final Map<FullyQualifiedTable, List<XmlElement>> elementsToAdd = new HashMap<>();
+    // tables may be generated concurrently
+    private final Map<FullyQualifiedTable, List<XmlElement>> elementsToAdd = new ConcurrentHashMap<>();
 
     @Override
     public boolean validate(List<String> warnings) {
@@ -72,7 +72,7 @@ public class DynamicSqlSupportClassGenerator {
 
     private InnerClass buildInnerTableClass(TopLevelClass topLevelClass) {
         FullyQualifiedJavaType fqjt =
-                new FullyQualifiedJavaType(introspectedTable.getFullyQualifiedTable().getDomainObjectName());
+                FullyQualifiedJavaType.getInstance(introspectedTable.getFullyQualifiedTable().getDomainObjectName());
         InnerClass innerClass = new InnerClass(fqjt.getShortName());
         innerClass.setVisibility(JavaVisibility.PUBLIC);
         innerClass.setStatic(true);
@@ -96,7 +96,7 @@ public class DynamicSqlSupportClassGenerator {
 
     private Field calculateTableDefinition(TopLevelClass topLevelClass) {
         FullyQualifiedJavaType fqjt =
-                new FullyQualifiedJavaType(introspectedTable.getFullyQualifiedTable().getDomainObjectName());
+                FullyQualifiedJavaType.getInstance(introspectedTable.getFullyQualifiedTable().getDomainObjectName());
         String fieldName =
                 JavaBeansUtil.getValidPropertyName(introspectedTable.getFullyQualifiedTable().getDomainObjectName());
         Field field = new Field(fieldName, fqjt);
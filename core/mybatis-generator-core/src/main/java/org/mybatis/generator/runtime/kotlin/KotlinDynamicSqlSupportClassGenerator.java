@@ -53,7 +53,7 @@ public class KotlinDynamicSqlSupportClassGenerator {
 
     private void generate() {
         FullyQualifiedJavaType type =
-                new FullyQualifiedJavaType(introspectedTable.getMyBatisDynamicSqlSupportType());
+                FullyQualifiedJavaType.getInstance(introspectedTable.getMyBatisDynamicSqlSupportType());
 
         kotlinFile = buildBasicFile(type);
 
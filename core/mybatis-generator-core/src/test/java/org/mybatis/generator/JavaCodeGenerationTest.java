@@ -18,6 +18,7 @@ package org.mybatis.generator;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.ByteArrayInputStream;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -49,6 +50,15 @@ class JavaCodeGenerationTest {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("generateJavaFiles")
+    void testFormatToMatchesFormattedContent(GeneratedJavaFile generatedJavaFile) throws Exception {
+        StringWriter sw = new StringWriter();
+        generatedJavaFile.formatTo(sw);
+
+        assertEquals(generatedJavaFile.getFormattedContent(), sw.toString());
+    }
+
     static List<GeneratedJavaFile> generateJavaFiles() throws Exception {
         List<GeneratedJavaFile> generatedFiles = new ArrayList<>();
         generatedFiles.addAll(generateJavaFilesMybatis());
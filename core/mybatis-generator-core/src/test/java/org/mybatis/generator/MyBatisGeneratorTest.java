@@ -17,19 +17,56 @@ package org.mybatis.generator;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mybatis.generator.api.GeneratedFile;
+import org.mybatis.generator.api.IntellijMyBatisGenerator;
+import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.ProgressCallback;
+import org.mybatis.generator.api.ShellCallback;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.api.intellij.IntellijColumnInfo;
+import org.mybatis.generator.api.intellij.IntellijTableInfo;
+import org.mybatis.generator.config.CommentGeneratorConfiguration;
 import org.mybatis.generator.config.Configuration;
 import org.mybatis.generator.config.ConnectionFactoryConfiguration;
 import org.mybatis.generator.config.Context;
 import org.mybatis.generator.config.JDBCConnectionConfiguration;
 import org.mybatis.generator.config.ModelType;
+import org.mybatis.generator.config.PluginConfiguration;
+import org.mybatis.generator.config.PropertyRegistry;
 import org.mybatis.generator.config.xml.ConfigurationParser;
 import org.mybatis.generator.exception.InvalidConfigurationException;
 import org.mybatis.generator.internal.DefaultShellCallback;
+import org.mybatis.generator.internal.ObjectFactory;
+import org.mybatis.generator.internal.db.IntellijIntrospector;
+import org.mybatis.generator.plugins.MapperConfigPlugin;
 
 class MyBatisGeneratorTest {
 
@@ -87,4 +124,741 @@ class MyBatisGeneratorTest {
                 });
         assertEquals(3, e.getErrors().size());
     }
+
+    @Test
+    void testParallelGenerationMatchesSerialGeneration() throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        Properties contextProperties = new Properties();
+        contextProperties.setProperty(PropertyRegistry.CONTEXT_PARALLEL_GENERATION, "true");
+        contextProperties.setProperty(PropertyRegistry.CONTEXT_GENERATION_THREADS, "4");
+
+        List<String> serial = generateFileContents(new Properties(), false);
+        List<String> parallel = generateFileContents(contextProperties, false);
+
+        assertFalse(serial.isEmpty());
+        assertEquals(serial, parallel);
+    }
+
+    @Test
+    void testParallelGenerationKeepsPluginOrder() throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        List<String> serial = generateMapperConfigs(false);
+        assertFalse(serial.isEmpty());
+
+        // the mappers are collected by a plugin, so a wrong order shows only in some of the runs
+        for (int i = 0; i < 5; i++) {
+            assertEquals(serial, generateMapperConfigs(true));
+        }
+    }
+
+    @Test
+    void testParallelGenerationCallsPluginsOneAtATime() throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        ConcurrencyCheckPlugin.calls.set(0);
+        ConcurrencyCheckPlugin.overlapped = false;
+        generateFileContents(context -> {
+            PluginConfiguration pluginConfiguration = new PluginConfiguration();
+            pluginConfiguration.setConfigurationType(ConcurrencyCheckPlugin.class.getName());
+            context.addPluginConfiguration(pluginConfiguration);
+            context.addProperty(PropertyRegistry.CONTEXT_PARALLEL_GENERATION, "true");
+            context.addProperty(PropertyRegistry.CONTEXT_GENERATION_THREADS, "4");
+        }, myBatisGenerator -> { });
+
+        assertTrue(ConcurrencyCheckPlugin.calls.get() > 1);
+        assertFalse(ConcurrencyCheckPlugin.overlapped);
+    }
+
+    /**
+     * A plugin that is not thread safe, and records whether two calls ever overlap.
+     */
+    public static class ConcurrencyCheckPlugin extends PluginAdapter {
+        static final AtomicInteger calls = new AtomicInteger();
+        static volatile boolean overlapped;
+        private int active;
+
+        @Override
+        public boolean validate(List<String> warnings) {
+            return true;
+        }
+
+        @Override
+        public boolean modelBaseRecordClassGenerated(TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
+            calls.incrementAndGet();
+            if (active++ > 0) {
+                overlapped = true;
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            active--;
+            return true;
+        }
+    }
+
+    private List<String> generateMapperConfigs(boolean parallelGeneration) throws Exception {
+        List<String> contents = generateFileContents(context -> {
+            PluginConfiguration pluginConfiguration = new PluginConfiguration();
+            pluginConfiguration.setConfigurationType(MapperConfigPlugin.class.getName());
+            pluginConfiguration.addProperty("targetProject", "src");
+            pluginConfiguration.addProperty("targetPackage", context.getId());
+            context.addPluginConfiguration(pluginConfiguration);
+            context.addProperty(PropertyRegistry.CONTEXT_PARALLEL_GENERATION, Boolean.toString(parallelGeneration));
+            context.addProperty(PropertyRegistry.CONTEXT_GENERATION_THREADS, "4");
+        }, myBatisGenerator -> { });
+
+        // the mapper config files contain a timestamp, so only the mapper elements are compared
+        List<String> mappers = new ArrayList<>();
+        for (int i = 0; i < contents.size(); i += 2) {
+            if (contents.get(i).endsWith("/MapperConfig.xml")) {
+                for (String line : contents.get(i + 1).split("\\R")) {
+                    if (line.contains("<mapper ")) {
+                        mappers.add(contents.get(i) + line);
+                    }
+                }
+            }
+        }
+        return mappers;
+    }
+
+    @Test
+    void testParallelContextsMatchSerialGeneration() throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        List<String> serial = generateFileContents(new Properties(), false);
+        List<String> parallel = generateFileContents(new Properties(), true);
+
+        assertFalse(serial.isEmpty());
+        assertEquals(serial, parallel);
+    }
+
+    @Test
+    void testBulkIntrospectionMatchesPerTableIntrospection() throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        Properties contextProperties = new Properties();
+        contextProperties.setProperty(PropertyRegistry.CONTEXT_BULK_INTROSPECTION, "true");
+
+        List<String> perTable = generateFileContents(new Properties(), false);
+        List<String> bulk = generateFileContents(contextProperties, false);
+
+        assertFalse(perTable.isEmpty());
+        assertEquals(perTable, bulk);
+    }
+
+    @Test
+    void testIntrospectionCacheIsUsedUntilInvalidated(@TempDir Path tempDir) throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        Consumer<Context> useCacheFile = context -> context.addProperty(
+                PropertyRegistry.CONTEXT_INTROSPECTION_CACHE_FILE,
+                tempDir.resolve(context.getId() + ".cache").toString());
+        // the result does not change when the tables are dropped below
+        Consumer<Context> useCache = useCacheFile.andThen(context -> context.addProperty(
+                PropertyRegistry.CONTEXT_INTROSPECTION_CACHE_FINGERPRINT_QUERY,
+                "select count(*) from information_schema.schemata where schema_name = 'INFORMATION_SCHEMA'"));
+
+        // without a fingerprint query schema changes would go unnoticed, so the cache is not used
+        generateFileContents(useCacheFile, myBatisGenerator -> { });
+        assertFalse(Files.exists(tempDir.resolve("FlatJava5.cache")));
+
+        List<String> expected = generateFileContents(new Properties(), false);
+        List<String> cold = generateFileContents(useCache, myBatisGenerator -> { });
+        assertEquals(expected, cold);
+        assertTrue(Files.exists(tempDir.resolve("FlatJava5.cache")));
+
+        // the tables are gone, but the cached metadata is still used
+        try (Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:aname", "sa", "");
+                Statement statement = connection.createStatement()) {
+            statement.execute("drop schema public cascade");
+            statement.execute("drop schema mbgtest cascade");
+        }
+
+        try {
+            List<String> warm = generateFileContents(useCache, myBatisGenerator -> { });
+            assertEquals(expected, warm);
+
+            List<String> invalidated = generateFileContents(useCache,
+                    myBatisGenerator -> myBatisGenerator.setInvalidateIntrospectionCache(true));
+            assertTrue(invalidated.isEmpty());
+        } finally {
+            JavaCodeGenerationTest.createDatabase();
+        }
+    }
+
+    @Test
+    void testIntrospectionCacheFileIsSharedByParallelContexts(@TempDir Path tempDir) throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        Path cacheFile = tempDir.resolve("shared.cache");
+        Consumer<Context> useCache = context -> {
+            context.addProperty(PropertyRegistry.CONTEXT_INTROSPECTION_CACHE_FILE, cacheFile.toString());
+            context.addProperty(PropertyRegistry.CONTEXT_INTROSPECTION_CACHE_FINGERPRINT_QUERY,
+                    "select count(*) from information_schema.schemata where schema_name = 'INFORMATION_SCHEMA'");
+        };
+
+        List<String> expected = generateFileContents(new Properties(), false);
+        assertEquals(expected, generateFileContents(useCache,
+                myBatisGenerator -> myBatisGenerator.setParallelContexts(true)));
+
+        // every context finds its own metadata in the shared file
+        try (Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:aname", "sa", "");
+                Statement statement = connection.createStatement()) {
+            statement.execute("drop schema public cascade");
+            statement.execute("drop schema mbgtest cascade");
+        }
+
+        try {
+            assertEquals(expected, generateFileContents(useCache,
+                    myBatisGenerator -> myBatisGenerator.setParallelContexts(true)));
+        } finally {
+            JavaCodeGenerationTest.createDatabase();
+        }
+    }
+
+    @Test
+    void testIncrementalGenerationSkipsUnchangedTables(@TempDir Path tempDir) throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        File manifest = tempDir.resolve("manifest").toFile();
+        Path outputDirectory = tempDir.resolve("output");
+
+        MyBatisGenerator cold = generateToDirectory(outputDirectory, myBatisGenerator -> myBatisGenerator.setIncrementalManifest(manifest));
+        assertFalse(cold.getGeneratedJavaFiles().isEmpty());
+
+        List<Path> writtenFiles;
+        try (Stream<Path> paths = Files.walk(outputDirectory)) {
+            writtenFiles = paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        FileTime past = FileTime.fromMillis(0);
+        for (Path writtenFile : writtenFiles) {
+            Files.setLastModifiedTime(writtenFile, past);
+        }
+
+        // nothing changed - nothing is generated or written
+        MyBatisGenerator warm = generateToDirectory(outputDirectory, myBatisGenerator -> myBatisGenerator.setIncrementalManifest(manifest));
+        assertTrue(warm.getGeneratedJavaFiles().isEmpty());
+        assertTrue(warm.getGeneratedXmlFiles().isEmpty());
+
+        // settings that only change how the generator runs are not part of the fingerprint
+        MyBatisGenerator rerun = generateToDirectory(outputDirectory, myBatisGenerator -> {
+            myBatisGenerator.setIncrementalManifest(manifest);
+            myBatisGenerator.setInvalidateIntrospectionCache(true);
+            myBatisGenerator.setParallelContexts(true);
+            myBatisGenerator.setWriteThreads(4);
+        });
+        assertTrue(rerun.getGeneratedJavaFiles().isEmpty());
+        assertTrue(rerun.getGeneratedXmlFiles().isEmpty());
+
+        // a deleted file is generated again, unchanged files of the same table are not rewritten
+        Path deletedFile = writtenFiles.get(0);
+        Files.delete(deletedFile);
+        MyBatisGenerator afterDelete = generateToDirectory(outputDirectory, myBatisGenerator -> myBatisGenerator.setIncrementalManifest(manifest));
+        assertFalse(afterDelete.getGeneratedJavaFiles().isEmpty() && afterDelete.getGeneratedXmlFiles().isEmpty());
+        assertTrue(Files.exists(deletedFile));
+
+        for (Path writtenFile : writtenFiles) {
+            if (!writtenFile.equals(deletedFile)) {
+                assertEquals(past, Files.getLastModifiedTime(writtenFile), writtenFile.toString());
+            }
+        }
+    }
+
+    @Test
+    void testIncrementalGenerationRetriesFailedMerges(@TempDir Path tempDir) throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        File manifest = tempDir.resolve("manifest").toFile();
+        Path outputDirectory = tempDir.resolve("output");
+        generateToDirectory(outputDirectory, true, myBatisGenerator -> myBatisGenerator.setIncrementalManifest(manifest));
+
+        Map<Path, String> files = readFiles(outputDirectory);
+        Path broken = files.keySet().stream()
+                .filter(path -> path.toString().endsWith(".java") && files.get(path).contains("@mbg.generated"))
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+        // the existing file cannot be parsed, so the merge fails
+        Files.write(outputDirectory.resolve(broken),
+                (files.get(broken) + "}}").getBytes(StandardCharsets.UTF_8));
+
+        MyBatisGenerator failed = generateToDirectory(outputDirectory, true,
+                myBatisGenerator -> myBatisGenerator.setIncrementalManifest(manifest));
+        assertFalse(failed.getGeneratedJavaFiles().isEmpty());
+
+        // the table of the file that failed is generated again
+        MyBatisGenerator retried = generateToDirectory(outputDirectory, true,
+                myBatisGenerator -> myBatisGenerator.setIncrementalManifest(manifest));
+        String brokenName = broken.getFileName().toString();
+        assertTrue(retried.getGeneratedJavaFiles().stream()
+                .anyMatch(generatedFile -> generatedFile.getFileName().equals(brokenName)));
+    }
+
+    @Test
+    void testPipelinedGenerationMatchesSerialGeneration() throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        List<String> serial = generateFileContents(context -> { }, myBatisGenerator -> { });
+        List<String> pipelined = generateFileContents(context -> { },
+                myBatisGenerator -> myBatisGenerator.setPipelined(true));
+
+        assertFalse(serial.isEmpty());
+        assertEquals(serial, pipelined);
+    }
+
+    @Test
+    void testPipelinedGenerationWritesSameFiles(@TempDir Path tempDir) throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        Path serialDirectory = tempDir.resolve("serial");
+        Path pipelinedDirectory = tempDir.resolve("pipelined");
+        generateToDirectory(serialDirectory, myBatisGenerator -> { });
+        MyBatisGenerator pipelined = generateToDirectory(pipelinedDirectory,
+                myBatisGenerator -> myBatisGenerator.setPipelined(true));
+
+        // written files are not kept in memory
+        assertTrue(pipelined.getGeneratedJavaFiles().isEmpty());
+
+        Map<Path, String> serialFiles = readFiles(serialDirectory);
+        assertFalse(serialFiles.isEmpty());
+        assertEquals(serialFiles, readFiles(pipelinedDirectory));
+    }
+
+    @Test
+    void testParallelWritesMatchSerialWrites(@TempDir Path tempDir) throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        Path serialDirectory = tempDir.resolve("serial");
+        Path parallelDirectory = tempDir.resolve("parallel");
+        generateToDirectory(serialDirectory, myBatisGenerator -> { });
+        generateToDirectory(parallelDirectory, myBatisGenerator -> myBatisGenerator.setWriteThreads(4));
+
+        Map<Path, String> serialFiles = readFiles(serialDirectory);
+        assertFalse(serialFiles.isEmpty());
+        assertEquals(serialFiles, readFiles(parallelDirectory));
+    }
+
+    @Test
+    void testConcurrentContextsReserveUniqueFileNames(@TempDir Path tempDir) throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        // some contexts share packages, so without overwrite their files are written to unique file names
+        Path serialDirectory = tempDir.resolve("serial");
+        Path concurrentDirectory = tempDir.resolve("concurrent");
+        for (int i = 0; i < 2; i++) {
+            generateToDirectory(serialDirectory, false, false, myBatisGenerator -> { });
+            generateToDirectory(concurrentDirectory, false, false, myBatisGenerator -> {
+                myBatisGenerator.setParallelContexts(true);
+                myBatisGenerator.setPipelined(true);
+                myBatisGenerator.setWriteThreads(4);
+            });
+        }
+
+        Set<Path> serialFiles = readFiles(serialDirectory).keySet();
+        assertTrue(serialFiles.stream().anyMatch(path -> path.toString().endsWith(".java.1")));
+        assertEquals(serialFiles, readFiles(concurrentDirectory).keySet());
+    }
+
+    @Test
+    void testStreamingXmlMergeKeepsCustomElements(@TempDir Path tempDir) throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        generateToDirectory(tempDir, myBatisGenerator -> { });
+        Map<Path, String> files = readFiles(tempDir);
+        // batch inserts are generated without the generated marker, so they would be merged as custom elements
+        Path mapper = files.keySet().stream()
+                .filter(path -> path.toString().endsWith(".xml") && !files.get(path).contains("batchInsert"))
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+        String content = files.get(mapper);
+        int end = content.lastIndexOf("</mapper>");
+        String customized = content.substring(0, end)
+                + "  <select id=\"selectCustom\"   resultType=\"int\">\r\n    select 1 &lt; 2\r\n  </select>\r\n"
+                + content.substring(end);
+        Files.write(tempDir.resolve(mapper), customized.getBytes(StandardCharsets.UTF_8));
+
+        generateToDirectory(tempDir, myBatisGenerator -> myBatisGenerator.setStreamingXmlMerge(true));
+
+        assertEquals(customized, readFiles(tempDir).get(mapper));
+    }
+
+    @Test
+    void testStreamingXmlMergeWithIncrementalGeneration(@TempDir Path tempDir) throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        File manifest = tempDir.resolve("manifest").toFile();
+        Path outputDirectory = tempDir.resolve("output");
+        generateToDirectory(outputDirectory, myBatisGenerator -> myBatisGenerator.setIncrementalManifest(manifest));
+        Map<Path, String> files = readFiles(outputDirectory);
+        Path mapper = files.keySet().stream()
+                .filter(path -> path.toString().endsWith(".xml") && !files.get(path).contains("batchInsert"))
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+        String content = files.get(mapper);
+        int end = content.lastIndexOf("</mapper>");
+        String customized = content.substring(0, end)
+                + "  <select id=\"selectCustom\" resultType=\"int\">\r\n    select 1\r\n  </select>\r\n"
+                + content.substring(end);
+        // remove a generated line, so the file has to be merged
+        int result = customized.indexOf("<result ");
+        String damaged = customized.substring(0, result) + customized.substring(customized.indexOf('>', result) + 1);
+        Files.write(outputDirectory.resolve(mapper), damaged.getBytes(StandardCharsets.UTF_8));
+
+        MyBatisGenerator merged = generateToDirectory(outputDirectory, myBatisGenerator -> {
+            myBatisGenerator.setIncrementalManifest(manifest);
+            myBatisGenerator.setStreamingXmlMerge(true);
+        });
+        assertFalse(merged.getGeneratedXmlFiles().isEmpty());
+        assertEquals(customized, readFiles(outputDirectory).get(mapper));
+
+        // the manifest records the merged file, so nothing is generated again
+        MyBatisGenerator warm = generateToDirectory(outputDirectory, myBatisGenerator -> {
+            myBatisGenerator.setIncrementalManifest(manifest);
+            myBatisGenerator.setStreamingXmlMerge(true);
+        });
+        assertTrue(warm.getGeneratedXmlFiles().isEmpty());
+        assertEquals(customized, readFiles(outputDirectory).get(mapper));
+    }
+
+    @Test
+    void testJavaMergeKeepsCustomMembers(@TempDir Path tempDir) throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        generateToDirectory(tempDir, myBatisGenerator -> { });
+        Map<Path, String> customizedFiles = new HashMap<>();
+        for (Map.Entry<Path, String> file : readFiles(tempDir).entrySet()) {
+            // with suppressed comments, nothing is marked as generated and every member would be duplicated
+            if (file.getKey().toString().endsWith(".java") && file.getValue().contains("@mbg.generated")) {
+                String content = file.getValue();
+                int end = content.lastIndexOf('}');
+                String customized = content.substring(0, end)
+                        + "\r\n    // custom method\r\n    int  customMethod() { return 1; }\r\n"
+                        + content.substring(end);
+                Files.write(tempDir.resolve(file.getKey()), customized.getBytes(StandardCharsets.UTF_8));
+                customizedFiles.put(file.getKey(), customized);
+            }
+        }
+        assertFalse(customizedFiles.isEmpty());
+
+        generateToDirectory(tempDir, true, myBatisGenerator -> myBatisGenerator.setMergeThreads(4));
+
+        Map<Path, String> files = readFiles(tempDir);
+        for (Map.Entry<Path, String> file : customizedFiles.entrySet()) {
+            if (file.getValue().contains("do_not_delete_during_merge")) {
+                // the criteria class is kept, so it ends up after the generated members
+                assertEquals(file.getValue().length(), files.get(file.getKey()).length());
+            } else {
+                assertEquals(file.getValue(), files.get(file.getKey()), file.getKey().toString());
+            }
+        }
+        assertFalse(files.keySet().stream().anyMatch(path -> path.toString().endsWith(".java.1")));
+
+        FileTime past = FileTime.fromMillis(0);
+        for (Path path : customizedFiles.keySet()) {
+            Files.setLastModifiedTime(tempDir.resolve(path), past);
+        }
+
+        generateToDirectory(tempDir, true, myBatisGenerator -> { });
+
+        // the merge leaves the files unchanged, so they are not written again
+        Map<Path, String> remergedFiles = readFiles(tempDir);
+        for (Path path : customizedFiles.keySet()) {
+            assertEquals(files.get(path), remergedFiles.get(path), path.toString());
+            assertEquals(past, Files.getLastModifiedTime(tempDir.resolve(path)), path.toString());
+        }
+    }
+
+    @Test
+    void testMergeIsSkippedWhenGeneratedSectionsMatch(@TempDir Path tempDir) throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        generateToDirectory(tempDir, myBatisGenerator -> { });
+        Map<Path, String> files = readFiles(tempDir);
+        // batch inserts are generated without the generated marker, so they would be merged as custom elements
+        Path mapper = files.keySet().stream()
+                .filter(path -> path.toString().endsWith(".xml") && !files.get(path).contains("batchInsert"))
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+        String content = files.get(mapper);
+        int end = content.lastIndexOf("</mapper>");
+        String customized = content.substring(0, end)
+                + "  <select id=\"selectCustom\"   resultType=\"int\">\r\n    select 1\r\n  </select>\r\n"
+                + content.substring(end);
+        Files.write(tempDir.resolve(mapper), customized.getBytes(StandardCharsets.UTF_8));
+        FileTime past = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(tempDir.resolve(mapper), past);
+
+        generateToDirectory(tempDir, myBatisGenerator -> { });
+
+        assertEquals(past, Files.getLastModifiedTime(tempDir.resolve(mapper)));
+        assertEquals(customized, readFiles(tempDir).get(mapper));
+    }
+
+    @Test
+    void testParallelMergesMatchSerialMerges(@TempDir Path tempDir) throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        Path serialDirectory = tempDir.resolve("serial");
+        Path parallelDirectory = tempDir.resolve("parallel");
+        for (Path directory : Arrays.asList(serialDirectory, parallelDirectory)) {
+            generateToDirectory(directory, myBatisGenerator -> { });
+            for (Map.Entry<Path, String> file : readFiles(directory).entrySet()) {
+                if (file.getKey().toString().endsWith(".xml")) {
+                    // a changed root element makes the merge necessary
+                    String content = file.getValue().replace("<mapper namespace=\"", "<mapper namespace=\"old.");
+                    Files.write(directory.resolve(file.getKey()), content.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        generateToDirectory(serialDirectory, myBatisGenerator -> { });
+        generateToDirectory(parallelDirectory, myBatisGenerator -> myBatisGenerator.setMergeThreads(4));
+
+        Map<Path, String> serialFiles = readFiles(serialDirectory);
+        assertFalse(serialFiles.isEmpty());
+        assertFalse(serialFiles.values().stream().anyMatch(content -> content.contains("namespace=\"old.")));
+        assertEquals(serialFiles, readFiles(parallelDirectory));
+    }
+
+    private Map<Path, String> readFiles(Path directory) throws Exception {
+        Map<Path, String> answer = new TreeMap<>();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                answer.put(directory.relativize(path), new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+            }
+        }
+        return answer;
+    }
+
+    @Test
+    void testIntellijTablesMatchDatabaseIntrospection() throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        List<IntellijTableInfo> intellijTables = readIntellijTables();
+
+        List<String> database = generateFlatContext(context -> { },
+                myBatisGenerator -> myBatisGenerator.generate(null, Collections.singleton("FlatJava5"), null, false));
+        List<String> intellij = generateFlatContext(context -> { }, myBatisGenerator -> {
+            myBatisGenerator.setIntellijTables(intellijTables);
+            myBatisGenerator.generate(null, Collections.singleton("FlatJava5"), null, false);
+        });
+
+        assertFalse(database.isEmpty());
+        assertEquals(database, intellij);
+    }
+
+    @Test
+    void testIntellijBatchGenerationMatchesDatabaseIntrospection() throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        List<IntellijTableInfo> intellijTables = readIntellijTables();
+
+        List<String> database = generateFlatContext(context -> { },
+                myBatisGenerator -> myBatisGenerator.generate(null, Collections.singleton("FlatJava5"), null, false));
+        List<String> batch = generateFlatContext(
+                context -> context.addProperty(PropertyRegistry.CONTEXT_PARALLEL_GENERATION, "true"),
+                myBatisGenerator -> myBatisGenerator.generate(null, Collections.singleton("FlatJava5"), null, false,
+                        intellijTables));
+
+        assertFalse(database.isEmpty());
+        assertEquals(database, batch);
+    }
+
+    /**
+     * Reads the tables of the test database the way the IntelliJ plugin supplies them.
+     */
+    @Test
+    @SuppressWarnings("deprecation")
+    void testDeprecatedIntellijIntrospectionUsesTheSharedIntrospector() throws Exception {
+        JavaCodeGenerationTest.createDatabase();
+
+        List<String> warnings = new ArrayList<>();
+        ConfigurationParser cp = new ConfigurationParser(warnings);
+        Configuration config = cp.parseConfiguration(this.getClass().getResourceAsStream("/scripts/generatorConfig.xml"));
+        Context context = config.getContexts().stream()
+                .filter(c -> c.getId().equals("FlatJava5"))
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+        IntellijTableInfo tableInfo = readIntellijTables().get(0);
+
+        // the one table is used for every table configuration
+        context.introspectIntellijTables(new ProgressCallback() { }, warnings, null, tableInfo);
+        assertFalse(context.getIntrospectedTables().isEmpty());
+        assertNull(context.getIntellijTables());
+
+        IntrospectedTable introspectedTable = context.getIntrospectedTables().get(0);
+        List<IntrospectedTable> tables = new IntellijIntrospector(context,
+                ObjectFactory.createJavaTypeResolver(context, warnings), warnings, tableInfo)
+                .introspectTables(introspectedTable.getTableConfiguration());
+        assertEquals(1, tables.size());
+        assertEquals(introspectedTable.getFullyQualifiedTable().toString(),
+                tables.get(0).getFullyQualifiedTable().toString());
+    }
+
+    private List<IntellijTableInfo> readIntellijTables() throws Exception {
+        List<IntellijTableInfo> answer = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:aname", "sa", "")) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet tables = metaData.getTables(null, "PUBLIC", "%", null)) {
+                while (tables.next()) {
+                    IntellijTableInfo tableInfo = new IntellijTableInfo();
+                    tableInfo.setTableName(tables.getString("TABLE_NAME"));
+                    tableInfo.setTableRemark(tables.getString("REMARKS"));
+                    tableInfo.setTableType(tables.getString("TABLE_TYPE"));
+                    tableInfo.setColumnInfos(new ArrayList<>());
+                    tableInfo.setPrimaryKeyColumns(new ArrayList<>());
+                    answer.add(tableInfo);
+                }
+            }
+
+            for (IntellijTableInfo tableInfo : answer) {
+                try (ResultSet columns = metaData.getColumns(null, "PUBLIC", tableInfo.getTableName(), "%")) {
+                    while (columns.next()) {
+                        IntellijColumnInfo columnInfo = new IntellijColumnInfo();
+                        columnInfo.setName(columns.getString("COLUMN_NAME"));
+                        columnInfo.setDataType(columns.getInt("DATA_TYPE"));
+                        columnInfo.setSize(columns.getInt("COLUMN_SIZE"));
+                        columnInfo.setDecimalDigits(columns.getInt("DECIMAL_DIGITS"));
+                        columnInfo.setNullable(columns.getInt("NULLABLE") == DatabaseMetaData.columnNullable);
+                        columnInfo.setRemarks(columns.getString("REMARKS"));
+                        columnInfo.setColumnDefaultValue(columns.getString("COLUMN_DEF"));
+                        columnInfo.setAutoIncrement("YES".equals(columns.getString("IS_AUTOINCREMENT")));
+                        columnInfo.setGeneratedColumn("YES".equals(columns.getString("IS_GENERATEDCOLUMN")));
+                        tableInfo.getColumnInfos().add(columnInfo);
+                    }
+                }
+
+                try (ResultSet primaryKeys = metaData.getPrimaryKeys(null, "PUBLIC", tableInfo.getTableName())) {
+                    while (primaryKeys.next()) {
+                        IntellijColumnInfo columnInfo = new IntellijColumnInfo();
+                        columnInfo.setName(primaryKeys.getString("COLUMN_NAME"));
+                        columnInfo.setKeySeq(primaryKeys.getShort("KEY_SEQ"));
+                        tableInfo.getPrimaryKeyColumns().add(columnInfo);
+                    }
+                }
+            }
+        }
+        return answer;
+    }
+
+    private List<String> generateFlatContext(Consumer<Context> contextCustomizer, GenerateAction generateAction)
+            throws Exception {
+        List<String> warnings = new ArrayList<>();
+        ConfigurationParser cp = new ConfigurationParser(warnings);
+        Configuration config = cp.parseConfiguration(this.getClass().getResourceAsStream("/scripts/generatorConfig.xml"));
+
+        for (Context context : config.getContexts()) {
+            CommentGeneratorConfiguration commentGeneratorConfiguration = new CommentGeneratorConfiguration();
+            commentGeneratorConfiguration.addProperty(PropertyRegistry.COMMENT_GENERATOR_SUPPRESS_DATE, "true");
+            context.setCommentGeneratorConfiguration(commentGeneratorConfiguration);
+            contextCustomizer.accept(context);
+        }
+
+        IntellijMyBatisGenerator myBatisGenerator = new IntellijMyBatisGenerator(config,
+                new DefaultShellCallback(true), warnings);
+        generateAction.generate(myBatisGenerator);
+
+        List<GeneratedFile> generatedFiles = new ArrayList<>();
+        generatedFiles.addAll(myBatisGenerator.getGeneratedJavaFiles());
+        generatedFiles.addAll(myBatisGenerator.getGeneratedXmlFiles());
+
+        List<String> contents = new ArrayList<>();
+        for (GeneratedFile generatedFile : generatedFiles) {
+            contents.add(generatedFile.getTargetPackage() + "/" + generatedFile.getFileName());
+            contents.add(generatedFile.getFormattedContent());
+        }
+        contents.addAll(warnings);
+        return contents;
+    }
+
+    private MyBatisGenerator generateToDirectory(Path outputDirectory, Consumer<MyBatisGenerator> generatorCustomizer)
+            throws Exception {
+        return generateToDirectory(outputDirectory, false, generatorCustomizer);
+    }
+
+    private MyBatisGenerator generateToDirectory(Path outputDirectory, boolean mergeJava,
+            Consumer<MyBatisGenerator> generatorCustomizer) throws Exception {
+        return generateToDirectory(outputDirectory, true, mergeJava, generatorCustomizer);
+    }
+
+    private MyBatisGenerator generateToDirectory(Path outputDirectory, boolean overwrite, boolean mergeJava,
+            Consumer<MyBatisGenerator> generatorCustomizer) throws Exception {
+        List<String> warnings = new ArrayList<>();
+        ConfigurationParser cp = new ConfigurationParser(warnings);
+        Configuration config = cp.parseConfiguration(this.getClass().getResourceAsStream("/scripts/generatorConfig.xml"));
+
+        for (Context context : config.getContexts()) {
+            CommentGeneratorConfiguration commentGeneratorConfiguration = context.getCommentGeneratorConfiguration();
+            if (commentGeneratorConfiguration == null) {
+                commentGeneratorConfiguration = new CommentGeneratorConfiguration();
+                context.setCommentGeneratorConfiguration(commentGeneratorConfiguration);
+            }
+            commentGeneratorConfiguration.addProperty(PropertyRegistry.COMMENT_GENERATOR_SUPPRESS_DATE, "true");
+        }
+
+        ShellCallback shellCallback = new DefaultShellCallback(overwrite, mergeJava) {
+            @Override
+            public File getDirectory(String targetProject, String targetPackage) {
+                File directory = outputDirectory.resolve(targetPackage.replace('.', '/')).toFile();
+                directory.mkdirs();
+                return directory;
+            }
+        };
+
+        MyBatisGenerator myBatisGenerator = new MyBatisGenerator(config, shellCallback, warnings);
+        generatorCustomizer.accept(myBatisGenerator);
+        myBatisGenerator.generate(null, null, null);
+        return myBatisGenerator;
+    }
+
+    private List<String> generateFileContents(Properties contextProperties, boolean parallelContexts)
+            throws Exception {
+        return generateFileContents(context -> {
+            for (String name : contextProperties.stringPropertyNames()) {
+                context.addProperty(name, contextProperties.getProperty(name));
+            }
+        }, myBatisGenerator -> myBatisGenerator.setParallelContexts(parallelContexts));
+    }
+
+    private List<String> generateFileContents(Consumer<Context> contextCustomizer,
+            Consumer<MyBatisGenerator> generatorCustomizer) throws Exception {
+        List<String> warnings = new ArrayList<>();
+        ConfigurationParser cp = new ConfigurationParser(warnings);
+        Configuration config = cp.parseConfiguration(this.getClass().getResourceAsStream("/scripts/generatorConfig.xml"));
+
+        for (Context context : config.getContexts()) {
+            // the timestamp in generated comments would make the two runs differ
+            CommentGeneratorConfiguration commentGeneratorConfiguration = context.getCommentGeneratorConfiguration();
+            if (commentGeneratorConfiguration == null) {
+                commentGeneratorConfiguration = new CommentGeneratorConfiguration();
+                context.setCommentGeneratorConfiguration(commentGeneratorConfiguration);
+            }
+            commentGeneratorConfiguration.addProperty(PropertyRegistry.COMMENT_GENERATOR_SUPPRESS_DATE, "true");
+
+            contextCustomizer.accept(context);
+        }
+
+        MyBatisGenerator myBatisGenerator = new MyBatisGenerator(config, new DefaultShellCallback(true), warnings);
+        generatorCustomizer.accept(myBatisGenerator);
+        myBatisGenerator.generate(null, null, null, false);
+
+        List<GeneratedFile> generatedFiles = new ArrayList<>();
+        generatedFiles.addAll(myBatisGenerator.getGeneratedJavaFiles());
+        generatedFiles.addAll(myBatisGenerator.getGeneratedXmlFiles());
+
+        List<String> contents = new ArrayList<>();
+        for (GeneratedFile generatedFile : generatedFiles) {
+            contents.add(generatedFile.getTargetPackage() + "/" + generatedFile.getFileName());
+            contents.add(generatedFile.getFormattedContent());
+        }
+        return contents;
+    }
+
+    @FunctionalInterface
+    private interface GenerateAction {
+        void generate(IntellijMyBatisGenerator myBatisGenerator) throws Exception;
+    }
 }
@@ -19,19 +19,31 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mybatis.generator.api.GeneratedXmlFile;
 import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.api.dom.xml.render.DocumentRenderer;
+import org.mybatis.generator.api.dom.xml.render.ElementRenderer;
 import org.mybatis.generator.config.Configuration;
 import org.mybatis.generator.config.xml.ConfigurationParser;
 import org.mybatis.generator.internal.DefaultShellCallback;
+import org.mybatis.generator.internal.XmlFileMergerJaxp;
 import org.xml.sax.EntityResolver;
 import org.xml.sax.ErrorHandler;
 import org.xml.sax.InputSource;
@@ -57,6 +69,57 @@ class XmlCodeGenerationTest {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("generateXmlFiles")
+    void testStreamingRenderingMatchesElementRenderer(GeneratedXmlFile generatedXmlFile) throws Exception {
+        Document document = generatedXmlFile.getDocument();
+        String expected = Stream.of(Stream.of("<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+                        "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" "
+                                + "\"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">"),
+                document.getRootElement().accept(new ElementRenderer()))
+                .flatMap(Function.identity())
+                .collect(Collectors.joining(System.getProperty("line.separator")));
+
+        StringWriter sw = new StringWriter();
+        new DocumentRenderer().render(document, sw);
+        assertEquals(expected, sw.toString());
+    }
+
+    @ParameterizedTest
+    @MethodSource("generateXmlFiles")
+    void testDocumentMergeMatchesContentMerge(GeneratedXmlFile generatedXmlFile) throws Exception {
+        String newContent = generatedXmlFile.getFormattedContent();
+        int end = newContent.lastIndexOf("</mapper>");
+        String existingContent = newContent.substring(0, end)
+                + "  <select id=\"selectCustom\" resultType=\"java.lang.Integer\">select count(*) from FOO</select>\n"
+                + newContent.substring(end);
+
+        String expected = XmlFileMergerJaxp.getMergedSource(new InputSource(new StringReader(newContent)),
+                new InputSource(new StringReader(existingContent)), generatedXmlFile.getFileName());
+        String mergedSource = XmlFileMergerJaxp.getMergedSource(generatedXmlFile.getDocument(),
+                new InputSource(new StringReader(existingContent)), generatedXmlFile.getFileName());
+        assertEquals(expected, mergedSource);
+    }
+
+    @Test
+    void testAttributesAreSortedWhenRendered() {
+        XmlElement root = new XmlElement("mapper");
+        XmlElement select = new XmlElement("select");
+        select.addAttribute(new Attribute("resultType", "int"));
+        select.addAttribute(new Attribute("id", "count"));
+        root.addElement(select);
+
+        // the element keeps the order the attributes were added in
+        assertEquals("resultType", select.getAttributes().get(0).getName());
+        assertEquals("id", select.getAttributes().get(1).getName());
+
+        Document document = new Document();
+        document.setRootElement(root);
+        assertTrue(new DocumentRenderer().render(document).endsWith("<select id=\"count\" resultType=\"int\" />"
+                + System.getProperty("line.separator") + "</mapper>"));
+        assertEquals("resultType", select.getAttributes().get(0).getName());
+    }
+
     static List<GeneratedXmlFile> generateXmlFiles() throws Exception {
         List<GeneratedXmlFile> generatedFiles = new ArrayList<>();
         generatedFiles.addAll(generateXmlFilesMybatis());
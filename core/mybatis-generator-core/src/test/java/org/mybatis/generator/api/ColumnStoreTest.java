@@ -0,0 +1,118 @@
+/*
+ *    Copyright 2006-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class ColumnStoreTest {
+
+    @Test
+    void testColumnViews() {
+        ColumnStore store = new ColumnStore();
+        IntrospectedColumn id = column("ID", "INTEGER", false);
+        IntrospectedColumn name = column("NAME", "VARCHAR", false);
+        IntrospectedColumn data = column("DATA", "BLOB", false);
+        IntrospectedColumn code = column("CODE", "CHAR", false);
+        store.addColumn(id);
+        store.addColumn(name);
+        store.addColumn(data);
+        store.addColumn(code);
+        store.addPrimaryKeyColumn("ID");
+
+        assertThat(store.getPrimaryKeyColumns()).containsExactly(id);
+        assertThat(store.getBaseColumns()).containsExactly(name, code);
+        assertThat(store.getBLOBColumns()).containsExactly(data);
+        assertThat(store.getAllColumns()).containsExactly(id, name, code, data);
+        assertThat(store.getNonBLOBColumns()).containsExactly(id, name, code);
+        assertThat(store.getNonPrimaryKeyColumns()).containsExactly(name, code, data);
+        assertThat(store.getAllColumns()).isSameAs(store.getAllColumns());
+        assertThrows(UnsupportedOperationException.class, () -> store.getAllColumns().remove(0));
+
+        // a blob primary key column
+        store.addPrimaryKeyColumn("DATA");
+        assertThat(store.getPrimaryKeyColumns()).containsExactly(id, data);
+        assertThat(store.getBLOBColumns()).isEmpty();
+        assertThat(store.getAllColumns()).containsExactly(id, data, name, code);
+    }
+
+    @Test
+    void testChangedColumnLists() {
+        ColumnStore store = new ColumnStore();
+        IntrospectedColumn id = column("ID", "INTEGER", false);
+        IntrospectedColumn name = column("NAME", "VARCHAR", false);
+        IntrospectedColumn code = column("CODE", "CHAR", false);
+        IntrospectedColumn data = column("DATA", "BLOB", false);
+        store.addColumn(id);
+        store.addColumn(name);
+        store.addColumn(code);
+        store.addColumn(data);
+        store.addPrimaryKeyColumn("ID");
+        assertThat(store.getAllColumns()).containsExactly(id, name, code, data);
+
+        // plugins may change the lists directly
+        store.getBaseColumns().remove(name);
+        assertThat(store.getAllColumns()).containsExactly(id, code, data);
+        assertThat(store.getColumn("NAME")).isEmpty();
+
+        IntrospectedColumn renamed = column("RENAMED", "CHAR", false);
+        store.getBaseColumns().subList(0, 1).set(0, renamed);
+        assertThat(store.getNonBLOBColumns()).containsExactly(id, renamed);
+        assertThat(store.getColumn("renamed")).containsSame(renamed);
+
+        store.getBLOBColumns().clear();
+        store.getBaseColumns().add(code);
+        store.getBaseColumns().sort((a, b) -> a.getActualColumnName().compareTo(b.getActualColumnName()));
+        assertThat(store.getNonPrimaryKeyColumns()).containsExactly(code, renamed);
+
+        // columns added directly are found as primary key columns
+        store.addPrimaryKeyColumn("CODE");
+        assertThat(store.getPrimaryKeyColumns()).containsExactly(id, code);
+        assertThat(store.getAllColumns()).containsExactly(id, code, renamed);
+    }
+
+    @Test
+    void testGetColumn() {
+        ColumnStore store = new ColumnStore();
+        IntrospectedColumn delimited = column("Name", "VARCHAR", true);
+        IntrospectedColumn undelimited = column("NAME", "VARCHAR", false);
+        IntrospectedColumn other = column("other", "VARCHAR", false);
+        store.addColumn(delimited);
+        store.addColumn(undelimited);
+        store.addColumn(other);
+
+        assertThat(store.getColumn("Name")).containsSame(delimited);
+        assertThat(store.getColumn("name")).containsSame(undelimited);
+        assertThat(store.getColumn("NAME")).containsSame(undelimited);
+        assertThat(store.getColumn("OTHER")).containsSame(other);
+        assertThat(store.getColumn("missing")).isEmpty();
+        assertThat(store.getColumn(null)).isEmpty();
+
+        // the first matching column in column order wins
+        store.addPrimaryKeyColumn("NAME");
+        assertThat(store.getColumn("Name")).containsSame(undelimited);
+    }
+
+    private static IntrospectedColumn column(String name, String jdbcTypeName, boolean delimited) {
+        IntrospectedColumn column = new IntrospectedColumn();
+        column.setActualColumnName(name);
+        column.setJdbcTypeName(jdbcTypeName);
+        column.setColumnNameDelimited(delimited);
+        return column;
+    }
+}
@@ -17,8 +17,12 @@ package org.mybatis.generator.api;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.IOException;
+import java.io.StringWriter;
+
 import org.junit.jupiter.api.Test;
 import org.mybatis.generator.api.dom.DefaultJavaFormatter;
+import org.mybatis.generator.api.dom.java.CompilationUnit;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.api.dom.java.Interface;
 
@@ -46,4 +50,58 @@ class GeneratedJavaFileTest {
         assertThat(gjf.getFileName()).isEqualTo("TestInterface.java");
         assertThat(gjf.getTargetPackage()).isEqualTo("org.mybatis.test");
     }
+
+    @Test
+    void testStreamingMatchesFormattedContent() throws IOException {
+        Interface ifc = new Interface(new FullyQualifiedJavaType("org.mybatis.test.TestInterface"));
+        GeneratedJavaFile gjf = new GeneratedJavaFile(ifc, "src", new DefaultJavaFormatter());
+
+        assertThat(formatTo(gjf)).isEqualTo(gjf.getFormattedContent());
+    }
+
+    @Test
+    void testSubclassedFormatterVisit() throws IOException {
+        Interface ifc = new Interface(new FullyQualifiedJavaType("org.mybatis.test.TestInterface"));
+        JavaFormatter jf = new DefaultJavaFormatter() {
+            @Override
+            public String visit(Interface topLevelInterface) {
+                return "// custom" + System.lineSeparator() + super.visit(topLevelInterface);
+            }
+        };
+        GeneratedJavaFile gjf = new GeneratedJavaFile(ifc, "src", jf);
+
+        assertThat(formatTo(gjf)).startsWith("// custom").isEqualTo(gjf.getFormattedContent());
+    }
+
+    @Test
+    void testSubclassedFormatterContent() throws IOException {
+        Interface ifc = new Interface(new FullyQualifiedJavaType("org.mybatis.test.TestInterface"));
+        JavaFormatter jf = new DefaultJavaFormatter() {
+            @Override
+            public String getFormattedContent(CompilationUnit compilationUnit) {
+                return "custom";
+            }
+        };
+
+        assertThat(formatTo(new GeneratedJavaFile(ifc, "src", jf))).isEqualTo("custom");
+    }
+
+    @Test
+    void testSubclassedGeneratedFile() throws IOException {
+        Interface ifc = new Interface(new FullyQualifiedJavaType("org.mybatis.test.TestInterface"));
+        GeneratedJavaFile gjf = new GeneratedJavaFile(ifc, "src", new DefaultJavaFormatter()) {
+            @Override
+            public String getFormattedContent() {
+                return "custom";
+            }
+        };
+
+        assertThat(formatTo(gjf)).isEqualTo("custom");
+    }
+
+    private String formatTo(GeneratedFile generatedFile) throws IOException {
+        StringWriter writer = new StringWriter();
+        generatedFile.formatTo(writer);
+        return writer.toString();
+    }
 }
@@ -0,0 +1,62 @@
+/*
+ *    Copyright 2006-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+import org.mybatis.generator.api.dom.DefaultXmlFormatter;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+
+class GeneratedXmlFileTest {
+
+    @Test
+    void testStreamingMatchesFormattedContent() throws IOException {
+        GeneratedXmlFile gxf = new GeneratedXmlFile(document(), "TestMapper.xml", "org.mybatis.test", "src", true,
+                new DefaultXmlFormatter());
+
+        assertThat(formatTo(gxf)).isEqualTo(gxf.getFormattedContent());
+    }
+
+    @Test
+    void testSubclassedFormatter() throws IOException {
+        XmlFormatter xf = new DefaultXmlFormatter() {
+            @Override
+            public String getFormattedContent(Document document) {
+                return "<!-- custom -->" + System.lineSeparator() + super.getFormattedContent(document);
+            }
+        };
+        GeneratedXmlFile gxf = new GeneratedXmlFile(document(), "TestMapper.xml", "org.mybatis.test", "src", true, xf);
+
+        assertThat(formatTo(gxf)).startsWith("<!-- custom -->").isEqualTo(gxf.getFormattedContent());
+    }
+
+    private Document document() {
+        Document document = new Document();
+        document.setRootElement(new XmlElement("mapper"));
+        return document;
+    }
+
+    private String formatTo(GeneratedFile generatedFile) throws IOException {
+        StringWriter writer = new StringWriter();
+        generatedFile.formatTo(writer);
+        return writer.toString();
+    }
+}
@@ -17,6 +17,7 @@ package org.mybatis.generator.api.dom.java;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
@@ -270,4 +271,44 @@ class FullyQualifiedJavaTypeTest {
         assertTrue(fqjt.getImportList().contains("java.util.List"));
         assertFalse(fqjt.getImportList().contains("java.util.List[]"));
     }
+
+    @Test
+    void testParsedInstance() {
+        FullyQualifiedJavaType fqjt = FullyQualifiedJavaType.getInstance("com.foo.Bar");
+        assertNotSame(fqjt, FullyQualifiedJavaType.getInstance("com.foo.Bar"));
+        assertEquals(new FullyQualifiedJavaType("com.foo.Bar"), fqjt);
+        assertEquals("Bar", fqjt.getShortName());
+        assertEquals("com.foo.Bar", fqjt.getImportList().get(0));
+        assertEquals(FullyQualifiedJavaType.getStringInstance(), FullyQualifiedJavaType.getInstance("java.lang.String"));
+    }
+
+    @Test
+    void testTypeArgumentsOnParsedInstance() {
+        FullyQualifiedJavaType fqjt = FullyQualifiedJavaType.getInstance("com.foo.Bar");
+        fqjt.addTypeArgument(FullyQualifiedJavaType.getInstance("com.foo.Baz"));
+        assertEquals("com.foo.Bar<com.foo.Baz>", fqjt.getFullyQualifiedName());
+        assertEquals("Bar<Baz>", fqjt.getShortName());
+        assertEquals(2, fqjt.getImportList().size());
+
+        FullyQualifiedJavaType other = FullyQualifiedJavaType.getInstance("com.foo.Bar");
+        assertEquals("com.foo.Bar", other.getFullyQualifiedName());
+        assertEquals(1, other.getImportList().size());
+    }
+
+    @Test
+    void testTypeArgumentsOnSingleton() {
+        FullyQualifiedJavaType fqjt = FullyQualifiedJavaType.getObjectInstance();
+        fqjt.getTypeArguments().add(FullyQualifiedJavaType.getStringInstance());
+        assertEquals("Object<String>", fqjt.getShortName());
+        assertEquals("java.lang.Object", FullyQualifiedJavaType.getObjectInstance().getFullyQualifiedName());
+    }
+
+    @Test
+    void testParameterizedInstanceIsNotShared() {
+        FullyQualifiedJavaType fqjt = FullyQualifiedJavaType.getInstance("java.util.List<com.foo.Bar>");
+        assertNotSame(fqjt, FullyQualifiedJavaType.getInstance("java.util.List<com.foo.Bar>"));
+
+        fqjt.addTypeArgument(FullyQualifiedJavaType.getStringInstance());
+        assertEquals("java.util.List<com.foo.Bar, java.lang.String>", fqjt.getFullyQualifiedName());
+    }
 }
@@ -129,4 +129,16 @@ class JavaDomUtilsTest {
         assertEquals("BigDecimal[]",
                 JavaDomUtils.calculateTypeName(interfaze, fqjt));
     }
+
+    @Test
+    void testImportsAddedAndRemovedThroughImportedTypes() {
+        TopLevelClass topLevelClass = new TopLevelClass(new FullyQualifiedJavaType("com.foo.User"));
+        FullyQualifiedJavaType fqjt = new FullyQualifiedJavaType("java.math.BigDecimal");
+
+        topLevelClass.getImportedTypes().add(fqjt);
+        assertEquals("BigDecimal", JavaDomUtils.calculateTypeName(topLevelClass, fqjt));
+
+        topLevelClass.getImportedTypes().remove(fqjt);
+        assertEquals("java.math.BigDecimal", JavaDomUtils.calculateTypeName(topLevelClass, fqjt));
+    }
 }
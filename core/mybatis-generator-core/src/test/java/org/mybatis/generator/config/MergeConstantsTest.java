@@ -0,0 +1,47 @@
+/*
+ *    Copyright 2006-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class MergeConstantsTest {
+
+    @Test
+    void testIdStartsWithPrefix() {
+        assertTrue(MergeConstants.idStartsWithPrefix("ibatorgenerated_select"));
+        assertTrue(MergeConstants.idStartsWithPrefix("abatorgenerated_"));
+        assertFalse(MergeConstants.idStartsWithPrefix("batorgenerated_select"));
+        assertFalse(MergeConstants.idStartsWithPrefix("xbatorgenerated_select"));
+        assertFalse(MergeConstants.idStartsWithPrefix("ibatorgenerated"));
+        assertFalse(MergeConstants.idStartsWithPrefix("selectByPrimaryKey"));
+        assertFalse(MergeConstants.idStartsWithPrefix(""));
+    }
+
+    @Test
+    void testCommentContainsTag() {
+        for (String tag : MergeConstants.getOldElementTags()) {
+            assertTrue(MergeConstants.commentContainsTag(tag));
+            assertTrue(MergeConstants.commentContainsTag("\n  WARNING - " + tag + "\n  more text"));
+            assertTrue(MergeConstants.commentContainsTag("mail me@example.com - @@" + tag.substring(1)));
+        }
+        assertFalse(MergeConstants.commentContainsTag(""));
+        assertFalse(MergeConstants.commentContainsTag("custom statement"));
+        assertFalse(MergeConstants.commentContainsTag("@mbg.generate"));
+        assertFalse(MergeConstants.commentContainsTag("mbg.generated @"));
+    }
+}
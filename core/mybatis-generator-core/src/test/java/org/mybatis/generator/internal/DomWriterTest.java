@@ -0,0 +1,107 @@
+/*
+ *    Copyright 2006-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Comment;
+import org.w3c.dom.Document;
+import org.w3c.dom.NamedNodeMap;
+import org.xml.sax.InputSource;
+
+class DomWriterTest {
+
+    @Test
+    void testWriteDocument() throws Exception {
+        Document document = parse("<mapper namespace=\"a&amp;b\" id=\"x\"><!--comment-->"
+                + "<select id=\"s\">a &lt; b</select><sql id=\"e\"/></mapper>");
+
+        String expected = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + System.lineSeparator()
+                + "<mapper id=\"x\" namespace=\"a&amp;b\"><!--comment-->"
+                + "<select id=\"s\">a &lt; b</select><sql id=\"e\" /></mapper>";
+        assertEquals(expected, new DomWriter().toString(document));
+    }
+
+    @Test
+    void testSharedInstance() throws Exception {
+        DomWriter domWriter = new DomWriter();
+        List<String> sources = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            sources.add("<mapper namespace=\"m" + i + "\"><sql id=\"s" + i + "\">column</sql></mapper>");
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (String source : sources) {
+                // a DOM is not thread safe, so each document is parsed and written by the same thread
+                results.add(executor.submit(() -> domWriter.toString(parse(source))));
+            }
+
+            for (int i = 0; i < sources.size(); i++) {
+                assertEquals(domWriter.toString(parse(sources.get(i))), results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testSubclassHooks() throws Exception {
+        DomWriter domWriter = new DomWriter() {
+            @Override
+            protected Attr[] sortAttributes(NamedNodeMap attrs) {
+                Attr[] answer = super.sortAttributes(attrs);
+                Collections.reverse(Arrays.asList(answer));
+                return answer;
+            }
+
+            @Override
+            protected void normalizeAndPrint(char c, boolean isAttValue) {
+                printWriter.print(c == 'b' ? 'B' : c);
+            }
+
+            @Override
+            protected void write(Comment node) {
+                printWriter.print("<!-- replaced -->");
+            }
+        };
+
+        String expected = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + System.lineSeparator()
+                + "<mapper namespace=\"aB\" id=\"x\"><!-- replaced --><select id=\"s\">aB</select></mapper>";
+        Document document = parse("<mapper namespace=\"ab\" id=\"x\"><!--comment--><select id=\"s\">ab</select>"
+                + "</mapper>");
+        assertEquals(expected, domWriter.toString(document));
+        assertEquals(expected, domWriter.toString(document));
+    }
+
+    private static Document parse(String xml) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new InputSource(new StringReader(xml)));
+    }
+}
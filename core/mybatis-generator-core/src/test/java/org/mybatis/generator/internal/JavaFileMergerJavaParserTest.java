@@ -0,0 +1,218 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mybatis.generator.config.MergeConstants;
+import org.mybatis.generator.exception.ShellException;
+
+class JavaFileMergerJavaParserTest {
+
+    private static final String GENERATED_JAVADOC = "    /**\n     * @mbg.generated\n     */\n";
+
+    @Test
+    void testThatFilesAreTheSameAfterMerge() throws Exception {
+        String newSource = "package foo;\n\n"
+                + "import java.util.List;\n\n"
+                + "public class Bar implements Baz {\n"
+                + GENERATED_JAVADOC
+                + "    private List<String> names;\n\n"
+                + GENERATED_JAVADOC
+                + "    public List<String> getNames() {\n"
+                + "        return names;\n"
+                + "    }\n"
+                + "}\n";
+
+        assertEquals(newSource, merge(newSource, newSource));
+    }
+
+    @Test
+    void testThatCustomContentIsKeptExactly() throws Exception {
+        String custom = "\r\n    // custom field\r\n    private  int counter = 0;  // trailing\r\n\r\n"
+                + "    /** Custom javadoc. */\r\n"
+                + "    public int next() { return ++counter; }\r\n";
+        String existingSource = "/* license */\r\n"
+                + "package foo;\r\n\r\n"
+                + "import java.util.List;\r\n"
+                + "import java.util.Map;\r\n\r\n"
+                + "public class Bar extends OldBase implements Baz {\r\n"
+                + "    /**\r\n     * @mbggenerated\r\n     */\r\n"
+                + "    private List<String> oldNames;\r\n"
+                + custom
+                + "}\r\n";
+
+        String newSource = "package foo;\n\n"
+                + "import java.io.Serializable;\n"
+                + "import java.util.List;\n\n"
+                + "public class Bar extends Base implements Serializable {\n"
+                + GENERATED_JAVADOC
+                + "    private List<String> names;\n"
+                + "}\n";
+
+        String expected = "/* license */\r\n"
+                + "package foo;\r\n\r\n"
+                + "import java.util.List;\r\n"
+                + "import java.util.Map;\n"
+                + "import java.io.Serializable;\r\n\r\n"
+                + "public class Bar extends Base implements Baz, Serializable {\n"
+                + GENERATED_JAVADOC
+                + "    private List<String> names;\r\n"
+                + custom
+                + "}\r\n";
+
+        assertEquals(expected, merge(newSource, existingSource));
+    }
+
+    @Test
+    void testThatGeneratedAnnotationsMarkGeneratedMembers() throws Exception {
+        String existingSource = "package foo;\n\n"
+                + "public interface BarMapper {\n"
+                + "    @Generated(\"org.mybatis.generator.api.MyBatisGenerator\")\n"
+                + "    int delete(int id);\n\n"
+                + "    @Generated(value=\"org.mybatis.generator.api.MyBatisGenerator\", date=\"2021-01-01\")\n"
+                + "    int insert(Bar row);\n\n"
+                + "    @Generated(\"some.other.Generator\")\n"
+                + "    int count();\n"
+                + "}\n";
+
+        String newSource = "package foo;\n\n"
+                + "public interface BarMapper {\n"
+                + "    @Generated(\"org.mybatis.generator.api.MyBatisGenerator\")\n"
+                + "    int insert(Bar row);\n"
+                + "}\n";
+
+        String expected = "package foo;\n\n"
+                + "public interface BarMapper {\n"
+                + "    @Generated(\"org.mybatis.generator.api.MyBatisGenerator\")\n"
+                + "    int insert(Bar row);\n\n"
+                + "    @Generated(\"some.other.Generator\")\n"
+                + "    int count();\n"
+                + "}\n";
+
+        assertEquals(expected, merge(newSource, existingSource));
+    }
+
+    @Test
+    void testThatAddedAnnotationsAreKept() throws Exception {
+        String existingSource = "package foo;\n\n"
+                + "public class Bar {\n"
+                + GENERATED_JAVADOC
+                + "    @Deprecated\n"
+                + "    @Override\n"
+                + "    public String toString() {\n"
+                + "        return \"old\";\n"
+                + "    }\n"
+                + "}\n";
+
+        String newSource = "package foo;\n\n"
+                + "public class Bar {\n"
+                + GENERATED_JAVADOC
+                + "    @Override\n"
+                + "    public String toString() {\n"
+                + "        return \"new\";\n"
+                + "    }\n"
+                + "}\n";
+
+        String expected = "package foo;\n\n"
+                + "public class Bar {\n"
+                + GENERATED_JAVADOC
+                + "    @Deprecated\n"
+                + "    @Override\n"
+                + "    public String toString() {\n"
+                + "        return \"new\";\n"
+                + "    }\n"
+                + "}\n";
+
+        assertEquals(expected, merge(newSource, existingSource));
+    }
+
+    @Test
+    void testThatMarkedInnerClassesAreKept() throws Exception {
+        String criteria = "    /**\n     * @mbg.generated do_not_delete_during_merge\n     */\n"
+                + "    public static class Criteria {\n"
+                + "        public Criteria custom() { return this; }\n"
+                + "    }\n";
+        String existingSource = "package foo;\n\n"
+                + "public class BarExample {\n"
+                + GENERATED_JAVADOC
+                + "    protected String orderByClause;\n\n"
+                + criteria
+                + "}\n";
+
+        String newSource = "package foo;\n\n"
+                + "public class BarExample {\n"
+                + GENERATED_JAVADOC
+                + "    protected boolean distinct;\n\n"
+                + criteria.replace("        public Criteria custom() { return this; }\n", "")
+                + "}\n";
+
+        String expected = "package foo;\n\n"
+                + "public class BarExample {\n"
+                + GENERATED_JAVADOC
+                + "    protected boolean distinct;\n\n"
+                + criteria
+                + "}\n";
+
+        assertEquals(expected, merge(newSource, existingSource));
+    }
+
+    @Test
+    void testThatKindAndImportsAreMergedIntoFileWithoutImports() throws Exception {
+        String existingSource = "package foo;\n\n"
+                + "public class Bar<T> {\n"
+                + "}\n";
+
+        String newSource = "package foo;\n\n"
+                + "import java.util.List;\n\n"
+                + "public interface Bar<T> extends Baz {\n"
+                + "}\n";
+
+        String expected = "package foo;\n\n"
+                + "import java.util.List;\n\n"
+                + "public interface Bar<T> extends Baz {\n"
+                + "}\n";
+
+        assertEquals(expected, merge(newSource, existingSource));
+    }
+
+    @Test
+    void testThatInvalidFilesAreNotMerged(@TempDir Path tempDir) throws Exception {
+        String newSource = "package foo;\n\npublic class Bar {\n}\n";
+
+        assertThrows(ShellException.class, () -> merge(newSource, "package foo;\n\npublic class Bar {\n"));
+        assertThrows(ShellException.class, () -> merge(newSource, "package foo;\n\npublic enum Bar {\n}\n"));
+
+        Path file = tempDir.resolve("Bar.java");
+        Files.write(file, "package foo;\n\npublic class Bar {\n    int custom;\n}\n".getBytes(StandardCharsets.UTF_8));
+        assertEquals("package foo;\n\npublic class Bar {\n    int custom;\n}\n",
+                JavaFileMergerJavaParser.getMergedSource(newSource, file.toFile(),
+                        MergeConstants.getOldElementTags(), "UTF-8"));
+        assertThrows(ShellException.class, () -> JavaFileMergerJavaParser.getMergedSource(newSource,
+                tempDir.resolve("Missing.java").toFile(), MergeConstants.getOldElementTags(), "UTF-8"));
+    }
+
+    private String merge(String newSource, String existingSource) throws ShellException {
+        return JavaFileMergerJavaParser.getMergedSource(newSource, existingSource, "Bar.java",
+                MergeConstants.getOldElementTags());
+    }
+}
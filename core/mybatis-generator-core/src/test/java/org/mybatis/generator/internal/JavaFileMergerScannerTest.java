@@ -0,0 +1,124 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mybatis.generator.config.MergeConstants;
+import org.mybatis.generator.exception.ShellException;
+
+class JavaFileMergerScannerTest {
+
+    private static final String GENERATED_JAVADOC = "    /**\n     * @mbg.generated\n     */\n";
+
+    private static final String NEW_SOURCE = "package foo;\n\n"
+            + "import java.util.List;\n\n"
+            + "public class Bar implements Baz {\n"
+            + GENERATED_JAVADOC
+            + "    private List<String> names = new ArrayList<>() {{ add(\"}\"); }};\n\n"
+            + GENERATED_JAVADOC
+            + "    @Override\n"
+            + "    public String toString() {\n"
+            + "        return \"{\" + names + '}'; // }\n"
+            + "    }\n"
+            + "}\n";
+
+    @Test
+    void testThatCustomContentIsAllowed() throws Exception {
+        String existingSource = "package foo;\n\n"
+                + "import java.util.List;\n"
+                + "import java.util.Map;\n\n"
+                + "/** Custom. */\n"
+                + "public class Bar implements Baz {\n"
+                + GENERATED_JAVADOC
+                + "    private List<String> names = new ArrayList<>() {{ add(\"}\"); }};\n\n"
+                + GENERATED_JAVADOC
+                + "    @Override\n"
+                + "    public String toString() {\n"
+                + "        return \"{\" + names + '}'; // }\n"
+                + "    }\n\n"
+                + "    // custom\n"
+                + "    private Map<String, String> custom;\n"
+                + "}\n";
+
+        assertUpToDate(NEW_SOURCE, NEW_SOURCE);
+        assertUpToDate(NEW_SOURCE, existingSource);
+    }
+
+    @Test
+    void testThatChangedGeneratedContentIsMerged() throws Exception {
+        assertNotUpToDate(NEW_SOURCE, NEW_SOURCE.replace("\"{\"", "\"[\""));
+        assertNotUpToDate(NEW_SOURCE, NEW_SOURCE.replace("import java.util.List;\n", ""));
+        // a custom field between generated members
+        assertNotUpToDate(NEW_SOURCE, NEW_SOURCE.replace("\n\n" + GENERATED_JAVADOC,
+                "\n\n    int custom;\n\n" + GENERATED_JAVADOC));
+        // a comment the merge would not delete with the member
+        assertNotUpToDate(NEW_SOURCE, NEW_SOURCE.replace("{\n" + GENERATED_JAVADOC,
+                "{\n    // custom\n" + GENERATED_JAVADOC));
+        // an old generated member after the custom content
+        assertNotUpToDate(NEW_SOURCE, NEW_SOURCE.replace("\n}\n",
+                "\n\n" + GENERATED_JAVADOC + "    private int removed;\n}\n"));
+    }
+
+    @Test
+    void testThatUnsupportedFilesAreMerged() {
+        String[] tags = MergeConstants.getOldElementTags();
+        assertFalse(JavaFileMergerScanner.hasGeneratedContent(NEW_SOURCE.replace(GENERATED_JAVADOC, ""),
+                NEW_SOURCE.replace(GENERATED_JAVADOC, ""), tags));
+        assertFalse(JavaFileMergerScanner.hasGeneratedContent(NEW_SOURCE,
+                NEW_SOURCE + "\nclass Other {\n}\n", tags));
+        // the merge would keep the added interface and annotation, but the scan only compares the text
+        assertFalse(JavaFileMergerScanner.hasGeneratedContent(NEW_SOURCE,
+                NEW_SOURCE.replace("implements Baz", "implements Baz, Serializable"), tags));
+        assertFalse(JavaFileMergerScanner.hasGeneratedContent(NEW_SOURCE,
+                NEW_SOURCE.replace("    @Override", "    @Deprecated\n    @Override"), tags));
+        assertFalse(JavaFileMergerScanner.hasGeneratedContent(NEW_SOURCE,
+                NEW_SOURCE.replace("\"}\"", "\"\\u007d\""), tags));
+        assertFalse(JavaFileMergerScanner.hasGeneratedContent(NEW_SOURCE,
+                NEW_SOURCE.substring(0, NEW_SOURCE.length() - 2), tags));
+    }
+
+    @Test
+    void testThatExistingFileIsRead(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("Bar.java");
+        Files.write(file, NEW_SOURCE.getBytes(StandardCharsets.UTF_8));
+        assertTrue(JavaFileMergerScanner.hasGeneratedContent(NEW_SOURCE, file.toFile(),
+                MergeConstants.getOldElementTags(), "UTF-8"));
+        assertFalse(JavaFileMergerScanner.hasGeneratedContent(NEW_SOURCE, tempDir.resolve("Missing.java").toFile(),
+                MergeConstants.getOldElementTags(), "UTF-8"));
+    }
+
+    private void assertUpToDate(String newSource, String existingSource) throws ShellException {
+        assertTrue(JavaFileMergerScanner.hasGeneratedContent(newSource, existingSource,
+                MergeConstants.getOldElementTags()));
+        // the merge agrees
+        assertEquals(existingSource, JavaFileMergerJavaParser.getMergedSource(newSource, existingSource, "Bar.java",
+                MergeConstants.getOldElementTags()));
+    }
+
+    private void assertNotUpToDate(String newSource, String existingSource) throws ShellException {
+        assertFalse(JavaFileMergerScanner.hasGeneratedContent(newSource, existingSource,
+                MergeConstants.getOldElementTags()));
+        assertNotEquals(existingSource, JavaFileMergerJavaParser.getMergedSource(newSource, existingSource,
+                "Bar.java", MergeConstants.getOldElementTags()));
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mybatis.generator.api.CommentGenerator;
+import org.mybatis.generator.api.dom.DefaultXmlFormatter;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.XmlConstants;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.exception.ShellException;
+
+class XmlFileMergerStreamingTest {
+
+    private static final String PROLOG = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n"
+            + "<!DOCTYPE mapper PUBLIC \"" + XmlConstants.MYBATIS3_MAPPER_PUBLIC_ID + "\" \""
+            + XmlConstants.MYBATIS3_MAPPER_SYSTEM_ID + "\">\r\n";
+
+    @Test
+    void testThatFilesAreTheSameAfterMerge() throws Exception {
+        String newContent = new DefaultXmlFormatter().getFormattedContent(getMapperDocument());
+
+        String mergedSource = merge(newContent, newContent);
+
+        assertEquals(newContent, mergedSource);
+    }
+
+    @Test
+    void testThatOldElementsAreDeleted() throws Exception {
+        XmlElement root = new XmlElement("mapper");
+        root.addElement(select("abatorgenerated_select"));
+        root.addElement(select("ibatorgenerated_select"));
+        root.addElement(select("oldway1", new TextElement("<!-- @ibatorgenerated -->")));
+        root.addElement(select("oldway2", new TextElement("<!-- @abatorgenerated -->")));
+        root.addElement(select("oldway3", new TextElement("<!-- @mbggenerated -->")));
+        root.addElement(select("oldway4", new TextElement(""), new TextElement("<!-- @mbg.generated -->")));
+        root.addElement(select("customSelect"));
+        String existingContent = new DefaultXmlFormatter().getFormattedContent(document(root));
+
+        root = new XmlElement("mapper");
+        root.addElement(select("newway", new TextElement("<!-- @mbg.generated -->")));
+        String newContent = new DefaultXmlFormatter().getFormattedContent(document(root));
+
+        root = new XmlElement("mapper");
+        root.addElement(select("newway", new TextElement("<!-- @mbg.generated -->")));
+        root.addElement(select("customSelect"));
+        String expectedContent = new DefaultXmlFormatter().getFormattedContent(document(root));
+
+        assertEquals(expectedContent, merge(newContent, existingContent));
+    }
+
+    @Test
+    void testThatCustomContentIsCopiedExactly() throws Exception {
+        String custom = "\r\n  <!-- custom statements -->\r\n"
+                + "  <select resultType='int'  id=\"selectCustom\">\r\n"
+                + "    select foo from bar where foo &lt; 22 <![CDATA[ and foo > 1 ]]>\r\n"
+                + "    <!-- not generated, although it mentions @mbg.generated -->\r\n"
+                + "    <if test=\"foo != '>'\"><include refid=\"Base_Column_List\"/></if>\r\n"
+                + "  </select>\r\n"
+                + "  <?custom instruction?>\r\n";
+        String existingContent = PROLOG
+                + "<mapper namespace=\"old.Namespace\">\r\n"
+                + "  <select id=\"oldGenerated\">\r\n"
+                + "    <!-- @mbg.generated -->\r\n"
+                + "    select <if test=\"a\">a</if>\r\n"
+                + "  </select>"
+                + custom
+                + "</mapper>\r\n"
+                + "<!-- trailing comment -->\r\n";
+
+        XmlElement root = new XmlElement("mapper");
+        root.addAttribute(new Attribute("namespace", "new.Namespace"));
+        root.addElement(select("newGenerated", new TextElement("<!-- @mbg.generated -->")));
+        String newContent = new DefaultXmlFormatter().getFormattedContent(document(root));
+
+        String lineSeparator = System.getProperty("line.separator");
+        String expectedContent = PROLOG
+                + "<mapper namespace=\"new.Namespace\">" + lineSeparator
+                + "  <select id=\"newGenerated\">" + lineSeparator
+                + "    <!-- @mbg.generated -->" + lineSeparator
+                + "  </select>"
+                + custom
+                + "</mapper>\r\n"
+                + "<!-- trailing comment -->\r\n";
+
+        assertEquals(expectedContent, merge(newContent, existingContent));
+    }
+
+    @Test
+    void testThatEmptyRootElementIsMerged() throws Exception {
+        XmlElement root = new XmlElement("mapper");
+        root.addElement(select("newGenerated", new TextElement("<!-- @mbg.generated -->")));
+        String newContent = new DefaultXmlFormatter().getFormattedContent(document(root));
+
+        String mergedSource = merge(newContent, PROLOG + "<mapper/>");
+
+        assertEquals(PROLOG, mergedSource.substring(0, PROLOG.length()));
+        assertTrue(mergedSource.endsWith("</select>" + System.getProperty("line.separator") + "</mapper>"));
+    }
+
+    @Test
+    void testThatDifferentDocTypeIsNotMerged() {
+        String newContent = new DefaultXmlFormatter().getFormattedContent(getMapperDocument());
+        String existingContent = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<!DOCTYPE sqlMap PUBLIC \"-//ibatis.apache.org//DTD SQL Map 2.0//EN\" "
+                + "\"http://ibatis.apache.org/dtd/sql-map-2.dtd\">\n"
+                + "<sqlMap namespace=\"foo\" />\n";
+
+        assertThrows(ShellException.class, () -> merge(newContent, existingContent));
+    }
+
+    @Test
+    void testThatMalformedFileIsNotMerged() {
+        String newContent = new DefaultXmlFormatter().getFormattedContent(getMapperDocument());
+        String existingContent = PROLOG + "<mapper>\n  <select id=\"foo\">\n  </insert>\n</mapper>\n";
+
+        assertThrows(ShellException.class, () -> merge(newContent, existingContent));
+        assertThrows(ShellException.class, () -> merge(newContent, PROLOG + "<mapper>\n  <select id=\"foo\">"));
+    }
+
+    @Test
+    void testThatFileIsReplacedOnlyIfMerged(@TempDir Path tempDir) throws Exception {
+        String newContent = new DefaultXmlFormatter().getFormattedContent(getMapperDocument());
+        Path file = tempDir.resolve("TestMapper.xml");
+
+        String malformedContent = PROLOG + "<mapper>\n  <select id=\"foo\">";
+        Files.write(file, malformedContent.getBytes(StandardCharsets.UTF_8));
+        assertThrows(ShellException.class, () -> XmlFileMergerStreaming.mergeInto(newContent, file.toFile()));
+        assertEquals(malformedContent, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+
+        Files.write(file, newContent.getBytes(StandardCharsets.UTF_8));
+        XmlFileMergerStreaming.mergeInto(newContent, file.toFile());
+        assertEquals(newContent, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testThatMatchingGeneratedContentIsDetected(@TempDir Path tempDir) throws Exception {
+        String newContent = new DefaultXmlFormatter().getFormattedContent(getMapperDocument());
+        Path file = tempDir.resolve("TestMapper.xml");
+
+        Files.write(file, newContent.getBytes(StandardCharsets.UTF_8));
+        assertTrue(XmlFileMergerStreaming.hasGeneratedContent(newContent, file.toFile()));
+
+        // custom content may be anywhere
+        int end = newContent.indexOf("  <select");
+        String existingContent = newContent.substring(0, end)
+                + "  <!-- custom -->\r\n  <select id=\"selectCustom\" />\r\n"
+                + newContent.substring(end);
+        Files.write(file, existingContent.getBytes(StandardCharsets.UTF_8));
+        assertTrue(XmlFileMergerStreaming.hasGeneratedContent(newContent, file.toFile()));
+
+        // a changed generated element
+        existingContent = newContent.replace("values (#{id}", "values (#{id2}");
+        Files.write(file, existingContent.getBytes(StandardCharsets.UTF_8));
+        assertFalse(XmlFileMergerStreaming.hasGeneratedContent(newContent, file.toFile()));
+
+        // a missing generated element
+        existingContent = newContent.substring(0, end) + newContent.substring(newContent.indexOf("</mapper>"));
+        Files.write(file, existingContent.getBytes(StandardCharsets.UTF_8));
+        assertFalse(XmlFileMergerStreaming.hasGeneratedContent(newContent, file.toFile()));
+
+        // a changed root element
+        existingContent = newContent.replace("namespace=\"", "namespace=\"old.");
+        Files.write(file, existingContent.getBytes(StandardCharsets.UTF_8));
+        assertFalse(XmlFileMergerStreaming.hasGeneratedContent(newContent, file.toFile()));
+    }
+
+    @Test
+    void testThatNewContentWithCustomElementsIsAlwaysMerged(@TempDir Path tempDir) throws Exception {
+        XmlElement root = new XmlElement("mapper");
+        root.addElement(select("newGenerated", new TextElement("<!-- @mbg.generated -->")));
+        root.addElement(select("notMarked"));
+        String newContent = new DefaultXmlFormatter().getFormattedContent(document(root));
+        Path file = tempDir.resolve("TestMapper.xml");
+        Files.write(file, newContent.getBytes(StandardCharsets.UTF_8));
+
+        assertFalse(XmlFileMergerStreaming.hasGeneratedContent(newContent, file.toFile()));
+    }
+
+    private String merge(String newContent, String existingContent) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        XmlFileMergerStreaming.merge(newContent, new StringReader(existingContent), "TestMapper.xml", sb);
+        return sb.toString();
+    }
+
+    private Document getMapperDocument() {
+        Properties p = new Properties();
+        p.setProperty(PropertyRegistry.COMMENT_GENERATOR_SUPPRESS_DATE, "true");
+        CommentGenerator commentGenerator = new DefaultCommentGenerator();
+        commentGenerator.addConfigurationProperties(p);
+
+        XmlElement root = new XmlElement("mapper");
+        root.addAttribute(new Attribute("namespace", "org.mybatis.test.TestMapper"));
+        commentGenerator.addRootComment(root);
+
+        XmlElement insert = new XmlElement("insert");
+        insert.addAttribute(new Attribute("id", "insert"));
+        insert.addAttribute(new Attribute("parameterType", "org.mybatis.test.TestRecord"));
+        commentGenerator.addComment(insert);
+        insert.addElement(new TextElement("insert into myschema.mytable (id, description)"));
+        insert.addElement(new TextElement("values (#{id}, #{description})"));
+        root.addElement(insert);
+
+        XmlElement select = new XmlElement("select");
+        select.addAttribute(new Attribute("id", "selectWithCdata"));
+        commentGenerator.addComment(select);
+        select.addElement(new TextElement("select foo from bar where foo <![CDATA[ < ]]> 22"));
+        root.addElement(select);
+
+        return document(root);
+    }
+
+    private Document document(XmlElement root) {
+        Document document = new Document(XmlConstants.MYBATIS3_MAPPER_PUBLIC_ID,
+                XmlConstants.MYBATIS3_MAPPER_SYSTEM_ID);
+        document.setRootElement(root);
+        return document;
+    }
+
+    private XmlElement select(String id, TextElement... children) {
+        XmlElement element = new XmlElement("select");
+        element.addAttribute(new Attribute("id", id));
+        for (TextElement child : children) {
+            element.addElement(child);
+        }
+        return element;
+    }
+}
@@ -17,10 +17,16 @@ package org.mybatis.generator.internal;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Properties;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mybatis.generator.api.CommentGenerator;
 import org.mybatis.generator.api.GeneratedXmlFile;
 import org.mybatis.generator.api.dom.DefaultXmlFormatter;
@@ -32,6 +38,7 @@ import org.mybatis.generator.api.dom.xml.XmlElement;
 import org.mybatis.generator.codegen.XmlConstants;
 import org.mybatis.generator.config.PropertyRegistry;
 import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
 
 /**
  * This test is related to issue #87 where XML files are slightly different
@@ -149,6 +156,122 @@ class XmlFileMergerTest {
         assertEquals(expectedGeneratedFile.getFormattedContent(), mergedSource);
     }
 
+    @Test
+    void testThatDocumentMergeMatchesContentMerge() throws Exception {
+        Properties p = new Properties();
+        p.setProperty(PropertyRegistry.COMMENT_GENERATOR_SUPPRESS_DATE, "true");
+        CommentGenerator commentGenerator = new DefaultCommentGenerator();
+        commentGenerator.addConfigurationProperties(p);
+
+        Document document = new Document(XmlConstants.MYBATIS3_MAPPER_PUBLIC_ID,
+                XmlConstants.MYBATIS3_MAPPER_SYSTEM_ID);
+        XmlElement root = getSqlMapElement(commentGenerator);
+        document.setRootElement(root);
+
+        XmlElement element = new XmlElement("select");
+        element.addAttribute(new Attribute("id", "selectWithReferences"));
+        element.addAttribute(new Attribute("resultType", "a&amp;b&#10;c\td&#x41;"));
+        commentGenerator.addComment(element);
+        element.addElement(new TextElement("select foo from bar where foo &lt; 22 &amp;&amp; foo &gt; &#49;"));
+        element.addElement(new TextElement("<!-- a comment\r\nwith a carriage return -->"));
+        element.addElement(new TextElement("<include refid=\"Base_Column_List\" />"));
+        element.addElement(new TextElement("<if test=\"foo != null\">"));
+        element.addElement(new XmlElement("bind"));
+        element.addElement(new TextElement("</if>"));
+        root.addElement(element);
+
+        String newContent = new DefaultXmlFormatter().getFormattedContent(document);
+        String existingContent = new DefaultXmlFormatter().getFormattedContent(document);
+
+        String expected = XmlFileMergerJaxp.getMergedSource(new InputSource(new StringReader(newContent)),
+                new InputSource(new StringReader(existingContent)), "TestMapper.xml");
+        String mergedSource = XmlFileMergerJaxp.getMergedSource(document,
+                new InputSource(new StringReader(existingContent)), "TestMapper.xml");
+
+        assertEquals(expected, mergedSource);
+    }
+
+    @Test
+    void testThatUnchangedFileIsNotMerged(@TempDir Path tempDir) throws Exception {
+        Properties p = new Properties();
+        p.setProperty(PropertyRegistry.COMMENT_GENERATOR_SUPPRESS_DATE, "true");
+        CommentGenerator commentGenerator = new DefaultCommentGenerator();
+        commentGenerator.addConfigurationProperties(p);
+
+        Document document = new Document(XmlConstants.MYBATIS3_MAPPER_PUBLIC_ID,
+                XmlConstants.MYBATIS3_MAPPER_SYSTEM_ID);
+        document.setRootElement(getSqlMapElement(commentGenerator));
+        GeneratedXmlFile generatedFile = new GeneratedXmlFile(document, "TestMapper.xml", "org.mybatis.test", "src",
+                true, new DefaultXmlFormatter());
+        String content = generatedFile.getFormattedContent();
+        int end = content.lastIndexOf("</mapper>");
+        File existingFile = tempDir.resolve("TestMapper.xml").toFile();
+
+        // custom elements and their formatting do not matter
+        writeFile(existingFile, content.substring(0, end)
+                + "  <select id=\"selectCustom\"   resultType=\"int\">\r\n    select 1\r\n  </select>\r\n"
+                + content.substring(end));
+        assertNull(XmlFileMergerJaxp.getMergedSourceIfChanged(generatedFile, existingFile));
+
+        writeFile(existingFile, content.replace("myschema.mytable", "myschema.othertable"));
+        assertEquals(XmlFileMergerJaxp.getMergedSource(generatedFile, existingFile),
+                XmlFileMergerJaxp.getMergedSourceIfChanged(generatedFile, existingFile));
+
+        writeFile(existingFile, content.replace("org.mybatis.test.TestMapper", "org.mybatis.test.OtherMapper"));
+        assertNotNull(XmlFileMergerJaxp.getMergedSourceIfChanged(generatedFile, existingFile));
+    }
+
+    private static void writeFile(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testThatMalformedDocumentIsNotMerged() throws Exception {
+        Document document = new Document(XmlConstants.MYBATIS3_MAPPER_PUBLIC_ID,
+                XmlConstants.MYBATIS3_MAPPER_SYSTEM_ID);
+        XmlElement root = new XmlElement("mapper");
+        document.setRootElement(root);
+        String existingContent = new DefaultXmlFormatter().getFormattedContent(document);
+
+        XmlElement element = new XmlElement("select");
+        element.addAttribute(new Attribute("id", "selectWithBadComment"));
+        element.addElement(new TextElement("<!-- a -- comment -->"));
+        root.addElement(element);
+
+        assertThrows(SAXException.class, () -> XmlFileMergerJaxp.getMergedSource(document,
+                new InputSource(new StringReader(existingContent)), "TestMapper.xml"));
+    }
+
+    @Test
+    void testThatOnlyLeadingCommentsMarkGeneratedElements() throws Exception {
+        Document existingDocument = new Document(XmlConstants.MYBATIS3_MAPPER_PUBLIC_ID,
+                XmlConstants.MYBATIS3_MAPPER_SYSTEM_ID);
+        XmlElement root = new XmlElement("mapper");
+        existingDocument.setRootElement(root);
+        XmlElement element = new XmlElement("select");
+        element.addAttribute(new Attribute("id", "customSelect"));
+        element.addElement(new TextElement("select 1"));
+        element.addElement(new TextElement("<!-- copied from an @mbg.generated select -->"));
+        root.addElement(element);
+        element = new XmlElement("select");
+        element.addAttribute(new Attribute("id", "oldGenerated"));
+        element.addElement(new TextElement(""));
+        element.addElement(new TextElement("<!-- @mbg.generated -->"));
+        root.addElement(element);
+        String existingContent = new DefaultXmlFormatter().getFormattedContent(existingDocument);
+
+        Document newDocument = new Document(XmlConstants.MYBATIS3_MAPPER_PUBLIC_ID,
+                XmlConstants.MYBATIS3_MAPPER_SYSTEM_ID);
+        newDocument.setRootElement(new XmlElement("mapper"));
+        String newContent = new DefaultXmlFormatter().getFormattedContent(newDocument);
+
+        String mergedSource = XmlFileMergerJaxp.getMergedSource(new InputSource(new StringReader(newContent)),
+                new InputSource(new StringReader(existingContent)), "TestMapper.xml");
+
+        assertTrue(mergedSource.contains("customSelect"));
+        assertFalse(mergedSource.contains("oldGenerated"));
+    }
+
     private XmlElement getSqlMapElement(CommentGenerator commentGenerator) {
 
         XmlElement answer = new XmlElement("mapper");
@@ -0,0 +1,68 @@
+/*
+ *    Copyright 2006-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mybatis.generator.config.IgnoredColumn;
+
+class ColumnNameIndexTest {
+
+    @Test
+    void testUndelimitedNamesIgnoreCase() {
+        IgnoredColumn ic = new IgnoredColumn("first_name");
+        ColumnNameIndex<IgnoredColumn> index = new ColumnNameIndex<>(Arrays.asList(ic),
+                IgnoredColumn::getColumnName, IgnoredColumn::isColumnNameDelimited);
+
+        assertSame(ic, index.getFirst("FIRST_NAME"));
+        assertSame(ic, index.getFirst("first_name"));
+        assertNull(index.getFirst("last_name"));
+        assertNull(index.getFirst(null));
+    }
+
+    @Test
+    void testDelimitedNamesMatchExactly() {
+        IgnoredColumn ic = new IgnoredColumn("First Name");
+        ic.setColumnNameDelimited(true);
+        ColumnNameIndex<IgnoredColumn> index = new ColumnNameIndex<>(Arrays.asList(ic),
+                IgnoredColumn::getColumnName, IgnoredColumn::isColumnNameDelimited);
+
+        assertSame(ic, index.getFirst("First Name"));
+        assertNull(index.getFirst("FIRST NAME"));
+    }
+
+    @Test
+    void testFirstMatchWins() {
+        IgnoredColumn undelimited = new IgnoredColumn("id");
+        IgnoredColumn delimited = new IgnoredColumn("ID");
+        delimited.setColumnNameDelimited(true);
+        IgnoredColumn duplicate = new IgnoredColumn("Id");
+        ColumnNameIndex<IgnoredColumn> index = new ColumnNameIndex<>(Arrays.asList(undelimited, delimited, duplicate),
+                IgnoredColumn::getColumnName, IgnoredColumn::isColumnNameDelimited);
+
+        assertSame(undelimited, index.getFirst("ID"));
+
+        List<IgnoredColumn> all = index.getAll("ID");
+        assertEquals(3, all.size());
+        assertTrue(all.containsAll(Arrays.asList(undelimited, delimited, duplicate)));
+        assertEquals(2, index.getAll("id").size());
+        assertTrue(index.getAll(null).isEmpty());
+    }
+}
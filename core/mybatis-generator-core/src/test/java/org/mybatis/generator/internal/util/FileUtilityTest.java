@@ -0,0 +1,135 @@
+/*
+ *    Copyright 2006-2020 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileUtilityTest {
+
+    @Test
+    void testWriteReplacesFile(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("Test.java");
+        Files.write(file, "old content that is longer".getBytes(StandardCharsets.UTF_8));
+
+        ByteBuffer content = FileUtility.encode("new content", "UTF-8");
+        FileUtility.write(file, content);
+
+        assertEquals("new content", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        assertEquals(0, content.position());
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testWriteKeepsSymbolicLink(@TempDir Path tempDir) throws Exception {
+        Path target = tempDir.resolve("target").resolve("Test.java");
+        Files.createDirectories(target.getParent());
+        Files.write(target, "old content".getBytes(StandardCharsets.UTF_8));
+        Path link = tempDir.resolve("Test.java");
+        try {
+            Files.createSymbolicLink(link, target);
+        } catch (UnsupportedOperationException | IOException e) {
+            assumeTrue(false, "symbolic links are not supported");
+        }
+
+        FileUtility.write(link, FileUtility.encode("new content", "UTF-8"));
+
+        assertTrue(Files.isSymbolicLink(link));
+        assertEquals("new content", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+        try (Stream<Path> files = Files.list(target.getParent())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testWriteKeepsPermissions(@TempDir Path tempDir) throws Exception {
+        assumeTrue(Files.getFileAttributeView(tempDir, PosixFileAttributeView.class) != null);
+
+        Path file = tempDir.resolve("Test.java");
+        Files.write(file, "old content".getBytes(StandardCharsets.UTF_8));
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+        Files.setPosixFilePermissions(file, permissions);
+
+        FileUtility.write(file, "UTF-8", writer -> writer.write("new content"));
+
+        assertEquals(permissions, Files.getPosixFilePermissions(file));
+    }
+
+    @Test
+    void testEncoding() {
+        ByteBuffer content = FileUtility.encode("é", "ISO-8859-1");
+        assertEquals(1, content.remaining());
+        assertEquals((byte) 0xe9, content.get(0));
+    }
+
+    @Test
+    void testHasContent(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("Test.xml");
+        ByteBuffer content = FileUtility.encode("<mapper/>", "UTF-8");
+
+        assertFalse(FileUtility.hasContent(file, content));
+
+        FileUtility.write(file, content);
+        assertTrue(FileUtility.hasContent(file, content));
+        assertFalse(FileUtility.hasContent(file, FileUtility.encode("<mapper />", "UTF-8")));
+    }
+
+    @Test
+    void testStreamingWriteMatchesEncodedContent(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("Test.java");
+        Files.write(file, "old content that is longer".getBytes(StandardCharsets.UTF_8));
+
+        String content = "caf\u00e9 \u4e2d";
+        FileUtility.write(file, "ISO-8859-1", writer -> writer.write(content));
+
+        assertTrue(FileUtility.hasContent(file, FileUtility.encode(content, "ISO-8859-1")));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testFailedStreamingWriteKeepsFile(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("Test.xml");
+        Files.write(file, "<mapper/>".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IOException.class, () -> FileUtility.write(file, "UTF-8", writer -> {
+            writer.write("<mapper>");
+            throw new IOException("failed");
+        }));
+
+        assertTrue(FileUtility.hasContent(file, FileUtility.encode("<mapper/>", "UTF-8")));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+}
@@ -44,4 +44,12 @@ class StringUtilityTest {
         String answer = StringUtility.composeFullyQualifiedTableName(null, null, "table", '.');
         assertEquals("table", answer);
     }
+
+    @Test
+    void testIgnoreCaseKey() {
+        assertEquals(StringUtility.ignoreCaseKey("Column_Name"), StringUtility.ignoreCaseKey("COLUMN_name"));
+        assertNotEquals(StringUtility.ignoreCaseKey("column1"), StringUtility.ignoreCaseKey("column2"));
+        // equalsIgnoreCase treats the dotted and dotless i as equal to I
+        assertEquals(StringUtility.ignoreCaseKey("\u0131d"), StringUtility.ignoreCaseKey("ID"));
+    }
 }
@@ -19,8 +19,15 @@ import org.assertj.core.api.Assertions.assertThat
 import org.junit.jupiter.api.Test
 import org.mybatis.generator.api.dom.java.Field
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType
+import org.mybatis.generator.api.dom.java.InitializationBlock
+import org.mybatis.generator.api.dom.java.InnerClass
+import org.mybatis.generator.api.dom.java.InnerEnum
+import org.mybatis.generator.api.dom.java.InnerInterface
 import org.mybatis.generator.api.dom.java.JavaVisibility
+import org.mybatis.generator.api.dom.java.Method
+import org.mybatis.generator.api.dom.java.Parameter
 import org.mybatis.generator.api.dom.java.TopLevelClass
+import org.mybatis.generator.api.dom.java.TypeParameter
 
 class TopLevelClassRendererTest {
 
@@ -46,4 +53,209 @@ class TopLevelClassRendererTest {
                 |}
                 """.trimMargin())
     }
+
+    /*
+     * The expected source is the output of the renderers before they were changed to stream into an Appendable,
+     * including their quirks (the double space before extends, the indentation of switch labels).
+     */
+    @Test
+    fun testAllElements() {
+        val topLevelClass = TopLevelClass("com.example.Widget")
+        topLevelClass.addFileCommentLine("/* file comment */")
+        topLevelClass.addStaticImport("java.util.Objects.requireNonNull")
+        topLevelClass.addImportedType(FullyQualifiedJavaType("java.util.List"))
+        topLevelClass.addImportedType(FullyQualifiedJavaType("java.io.Serializable"))
+        topLevelClass.addJavaDocLine("/**")
+        topLevelClass.addJavaDocLine(" * A widget.")
+        topLevelClass.addJavaDocLine(" */")
+        topLevelClass.addAnnotation("@Deprecated")
+        topLevelClass.visibility = JavaVisibility.PUBLIC
+        topLevelClass.isAbstract = true
+        topLevelClass.addTypeParameter(TypeParameter("T"))
+        topLevelClass.setSuperClass(FullyQualifiedJavaType("com.example.Base"))
+        topLevelClass.addSuperInterface(FullyQualifiedJavaType("java.io.Serializable"))
+
+        val names = Field("NAMES", FullyQualifiedJavaType("java.util.List<java.lang.String>"))
+        names.visibility = JavaVisibility.PRIVATE
+        names.isStatic = true
+        names.isFinal = true
+        names.setInitializationString("List.of(\"a\", \"b\")")
+        topLevelClass.addField(names)
+
+        val count = Field("count", FullyQualifiedJavaType.getIntInstance())
+        count.visibility = JavaVisibility.PROTECTED
+        count.isVolatile = true
+        count.addJavaDocLine("/** the count */")
+        topLevelClass.addField(count)
+
+        val block = InitializationBlock(true)
+        block.addBodyLine("if (NAMES.isEmpty()) {")
+        block.addBodyLine("throw new IllegalStateException();")
+        block.addBodyLine("}")
+        topLevelClass.addInitializationBlock(block)
+
+        val constructor = Method("Widget")
+        constructor.isConstructor = true
+        constructor.visibility = JavaVisibility.PUBLIC
+        constructor.addParameter(Parameter(FullyQualifiedJavaType.getIntInstance(), "count"))
+        constructor.addBodyLine("this.count = count;")
+        topLevelClass.addMethod(constructor)
+
+        val find = Method("find")
+        find.visibility = JavaVisibility.PUBLIC
+        find.addAnnotation("@Override")
+        find.addTypeParameter(TypeParameter("R"))
+        find.setReturnType(FullyQualifiedJavaType("java.util.List<R>"))
+        find.addParameter(Parameter(FullyQualifiedJavaType("java.lang.String"), "name"))
+        find.addException(FullyQualifiedJavaType("java.io.IOException"))
+        find.addBodyLine("requireNonNull(name);")
+        find.addBodyLine("switch (count) {")
+        find.addBodyLine("case 0:")
+        find.addBodyLine("return null;")
+        find.addBodyLine("default:")
+        find.addBodyLine("for (String s : NAMES) {")
+        find.addBodyLine("count++;")
+        find.addBodyLine("}")
+        find.addBodyLine("return List.of();")
+        find.addBodyLine("}")
+        topLevelClass.addMethod(find)
+
+        val size = Method("size")
+        size.visibility = JavaVisibility.PROTECTED
+        size.isAbstract = true
+        size.setReturnType(FullyQualifiedJavaType.getIntInstance())
+        topLevelClass.addMethod(size)
+
+        val builder = InnerClass("Builder")
+        builder.visibility = JavaVisibility.PUBLIC
+        builder.isStatic = true
+        builder.isFinal = true
+        val builderCount = Field("count", FullyQualifiedJavaType.getIntInstance())
+        builderCount.visibility = JavaVisibility.PRIVATE
+        builder.addField(builderCount)
+        val withCount = Method("withCount")
+        withCount.visibility = JavaVisibility.PUBLIC
+        withCount.setReturnType(FullyQualifiedJavaType("Builder"))
+        withCount.addParameter(Parameter(FullyQualifiedJavaType.getIntInstance(), "count"))
+        withCount.addBodyLine("this.count = count;")
+        withCount.addBodyLine("return this;")
+        builder.addMethod(withCount)
+
+        val state = InnerEnum("State")
+        state.visibility = JavaVisibility.PUBLIC
+        state.addEnumConstant("NEW(\"n\")")
+        state.addEnumConstant("DONE(\"d\")")
+        val code = Field("code", FullyQualifiedJavaType.getStringInstance())
+        code.visibility = JavaVisibility.PRIVATE
+        code.isFinal = true
+        state.addField(code)
+        val stateConstructor = Method("State")
+        stateConstructor.isConstructor = true
+        stateConstructor.addParameter(Parameter(FullyQualifiedJavaType.getStringInstance(), "code"))
+        stateConstructor.addBodyLine("this.code = code;")
+        state.addMethod(stateConstructor)
+        builder.addInnerEnum(state)
+
+        val listener = InnerInterface("Listener")
+        listener.visibility = JavaVisibility.PUBLIC
+        val changed = Method("changed")
+        changed.isAbstract = true
+        changed.addParameter(Parameter(FullyQualifiedJavaType("Widget"), "widget"))
+        listener.addMethod(changed)
+        val closed = Method("closed")
+        closed.isDefault = true
+        closed.addBodyLine("changed(null);")
+        listener.addMethod(closed)
+        builder.addInnerInterface(listener)
+
+        topLevelClass.addInnerClass(builder)
+
+        val empty = InnerClass("Empty")
+        empty.visibility = JavaVisibility.PRIVATE
+        topLevelClass.addInnerClass(empty)
+
+        val expected = """
+                |/* file comment */
+                |package com.example;
+                |
+                |import static java.util.Objects.requireNonNull;
+                |
+                |import java.io.Serializable;
+                |import java.util.List;
+                |
+                |/**
+                | * A widget.
+                | */
+                |@Deprecated
+                |public abstract class Widget<T>  extends Base implements Serializable {
+                |    private static final List<String> NAMES = List.of("a", "b");
+                |
+                |    /** the count */
+                |    protected volatile int count;
+                |
+                |    static {
+                |        if (NAMES.isEmpty()) {
+                |            throw new IllegalStateException();
+                |        }
+                |    }
+                |
+                |    public Widget(int count) {
+                |        this.count = count;
+                |    }
+                |
+                |    @Override
+                |    public <R> List<R> find(String name) throws java.io.IOException {
+                |        requireNonNull(name);
+                |        switch (count) {
+                |        case 0:
+                |            return null;
+                |            default:
+                |                for (String s : NAMES) {
+                |                    count++;
+                |                }
+                |                return List.of();
+                |            }
+                |    }
+                |
+                |    protected abstract int size();
+                |
+                |    public static final class Builder {
+                |        private int count;
+                |
+                |        public Builder withCount(int count) {
+                |            this.count = count;
+                |            return this;
+                |        }
+                |
+                |        public interface Listener {
+                |            void changed(Widget widget);
+                |
+                |            default void closed() {
+                |                changed(null);
+                |            }
+                |        }
+                |
+                |        public enum State {
+                |            NEW("n"),
+                |            DONE("d");
+                |
+                |            private final String code;
+                |
+                |            State(String code) {
+                |                this.code = code;
+                |            }
+                |        }
+                |    }
+                |
+                |    private class Empty {
+                |    }
+                |}
+                """.trimMargin()
+
+        assertThat(TopLevelClassRenderer().render(topLevelClass)).isEqualToNormalizingNewlines(expected)
+
+        val out = StringBuilder()
+        TopLevelClassRenderer().render(topLevelClass, out)
+        assertThat(out.toString()).isEqualToNormalizingNewlines(expected)
+    }
 }
@@ -0,0 +1,83 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api.dom.java.render
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType
+import org.mybatis.generator.api.dom.java.InitializationBlock
+import org.mybatis.generator.api.dom.java.InnerClass
+import org.mybatis.generator.api.dom.java.JavaVisibility
+import org.mybatis.generator.api.dom.java.Method
+import org.mybatis.generator.api.dom.java.TopLevelEnumeration
+
+class TopLevelEnumerationRendererTest {
+
+    /*
+     * The expected source is the output of the renderers before they were changed to stream into an Appendable.
+     */
+    @Test
+    fun testAllElements() {
+        val topLevelEnumeration = TopLevelEnumeration("com.example.Color")
+        topLevelEnumeration.addImportedType(FullyQualifiedJavaType("java.util.Locale"))
+        topLevelEnumeration.visibility = JavaVisibility.PUBLIC
+        topLevelEnumeration.addSuperInterface(FullyQualifiedJavaType("java.util.function.Supplier<java.lang.String>"))
+        topLevelEnumeration.addEnumConstant("RED")
+        topLevelEnumeration.addEnumConstant("GREEN")
+
+        val block = InitializationBlock(false)
+        block.addBodyLine("Locale.getDefault();")
+        topLevelEnumeration.addInitializationBlock(block)
+
+        val get = Method("get")
+        get.visibility = JavaVisibility.PUBLIC
+        get.setReturnType(FullyQualifiedJavaType.getStringInstance())
+        get.addBodyLine("return name().toLowerCase(Locale.ROOT);")
+        topLevelEnumeration.addMethod(get)
+
+        val holder = InnerClass("Holder")
+        holder.isStatic = true
+        topLevelEnumeration.addInnerClass(holder)
+
+        val expected = """
+                |package com.example;
+                |
+                |import java.util.Locale;
+                |
+                |public enum Color implements java.util.function.Supplier<String> {
+                |    RED,
+                |    GREEN;
+                |
+                |    {
+                |        Locale.getDefault();
+                |    }
+                |
+                |    public String get() {
+                |        return name().toLowerCase(Locale.ROOT);
+                |    }
+                |
+                |    static class Holder {
+                |    }
+                |}
+                """.trimMargin()
+
+        assertThat(TopLevelEnumerationRenderer().render(topLevelEnumeration)).isEqualToNormalizingNewlines(expected)
+
+        val out = StringBuilder()
+        TopLevelEnumerationRenderer().render(topLevelEnumeration, out)
+        assertThat(out.toString()).isEqualToNormalizingNewlines(expected)
+    }
+}
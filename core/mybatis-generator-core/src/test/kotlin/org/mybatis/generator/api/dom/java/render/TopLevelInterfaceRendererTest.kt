@@ -0,0 +1,111 @@
+/*
+ *    Copyright 2006-2021 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api.dom.java.render
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.mybatis.generator.api.dom.java.Field
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType
+import org.mybatis.generator.api.dom.java.InnerEnum
+import org.mybatis.generator.api.dom.java.InnerInterface
+import org.mybatis.generator.api.dom.java.Interface
+import org.mybatis.generator.api.dom.java.JavaVisibility
+import org.mybatis.generator.api.dom.java.Method
+
+class TopLevelInterfaceRendererTest {
+
+    /*
+     * The expected source is the output of the renderers before they were changed to stream into an Appendable.
+     */
+    @Test
+    fun testAllElements() {
+        val topLevelInterface = Interface("com.example.WidgetMapper")
+        topLevelInterface.addFileCommentLine("// mapper")
+        topLevelInterface.addImportedType(FullyQualifiedJavaType("java.util.List"))
+        topLevelInterface.addStaticImport("java.util.Collections.emptyList")
+        topLevelInterface.visibility = JavaVisibility.PUBLIC
+        topLevelInterface.addSuperInterface(FullyQualifiedJavaType("com.example.BaseMapper<com.example.Widget>"))
+        topLevelInterface.addAnnotation("@Mapper")
+
+        val table = Field("TABLE", FullyQualifiedJavaType.getStringInstance())
+        table.setInitializationString("\"widget\"")
+        topLevelInterface.addField(table)
+
+        val select = Method("select")
+        select.isAbstract = true
+        select.setReturnType(FullyQualifiedJavaType("java.util.List<com.example.Widget>"))
+        select.addAnnotation("@Select(\"select * from widget\")")
+        topLevelInterface.addMethod(select)
+
+        val none = Method("none")
+        none.isDefault = true
+        none.setReturnType(FullyQualifiedJavaType("java.util.List<com.example.Widget>"))
+        none.addBodyLine("return emptyList();")
+        topLevelInterface.addMethod(none)
+
+        val of = Method("of")
+        of.isStatic = true
+        of.setReturnType(FullyQualifiedJavaType.getIntInstance())
+        of.addBodyLine("return 0;")
+        topLevelInterface.addMethod(of)
+
+        topLevelInterface.addInnerInterface(InnerInterface("Nested"))
+
+        val kind = InnerEnum("Kind")
+        kind.addEnumConstant("A")
+        kind.addEnumConstant("B")
+        topLevelInterface.addInnerEnum(kind)
+
+        val expected = """
+                |// mapper
+                |package com.example;
+                |
+                |import static java.util.Collections.emptyList;
+                |
+                |import java.util.List;
+                |
+                |@Mapper
+                |public interface WidgetMapper extends BaseMapper<Widget> {
+                |    String TABLE = "widget";
+                |
+                |    @Select("select * from widget")
+                |    List<Widget> select();
+                |
+                |    default List<Widget> none() {
+                |        return emptyList();
+                |    }
+                |
+                |    static int of() {
+                |        return 0;
+                |    }
+                |
+                |    interface Nested {
+                |    }
+                |
+                |    enum Kind {
+                |        A,
+                |        B;
+                |    }
+                |}
+                """.trimMargin()
+
+        assertThat(TopLevelInterfaceRenderer().render(topLevelInterface)).isEqualToNormalizingNewlines(expected)
+
+        val out = StringBuilder()
+        TopLevelInterfaceRenderer().render(topLevelInterface, out)
+        assertThat(out.toString()).isEqualToNormalizingNewlines(expected)
+    }
+}
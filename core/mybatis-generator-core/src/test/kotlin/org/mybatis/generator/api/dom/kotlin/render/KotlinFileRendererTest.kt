@@ -18,6 +18,10 @@ package org.mybatis.generator.api.dom.kotlin.render
 import org.assertj.core.api.Assertions.assertThat
 import org.junit.jupiter.api.Test
 import org.mybatis.generator.api.dom.kotlin.KotlinFile
+import org.mybatis.generator.api.dom.kotlin.KotlinFunction
+import org.mybatis.generator.api.dom.kotlin.KotlinProperty
+import org.mybatis.generator.api.dom.kotlin.KotlinType
+import java.io.StringWriter
 
 class KotlinFileRendererTest {
 
@@ -157,4 +161,48 @@ class KotlinFileRendererTest {
         assertThat(renderedKf).isEqualTo("")
         assertThat(kf.fileName).isEqualTo("TestFile.kt")
     }
+
+    @Test
+    fun testWithNamedItemsToWriter() {
+        val kf = KotlinFile("Person")
+        kf.setPackage("com.foo")
+        kf.addImport("java.util.Date")
+        kf.addNamedItem(KotlinType.newClass("Person")
+                .withConstructorProperty(KotlinProperty.newVal("id").withDataType("Int").build())
+                .withConstructorProperty(KotlinProperty.newVal("birthDate").withDataType("Date?").build())
+                .withNamedItem(KotlinFunction.newMultiLineFunction("greet")
+                        .withCodeLine("println(\"hi\")")
+                        .withCodeLine("")
+                        .withCodeLine("println(id)")
+                        .build())
+                .withNamedItem(KotlinProperty.newVar("nickName").withDataType("String?")
+                        .withInitializationString("null").build())
+                .build())
+        kf.addNamedItem(KotlinProperty.newVal("defaultId").withInitializationString("0").build())
+
+        val writer = StringWriter()
+        KotlinFileRenderer().render(kf, writer)
+
+        assertThat(writer.toString()).isEqualToNormalizingNewlines("""
+                |package com.foo
+                |
+                |import java.util.Date
+                |
+                |class Person(
+                |    val id: Int,
+                |    val birthDate: Date?
+                |) {
+                |    fun greet() {
+                |        println("hi")
+                |
+                |        println(id)
+                |    }
+                |
+                |    var nickName: String? = null
+                |}
+                |
+                |val defaultId = 0
+                """.trimMargin())
+        assertThat(KotlinFileRenderer().render(kf)).isEqualTo(writer.toString())
+    }
 }
@@ -31,7 +31,11 @@ public class MavenShellCallback extends DefaultShellCallback {
     private MyBatisGeneratorMojo mybatisGeneratorMojo;
 
     public MavenShellCallback(MyBatisGeneratorMojo mybatisGeneratorMojo, boolean overwrite) {
-        super(overwrite);
+        this(mybatisGeneratorMojo, overwrite, false);
+    }
+
+    public MavenShellCallback(MyBatisGeneratorMojo mybatisGeneratorMojo, boolean overwrite, boolean mergeJava) {
+        super(overwrite, mergeJava);
         this.mybatisGeneratorMojo = mybatisGeneratorMojo;
     }
 
@@ -139,6 +139,56 @@ public class MyBatisGeneratorMojo extends AbstractMojo {
     @Parameter(property = "mybatis.generator.skip", defaultValue = "false")
     private boolean skip;
 
+    /**
+     * If true, then the contexts in the configuration will be run concurrently.
+     */
+    @Parameter(property = "mybatis.generator.parallelContexts", defaultValue = "false")
+    private boolean parallelContexts;
+
+    /**
+     * If true, then any introspection cache configured on the contexts will be rebuilt from the database.
+     */
+    @Parameter(property = "mybatis.generator.invalidateIntrospectionCache", defaultValue = "false")
+    private boolean invalidateIntrospectionCache;
+
+    /**
+     * If specified, then incremental generation is enabled with this manifest file.
+     */
+    @Parameter(property = "mybatis.generator.incrementalManifest")
+    private File incrementalManifest;
+
+    /**
+     * If true, then introspection, generation, and saving will overlap in each context.
+     */
+    @Parameter(property = "mybatis.generator.pipelined", defaultValue = "false")
+    private boolean pipelined;
+
+    /**
+     * The number of threads used to save generated files.
+     */
+    @Parameter(property = "mybatis.generator.writeThreads", defaultValue = "1")
+    private int writeThreads;
+
+    /**
+     * The number of threads used to merge generated files into existing files.
+     */
+    @Parameter(property = "mybatis.generator.mergeThreads", defaultValue = "1")
+    private int mergeThreads;
+
+    /**
+     * If true, then existing XML files will be merged in a single pass that keeps everything except the generated
+     * elements exactly as it is.
+     */
+    @Parameter(property = "mybatis.generator.streamingXmlMerge", defaultValue = "false")
+    private boolean streamingXmlMerge;
+
+    /**
+     * If true, then generated Java files will be merged into existing Java files, and only the generated members of
+     * the existing files will be replaced.
+     */
+    @Parameter(property = "mybatis.generator.mergeJava", defaultValue = "false")
+    private boolean mergeJava;
+
     /**
      * If true, then dependencies in scope compile, provided, and system scopes will be
      * added to the classpath of the generator.  These dependencies will be searched for
@@ -221,10 +271,17 @@ public class MyBatisGeneratorMojo extends AbstractMojo {
                     project.getProperties(), warnings);
             Configuration config = cp.parseConfiguration(configurationFile);
 
-            ShellCallback callback = new MavenShellCallback(this, overwrite);
+            ShellCallback callback = new MavenShellCallback(this, overwrite, mergeJava);
 
             MyBatisGenerator myBatisGenerator = new MyBatisGenerator(config,
                     callback, warnings);
+            myBatisGenerator.setParallelContexts(parallelContexts);
+            myBatisGenerator.setInvalidateIntrospectionCache(invalidateIntrospectionCache);
+            myBatisGenerator.setIncrementalManifest(incrementalManifest);
+            myBatisGenerator.setPipelined(pipelined);
+            myBatisGenerator.setWriteThreads(writeThreads);
+            myBatisGenerator.setMergeThreads(mergeThreads);
+            myBatisGenerator.setStreamingXmlMerge(streamingXmlMerge);
 
             myBatisGenerator.generate(new MavenProgressCallback(getLog(),
                     verbose), contextsToRun, fullyqualifiedTables);